@@ -24,12 +24,23 @@
  ******************************************************************************/
 package org.eclipse.basyx.aas.aggregator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+import org.eclipse.basyx.aas.aggregator.snapshot.AASAggregatorSnapshot;
 import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
 import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
 import org.eclipse.basyx.aas.registration.api.IAASRegistry;
@@ -40,22 +51,59 @@ import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
 import org.eclipse.basyx.aas.restapi.vab.VABAASAPIFactory;
 import org.eclipse.basyx.submodel.aggregator.SubmodelAggregatorFactory;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregatorFactory;
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
 import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
+import org.eclipse.basyx.vab.support.StripedLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * An implementation of the IAASAggregator interface using maps internally
+ * An implementation of the IAASAggregator interface using maps internally. <br>
+ * It can be accessed concurrently. Modifications of the same AAS are
+ * serialized, while reading accesses do not lock. <br>
+ * Its content can be written to an {@link AASAggregatorSnapshot} and loaded
+ * from it again. AAS loaded from a snapshot are only decoded on first access.
+ * <br>
+ * The AAS are listed in the order they have been created in.
  *
  * @author conradi, schnicke
  *
  */
 public class AASAggregator implements IAASAggregator {
+	private static Logger logger = LoggerFactory.getLogger(AASAggregator.class);
 
-	protected Map<String, MultiSubmodelProvider> aasProviderMap = new LinkedHashMap<>();
+	protected Map<String, MultiSubmodelProvider> aasProviderMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Ids of the AAS by their position in the AAS list, since the provider map
+	 * does not keep the order of creation
+	 */
+	private final ConcurrentSkipListMap<Long, String> aasIdsByPosition = new ConcurrentSkipListMap<>();
+	private final Map<String, Long> positions = new ConcurrentHashMap<>();
+	private final AtomicLong nextPosition = new AtomicLong();
+
+	/**
+	 * Snapshot containing the AAS that have been loaded, but not accessed yet
+	 */
+	private volatile AASAggregatorSnapshot snapshot;
+
+	/**
+	 * Ids of the AAS that are contained in the snapshot and have neither been
+	 * accessed nor been replaced yet
+	 */
+	private final Set<String> snapshotAASIds = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Locks serializing the modifications of an AAS, by AAS id
+	 */
+	private final StripedLock aasLocks = new StripedLock();
 
 	protected IAASRegistry registry;
 
@@ -112,7 +160,8 @@ public class AASAggregator implements IAASAggregator {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Collection<IAssetAdministrationShell> getAASList() {
-		return aasProviderMap.values().stream().map(p -> {
+		snapshotAASIds.forEach(this::materialize);
+		return aasIdsByPosition.values().stream().map(aasProviderMap::get).filter(Objects::nonNull).map(p -> {
 			try {
 				return p.getValue("/aas");
 			} catch (Exception e1) {
@@ -140,19 +189,40 @@ public class AASAggregator implements IAASAggregator {
 
 	@Override
 	public void createAAS(AssetAdministrationShell aas) {
-		aasProviderMap.put(aas.getIdentification().getId(), createMultiSubmodelProvider(aas));
+		String aasId = aas.getIdentification().getId();
+		MultiSubmodelProvider provider = createMultiSubmodelProvider(aas);
+
+		Lock lock = aasLocks.get(aasId);
+		lock.lock();
+		try {
+			snapshotAASIds.remove(aasId);
+			aasProviderMap.put(aasId, provider);
+			addPosition(aasId);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public void updateAAS(AssetAdministrationShell aas) {
-		MultiSubmodelProvider oldProvider = (MultiSubmodelProvider) getAASProvider(aas.getIdentification());
-		IAASAPI aasApi = aasApiFactory.create(aas);
-		AASModelProvider contentProvider = new AASModelProvider(aasApi);
-		IConnectorFactory connectorFactory = oldProvider.getConnectorFactory();
+		String aasId = aas.getIdentification().getId();
 
-		MultiSubmodelProvider updatedProvider = new MultiSubmodelProvider(contentProvider, registry, connectorFactory, aasApiFactory, oldProvider.getSmAggregator());
+		// The old provider must not be replaced or removed until the updated provider
+		// is stored
+		Lock lock = aasLocks.get(aasId);
+		lock.lock();
+		try {
+			MultiSubmodelProvider oldProvider = (MultiSubmodelProvider) getAASProvider(aas.getIdentification());
+			IAASAPI aasApi = aasApiFactory.create(aas);
+			AASModelProvider contentProvider = new AASModelProvider(aasApi);
+			IConnectorFactory connectorFactory = oldProvider.getConnectorFactory();
 
-		aasProviderMap.put(aas.getIdentification().getId(), updatedProvider);
+			MultiSubmodelProvider updatedProvider = new MultiSubmodelProvider(contentProvider, registry, connectorFactory, aasApiFactory, oldProvider.getSmAggregator());
+
+			aasProviderMap.put(aasId, updatedProvider);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	private MultiSubmodelProvider createMultiSubmodelProvider(AssetAdministrationShell aas) {
@@ -164,12 +234,47 @@ public class AASAggregator implements IAASAggregator {
 
 	@Override
 	public void deleteAAS(IIdentifier aasId) {
-		aasProviderMap.remove(aasId.getId());
+		Lock lock = aasLocks.get(aasId.getId());
+		lock.lock();
+		try {
+			snapshotAASIds.remove(aasId.getId());
+			aasProviderMap.remove(aasId.getId());
+			removePosition(aasId.getId());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends an AAS to the end of the AAS list, if it is not contained yet. Has to
+	 * be called while holding the lock of the AAS.
+	 */
+	private void addPosition(String aasId) {
+		positions.computeIfAbsent(aasId, id -> {
+			long position = nextPosition.getAndIncrement();
+			aasIdsByPosition.put(position, id);
+			return position;
+		});
+	}
+
+	/**
+	 * Removes an AAS from the AAS list. Has to be called while holding the lock of
+	 * the AAS.
+	 */
+	private void removePosition(String aasId) {
+		Long position = positions.remove(aasId);
+		if (position != null) {
+			aasIdsByPosition.remove(position);
+		}
 	}
 
 	@Override
 	public IModelProvider getAASProvider(IIdentifier aasId) {
 		MultiSubmodelProvider provider = aasProviderMap.get(aasId.getId());
+		if (provider == null && snapshot != null) {
+			// The AAS may still have to be decoded from the snapshot
+			provider = materialize(aasId.getId());
+		}
 
 		if (provider == null) {
 			throw new ResourceNotFoundException("AAS with Id " + aasId.getId() + " does not exist");
@@ -177,4 +282,113 @@ public class AASAggregator implements IAASAggregator {
 		return provider;
 	}
 
+	/**
+	 * Loads the content of a snapshot written by {@link #writeSnapshot(String)}.
+	 * Only the index of the snapshot is read, the contained AAS are decoded on
+	 * first access. AAS with the same id that are already contained in this
+	 * aggregator are not replaced.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 *             if the snapshot can not be read
+	 */
+	public void loadSnapshot(String file) throws IOException {
+		AASAggregatorSnapshot loaded = AASAggregatorSnapshot.open(file);
+
+		// AAS that have not been accessed from a previous snapshot are decoded, since
+		// they are only referenced by it
+		snapshotAASIds.forEach(this::materialize);
+
+		snapshot = loaded;
+		for (String aasId : loaded.getAASIds()) {
+			// The AAS keep their order in the snapshot, even though they are decoded in any
+			// order
+			Lock lock = aasLocks.get(aasId);
+			lock.lock();
+			try {
+				if (!aasProviderMap.containsKey(aasId)) {
+					snapshotAASIds.add(aasId);
+					addPosition(aasId);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		logger.info("Loaded snapshot " + file + " containing " + loaded.getAASIds().size() + " AAS");
+	}
+
+	/**
+	 * Writes the AAS of this aggregator and their local submodels to a snapshot.
+	 * AAS that have been loaded from a snapshot and not been accessed since are
+	 * copied without decoding them.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 *             if the snapshot can not be written
+	 */
+	public void writeSnapshot(String file) throws IOException {
+		Set<String> aasIds = new LinkedHashSet<>(aasIdsByPosition.values());
+		AASAggregatorSnapshot current = snapshot;
+
+		try {
+			AASAggregatorSnapshot.write(file, aasIds, aasId -> {
+				MultiSubmodelProvider provider = aasProviderMap.get(aasId);
+				if (provider != null) {
+					return encode(provider);
+				} else if (snapshotAASIds.contains(aasId)) {
+					try {
+						return current.getEncodedEntry(aasId);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				} else {
+					// Deleted in the meantime
+					return null;
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private byte[] encode(MultiSubmodelProvider provider) {
+		Map<String, Object> aas = (Map<String, Object>) provider.getValue("/aas");
+		List<Map<String, Object>> submodels = new ArrayList<>();
+		for (ISubmodel submodel : provider.getSmAggregator().getSubmodelList()) {
+			if (submodel instanceof Map<?, ?>) {
+				submodels.add((Map<String, Object>) submodel);
+			} else {
+				logger.warn("Submodel " + submodel.getIdShort() + " of AAS " + aas.get("idShort") + " is not stored in the snapshot, since it is not map-based");
+			}
+		}
+		return AASAggregatorSnapshot.encode(aas, submodels);
+	}
+
+	/**
+	 * Decodes an AAS from the snapshot, if it has not been accessed or replaced
+	 * yet
+	 */
+	private MultiSubmodelProvider materialize(String aasId) {
+		Lock lock = aasLocks.get(aasId);
+		lock.lock();
+		try {
+			if (!snapshotAASIds.contains(aasId)) {
+				return aasProviderMap.get(aasId);
+			}
+
+			AASAggregatorSnapshot.Entry entry = snapshot.getEntry(aasId);
+			MultiSubmodelProvider provider = createMultiSubmodelProvider(entry.getAAS());
+			for (Submodel submodel : entry.getSubmodels()) {
+				provider.getSmAggregator().createSubmodel(submodel);
+			}
+			aasProviderMap.put(aasId, provider);
+			snapshotAASIds.remove(aasId);
+			return provider;
+		} catch (IOException e) {
+			throw new ProviderException("Could not load AAS " + aasId + " from snapshot", e);
+		} finally {
+			lock.unlock();
+		}
+	}
 }
@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.aas.aggregator.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.vab.coder.binary.MessagePackCodec;
+
+/**
+ * Compact binary snapshot of the content of an AAS aggregator. <br>
+ * Each AAS is stored together with its local submodels as a MessagePack
+ * encoded entry. An index at the end of the file maps the AAS ids to their
+ * entries, so that opening a snapshot only requires reading the index. The file
+ * is memory-mapped and the entries are only decoded when they are requested.
+ * <br>
+ * <br>
+ * The file layout is:
+ * <ul>
+ * <li>Header: magic number, format version</li>
+ * <li>Entries</li>
+ * <li>Index: number of entries, followed by the AAS id, offset, length and
+ * CRC32 checksum of each entry</li>
+ * <li>Trailer: offset of the index, magic number</li>
+ * </ul>
+ * Snapshots are limited to 2 GB, the maximum size of a single mapping.
+ */
+public class AASAggregatorSnapshot {
+	private static final int MAGIC = 0x42535841;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	private static final int TRAILER_SIZE = 12;
+
+	private static final String AAS = "aas";
+	private static final String SUBMODELS = "submodels";
+
+	private static final MessagePackCodec CODEC = new MessagePackCodec();
+
+	private final Path file;
+	private final MappedByteBuffer buffer;
+	private final Map<String, IndexEntry> index;
+
+	/**
+	 * Location of an entry within the snapshot
+	 */
+	private static class IndexEntry {
+		private final int offset;
+		private final int length;
+		private final int checksum;
+
+		private IndexEntry(int offset, int length, int checksum) {
+			this.offset = offset;
+			this.length = length;
+			this.checksum = checksum;
+		}
+	}
+
+	/**
+	 * Decoded content of a single AAS
+	 */
+	public static class Entry {
+		private final AssetAdministrationShell aas;
+		private final Collection<Submodel> submodels;
+
+		public Entry(AssetAdministrationShell aas, Collection<Submodel> submodels) {
+			this.aas = aas;
+			this.submodels = submodels;
+		}
+
+		public AssetAdministrationShell getAAS() {
+			return aas;
+		}
+
+		public Collection<Submodel> getSubmodels() {
+			return submodels;
+		}
+	}
+
+	private AASAggregatorSnapshot(Path file, MappedByteBuffer buffer, Map<String, IndexEntry> index) {
+		this.file = file;
+		this.buffer = buffer;
+		this.index = index;
+	}
+
+	/**
+	 * Maps a snapshot file and reads its index
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 *             if the file can not be read or is not a valid snapshot
+	 */
+	public static AASAggregatorSnapshot open(String file) throws IOException {
+		Path path = Paths.get(file);
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot " + file + " exceeds the maximum size");
+			}
+			if (size < HEADER_SIZE + TRAILER_SIZE) {
+				throw new IOException("Snapshot " + file + " is incomplete");
+			}
+			// The mapping stays valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(buffer.limit() - 4) != MAGIC) {
+			throw new IOException(file + " is not a complete AAS aggregator snapshot");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("Unsupported snapshot version " + buffer.getInt(4) + " in " + file);
+		}
+
+		return new AASAggregatorSnapshot(path, buffer, readIndex(file, buffer));
+	}
+
+	/**
+	 * Reads the index and checks that it and all of its entries lie within the
+	 * file, so that a corrupted index is detected before an entry is accessed
+	 */
+	private static Map<String, IndexEntry> readIndex(String file, MappedByteBuffer buffer) throws IOException {
+		int indexEnd = buffer.limit() - TRAILER_SIZE;
+		long indexOffset = buffer.getLong(indexEnd);
+		if (indexOffset < HEADER_SIZE || indexOffset > indexEnd) {
+			throw new IOException("Invalid index offset " + indexOffset + " in snapshot " + file);
+		}
+
+		ByteBuffer indexBuffer = buffer.duplicate();
+		indexBuffer.position((int) indexOffset);
+		indexBuffer.limit(indexEnd);
+		Map<String, IndexEntry> index = new LinkedHashMap<>();
+		try {
+			int count = indexBuffer.getInt();
+			for (int i = 0; i < count; i++) {
+				int idLength = indexBuffer.getInt();
+				if (idLength < 0 || idLength > indexBuffer.remaining()) {
+					throw new IOException("Invalid id length " + idLength + " in the index of snapshot " + file);
+				}
+				byte[] id = new byte[idLength];
+				indexBuffer.get(id);
+
+				int offset = indexBuffer.getInt();
+				int length = indexBuffer.getInt();
+				if (offset < HEADER_SIZE || length < 0 || (long) offset + length > indexOffset) {
+					throw new IOException("Invalid entry location " + offset + "+" + length + " in the index of snapshot " + file);
+				}
+				index.put(new String(id, StandardCharsets.UTF_8), new IndexEntry(offset, length, indexBuffer.getInt()));
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Index of snapshot " + file + " is incomplete", e);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the ids of all AAS contained in the snapshot
+	 */
+	public Set<String> getAASIds() {
+		return Collections.unmodifiableSet(index.keySet());
+	}
+
+	/**
+	 * Returns the encoded entry of an AAS, e.g. for copying it to a new snapshot
+	 * without decoding it
+	 * 
+	 * @param aasId
+	 * @return the encoded entry or null, if the AAS is not contained
+	 * @throws IOException
+	 *             if the entry is corrupted
+	 */
+	public byte[] getEncodedEntry(String aasId) throws IOException {
+		IndexEntry entry = index.get(aasId);
+		if (entry == null) {
+			return null;
+		}
+
+		byte[] encoded = new byte[entry.length];
+		ByteBuffer entryBuffer = buffer.duplicate();
+		entryBuffer.position(entry.offset);
+		entryBuffer.get(encoded);
+
+		CRC32 crc = new CRC32();
+		crc.update(encoded);
+		if ((int) crc.getValue() != entry.checksum) {
+			throw new IOException("Entry of AAS " + aasId + " in snapshot " + file + " is corrupted");
+		}
+		return encoded;
+	}
+
+	/**
+	 * Decodes the entry of an AAS
+	 * 
+	 * @param aasId
+	 * @return the entry or null, if the AAS is not contained
+	 * @throws IOException
+	 *             if the entry is corrupted
+	 */
+	public Entry getEntry(String aasId) throws IOException {
+		byte[] encoded = getEncodedEntry(aasId);
+		if (encoded == null) {
+			return null;
+		}
+		return decode(encoded);
+	}
+
+	/**
+	 * Encodes an AAS and its local submodels to a snapshot entry
+	 */
+	public static byte[] encode(Map<String, Object> aas, Collection<? extends Map<String, Object>> submodels) {
+		Map<String, Object> entry = new LinkedHashMap<>();
+		entry.put(AAS, aas);
+		entry.put(SUBMODELS, new ArrayList<>(submodels));
+		return CODEC.encode(entry);
+	}
+
+	/**
+	 * Decodes a snapshot entry
+	 */
+	@SuppressWarnings("unchecked")
+	public static Entry decode(byte[] encoded) {
+		Map<String, Object> entry = (Map<String, Object>) CODEC.decode(encoded);
+		AssetAdministrationShell aas = AssetAdministrationShell.createAsFacade((Map<String, Object>) entry.get(AAS));
+		List<Submodel> submodels = new ArrayList<>();
+		Collection<Object> encodedSubmodels = (Collection<Object>) entry.get(SUBMODELS);
+		if (encodedSubmodels != null) {
+			for (Object submodel : encodedSubmodels) {
+				submodels.add(Submodel.createAsFacade((Map<String, Object>) submodel));
+			}
+		}
+		return new Entry(aas, submodels);
+	}
+
+	/**
+	 * Writes a snapshot. The file is written to a temporary file first and then
+	 * moved, so that an existing snapshot is only replaced by a complete one.
+	 * 
+	 * @param file
+	 * @param aasIds
+	 *            ids of the AAS to write
+	 * @param encodedEntries
+	 *            returns the encoded entry of an AAS, see
+	 *            {@link #encode(Map, Collection)}. AAS for which null is returned
+	 *            are skipped
+	 * @throws IOException
+	 */
+	public static void write(String file, Collection<String> aasIds, Function<String, byte[]> encodedEntries) throws IOException {
+		Path path = Paths.get(file).toAbsolutePath();
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.createDirectories(path.getParent());
+
+		Map<String, IndexEntry> index = new LinkedHashMap<>();
+		try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new OutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					write(new byte[] { (byte) b }, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					ByteBuffer src = ByteBuffer.wrap(b, off, len);
+					while (src.hasRemaining()) {
+						channel.write(src);
+					}
+				}
+			}));
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			long offset = HEADER_SIZE;
+
+			for (String aasId : aasIds) {
+				byte[] encoded = encodedEntries.apply(aasId);
+				if (encoded == null) {
+					continue;
+				}
+				if (offset + encoded.length > Integer.MAX_VALUE) {
+					throw new IOException("Snapshot " + file + " exceeds the maximum size");
+				}
+
+				CRC32 crc = new CRC32();
+				crc.update(encoded);
+				index.put(aasId, new IndexEntry((int) offset, encoded.length, (int) crc.getValue()));
+				out.write(encoded);
+				offset += encoded.length;
+			}
+
+			long indexOffset = offset;
+			out.writeInt(index.size());
+			for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+				byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+				out.writeInt(id.length);
+				out.write(id);
+				out.writeInt(entry.getValue().offset);
+				out.writeInt(entry.getValue().length);
+				out.writeInt(entry.getValue().checksum);
+			}
+			out.writeLong(indexOffset);
+			out.writeInt(MAGIC);
+			out.flush();
+			channel.force(true);
+		}
+
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
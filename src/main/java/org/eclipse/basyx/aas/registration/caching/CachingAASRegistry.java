@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.aas.registration.caching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.aas.registration.api.IAASRegistry;
+import org.eclipse.basyx.aas.registration.observing.IAASRegistryServiceObserver;
+import org.eclipse.basyx.aas.registration.observing.ObservableAASRegistryService;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+
+/**
+ * Implementation of {@link IAASRegistry} that caches the AAS descriptors
+ * looked up from another registry, e.g. an AASRegistryProxy. Submodel
+ * descriptors are looked up from the cached AAS descriptors. <br>
+ * Descriptors are cached for a fixed time. Lookups of AAS that do not exist
+ * are cached as well, for a separate time. If the cache is full, the least
+ * recently used descriptor is evicted. <br>
+ * Modifications through this registry invalidate the affected descriptors.
+ * Modifications by other clients are visible after the cache time has passed,
+ * or immediately if this registry is added as observer to an
+ * {@link ObservableAASRegistryService}. <br>
+ * Returned descriptors are shared with the cache and must not be modified.
+ */
+public class CachingAASRegistry implements IAASRegistry, IAASRegistryServiceObserver {
+	public static final long DEFAULT_TIME_TO_LIVE_MS = 30000;
+	public static final long DEFAULT_NOT_FOUND_TIME_TO_LIVE_MS = 5000;
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	private final IAASRegistry registry;
+	private final long timeToLiveNanos;
+	private final long notFoundTimeToLiveNanos;
+
+	/**
+	 * Cached lookups by the id they have been looked up with. Evicts the least
+	 * recently used lookup if full.
+	 */
+	private final Map<String, CachedLookup> cache;
+
+	/**
+	 * Incremented on each invalidation, so that lookups running concurrently to
+	 * an invalidation do not cache their possibly outdated result. Guarded by
+	 * the cache.
+	 */
+	private long invalidations;
+
+	public CachingAASRegistry(IAASRegistry registry) {
+		this(registry, DEFAULT_TIME_TO_LIVE_MS, DEFAULT_NOT_FOUND_TIME_TO_LIVE_MS, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param registry
+	 *            the registry whose lookups are cached
+	 * @param timeToLiveMs
+	 *            time a looked up descriptor is cached
+	 * @param notFoundTimeToLiveMs
+	 *            time a lookup of an AAS that does not exist is cached. 0
+	 *            disables caching of these lookups.
+	 * @param maxSize
+	 *            maximum number of cached lookups
+	 */
+	public CachingAASRegistry(IAASRegistry registry, long timeToLiveMs, long notFoundTimeToLiveMs, int maxSize) {
+		this.registry = registry;
+		this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMs);
+		this.notFoundTimeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(notFoundTimeToLiveMs);
+		this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CachedLookup>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedLookup> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	@Override
+	public void register(AASDescriptor deviceAASDescriptor) throws ProviderException {
+		registry.register(deviceAASDescriptor);
+		invalidate(deviceAASDescriptor.getIdentifier().getId());
+		// Lookups by asset id could have been cached as not found
+		if (deviceAASDescriptor.get(AASDescriptor.ASSET) != null) {
+			IIdentifier assetId = deviceAASDescriptor.getAsset().getIdentification();
+			if (assetId != null) {
+				invalidate(assetId.getId());
+			}
+		}
+	}
+
+	@Override
+	public void register(IIdentifier aas, SubmodelDescriptor smDescriptor) throws ProviderException {
+		registry.register(aas, smDescriptor);
+		invalidate(aas.getId());
+	}
+
+	@Override
+	public void delete(IIdentifier aasId) throws ProviderException {
+		registry.delete(aasId);
+		invalidate(aasId.getId());
+	}
+
+	@Override
+	public void delete(IIdentifier aasId, IIdentifier smId) throws ProviderException {
+		registry.delete(aasId, smId);
+		invalidate(aasId.getId());
+	}
+
+	@Override
+	public AASDescriptor lookupAAS(IIdentifier aasId) throws ProviderException {
+		String id = aasId.getId();
+		CachedLookup cached = cache.get(id);
+		if (cached == null || cached.isExpired()) {
+			cached = lookupFromRegistry(aasId);
+		}
+
+		if (cached.descriptor == null) {
+			throw new ResourceNotFoundException("Could not look up descriptor for AAS " + id + " since it does not exist");
+		}
+		return cached.descriptor;
+	}
+
+	@Override
+	public List<AASDescriptor> lookupAll() throws ProviderException {
+		return registry.lookupAll();
+	}
+
+	@Override
+	public List<SubmodelDescriptor> lookupSubmodels(IIdentifier aasId) throws ProviderException {
+		return new ArrayList<>(lookupAAS(aasId).getSubmodelDescriptors());
+	}
+
+	@Override
+	public SubmodelDescriptor lookupSubmodel(IIdentifier aasId, IIdentifier smId) throws ProviderException {
+		SubmodelDescriptor smDesc = lookupAAS(aasId).getSubmodelDescriptorFromIdentifierId(smId.getId());
+		if (smDesc == null) {
+			throw new ResourceNotFoundException("Could not look up descriptor for SM " + smId.getId() + " of AAS " + aasId.getId() + " since the SM does not exist");
+		}
+		return smDesc;
+	}
+
+	/**
+	 * Removes all cached lookups of an AAS, including lookups by its asset id
+	 * 
+	 * @param aasId
+	 *            the id of the AAS
+	 */
+	public void invalidate(String aasId) {
+		synchronized (cache) {
+			invalidations++;
+			cache.remove(aasId);
+			cache.values().removeIf(cached -> cached.descriptor != null && aasId.equals(cached.descriptor.getIdentifier().getId()));
+		}
+	}
+
+	/**
+	 * Removes all cached lookups
+	 */
+	public void invalidateAll() {
+		synchronized (cache) {
+			invalidations++;
+			cache.clear();
+		}
+	}
+
+	@Override
+	public void aasRegistered(String aasId) {
+		invalidate(aasId);
+	}
+
+	@Override
+	public void submodelRegistered(IIdentifier aasId, IIdentifier smId) {
+		invalidate(aasId.getId());
+	}
+
+	@Override
+	public void aasDeleted(String aasId) {
+		invalidate(aasId);
+	}
+
+	@Override
+	public void submodelDeleted(IIdentifier aasId, IIdentifier smId) {
+		invalidate(aasId.getId());
+	}
+
+	private CachedLookup lookupFromRegistry(IIdentifier aasId) {
+		long invalidationsBefore;
+		synchronized (cache) {
+			invalidationsBefore = invalidations;
+		}
+
+		CachedLookup lookup;
+		try {
+			lookup = new CachedLookup(registry.lookupAAS(aasId), System.nanoTime() + timeToLiveNanos);
+		} catch (ResourceNotFoundException e) {
+			lookup = new CachedLookup(null, System.nanoTime() + notFoundTimeToLiveNanos);
+		}
+
+		if (lookup.descriptor != null || notFoundTimeToLiveNanos > 0) {
+			synchronized (cache) {
+				if (invalidations == invalidationsBefore) {
+					cache.put(aasId.getId(), lookup);
+				}
+			}
+		}
+		return lookup;
+	}
+
+	/**
+	 * Result of a lookup. The descriptor is null if the AAS does not exist.
+	 */
+	private static class CachedLookup {
+		private final AASDescriptor descriptor;
+		private final long expiresAt;
+
+		private CachedLookup(AASDescriptor descriptor, long expiresAt) {
+			this.descriptor = descriptor;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired() {
+			return System.nanoTime() - expiresAt >= 0;
+		}
+	}
+}
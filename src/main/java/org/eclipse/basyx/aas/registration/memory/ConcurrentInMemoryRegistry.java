@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.aas.registration.memory;
+
+import java.util.List;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory registry for concurrent accesses based on a
+ * {@link ConcurrentRegistryHandler}. In contrast to the {@link AASRegistry},
+ * each modification is executed atomically. Additionally, descriptors can be
+ * retrieved in pages and looked up by their submodels.
+ */
+public class ConcurrentInMemoryRegistry extends AASRegistry {
+	private static Logger logger = LoggerFactory.getLogger(ConcurrentInMemoryRegistry.class);
+
+	private final ConcurrentRegistryHandler concurrentHandler;
+
+	public ConcurrentInMemoryRegistry() {
+		this(new ConcurrentRegistryHandler());
+	}
+
+	public ConcurrentInMemoryRegistry(ConcurrentRegistryHandler handler) {
+		super(handler);
+		this.concurrentHandler = handler;
+	}
+
+	@Override
+	public void register(AASDescriptor aasDescriptor) {
+		concurrentHandler.insert(aasDescriptor);
+		logger.debug("Registered " + aasDescriptor.getIdentifier().getId());
+	}
+
+	@Override
+	public void delete(IIdentifier aasIdentifier) {
+		String aasId = aasIdentifier.getId();
+		if (concurrentHandler.removeDescriptor(aasIdentifier) == null) {
+			throw new ResourceNotFoundException("Could not delete key for AAS " + aasId + " since it does not exist");
+		}
+		logger.debug("Removed " + aasId);
+	}
+
+	@Override
+	public AASDescriptor lookupAAS(IIdentifier aasIdentifier) {
+		AASDescriptor descriptor = concurrentHandler.get(aasIdentifier);
+		if (descriptor == null) {
+			throw new ResourceNotFoundException("Could not look up descriptor for AAS " + aasIdentifier.getId() + " since it does not exist");
+		}
+		return descriptor;
+	}
+
+	@Override
+	public void register(IIdentifier aas, SubmodelDescriptor smDescriptor) {
+		AASDescriptor modified = concurrentHandler.modify(aas, descriptor -> {
+			descriptor.removeSubmodelDescriptor(smDescriptor.getIdentifier());
+			return descriptor.addSubmodelDescriptor(smDescriptor);
+		});
+		if (modified == null) {
+			throw new ResourceNotFoundException("Could not add submodel descriptor for AAS " + aas.getId() + " since the AAS does not exist");
+		}
+		logger.debug("Registered submodel " + smDescriptor.getIdShort() + " for AAS " + aas.getId());
+	}
+
+	@Override
+	public void delete(IIdentifier aasId, IIdentifier smId) {
+		String smIdString = smId.getId();
+		AASDescriptor modified = concurrentHandler.modify(aasId, descriptor -> {
+			if (descriptor.getSubmodelDescriptorFromIdentifierId(smIdString) == null) {
+				throw new ResourceNotFoundException("Could not delete submodel descriptor for AAS " + aasId.getId() + " since the SM does not exist");
+			}
+			descriptor.removeSubmodelDescriptor(smId);
+			return descriptor;
+		});
+		if (modified == null) {
+			throw new ResourceNotFoundException("Could not delete submodel descriptor for AAS " + aasId.getId() + " since the AAS does not exist");
+		}
+		logger.debug("Deleted submodel " + smIdString + " from AAS " + aasId.getId());
+	}
+
+	/**
+	 * Looks up a page of AAS descriptors, ordered by their AAS id
+	 * 
+	 * @param afterAASId
+	 *            the AAS id of the last descriptor of the previous page or null
+	 *            for the first page
+	 * @param limit
+	 *            maximum number of descriptors to return
+	 * @return the descriptors of the page
+	 */
+	public List<AASDescriptor> lookupAll(String afterAASId, int limit) {
+		return concurrentHandler.getPage(afterAASId, limit);
+	}
+
+	/**
+	 * Looks up the AAS descriptors containing a submodel with the given id
+	 */
+	public List<AASDescriptor> lookupBySubmodel(IIdentifier smId) {
+		return concurrentHandler.getBySubmodelId(smId.getId());
+	}
+
+	/**
+	 * Looks up the AAS descriptors containing a submodel with the given semantic
+	 * id
+	 */
+	public List<AASDescriptor> lookupBySemanticId(String semanticId) {
+		return concurrentHandler.getBySemanticId(semanticId);
+	}
+}
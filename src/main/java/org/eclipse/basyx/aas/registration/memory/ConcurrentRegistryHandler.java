@@ -0,0 +1,322 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.aas.registration.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.aas.metamodel.api.parts.asset.IAsset;
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.submodel.metamodel.api.reference.IKey;
+import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
+import org.eclipse.basyx.vab.support.StripedLock;
+
+/**
+ * Registry handler for concurrent accesses. Descriptors are stored by AAS id
+ * in a sorted map, so that they can be iterated in pages. Additional indexes
+ * map asset ids, submodel ids and submodel semantic ids to the AAS ids of the
+ * descriptors containing them. An asset id described by multiple AAS is
+ * resolved to the AAS registered last. <br>
+ * Reading accesses do not lock. Modifications of a descriptor and its index
+ * entries are executed atomically, while modifications of different
+ * descriptors are executed concurrently in most cases. <br>
+ * Descriptors are copied when they are inserted, so that modifying a passed
+ * descriptor afterwards affects neither the stored descriptor nor the indexes.
+ * Stored descriptors are never modified, but replaced. For performance
+ * reasons, retrieved descriptors are not copied and must not be modified.
+ */
+public class ConcurrentRegistryHandler implements IRegistryHandler {
+	private final NavigableMap<String, AASDescriptor> descriptors = new ConcurrentSkipListMap<>();
+	/**
+	 * Immutable lists of AAS ids by asset id, ordered by registration
+	 */
+	private final Map<String, List<String>> aasIdsByAssetId = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> aasIdsBySubmodelId = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> aasIdsBySemanticId = new ConcurrentHashMap<>();
+
+	private final StripedLock locks = new StripedLock();
+
+	@Override
+	public boolean contains(IIdentifier id) {
+		return get(id) != null;
+	}
+
+	@Override
+	public void remove(IIdentifier id) {
+		removeDescriptor(id);
+	}
+
+	/**
+	 * Removes the descriptor for an AAS or asset id
+	 * 
+	 * @param id
+	 *            the AAS or asset id
+	 * @return the removed descriptor or null, if there is no such descriptor
+	 */
+	public AASDescriptor removeDescriptor(IIdentifier id) {
+		String aasId = resolveAASId(id.getId());
+		Lock lock = locks.get(aasId);
+		lock.lock();
+		try {
+			AASDescriptor removed = descriptors.remove(aasId);
+			removeFromIndexes(aasId, removed);
+			return removed;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Inserts the descriptor. An existing descriptor with the same AAS id is
+	 * replaced.
+	 */
+	@Override
+	public void insert(AASDescriptor descriptor) {
+		String aasId = descriptor.getIdentifier().getId();
+		Lock lock = locks.get(aasId);
+		lock.lock();
+		try {
+			replace(aasId, copy(descriptor));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void update(AASDescriptor descriptor) {
+		insert(descriptor);
+	}
+
+	/**
+	 * Atomically replaces the descriptor for an AAS or asset id by a modified
+	 * copy
+	 * 
+	 * @param id
+	 *            the AAS or asset id
+	 * @param modification
+	 *            modifies the passed copy of the current descriptor
+	 * @return the modified descriptor or null, if there is no such descriptor.
+	 *         It is not the stored descriptor, which is a copy of it.
+	 */
+	public AASDescriptor modify(IIdentifier id, UnaryOperator<AASDescriptor> modification) {
+		String aasId = resolveAASId(id.getId());
+		Lock lock = locks.get(aasId);
+		lock.lock();
+		try {
+			AASDescriptor current = descriptors.get(aasId);
+			if (current == null) {
+				return null;
+			}
+			AASDescriptor modified = modification.apply(copy(current));
+			replace(aasId, copy(modified));
+			return modified;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public AASDescriptor get(IIdentifier id) {
+		return descriptors.get(resolveAASId(id.getId()));
+	}
+
+	@Override
+	public List<AASDescriptor> getAll() {
+		return new ArrayList<>(descriptors.values());
+	}
+
+	/**
+	 * Returns a page of descriptors, ordered by their AAS id
+	 * 
+	 * @param afterAASId
+	 *            the AAS id of the last descriptor of the previous page or null
+	 *            for the first page
+	 * @param limit
+	 *            maximum number of descriptors to return
+	 * @return the descriptors of the page
+	 */
+	public List<AASDescriptor> getPage(String afterAASId, int limit) {
+		Map<String, AASDescriptor> tail = afterAASId == null ? descriptors : descriptors.tailMap(afterAASId, false);
+		return tail.values().stream().limit(limit).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the descriptors containing a submodel with the given id
+	 */
+	public List<AASDescriptor> getBySubmodelId(String submodelId) {
+		return getByAASIds(aasIdsBySubmodelId.get(submodelId));
+	}
+
+	/**
+	 * Returns the descriptors containing a submodel with the given semantic id.
+	 * Each key value of the submodel semantic ids is indexed.
+	 */
+	public List<AASDescriptor> getBySemanticId(String semanticId) {
+		return getByAASIds(aasIdsBySemanticId.get(semanticId));
+	}
+
+	private List<AASDescriptor> getByAASIds(Set<String> aasIds) {
+		if (aasIds == null) {
+			return Collections.emptyList();
+		}
+		return aasIds.stream().map(descriptors::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	/**
+	 * Maps an asset id to the id of its AAS. Other ids are returned unchanged.
+	 */
+	private String resolveAASId(String id) {
+		List<String> aasIds = aasIdsByAssetId.get(id);
+		return aasIds != null && !descriptors.containsKey(id) ? aasIds.get(aasIds.size() - 1) : id;
+	}
+
+	/**
+	 * Replaces the descriptor for an AAS id. Has to be called holding the lock for
+	 * the AAS id.
+	 */
+	private void replace(String aasId, AASDescriptor descriptor) {
+		AASDescriptor replaced = descriptors.put(aasId, descriptor);
+		removeFromIndexes(aasId, replaced);
+		addToIndexes(aasId, descriptor);
+	}
+
+	private void addToIndexes(String aasId, AASDescriptor descriptor) {
+		String assetId = getAssetId(descriptor);
+		if (assetId != null) {
+			aasIdsByAssetId.compute(assetId, (k, aasIds) -> {
+				List<String> updated = aasIds == null ? new ArrayList<>() : new ArrayList<>(aasIds);
+				updated.remove(aasId);
+				updated.add(aasId);
+				return Collections.unmodifiableList(updated);
+			});
+		}
+		for (SubmodelDescriptor smDescriptor : descriptor.getSubmodelDescriptors()) {
+			addToIndex(aasIdsBySubmodelId, smDescriptor.getIdentifier().getId(), aasId);
+			for (String semanticId : getSemanticIds(smDescriptor)) {
+				addToIndex(aasIdsBySemanticId, semanticId, aasId);
+			}
+		}
+	}
+
+	private void removeFromIndexes(String aasId, AASDescriptor descriptor) {
+		if (descriptor == null) {
+			return;
+		}
+		String assetId = getAssetId(descriptor);
+		if (assetId != null) {
+			// Other AAS of the asset stay resolvable by it
+			aasIdsByAssetId.computeIfPresent(assetId, (k, aasIds) -> {
+				List<String> updated = new ArrayList<>(aasIds);
+				updated.remove(aasId);
+				return updated.isEmpty() ? null : Collections.unmodifiableList(updated);
+			});
+		}
+		for (SubmodelDescriptor smDescriptor : descriptor.getSubmodelDescriptors()) {
+			removeFromIndex(aasIdsBySubmodelId, smDescriptor.getIdentifier().getId(), aasId);
+			for (String semanticId : getSemanticIds(smDescriptor)) {
+				removeFromIndex(aasIdsBySemanticId, semanticId, aasId);
+			}
+		}
+	}
+
+	private static void addToIndex(Map<String, Set<String>> index, String key, String aasId) {
+		// Adding within compute prevents a concurrent removal of the last AAS id from
+		// dropping the set while it is added to
+		index.compute(key, (k, aasIds) -> {
+			Set<String> updated = aasIds == null ? ConcurrentHashMap.newKeySet() : aasIds;
+			updated.add(aasId);
+			return updated;
+		});
+	}
+
+	private static void removeFromIndex(Map<String, Set<String>> index, String key, String aasId) {
+		index.computeIfPresent(key, (k, aasIds) -> {
+			aasIds.remove(aasId);
+			return aasIds.isEmpty() ? null : aasIds;
+		});
+	}
+
+	private static String getAssetId(AASDescriptor descriptor) {
+		if (descriptor.get(AASDescriptor.ASSET) == null) {
+			return null;
+		}
+		IAsset asset = descriptor.getAsset();
+		IIdentifier assetId = asset.getIdentification();
+		return assetId == null ? null : assetId.getId();
+	}
+
+	private static List<String> getSemanticIds(SubmodelDescriptor smDescriptor) {
+		IReference semanticId = smDescriptor.getSemanticId();
+		if (semanticId == null || semanticId.getKeys() == null) {
+			return Collections.emptyList();
+		}
+		return semanticId.getKeys().stream().map(IKey::getValue).collect(Collectors.toList());
+	}
+
+	/**
+	 * Copies a descriptor including all nested maps and collections
+	 */
+	@SuppressWarnings("unchecked")
+	private static AASDescriptor copy(AASDescriptor descriptor) {
+		AASDescriptor copy = new AASDescriptor((Map<String, Object>) copyValue(descriptor));
+		Set<Object> smDescriptors = new HashSet<>();
+		for (Object smDescriptor : (Collection<Object>) descriptor.get(AssetAdministrationShell.SUBMODELS)) {
+			smDescriptors.add(new SubmodelDescriptor((Map<String, Object>) copyValue(smDescriptor)));
+		}
+		copy.put(AssetAdministrationShell.SUBMODELS, smDescriptors);
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object copyValue(Object value) {
+		if (value instanceof Map<?, ?>) {
+			Map<String, Object> copy = new LinkedHashMap<>();
+			((Map<String, Object>) value).forEach((key, element) -> copy.put(key, copyValue(element)));
+			return copy;
+		} else if (value instanceof Set<?>) {
+			return ((Set<Object>) value).stream().map(ConcurrentRegistryHandler::copyValue).collect(Collectors.toCollection(LinkedHashSet::new));
+		} else if (value instanceof Collection<?>) {
+			return ((Collection<Object>) value).stream().map(ConcurrentRegistryHandler::copyValue).collect(Collectors.toList());
+		}
+		return value;
+	}
+}
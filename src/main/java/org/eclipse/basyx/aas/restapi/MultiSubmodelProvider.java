@@ -52,6 +52,9 @@ import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
 import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
+import org.eclipse.basyx.vab.support.ParallelRetrieval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Provider class that implements the AssetAdministrationShellServices <br>
@@ -96,6 +99,7 @@ import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
  *
  */
 public class MultiSubmodelProvider implements IModelProvider {
+	private static Logger logger = LoggerFactory.getLogger(MultiSubmodelProvider.class);
 
 	public static final String AAS = "aas";
 	public static final String SUBMODELS_PREFIX = VABPathTools.concatenatePaths(AAS, AssetAdministrationShell.SUBMODELS);
@@ -127,6 +131,17 @@ public class MultiSubmodelProvider implements IModelProvider {
 
 	private ISubmodelAggregator smAggregator;
 
+	/**
+	 * Retrieves the remote submodels in parallel
+	 */
+	private ParallelRetrieval remoteSubmodelRetrieval = new ParallelRetrieval();
+
+	/**
+	 * If true, the submodel list omits remote submodels that can not be
+	 * retrieved, as long as at least one of them can be retrieved
+	 */
+	private boolean partialRemoteSubmodelsAllowed = false;
+
 	/**
 	 * Constructor with empty default aas and default VAB APIs
 	 */
@@ -343,8 +358,14 @@ public class MultiSubmodelProvider implements IModelProvider {
 					}
 				}
 
-				List<Submodel> remoteSms = missingEndpoints.stream().map(endpoint -> getConnectorFactory().create(endpoint)).map(p -> (Map<String, Object>) p.getValue("")).map(m -> Submodel.createAsFacade(m)).collect(Collectors.toList());
-				submodels.addAll(remoteSms);
+				ParallelRetrieval.Result<String, Submodel> remoteSms = getRemoteSubmodelRetrieval().retrieve(missingEndpoints, endpoint -> Submodel.createAsFacade((Map<String, Object>) getConnectorFactory().create(endpoint).getValue("")));
+				if (!partialRemoteSubmodelsAllowed || remoteSms.getValues().isEmpty()) {
+					// Throws the first failure including the others as suppressed exceptions
+					submodels.addAll(remoteSms.getValuesOrThrow());
+					return;
+				}
+				remoteSms.getFailures().forEach((endpoint, e) -> logger.warn("Omitting the unreachable remote submodel at " + endpoint + " of AAS " + aasId.getId(), e));
+				submodels.addAll(remoteSms.getValues());
 			}
 		}
 	}
@@ -545,4 +566,32 @@ public class MultiSubmodelProvider implements IModelProvider {
 	public void setConnectorFactory(IConnectorFactory connectorFactory) {
 		this.connectorFactory = connectorFactory;
 	}
+
+	public ParallelRetrieval getRemoteSubmodelRetrieval() {
+		return remoteSubmodelRetrieval;
+	}
+
+	/**
+	 * Sets how remote submodels are retrieved, e.g. to configure the executor,
+	 * parallelism and timeout
+	 */
+	public void setRemoteSubmodelRetrieval(ParallelRetrieval remoteSubmodelRetrieval) {
+		this.remoteSubmodelRetrieval = remoteSubmodelRetrieval;
+	}
+
+	public boolean isPartialRemoteSubmodelsAllowed() {
+		return partialRemoteSubmodelsAllowed;
+	}
+
+	/**
+	 * Sets whether the submodel list omits remote submodels that can not be
+	 * retrieved. By default, the request fails if any remote submodel can not be
+	 * retrieved. If allowed, the request only fails if none of them can be
+	 * retrieved and each omitted submodel is logged.
+	 * 
+	 * @param partialRemoteSubmodelsAllowed
+	 */
+	public void setPartialRemoteSubmodelsAllowed(boolean partialRemoteSubmodelsAllowed) {
+		this.partialRemoteSubmodelsAllowed = partialRemoteSubmodelsAllowed;
+	}
 }
@@ -50,6 +50,10 @@ public class MqttEventService {
 	// QoS for MQTT messages (1, 2 or 3).
 	protected int qos = 1;
 
+	// Publisher for sending messages asynchronously. If not set, messages are sent
+	// synchronously
+	protected MqttPublisher publisher;
+
 	/**
 	 * Constructor for creating an MqttClient (no authentication)
 	 * 
@@ -125,6 +129,24 @@ public class MqttEventService {
 		return this.qos;
 	}
 
+	/**
+	 * Sets the publisher for sending MQTT messages asynchronously. The publisher
+	 * can be shared by all services using the same client. If null, messages are
+	 * sent synchronously.
+	 * 
+	 * @param publisher
+	 */
+	public void setPublisher(MqttPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	/**
+	 * Gets the publisher for sending MQTT messages asynchronously
+	 */
+	public MqttPublisher getPublisher() {
+		return publisher;
+	}
+
 	/**
 	 * Sends MQTT message to connected broker
 	 * 
@@ -138,6 +160,10 @@ public class MqttEventService {
 		if (this.qos != 1) {
 			msg.setQos(this.qos);
 		}
+		if (publisher != null) {
+			publisher.publish(topic, msg);
+			return;
+		}
 		try {
 			logger.debug("Send MQTT message to " + topic + ": " + payload);
 			mqttClient.publish(topic, msg);
@@ -0,0 +1,410 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.extensions.shared.mqtt;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes MQTT messages asynchronously. <br>
+ * Messages are put into a bounded queue and sent by a dedicated sender thread,
+ * so that publishing does not wait for the broker. The sender does not wait for
+ * the acknowledgement of a message before sending the next one; up to the
+ * maximum number of in-flight messages of the client are pipelined. The order
+ * of the messages is preserved. <br>
+ * <br>
+ * Optionally, messages of selected topics can be coalesced: If an identical
+ * message is still queued, a new message is dropped. These messages are held
+ * back for the coalescing window, which delays the following messages as well.
+ * A message is never coalesced across a message of another topic, so that e.g.
+ * an update is not reordered with a following delete.
+ */
+public class MqttPublisher implements Closeable {
+	private static Logger logger = LoggerFactory.getLogger(MqttPublisher.class);
+
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	/**
+	 * Behavior if a message is published while the queue is full
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Blocks the publishing thread until there is space in the queue
+		 */
+		BLOCK,
+
+		/**
+		 * Drops the new message
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Drops the oldest queued message
+		 */
+		DROP_OLDEST
+	}
+
+	private static class PendingMessage {
+		private final String topic;
+		private final MqttMessage message;
+		private final String key;
+		private final long sequence;
+		private final long dueNanos;
+
+		private PendingMessage(String topic, MqttMessage message, String key, long sequence, long dueNanos) {
+			this.topic = topic;
+			this.message = message;
+			this.key = key;
+			this.sequence = sequence;
+			this.dueNanos = dueNanos;
+		}
+	}
+
+	private final MqttClient client;
+	private final int capacity;
+	private final OverflowPolicy overflowPolicy;
+	private final Thread sender;
+
+	// Guards all fields below
+	private final Object lock = new Object();
+	private final ArrayDeque<PendingMessage> queue = new ArrayDeque<>();
+	private final Map<String, PendingMessage> coalescable = new HashMap<>();
+	private Set<String> coalescedTopics = Collections.emptySet();
+	private long coalescingWindowNanos;
+	private long sequence;
+	private long lastUncoalescedSequence;
+	private long droppedCount;
+	private long coalescedCount;
+	private int flushRequests;
+	private boolean idle = true;
+	private boolean closed;
+
+	// Tokens of the messages that are not acknowledged yet, only accessed by the
+	// sender thread
+	private final ArrayDeque<MqttDeliveryToken> outstanding = new ArrayDeque<>();
+
+	/**
+	 * Creates a publisher with a queue of {@value #DEFAULT_CAPACITY} messages that
+	 * blocks if the queue is full
+	 * 
+	 * @param client
+	 */
+	public MqttPublisher(MqttClient client) {
+		this(client, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Creates a publisher
+	 * 
+	 * @param client
+	 *            client used for sending the messages
+	 * @param capacity
+	 *            maximum number of queued messages
+	 * @param overflowPolicy
+	 *            behavior if the queue is full
+	 */
+	public MqttPublisher(MqttClient client, int capacity, OverflowPolicy overflowPolicy) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		this.client = client;
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy;
+
+		sender = new Thread(this::send, MqttPublisher.class.getSimpleName() + "-" + client.getClientId());
+		sender.setDaemon(true);
+		sender.start();
+	}
+
+	/**
+	 * Enables the coalescing of identical messages of the given topics
+	 * 
+	 * @param windowMs
+	 *            time in ms a message of these topics is held back for coalescing
+	 *            identical messages. A value of 0 disables coalescing
+	 * @param topics
+	 *            topics whose messages are coalesced, e.g. value updates
+	 */
+	public void setCoalescing(long windowMs, String... topics) {
+		synchronized (lock) {
+			coalescingWindowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+			coalescedTopics = new HashSet<>(Arrays.asList(topics));
+		}
+	}
+
+	/**
+	 * Queues a message for publishing
+	 * 
+	 * @param topic
+	 * @param message
+	 * @return false, if the message has been dropped since the queue is full
+	 */
+	public boolean publish(String topic, MqttMessage message) {
+		synchronized (lock) {
+			if (closed) {
+				throw new IllegalStateException("Publisher of client " + client.getClientId() + " is closed");
+			}
+
+			long messageSequence = ++sequence;
+			String key = null;
+			if (coalescingWindowNanos > 0 && coalescedTopics.contains(topic)) {
+				key = topic + "\n" + new String(message.getPayload(), StandardCharsets.UTF_8);
+				PendingMessage identical = coalescable.get(key);
+				if (identical != null && identical.sequence > lastUncoalescedSequence) {
+					coalescedCount++;
+					return true;
+				}
+			} else {
+				lastUncoalescedSequence = messageSequence;
+			}
+
+			while (queue.size() >= capacity) {
+				if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+					drop(topic);
+					return false;
+				} else if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+					PendingMessage oldest = queue.poll();
+					removeCoalescable(oldest);
+					drop(oldest.topic);
+				} else {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						drop(topic);
+						return false;
+					}
+					if (closed) {
+						throw new IllegalStateException("Publisher of client " + client.getClientId() + " is closed");
+					}
+				}
+			}
+
+			long dueNanos = System.nanoTime() + (key == null ? 0 : coalescingWindowNanos);
+			PendingMessage pending = new PendingMessage(topic, message, key, messageSequence, dueNanos);
+			queue.add(pending);
+			if (key != null) {
+				coalescable.put(key, pending);
+			}
+			lock.notifyAll();
+			return true;
+		}
+	}
+
+	/**
+	 * Returns the number of messages that have been dropped since the queue was
+	 * full
+	 */
+	public long getDroppedCount() {
+		synchronized (lock) {
+			return droppedCount;
+		}
+	}
+
+	/**
+	 * Returns the number of messages that have been coalesced with an identical
+	 * queued message
+	 */
+	public long getCoalescedCount() {
+		synchronized (lock) {
+			return coalescedCount;
+		}
+	}
+
+	/**
+	 * Returns the number of queued messages
+	 */
+	public int getQueueSize() {
+		synchronized (lock) {
+			return queue.size();
+		}
+	}
+
+	/**
+	 * Sends all queued messages without waiting for the coalescing window and
+	 * waits until they have been acknowledged
+	 * 
+	 * @throws InterruptedException
+	 */
+	public void flush() throws InterruptedException {
+		synchronized (lock) {
+			flushRequests++;
+			lock.notifyAll();
+			try {
+				while (!queue.isEmpty() || !idle) {
+					if (closed && !sender.isAlive()) {
+						return;
+					}
+					lock.wait();
+				}
+			} finally {
+				flushRequests--;
+			}
+		}
+	}
+
+	/**
+	 * Sends all queued messages and stops the sender. Further messages are
+	 * rejected.
+	 */
+	@Override
+	public void close() {
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+		try {
+			sender.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void send() {
+		while (true) {
+			PendingMessage next;
+			try {
+				next = take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (next == null) {
+				return;
+			}
+			send(next);
+		}
+	}
+
+	/**
+	 * Takes the next message that is due. Returns null if the publisher is closed
+	 * and all messages have been sent.
+	 */
+	private PendingMessage take() throws InterruptedException {
+		while (true) {
+			synchronized (lock) {
+				PendingMessage head = queue.peek();
+				if (head != null) {
+					long delay = head.dueNanos - System.nanoTime();
+					if (delay <= 0 || closed || flushRequests > 0) {
+						queue.poll();
+						removeCoalescable(head);
+						idle = false;
+						// Wakes up publishers blocked by a full queue
+						lock.notifyAll();
+						return head;
+					}
+					TimeUnit.NANOSECONDS.timedWait(lock, delay);
+					continue;
+				}
+				if (idle) {
+					if (closed) {
+						lock.notifyAll();
+						return null;
+					}
+					lock.wait();
+					continue;
+				}
+			}
+
+			// The queue is empty, so the remaining acknowledgements are awaited before
+			// reporting to be idle
+			while (!outstanding.isEmpty()) {
+				awaitOldest();
+			}
+			synchronized (lock) {
+				if (queue.isEmpty()) {
+					idle = true;
+					lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	private void send(PendingMessage pending) {
+		while (true) {
+			try {
+				logger.debug("Send MQTT message to " + pending.topic + ": " + new String(pending.message.getPayload(), StandardCharsets.UTF_8));
+				outstanding.add(client.getTopic(pending.topic).publish(pending.message));
+				removeCompleted();
+				return;
+			} catch (MqttException e) {
+				if (e.getReasonCode() == MqttException.REASON_CODE_MAX_INFLIGHT && !outstanding.isEmpty()) {
+					awaitOldest();
+				} else {
+					logger.error("Could not send mqtt message", e);
+					return;
+				}
+			}
+		}
+	}
+
+	private void removeCompleted() {
+		while (!outstanding.isEmpty() && outstanding.peek().isComplete()) {
+			checkDelivery(outstanding.poll());
+		}
+	}
+
+	private void awaitOldest() {
+		MqttDeliveryToken token = outstanding.poll();
+		try {
+			token.waitForCompletion();
+			checkDelivery(token);
+		} catch (MqttException e) {
+			logger.error("Could not send mqtt message", e);
+		}
+	}
+
+	private void checkDelivery(MqttDeliveryToken token) {
+		if (token.getException() != null) {
+			logger.error("Could not send mqtt message", token.getException());
+		}
+	}
+
+	private void removeCoalescable(PendingMessage pending) {
+		if (pending.key != null) {
+			coalescable.remove(pending.key, pending);
+		}
+	}
+
+	private void drop(String topic) {
+		droppedCount++;
+		logger.debug("Dropped mqtt message to " + topic + ", since the publishing queue of client " + client.getClientId() + " is full");
+	}
+}
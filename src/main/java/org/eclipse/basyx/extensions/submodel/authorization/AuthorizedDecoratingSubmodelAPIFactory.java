@@ -9,6 +9,7 @@
  ******************************************************************************/
 package org.eclipse.basyx.extensions.submodel.authorization;
 
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
@@ -29,4 +30,9 @@ public class AuthorizedDecoratingSubmodelAPIFactory implements ISubmodelAPIFacto
 	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
 		return new AuthorizedSubmodelAPI(submodelAPIFactory.create(submodel));
 	}
+
+	@Override
+	public void delete(IIdentifier identifier) {
+		submodelAPIFactory.delete(identifier);
+	}
 }
\ No newline at end of file
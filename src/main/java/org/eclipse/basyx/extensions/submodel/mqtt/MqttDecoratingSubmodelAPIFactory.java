@@ -24,9 +24,13 @@
  ******************************************************************************/
 package org.eclipse.basyx.extensions.submodel.mqtt;
 
+import org.eclipse.basyx.extensions.shared.mqtt.MqttPublisher;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.observing.ElementUpdateFilter;
+import org.eclipse.basyx.submodel.restapi.observing.FilteringSubmodelAPIObserver;
 import org.eclipse.basyx.submodel.restapi.observing.ObservableSubmodelAPI;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.paho.client.mqttv3.MqttClient;
@@ -41,22 +45,52 @@ import org.eclipse.paho.client.mqttv3.MqttException;
 public class MqttDecoratingSubmodelAPIFactory implements ISubmodelAPIFactory {
 	private ISubmodelAPIFactory apiFactory;
 	private MqttClient client;
+	private MqttPublisher publisher;
+	private ElementUpdateFilter updateFilter;
 
 	public MqttDecoratingSubmodelAPIFactory(ISubmodelAPIFactory factoryToBeDecorated, MqttClient client) {
 		this.apiFactory = factoryToBeDecorated;
 		this.client = client;
 	}
 
+	/**
+	 * Creates a factory whose observers send the events asynchronously using the
+	 * given publisher, which has to use the same client
+	 */
+	public MqttDecoratingSubmodelAPIFactory(ISubmodelAPIFactory factoryToBeDecorated, MqttClient client, MqttPublisher publisher) {
+		this(factoryToBeDecorated, client);
+		this.publisher = publisher;
+	}
+
+	/**
+	 * Sets a filter for the update events of all created submodel APIs. If null,
+	 * every update is sent.
+	 * 
+	 * @param updateFilter
+	 */
+	public void setUpdateFilter(ElementUpdateFilter updateFilter) {
+		this.updateFilter = updateFilter;
+	}
+
 	@Override
 	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
 		try {
 			ObservableSubmodelAPI observedAPI = new ObservableSubmodelAPI(apiFactory.create(submodel));
 			MqttSubmodelAPIObserver mqttSubmodelAPIObserver = new MqttSubmodelAPIObserver(client, MqttSubmodelAPIHelper.getAASId(observedAPI), MqttSubmodelAPIHelper.getSubmodelId(observedAPI));
-			observedAPI.addObserver(mqttSubmodelAPIObserver);
+			mqttSubmodelAPIObserver.setPublisher(publisher);
+			if (updateFilter == null) {
+				observedAPI.addObserver(mqttSubmodelAPIObserver);
+			} else {
+				observedAPI.addObserver(new FilteringSubmodelAPIObserver(mqttSubmodelAPIObserver, updateFilter));
+			}
 			return observedAPI;
 		} catch (MqttException e) {
 			throw new ProviderException(e);
 		}
 	}
 
+	@Override
+	public void delete(IIdentifier identifier) {
+		apiFactory.delete(identifier);
+	}
 }
@@ -1,8 +1,9 @@
 package org.eclipse.basyx.submodel.aggregator;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregator;
@@ -15,13 +16,32 @@ import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPIFactory;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 
 /**
- * A class for aggregating local submodels based on the ISubmodelAPI
+ * A class for aggregating local submodels based on the ISubmodelAPI. <br>
+ * It can be accessed concurrently. Submodels are indexed by their identifier,
+ * so that they can be found without retrieving all submodels. Reading accesses
+ * do not lock.
  * 
  * @author espen
  *
  */
 public class SubmodelAggregator implements ISubmodelAggregator {
-	protected Map<String, ISubmodelAPI> smApiMap = new HashMap<>();
+	protected Map<String, ISubmodelAPI> smApiMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Index from identifier id to the idShort and API of the submodel
+	 */
+	private final Map<String, Map.Entry<String, ISubmodelAPI>> submodelsByIdentifier = new ConcurrentHashMap<>();
+
+	/**
+	 * Identifier id of the submodel stored for an idShort, to keep the index
+	 * consistent if it is replaced or removed
+	 */
+	private final Map<String, IIdentifier> identifiersByIdShort = new ConcurrentHashMap<>();
+
+	/**
+	 * Serializes the modifications of the maps and the index
+	 */
+	private final Object writeLock = new Object();
 
 	/**
 	 * Store Submodel API Provider. By default, uses the VAB Submodel Provider
@@ -47,17 +67,6 @@ public class SubmodelAggregator implements ISubmodelAggregator {
 		return api.getSubmodel();
 	}
 
-	private String getIdShort(IIdentifier identifier) {
-		for (ISubmodelAPI api : smApiMap.values()) {
-			ISubmodel submodel = api.getSubmodel();
-			String idValue = submodel.getIdentification().getId();
-			if (idValue.equals(identifier.getId())) {
-				return submodel.getIdShort();
-			}
-		}
-		throw new ResourceNotFoundException("The submodel with id '" + identifier.getId() + "' could not be found");
-	}
-
 	@Override
 	public void createSubmodel(Submodel submodel) {
 		updateSubmodel(submodel);
@@ -71,7 +80,18 @@ public class SubmodelAggregator implements ISubmodelAggregator {
 
 	@Override
 	public void createSubmodel(ISubmodelAPI submodelAPI) {
-		smApiMap.put(submodelAPI.getSubmodel().getIdShort(), submodelAPI);
+		ISubmodel submodel = submodelAPI.getSubmodel();
+		String idShort = submodel.getIdShort();
+		String id = submodel.getIdentification().getId();
+
+		synchronized (writeLock) {
+			smApiMap.put(idShort, submodelAPI);
+			IIdentifier replaced = identifiersByIdShort.put(idShort, submodel.getIdentification());
+			if (replaced != null) {
+				removeFromIndex(replaced.getId(), idShort);
+			}
+			submodelsByIdentifier.put(id, new SimpleImmutableEntry<>(idShort, submodelAPI));
+		}
 	}
 
 	@Override
@@ -86,22 +106,36 @@ public class SubmodelAggregator implements ISubmodelAggregator {
 
 	@Override
 	public void deleteSubmodelByIdentifier(IIdentifier identifier) {
-		try {
-			String idShort = getIdShort(identifier);
-			smApiMap.remove(idShort);
-		} catch (ResourceNotFoundException exception) {
+		synchronized (writeLock) {
+			Map.Entry<String, ISubmodelAPI> entry = submodelsByIdentifier.get(identifier.getId());
+			if (entry != null) {
+				deleteSubmodelByIdShort(entry.getKey());
+			}
 		}
 	}
 
 	@Override
 	public void deleteSubmodelByIdShort(String idShort) {
-		smApiMap.remove(idShort);
+		synchronized (writeLock) {
+			smApiMap.remove(idShort);
+			IIdentifier identifier = identifiersByIdShort.remove(idShort);
+			if (identifier != null) {
+				removeFromIndex(identifier.getId(), idShort);
+				if (!submodelsByIdentifier.containsKey(identifier.getId())) {
+					// Not stored for another idShort
+					smApiFactory.delete(identifier);
+				}
+			}
+		}
 	}
 
 	@Override
 	public ISubmodelAPI getSubmodelAPIById(IIdentifier identifier) throws ResourceNotFoundException {
-		String idShort = getIdShort(identifier);
-		return smApiMap.get(idShort);
+		Map.Entry<String, ISubmodelAPI> entry = submodelsByIdentifier.get(identifier.getId());
+		if (entry == null) {
+			throw new ResourceNotFoundException("The submodel with id '" + identifier.getId() + "' could not be found");
+		}
+		return entry.getValue();
 	}
 
 	@Override
@@ -112,4 +146,13 @@ public class SubmodelAggregator implements ISubmodelAggregator {
 		}
 		return api;
 	}
+
+	/**
+	 * Removes an identifier from the index, if it still refers to the submodel
+	 * stored for the idShort. It may refer to a different idShort, if a submodel
+	 * with the same identifier has been added with another idShort.
+	 */
+	private void removeFromIndex(String id, String idShort) {
+		submodelsByIdentifier.computeIfPresent(id, (key, entry) -> entry.getKey().equals(idShort) ? null : entry);
+	}
 }
@@ -25,6 +25,10 @@
 package org.eclipse.basyx.submodel.metamodel.connected.submodelelement.operation;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IAsyncInvocation;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
@@ -36,6 +40,7 @@ import org.eclipse.basyx.submodel.restapi.operation.ExecutionState;
 import org.eclipse.basyx.submodel.restapi.operation.InvocationRequest;
 import org.eclipse.basyx.submodel.restapi.operation.InvocationResponse;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 
@@ -46,6 +51,15 @@ import org.eclipse.basyx.vab.modelprovider.VABPathTools;
  *
  */
 public class ConnectedAsyncInvocation implements IAsyncInvocation {
+	/**
+	 * Time the server is asked to wait for the result in a single request
+	 */
+	public static final long RESULT_WAIT_MS = 10000;
+
+	/**
+	 * Time between two requests if the result is polled
+	 */
+	private static final long POLL_INTERVAL_MS = 50;
 
 	private String operationId;
 	private String requestId;
@@ -55,6 +69,12 @@ public class ConnectedAsyncInvocation implements IAsyncInvocation {
 	private Object result = null;
 	private boolean resultRetrieved = false;
 
+	/**
+	 * False, if the server does not support waiting for results. Then, the result
+	 * is polled.
+	 */
+	private boolean waitSupported = true;
+
 	@SuppressWarnings("unchecked")
 	public ConnectedAsyncInvocation(VABElementProxy proxy, String operationId, InvocationRequest request) {
 		this.proxy = proxy;
@@ -65,17 +85,23 @@ public class ConnectedAsyncInvocation implements IAsyncInvocation {
 
 	@Override
 	public Object getResult() {
-		// Wait for Operation to finish
-		while (!isFinished()) {
-			try {
-				Thread.sleep(50);
-			} catch (InterruptedException e) {
+		// Wait for Operation to finish. The server answers as soon as the result is
+		// available or the waiting time has passed
+		while (!isFinishedAfterWaiting()) {
+			if (!waitSupported) {
+				try {
+					Thread.sleep(POLL_INTERVAL_MS);
+				} catch (InterruptedException e) {
+				}
 			}
 		}
 
 		// Side-effect of isFinished is querying the result.
 		// Thus, it can be assumed, the the result will be available here
+		return getRetrievedResult();
+	}
 
+	private Object getRetrievedResult() {
 		if (result instanceof Exception) {
 			throw new OperationExecutionErrorException("Exception while executing Invocation '" + requestId + "' of Operation '" + operationId + "'");
 		} else if (ExecutionState.FAILED == result) {
@@ -87,6 +113,95 @@ public class ConnectedAsyncInvocation implements IAsyncInvocation {
 		}
 	}
 
+	/**
+	 * Returns a future that is completed with the result of the invocation or
+	 * completed exceptionally with the exception {@link #getResult()} would throw
+	 * 
+	 * @return the future of the result
+	 */
+	public CompletableFuture<Object> getResultAsync() {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		awaitResultAsync(future);
+		return future;
+	}
+
+	/**
+	 * Requests the result until it has been retrieved. The next request is sent
+	 * once the previous one has been answered, so that no thread is blocked while
+	 * waiting.
+	 * 
+	 * @param future
+	 *            the future to complete with the result
+	 */
+	private void awaitResultAsync(CompletableFuture<Object> future) {
+		if (resultRetrieved) {
+			completeWithResult(future);
+			return;
+		}
+
+		boolean waiting = waitSupported;
+		String path = waiting ? getListPath() + "?" + OperationProvider.WAIT + "=" + RESULT_WAIT_MS : getListPath();
+		proxy.getValueAsync(path).whenComplete((responseObj, e) -> {
+			try {
+				if (e == null) {
+					handleResponse(responseObj);
+				} else {
+					Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+					if (waiting && cause instanceof ResourceNotFoundException) {
+						// Server does not support to wait for results, see
+						// isFinishedAfterWaiting()
+						waitSupported = false;
+					} else if (cause instanceof ProviderException) {
+						handleException((ProviderException) cause);
+					} else {
+						throw new ProviderException(cause);
+					}
+				}
+			} catch (RuntimeException inner) {
+				future.completeExceptionally(inner);
+				return;
+			}
+
+			if (resultRetrieved || waiting) {
+				// Waits are answered by the server after the waiting time. If waiting
+				// turned out to be unsupported, the result is polled directly.
+				awaitResultAsync(future);
+			} else {
+				CompletableFuture.delayedExecutor(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS).execute(() -> awaitResultAsync(future));
+			}
+		});
+	}
+
+	private void completeWithResult(CompletableFuture<Object> future) {
+		try {
+			future.complete(getRetrievedResult());
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	private boolean isFinishedAfterWaiting() {
+		if (resultRetrieved) {
+			return true;
+		}
+
+		if (!waitSupported) {
+			retrieveResultDirectly(getListPath());
+			return resultRetrieved;
+		}
+
+		try {
+			retrieveResultDirectly(getListPath() + "?" + OperationProvider.WAIT + "=" + RESULT_WAIT_MS);
+		} catch (ResourceNotFoundException e) {
+			// Servers not supporting to wait for results do not find the request id
+			// including the wait parameter. If the request id is found without the
+			// parameter, poll the result.
+			retrieveResultDirectly(getListPath());
+			waitSupported = false;
+		}
+		return resultRetrieved;
+	}
+
 	/**
 	 * Queries the operation with the connected proxy to see, if the result is
 	 * already finished
@@ -98,31 +213,44 @@ public class ConnectedAsyncInvocation implements IAsyncInvocation {
 			return true;
 		}
 
-		retrieveResultDirectly();
+		retrieveResultDirectly(getListPath());
 		return resultRetrieved;
 	}
 
-	@SuppressWarnings("unchecked")
-	private void retrieveResultDirectly() {
+	private void retrieveResultDirectly(String listPath) {
 		// 1. Retrieve InvocationResponse from proxy
 		Object responseObj = null;
 		try {
-			responseObj = proxy.getValue(getListPath());
-		} catch (ProviderException e) {
-			// As the Submodel-API does not specify a request to ask whether
-			// the operation is finished, it has to be done via the retrieval of the value.
-			// If the execution resulted in an Exception this Exception would be thrown here
-			// -> if a ProviderException with a RuntimeException as cause is thrown,
-			// the Operation is finished.
-			if (e.getCause() instanceof RuntimeException) {
-				resultRetrieved = true;
-				result = e;
-			} else {
-				// If it is something else -> rethrow it
-				throw e;
+			responseObj = proxy.getValue(listPath);
+			if (responseObj instanceof CompletionStage<?>) {
+				// Providers connected directly answer waits with the future of the result
+				responseObj = join((CompletionStage<?>) responseObj);
 			}
+		} catch (ProviderException e) {
+			handleException(e);
+			return;
+		}
+
+		handleResponse(responseObj);
+	}
+
+	private void handleException(ProviderException e) {
+		// As the Submodel-API does not specify a request to ask whether
+		// the operation is finished, it has to be done via the retrieval of the value.
+		// If the execution resulted in an Exception this Exception would be thrown here
+		// -> if a ProviderException with a RuntimeException as cause is thrown,
+		// the Operation is finished.
+		if (e.getCause() instanceof RuntimeException) {
+			resultRetrieved = true;
+			result = e;
+		} else {
+			// If it is something else -> rethrow it
+			throw e;
 		}
+	}
 
+	@SuppressWarnings("unchecked")
+	private void handleResponse(Object responseObj) {
 		// 2. Cast response to InvocationResponse
 		InvocationResponse response = null;
 		if (responseObj instanceof InvocationResponse) {
@@ -152,6 +280,17 @@ public class ConnectedAsyncInvocation implements IAsyncInvocation {
 		}
 	}
 
+	private static Object join(CompletionStage<?> stage) {
+		try {
+			return stage.toCompletableFuture().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
 	public String getRequestId() {
 		return requestId;
 	}
@@ -30,6 +30,8 @@ import java.util.stream.Collectors;
 
 import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationHandler;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
@@ -54,11 +56,23 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 	// Assumed to be a map that maps idShorts to the submodel elements
 	private IModelProvider modelProvider;
 
+	// Invokes the operations of the elements asynchronously
+	private AsyncOperationEngine asyncEngine;
+
 	/**
 	 * Constructor based on a model provider that contains the container property
 	 */
 	public MultiSubmodelElementProvider(IModelProvider provider) {
+		this(provider, AsyncOperationHandler.getDefaultEngine());
+	}
+
+	/**
+	 * Constructor based on a model provider that contains the container property.
+	 * Operations are invoked asynchronously by the passed engine.
+	 */
+	public MultiSubmodelElementProvider(IModelProvider provider, AsyncOperationEngine asyncEngine) {
 		this.modelProvider = provider;
+		this.asyncEngine = asyncEngine;
 	}
 
 	/**
@@ -79,6 +93,9 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 	 */
 	private IModelProvider getElementProxy(String[] pathElements) {
 		String idShort = pathElements[1];
+		if (modelProvider instanceof VABElementProxy) {
+			return ((VABElementProxy) modelProvider).getDeepProxy(idShort);
+		}
 		return new VABElementProxy(idShort, modelProvider);
 	}
 
@@ -91,7 +108,7 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 
 		if (qualifier.equals(ELEMENTS)) {
 			String subPath = VABPathTools.buildPath(pathElements, 2);
-			return new SubmodelElementProvider(elementProxy).getValue(subPath);
+			return new SubmodelElementProvider(elementProxy, asyncEngine).getValue(subPath);
 		} else {
 			throw new MalformedRequestException("Given path '" + path + "' does not start with /submodelElements");
 		}
@@ -128,7 +145,7 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 		IModelProvider elementProxy = getElementProxy(pathElements);
 		String subPath = VABPathTools.buildPath(pathElements, 2);
 
-		new SubmodelElementProvider(elementProxy).setValue(subPath, newValue);
+		new SubmodelElementProvider(elementProxy, asyncEngine).setValue(subPath, newValue);
 	}
 
 	@Override
@@ -158,7 +175,7 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 			}
 		} else {
 			IModelProvider elementProxy = getElementProxy(pathElements);
-			new SubmodelElementProvider(elementProxy).createValue(subPath, newEntity);
+			new SubmodelElementProvider(elementProxy, asyncEngine).createValue(subPath, newEntity);
 		}
 	}
 
@@ -176,7 +193,7 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 		// If the first Element is a Collection, use its Provider
 		if (pathElements.length > 2) {
 			IModelProvider elementProxy = getElementProxy(pathElements);
-			elementProvider = new SubmodelElementProvider(elementProxy);
+			elementProvider = new SubmodelElementProvider(elementProxy, asyncEngine);
 			subPath = VABPathTools.buildPath(pathElements, 2);
 		} else {
 			elementProvider = modelProvider;
@@ -203,6 +220,6 @@ public class MultiSubmodelElementProvider implements IModelProvider {
 		}
 
 		IModelProvider elementProxy = getElementProxy(pathElements);
-		return new SubmodelElementProvider(elementProxy).invokeOperation(subPath, parameters);
+		return new SubmodelElementProvider(elementProxy, asyncEngine).invokeOperation(subPath, parameters);
 	}
 }
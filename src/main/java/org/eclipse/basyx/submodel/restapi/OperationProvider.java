@@ -37,6 +37,7 @@ import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOpera
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.OperationVariable;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
 import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationHandler;
 import org.eclipse.basyx.submodel.restapi.operation.CallbackResponse;
 import org.eclipse.basyx.submodel.restapi.operation.DelegatedInvocationManager;
@@ -47,6 +48,7 @@ import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
 import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
 
 /**
@@ -58,18 +60,44 @@ import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
 public class OperationProvider implements IModelProvider {
 	public static final String ASYNC = "?async=true";
 	public static final String INVOCATION_LIST = "invocationList";
+
+	/**
+	 * Query parameter of result requests for the time in ms to wait for the
+	 * result, e.g. invocationList/{requestId}?wait=10000. Such requests are
+	 * answered with a {@link java.util.concurrent.CompletableFuture} of the
+	 * result, so that the calling thread is not blocked while waiting.
+	 */
+	public static final String WAIT = HTTPConnector.WAIT_PARAMETER;
 	public String operationId;
 
 	private IModelProvider modelProvider;
 	private DelegatedInvocationManager invocationHelper;
+	private AsyncOperationEngine asyncEngine;
 
 	public OperationProvider(IModelProvider modelProvider) {
 		this(modelProvider, new DelegatedInvocationManager(new HTTPConnectorFactory()));
 	}
 
+	/**
+	 * Creates a provider that invokes operations asynchronously using the passed
+	 * engine and delegates operations via HTTP
+	 */
+	public OperationProvider(IModelProvider modelProvider, AsyncOperationEngine asyncEngine) {
+		this(modelProvider, new DelegatedInvocationManager(new HTTPConnectorFactory()), asyncEngine);
+	}
+
 	public OperationProvider(IModelProvider modelProvider, DelegatedInvocationManager invocationHelper) {
+		this(modelProvider, invocationHelper, AsyncOperationHandler.getDefaultEngine());
+	}
+
+	/**
+	 * Creates a provider that invokes operations asynchronously using the passed
+	 * engine
+	 */
+	public OperationProvider(IModelProvider modelProvider, DelegatedInvocationManager invocationHelper, AsyncOperationEngine asyncEngine) {
 		this.modelProvider = modelProvider;
 		this.invocationHelper = invocationHelper;
+		this.asyncEngine = asyncEngine;
 		operationId = getIdShort(modelProvider.getValue(""));
 	}
 
@@ -80,13 +108,35 @@ public class OperationProvider implements IModelProvider {
 			return modelProvider.getValue("");
 		} else if (isInvocationListQuery(splitted)) {
 			String requestId = splitted[1];
-			return AsyncOperationHandler.retrieveResult(requestId, operationId);
+			long waitMs = 0;
+			int queryStart = requestId.indexOf('?');
+			if (queryStart >= 0) {
+				waitMs = getWaitParameter(requestId.substring(queryStart + 1));
+				requestId = requestId.substring(0, queryStart);
+			}
+			if (waitMs > 0) {
+				return asyncEngine.retrieveResultAsync(requestId, operationId, waitMs);
+			}
+			return asyncEngine.retrieveResult(requestId, operationId);
 
 		} else {
 			throw new MalformedRequestException("Get of an Operation supports only empty or /invocationList/{requestId} paths");
 		}
 	}
 
+	private long getWaitParameter(String query) {
+		for (String parameter : query.split("&")) {
+			if (parameter.startsWith(WAIT + "=")) {
+				try {
+					return Long.parseLong(parameter.substring(WAIT.length() + 1));
+				} catch (NumberFormatException e) {
+					throw new MalformedRequestException("Invalid value of parameter " + WAIT + ": " + parameter);
+				}
+			}
+		}
+		return 0;
+	}
+
 	private boolean isInvocationListQuery(String[] splitted) {
 		return splitted[0].equals(INVOCATION_LIST) && splitted.length == 2;
 	}
@@ -145,7 +195,7 @@ public class OperationProvider implements IModelProvider {
 	private CallbackResponse handleAsyncRequestInvokation(Operation operation, InvocationRequest request) {
 		Collection<IOperationVariable> outputVars = copyOutputVariables(operation);
 
-		AsyncOperationHandler.invokeAsync(operation, operationId, request, outputVars);
+		asyncEngine.invokeAsync(operation, operationId, request, outputVars);
 
 		// Request id has to be returned for caller to be able to retrieve result
 		// => Use callback response and leave url empty
@@ -174,7 +224,7 @@ public class OperationProvider implements IModelProvider {
 
 		String requestId = UUID.randomUUID().toString();
 
-		AsyncOperationHandler.invokeAsync(operation, operationId, requestId, unwrappedParameters, outputVars, 10000);
+		asyncEngine.invokeAsync(operation, operationId, requestId, unwrappedParameters, outputVars, 10000);
 		// Request id has to be returned for caller to be able to retrieve result
 		// => Use callback response and leave url empty
 		return new CallbackResponse(requestId, "");
@@ -29,6 +29,8 @@ import java.util.Map;
 
 import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationHandler;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
@@ -44,9 +46,19 @@ import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 public class SubmodelElementCollectionProvider implements IModelProvider {
 
 	private IModelProvider proxy;
+	private AsyncOperationEngine asyncEngine;
 
 	public SubmodelElementCollectionProvider(IModelProvider proxy) {
+		this(proxy, AsyncOperationHandler.getDefaultEngine());
+	}
+
+	/**
+	 * Creates a provider whose contained operations are invoked asynchronously by
+	 * the passed engine
+	 */
+	public SubmodelElementCollectionProvider(IModelProvider proxy, AsyncOperationEngine asyncEngine) {
 		this.proxy = proxy;
+		this.asyncEngine = asyncEngine;
 	}
 
 	/**
@@ -58,11 +70,19 @@ public class SubmodelElementCollectionProvider implements IModelProvider {
 		// handle collections correctly
 		// The paths then look like e.g.
 		// "submodelElements/collectionID/value/propertyID"
-		IModelProvider defaultProvider = new VABElementProxy(VABPathTools.concatenatePaths(MultiSubmodelElementProvider.VALUE, idShort), proxy);
+		String elementPath = VABPathTools.concatenatePaths(MultiSubmodelElementProvider.VALUE, idShort);
+		IModelProvider defaultProvider;
+		if (proxy instanceof VABElementProxy) {
+			// Point directly into the underlying provider instead of nesting proxies on
+			// each level of the path
+			defaultProvider = ((VABElementProxy) proxy).getDeepProxy(elementPath);
+		} else {
+			defaultProvider = new VABElementProxy(elementPath, proxy);
+		}
 
 		// Wrap the property with idShort into a SubmodelElementProvider and return that
 		// provider
-		return new SubmodelElementProvider(defaultProvider);
+		return new SubmodelElementProvider(defaultProvider, asyncEngine);
 	}
 
 	@Override
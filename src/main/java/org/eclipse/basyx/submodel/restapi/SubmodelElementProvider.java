@@ -28,11 +28,15 @@ import java.util.Map;
 
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.facade.submodelelement.SubmodelElementFacadeFactory;
+import org.eclipse.basyx.submodel.metamodel.map.modeltype.ModelType;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationHandler;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
@@ -50,28 +54,80 @@ public class SubmodelElementProvider implements IModelProvider {
 	private boolean specializedProvider = false;
 
 	public SubmodelElementProvider(IModelProvider proxy) {
+		this(proxy, AsyncOperationHandler.getDefaultEngine());
+	}
+
+	/**
+	 * Creates a provider whose operations, including those of nested
+	 * collections, are invoked asynchronously by the passed engine
+	 */
+	public SubmodelElementProvider(IModelProvider proxy, AsyncOperationEngine asyncEngine) {
 		IModelProvider unchangedProxy = proxy;
-		this.proxy = getElementProvider(proxy);
+		this.proxy = getElementProvider(proxy, asyncEngine);
 		// if the returned element provider is the same, no specialized provider exists
 		specializedProvider = unchangedProxy != this.proxy;
 	}
 
 	/**
 	 * Used to find out if an Element needs a specialized Provider (Collection,
-	 * Operation)
+	 * Operation). <br>
+	 * The type is determined by only retrieving the model type name of the
+	 * element, so that e.g. nested collections are not retrieved completely on
+	 * each level of a path. Only elements without model type are retrieved to
+	 * check for their type specific attributes.
 	 * 
 	 * @param proxy
 	 *            the Provider given from above
 	 * @return either the unchanged Provider or the Provider nested into a
 	 *         specialized ElementProvider
 	 */
-	@SuppressWarnings("unchecked")
 	public static IModelProvider getElementProvider(IModelProvider proxy) {
+		return getElementProvider(proxy, AsyncOperationHandler.getDefaultEngine());
+	}
+
+	/**
+	 * Like {@link #getElementProvider(IModelProvider)}, but operations are
+	 * invoked asynchronously by the passed engine
+	 */
+	public static IModelProvider getElementProvider(IModelProvider proxy, AsyncOperationEngine asyncEngine) {
+		String modelType = getModelTypeName(proxy);
+		if (modelType == null) {
+			return getElementProviderByAttributes(proxy, asyncEngine);
+		}
+
+		switch (modelType) {
+		case Operation.MODELTYPE:
+			return new OperationProvider(proxy, asyncEngine);
+		case SubmodelElementCollection.MODELTYPE:
+			return new SubmodelElementCollectionProvider(proxy, asyncEngine);
+		case Property.MODELTYPE:
+			return new PropertyProvider(proxy);
+		default:
+			return proxy;
+		}
+	}
+
+	/**
+	 * Retrieves the model type name of the element the proxy is pointing to
+	 * 
+	 * @return the name or null, if the element has no model type
+	 */
+	private static String getModelTypeName(IModelProvider proxy) {
+		try {
+			Object name = proxy.getValue(VABPathTools.concatenatePaths(ModelType.MODELTYPE, ModelType.NAME));
+			return name instanceof String ? (String) name : null;
+		} catch (ResourceNotFoundException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static IModelProvider getElementProviderByAttributes(IModelProvider proxy, AsyncOperationEngine asyncEngine) {
 		Map<String, Object> elementMap = (Map<String, Object>) proxy.getValue("");
 		if (Operation.isOperation(elementMap)) {
-			return new OperationProvider(proxy);
+			return new OperationProvider(proxy, asyncEngine);
 		} else if (SubmodelElementCollection.isSubmodelElementCollection(elementMap)) {
-			return new SubmodelElementCollectionProvider(proxy);
+			return new SubmodelElementCollectionProvider(proxy, asyncEngine);
 		} else if (Property.isProperty(elementMap)) {
 			return new PropertyProvider(proxy);
 		} else {
@@ -42,6 +42,7 @@ import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.prop
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueTypeHelper;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
 import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
@@ -89,6 +90,14 @@ public class SubmodelProvider implements IModelProvider {
 		submodelAPI = new VABSubmodelAPI(provider);
 	}
 
+	/**
+	 * Creates a SubmodelProvider based on the VAB API, wrapping the passed
+	 * provider. Operations are invoked asynchronously using the passed engine.
+	 */
+	public SubmodelProvider(IModelProvider provider, AsyncOperationEngine asyncEngine) {
+		submodelAPI = new VABSubmodelAPI(provider, asyncEngine);
+	}
+
 	/**
 	 * Creates a SubmodelProvider based on a lambda provider and a given model
 	 */
@@ -96,6 +105,14 @@ public class SubmodelProvider implements IModelProvider {
 		submodelAPI = new VABSubmodelAPI(new VABLambdaProvider(model));
 	}
 
+	/**
+	 * Creates a SubmodelProvider based on a lambda provider and a given model,
+	 * whose operations are invoked asynchronously using the passed engine
+	 */
+	public SubmodelProvider(Submodel model, AsyncOperationEngine asyncEngine) {
+		submodelAPI = new VABSubmodelAPI(new VABLambdaProvider(model), asyncEngine);
+	}
+
 	/**
 	 * Creates a SubmodelProvider based on a given ISubmodelAPI.
 	 */
@@ -24,6 +24,7 @@
  ******************************************************************************/
 package org.eclipse.basyx.submodel.restapi.api;
 
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 
 /**
@@ -46,4 +47,14 @@ public interface ISubmodelAPIFactory {
 	public default ISubmodelAPI create(Submodel submodel) {
 		return getSubmodelAPI(submodel);
 	}
+
+	/**
+	 * Notifies the factory that the submodel with the given identifier has been
+	 * deleted, so that it can release the resources of its API, e.g. its
+	 * persisted state. By default, nothing is released.
+	 * 
+	 * @param identifier
+	 */
+	public default void delete(IIdentifier identifier) {
+	}
 }
@@ -0,0 +1,438 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.indexed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.restapi.OperationProvider;
+import org.eclipse.basyx.submodel.restapi.SubmodelElementProvider;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+
+/**
+ * In-memory Submodel API that keeps an index from idShort paths to the
+ * submodel elements of a submodel. Elements that are contained in the index
+ * are accessed directly instead of traversing the submodel along their path.
+ * The element itself is handled by the same providers as in the
+ * {@link VABSubmodelAPI}, e.g. lambda properties are supported. <br>
+ * Requests for paths that are not contained in the index, e.g. invalid paths,
+ * are passed to a {@link VABSubmodelAPI} on the same submodel. <br>
+ * <br>
+ * The index only reflects modifications done through this API. Reading
+ * accesses can be executed concurrently, modifications are executed
+ * exclusively.
+ */
+public class IndexedSubmodelAPI implements ISubmodelAPI {
+	private final Submodel submodel;
+	private final VABSubmodelAPI fallback;
+
+	private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+	private final Set<String> rootPaths = new LinkedHashSet<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Entry of the index. The element is resolved from its container on access, so
+	 * that replacing the element within its container is reflected.
+	 */
+	private static class IndexEntry {
+		private final Map<String, Object> container;
+		private final String idShort;
+		private final Set<String> childPaths = new LinkedHashSet<>();
+
+		public IndexEntry(Map<String, Object> container, String idShort) {
+			this.container = container;
+			this.idShort = idShort;
+		}
+
+		public Object getElement() {
+			return container.get(idShort);
+		}
+
+		/**
+		 * Returns the map containing the child elements, if the element is a
+		 * SubmodelElementCollection
+		 */
+		public Map<String, Object> getChildContainer() {
+			return getCollectionContainer(getElement());
+		}
+	}
+
+	/**
+	 * Creates the API for a submodel and indexes its submodel elements
+	 * 
+	 * @param submodel
+	 *            the submodel, which is accessed by this API
+	 */
+	public IndexedSubmodelAPI(Submodel submodel) {
+		this.submodel = submodel;
+		this.fallback = new VABSubmodelAPI(new VABLambdaProvider(submodel));
+		rebuildIndex();
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * The returned submodel is a snapshot, that is not affected by concurrent
+	 * modifications.
+	 */
+	@Override
+	public ISubmodel getSubmodel() {
+		lock.readLock().lock();
+		try {
+			return fallback.getSubmodel();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void addSubmodelElement(ISubmodelElement elem) {
+		addSubmodelElement(elem.getIdShort(), elem);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void addSubmodelElement(String idShortPath, ISubmodelElement elem) {
+		idShortPath = VABPathTools.stripSlashes(idShortPath);
+		Object newElement = elem;
+		// Collections are stored with a map of their elements, like in the
+		// MultiSubmodelElementProvider
+		if (SubmodelElementCollection.isSubmodelElementCollection((Map<String, Object>) newElement)) {
+			SubmodelElementCollection smCollection = SubmodelElementCollection.createAsFacade((Map<String, Object>) newElement);
+			newElement = SubmodelElementMapCollectionConverter.mapToSmECollection(smCollection);
+		}
+
+		String parentPath = getParentPath(idShortPath);
+		String idShort = getIdShort(idShortPath);
+
+		lock.writeLock().lock();
+		try {
+			Map<String, Object> container;
+			Set<String> siblingPaths;
+			if (parentPath.isEmpty()) {
+				container = getRootContainer();
+				siblingPaths = rootPaths;
+			} else {
+				IndexEntry parent = index.get(parentPath);
+				container = parent == null ? null : parent.getChildContainer();
+				siblingPaths = parent == null ? null : parent.childPaths;
+			}
+
+			if (container == null) {
+				fallback.addSubmodelElement(idShortPath, elem);
+				rebuildIndex();
+				return;
+			}
+
+			removeFromIndex(idShortPath);
+			siblingPaths.remove(idShortPath);
+			container.put(idShort, newElement);
+			addToIndex(parentPath, container, idShort, siblingPaths);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ISubmodelElement getSubmodelElement(String idShortPath) {
+		idShortPath = VABPathTools.stripSlashes(idShortPath);
+		lock.readLock().lock();
+		try {
+			IndexEntry entry = index.get(idShortPath);
+			if (entry == null) {
+				return fallback.getSubmodelElement(idShortPath);
+			}
+			return SubmodelElement.createAsFacade((Map<String, Object>) getElementProvider(entry).getValue(""));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteSubmodelElement(String idShortPath) {
+		idShortPath = VABPathTools.stripSlashes(idShortPath);
+		lock.writeLock().lock();
+		try {
+			IndexEntry entry = index.get(idShortPath);
+			if (entry == null) {
+				fallback.deleteSubmodelElement(idShortPath);
+				rebuildIndex();
+				return;
+			}
+
+			entry.container.remove(entry.idShort);
+			removeFromIndex(idShortPath);
+			String parentPath = getParentPath(idShortPath);
+			if (parentPath.isEmpty()) {
+				rootPaths.remove(idShortPath);
+			} else {
+				index.get(parentPath).childPaths.remove(idShortPath);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Collection<IOperation> getOperations() {
+		return getSubmodelElements().stream().filter(e -> e instanceof IOperation).map(e -> (IOperation) e).collect(Collectors.toList());
+	}
+
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElements() {
+		return getSubmodelElements("", 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Retrieves a range of the submodel elements contained in the submodel or in a
+	 * SubmodelElementCollection. The elements are returned in the order they are
+	 * contained.
+	 * 
+	 * @param idShortPath
+	 *            the idShort path to the SubmodelElementCollection or an empty
+	 *            path for the submodel elements of the submodel
+	 * @param offset
+	 *            number of elements to skip
+	 * @param limit
+	 *            maximum number of elements to return
+	 * @return the submodel elements in the given range
+	 */
+	@SuppressWarnings("unchecked")
+	public Collection<ISubmodelElement> getSubmodelElements(String idShortPath, int offset, int limit) {
+		idShortPath = VABPathTools.stripSlashes(idShortPath);
+		lock.readLock().lock();
+		try {
+			Map<String, Object> container;
+			if (idShortPath.isEmpty()) {
+				container = getRootContainer();
+				if (container == null) {
+					return fallback.getSubmodelElements().stream().skip(offset).limit(limit).collect(Collectors.toList());
+				}
+			} else {
+				IndexEntry entry = index.get(idShortPath);
+				if (entry == null) {
+					throw new ResourceNotFoundException("The element '" + idShortPath + "' does not exist");
+				}
+				container = entry.getChildContainer();
+				if (container == null) {
+					throw new MalformedRequestException("The element '" + idShortPath + "' is not a SubmodelElementCollection");
+				}
+			}
+
+			List<ISubmodelElement> elements = new ArrayList<>();
+			for (String idShort : container.keySet().stream().skip(offset).limit(limit).collect(Collectors.toList())) {
+				IModelProvider provider = getElementProvider(new IndexEntry(container, idShort));
+				elements.add(SubmodelElement.createAsFacade((Map<String, Object>) provider.getValue("")));
+			}
+			return elements;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void updateSubmodelElement(String idShortPath, Object newValue) {
+		idShortPath = VABPathTools.stripSlashes(idShortPath);
+		lock.writeLock().lock();
+		try {
+			IndexEntry entry = index.get(idShortPath);
+			if (entry == null) {
+				fallback.updateSubmodelElement(idShortPath, newValue);
+				rebuildIndex();
+				return;
+			}
+
+			getElementProvider(entry).setValue(Property.VALUE, newValue);
+
+			// Updating a collection replaces its elements
+			entry.childPaths.forEach(this::removeFromIndex);
+			entry.childPaths.clear();
+			Map<String, Object> childContainer = entry.getChildContainer();
+			if (childContainer != null) {
+				addToIndex(idShortPath, childContainer, entry.childPaths);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Object getSubmodelElementValue(String idShortPath) {
+		idShortPath = VABPathTools.stripSlashes(idShortPath);
+		lock.readLock().lock();
+		try {
+			IndexEntry entry = index.get(idShortPath);
+			if (entry == null) {
+				return fallback.getSubmodelElementValue(idShortPath);
+			}
+			return getElementProvider(entry).getValue(Property.VALUE);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Object invokeOperation(String idShortPath, Object... params) {
+		IModelProvider provider = getOperationProvider(idShortPath);
+		if (provider == null) {
+			return fallback.invokeOperation(idShortPath, params);
+		}
+		return provider.invokeOperation(Operation.INVOKE, params);
+	}
+
+	@Override
+	public Object invokeAsync(String idShortPath, Object... params) {
+		IModelProvider provider = getOperationProvider(idShortPath);
+		if (provider == null) {
+			return fallback.invokeAsync(idShortPath, params);
+		}
+		return provider.invokeOperation(Operation.INVOKE + OperationProvider.ASYNC, params);
+	}
+
+	@Override
+	public Object getOperationResult(String idShortPath, String requestId) {
+		IModelProvider provider = getOperationProvider(idShortPath);
+		if (provider == null) {
+			return fallback.getOperationResult(idShortPath, requestId);
+		}
+		return provider.getValue(VABPathTools.concatenatePaths(OperationProvider.INVOCATION_LIST, requestId));
+	}
+
+	/**
+	 * Creates a provider for an indexed element, that handles the element like the
+	 * VABSubmodelAPI
+	 */
+	private IModelProvider getElementProvider(IndexEntry entry) {
+		return new SubmodelElementProvider(new VABElementProxy(entry.idShort, new VABLambdaProvider(entry.container)));
+	}
+
+	/**
+	 * Creates a provider for invoking an indexed element. In contrast to
+	 * {@link #getElementProvider(IndexEntry)}, it is only based on the element
+	 * itself, since invocations are executed without holding the lock.
+	 * 
+	 * @return the provider or null, if the element is not indexed
+	 */
+	@SuppressWarnings("unchecked")
+	private IModelProvider getOperationProvider(String idShortPath) {
+		idShortPath = VABPathTools.stripSlashes(idShortPath);
+		lock.readLock().lock();
+		try {
+			IndexEntry entry = index.get(idShortPath);
+			if (entry == null) {
+				return null;
+			}
+			return new SubmodelElementProvider(new VABLambdaProvider((Map<String, Object>) entry.getElement()));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getRootContainer() {
+		Object elements = submodel.get(Submodel.SUBMODELELEMENT);
+		return elements instanceof Map<?, ?> ? (Map<String, Object>) elements : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getCollectionContainer(Object element) {
+		if (!(element instanceof Map<?, ?>) || !SubmodelElementCollection.isSubmodelElementCollection((Map<String, Object>) element)) {
+			return null;
+		}
+		Object value = ((Map<String, Object>) element).get(Property.VALUE);
+		return value instanceof Map<?, ?> ? (Map<String, Object>) value : null;
+	}
+
+	private void rebuildIndex() {
+		index.clear();
+		rootPaths.clear();
+		Map<String, Object> container = getRootContainer();
+		if (container != null) {
+			addToIndex("", container, rootPaths);
+		}
+	}
+
+	private void addToIndex(String parentPath, Map<String, Object> container, Set<String> paths) {
+		for (String idShort : container.keySet()) {
+			addToIndex(parentPath, container, idShort, paths);
+		}
+	}
+
+	private void addToIndex(String parentPath, Map<String, Object> container, String idShort, Set<String> paths) {
+		if (!(container.get(idShort) instanceof Map<?, ?>)) {
+			return;
+		}
+
+		String path = parentPath.isEmpty() ? idShort : parentPath + VABPathTools.SEPERATOR + idShort;
+		IndexEntry entry = new IndexEntry(container, idShort);
+		index.put(path, entry);
+		paths.add(path);
+
+		Map<String, Object> childContainer = entry.getChildContainer();
+		if (childContainer != null) {
+			addToIndex(path, childContainer, entry.childPaths);
+		}
+	}
+
+	private void removeFromIndex(String path) {
+		IndexEntry entry = index.remove(path);
+		if (entry != null) {
+			entry.childPaths.forEach(this::removeFromIndex);
+		}
+	}
+
+	private static String getParentPath(String idShortPath) {
+		int lastSeparator = idShortPath.lastIndexOf(VABPathTools.SEPERATOR);
+		return lastSeparator < 0 ? "" : idShortPath.substring(0, lastSeparator);
+	}
+
+	private static String getIdShort(String idShortPath) {
+		return idShortPath.substring(idShortPath.lastIndexOf(VABPathTools.SEPERATOR) + 1);
+	}
+}
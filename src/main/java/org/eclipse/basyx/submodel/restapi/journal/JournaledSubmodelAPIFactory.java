@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.journal.JournaledModelProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+
+/**
+ * Submodel API factory that provides the VAB Submodel API on top of a
+ * {@link JournaledModelProvider}. Each submodel is persisted in its own
+ * subdirectory named after its identifier.<br>
+ * <br>
+ * The first API created for an identifier recovers the persisted state of its
+ * directory, if there is one, which then replaces the passed submodel. Further
+ * APIs for the same identifier, e.g. for updates of the submodel, share its
+ * provider and write the passed submodel to its journal. The directory is
+ * removed when the submodel is deleted.<br>
+ * <br>
+ * Operations are not journaled. After recovery, the operations of the submodel
+ * passed to the first API are available. Lambda properties are journaled with
+ * their current values and are recovered as static properties.
+ */
+public class JournaledSubmodelAPIFactory implements ISubmodelAPIFactory, Closeable {
+	private final String rootDirectory;
+	private final int snapshotInterval;
+
+	// One provider per submodel identifier, since each owns the journal of its
+	// directory
+	private final Map<String, JournaledModelProvider> providers = new ConcurrentHashMap<>();
+
+	public JournaledSubmodelAPIFactory(String rootDirectory) {
+		this(rootDirectory, JournaledModelProvider.DEFAULT_SNAPSHOT_INTERVAL);
+	}
+
+	public JournaledSubmodelAPIFactory(String rootDirectory, int snapshotInterval) {
+		this.rootDirectory = rootDirectory;
+		this.snapshotInterval = snapshotInterval;
+	}
+
+	@Override
+	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
+		String id = submodel.getIdentification().getId();
+		JournaledModelProvider provider = providers.compute(id, (key, existing) -> {
+			if (existing == null) {
+				return new JournaledModelProvider(new VABLambdaProvider(submodel), getDirectory(id), snapshotInterval);
+			}
+
+			// Replaces the current model instead of recovering it again
+			existing.setValue("", submodel);
+			return existing;
+		});
+		return new VABSubmodelAPI(provider);
+	}
+
+	/**
+	 * Closes the provider of the submodel and removes its directory
+	 */
+	@Override
+	public void delete(IIdentifier identifier) {
+		String id = identifier.getId();
+		providers.compute(id, (key, existing) -> {
+			try {
+				if (existing != null) {
+					existing.close();
+				}
+				deleteDirectory(Paths.get(getDirectory(id)));
+			} catch (IOException e) {
+				throw new ProviderException("Could not delete the persisted state of submodel " + id, e);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Closes the providers of all submodels. Their persisted state is kept.
+	 */
+	@Override
+	public void close() throws IOException {
+		for (String id : providers.keySet()) {
+			JournaledModelProvider provider = providers.remove(id);
+			if (provider != null) {
+				provider.close();
+			}
+		}
+	}
+
+	private String getDirectory(String id) {
+		return rootDirectory + "/" + VABPathTools.encodePathElement(id);
+	}
+
+	private static void deleteDirectory(Path directory) throws IOException {
+		if (!Files.exists(directory)) {
+			return;
+		}
+
+		List<Path> paths;
+		try (Stream<Path> stream = Files.walk(directory)) {
+			// Contents before their directories
+			paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+		}
+		for (Path path : paths) {
+			Files.delete(path);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.observing;
+
+import java.util.Objects;
+
+/**
+ * Configuration of a {@link FilteringSubmodelAPIObserver} for the updates of a
+ * SubmodelElement. <br>
+ * By default, only updates that do not change the value are suppressed.
+ */
+public class ElementUpdateFilter {
+	private double absoluteDeadband;
+	private double percentDeadband;
+	private long minIntervalMs;
+
+	/**
+	 * Suppresses updates of numeric values whose absolute difference to the last
+	 * forwarded value is less than or equal to the deadband
+	 * 
+	 * @param deadband
+	 * @return this filter
+	 */
+	public ElementUpdateFilter setAbsoluteDeadband(double deadband) {
+		this.absoluteDeadband = checkNotNegative(deadband);
+		return this;
+	}
+
+	/**
+	 * Suppresses updates of numeric values whose difference to the last forwarded
+	 * value is less than or equal to the given percentage of the last forwarded
+	 * value
+	 * 
+	 * @param percent
+	 * @return this filter
+	 */
+	public ElementUpdateFilter setPercentDeadband(double percent) {
+		this.percentDeadband = checkNotNegative(percent);
+		return this;
+	}
+
+	/**
+	 * Forwards at most one update per interval. Updates within the interval are
+	 * coalesced, so that only the latest value is forwarded at the end of the
+	 * interval.
+	 * 
+	 * @param minIntervalMs
+	 * @return this filter
+	 */
+	public ElementUpdateFilter setMinInterval(long minIntervalMs) {
+		this.minIntervalMs = (long) checkNotNegative(minIntervalMs);
+		return this;
+	}
+
+	public double getAbsoluteDeadband() {
+		return absoluteDeadband;
+	}
+
+	public double getPercentDeadband() {
+		return percentDeadband;
+	}
+
+	public long getMinInterval() {
+		return minIntervalMs;
+	}
+
+	/**
+	 * Returns true, if an update from the last forwarded value to the new value
+	 * shall be suppressed
+	 */
+	boolean isWithinDeadband(Object lastValue, Object newValue) {
+		if (lastValue instanceof Number && newValue instanceof Number) {
+			double last = ((Number) lastValue).doubleValue();
+			double difference = Math.abs(((Number) newValue).doubleValue() - last);
+			return difference <= absoluteDeadband || difference <= Math.abs(last) * percentDeadband / 100;
+		}
+		return Objects.equals(lastValue, newValue);
+	}
+
+	private static double checkNotNegative(double value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Invalid negative value: " + value);
+		}
+		return value;
+	}
+}
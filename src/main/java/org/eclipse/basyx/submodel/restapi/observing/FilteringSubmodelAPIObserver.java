@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.observing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.support.SharedExecutor;
+
+/**
+ * Decorates an {@link ISubmodelAPIObserver} and reduces the updates forwarded
+ * to it. <br>
+ * Updates of each idShortPath are filtered according to an
+ * {@link ElementUpdateFilter}: Updates within the deadband of the last
+ * forwarded value are suppressed and at most one update per minimum interval
+ * is forwarded, where the latest value wins. Updates held back for the interval
+ * are forwarded by an executor, by default the {@link SharedExecutor}. The
+ * decorated observer is never called while a lock is held, but the updates of
+ * an idShortPath are forwarded one at a time and in order. <br>
+ * Additions and deletions are always forwarded. Held back updates of the
+ * affected element and its children are forwarded before, so that the order
+ * of the events is kept.
+ */
+public class FilteringSubmodelAPIObserver implements ISubmodelAPIObserver {
+	/**
+	 * Update state of a single idShortPath
+	 */
+	private class ElementState {
+		private final String idShortPath;
+		private final ElementUpdateFilter filter;
+		private boolean forwarded;
+		private Object lastValue;
+		private long lastForwardNanos;
+		private boolean pending;
+		private Object pendingValue;
+
+		// Identifies the current task forwarding the pending value, so that
+		// cancelled tasks are ignored
+		private Object scheduled;
+
+		// Values to forward in order. Only one thread delivers them at a time.
+		private List<Object> outgoing = new ArrayList<>();
+		private Thread deliveringThread;
+
+		private ElementState(String idShortPath, ElementUpdateFilter filter) {
+			this.idShortPath = idShortPath;
+			this.filter = filter;
+		}
+
+		private void update(Object newValue) {
+			synchronized (this) {
+				if (forwarded && filter.isWithinDeadband(lastValue, newValue)) {
+					// The latest value is not different from the forwarded one
+					pending = false;
+					return;
+				}
+
+				long minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(filter.getMinInterval());
+				long elapsed = System.nanoTime() - lastForwardNanos;
+				if (!forwarded || elapsed >= minIntervalNanos) {
+					forward(newValue);
+				} else {
+					pending = true;
+					pendingValue = newValue;
+					if (scheduled == null) {
+						Object task = new Object();
+						scheduled = task;
+						CompletableFuture.delayedExecutor(minIntervalNanos - elapsed, TimeUnit.NANOSECONDS, executor).execute(() -> forwardPending(task));
+						return;
+					}
+				}
+			}
+			deliver();
+		}
+
+		private void forwardPending(Object task) {
+			synchronized (this) {
+				if (scheduled != task) {
+					return;
+				}
+				scheduled = null;
+				if (pending) {
+					forward(pendingValue);
+				}
+			}
+			deliver();
+		}
+
+		/**
+		 * Updates the state for a forwarded value. Has to be called while holding
+		 * the monitor, followed by {@link #deliver()} after releasing it.
+		 */
+		private void forward(Object value) {
+			pending = false;
+			pendingValue = null;
+			forwarded = true;
+			lastValue = value;
+			lastForwardNanos = System.nanoTime();
+			outgoing.add(value);
+		}
+
+		/**
+		 * Passes the outgoing values to the observer without holding the monitor,
+		 * unless another thread is already doing so
+		 */
+		private void deliver() {
+			List<Object> values;
+			synchronized (this) {
+				if (deliveringThread != null) {
+					return;
+				}
+				deliveringThread = Thread.currentThread();
+			}
+
+			boolean delivered = false;
+			try {
+				while (true) {
+					synchronized (this) {
+						if (outgoing.isEmpty()) {
+							// Released together with the check, so that no value is left behind
+							delivered = true;
+							stopDelivering();
+							return;
+						}
+						values = outgoing;
+						outgoing = new ArrayList<>();
+					}
+					for (Object value : values) {
+						observer.elementUpdated(idShortPath, value);
+					}
+				}
+			} finally {
+				if (!delivered) {
+					synchronized (this) {
+						stopDelivering();
+					}
+				}
+			}
+		}
+
+		private void stopDelivering() {
+			deliveringThread = null;
+			notifyAll();
+		}
+
+		/**
+		 * Forwards the held back update and returns once all updates have been
+		 * passed to the observer
+		 */
+		private void close() {
+			synchronized (this) {
+				scheduled = null;
+				if (pending) {
+					forward(pendingValue);
+				}
+			}
+			deliver();
+
+			synchronized (this) {
+				// Updates delivered by the calling thread itself, e.g. if the observer
+				// caused this call, can not be waited for
+				while (deliveringThread != null && deliveringThread != Thread.currentThread()) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+			deliver();
+		}
+	}
+
+	private final ISubmodelAPIObserver observer;
+	private final ElementUpdateFilter defaultFilter;
+	private final Executor executor;
+	private final Map<String, ElementUpdateFilter> filters = new ConcurrentHashMap<>();
+	private final Map<String, ElementState> states = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a filtering observer that only suppresses unchanged values by
+	 * default
+	 * 
+	 * @param observer
+	 *            the observer the filtered events are forwarded to
+	 */
+	public FilteringSubmodelAPIObserver(ISubmodelAPIObserver observer) {
+		this(observer, new ElementUpdateFilter());
+	}
+
+	/**
+	 * Creates a filtering observer
+	 * 
+	 * @param observer
+	 *            the observer the filtered events are forwarded to
+	 * @param defaultFilter
+	 *            filter for all idShortPaths without a specific filter
+	 */
+	public FilteringSubmodelAPIObserver(ISubmodelAPIObserver observer, ElementUpdateFilter defaultFilter) {
+		this(observer, defaultFilter, SharedExecutor.get());
+	}
+
+	/**
+	 * Creates a filtering observer
+	 * 
+	 * @param observer
+	 *            the observer the filtered events are forwarded to
+	 * @param defaultFilter
+	 *            filter for all idShortPaths without a specific filter
+	 * @param executor
+	 *            executor forwarding the updates held back for the minimum
+	 *            interval
+	 */
+	public FilteringSubmodelAPIObserver(ISubmodelAPIObserver observer, ElementUpdateFilter defaultFilter, Executor executor) {
+		this.observer = observer;
+		this.defaultFilter = defaultFilter;
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the filter for the updates of a specific idShortPath. Has to be called
+	 * before the first update of this path.
+	 * 
+	 * @param idShortPath
+	 * @param filter
+	 */
+	public void setFilter(String idShortPath, ElementUpdateFilter filter) {
+		filters.put(normalize(idShortPath), filter);
+	}
+
+	/**
+	 * Forwards all held back updates immediately
+	 */
+	public void flush() {
+		states.values().forEach(ElementState::close);
+	}
+
+	@Override
+	public void elementAdded(String idShortPath, Object newValue) {
+		resetElement(idShortPath);
+		observer.elementAdded(idShortPath, newValue);
+	}
+
+	@Override
+	public void elementDeleted(String idShortPath) {
+		resetElement(idShortPath);
+		observer.elementDeleted(idShortPath);
+	}
+
+	@Override
+	public void elementUpdated(String idShortPath, Object newValue) {
+		String path = normalize(idShortPath);
+		ElementState state = states.computeIfAbsent(path, p -> new ElementState(idShortPath, filters.getOrDefault(p, defaultFilter)));
+		state.update(newValue);
+	}
+
+	/**
+	 * Forwards the held back updates of the element and its children and forgets
+	 * their last values
+	 */
+	private void resetElement(String idShortPath) {
+		String path = normalize(idShortPath);
+		String childPrefix = path + "/";
+		states.entrySet().removeIf(entry -> {
+			if (entry.getKey().equals(path) || entry.getKey().startsWith(childPrefix)) {
+				entry.getValue().close();
+				return true;
+			}
+			return false;
+		});
+	}
+
+	private static String normalize(String idShortPath) {
+		return VABPathTools.stripSlashes(idShortPath);
+	}
+}
@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.submodel.restapi.operation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperationVariable;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.OperationExecutionTimeoutException;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+
+/**
+ * Invokes operations asynchronously and keeps their results until they are
+ * retrieved. <br>
+ * At most a maximum number of invocations are in flight at the same time;
+ * further invocations are rejected. Invocations exceeding their timeout are
+ * cancelled. Results that are not retrieved are removed after a fixed time.
+ * <br>
+ * The executor running the operations can be configured, e.g. to use a virtual
+ * thread per task on Java versions supporting it.
+ */
+public class AsyncOperationEngine {
+	public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+	public static final long DEFAULT_RESULT_TIME_TO_LIVE_MS = 600000;
+	public static final long MAX_RESULT_WAIT_MS = 60000;
+
+	private final Map<String, Invocation> invocations = new ConcurrentHashMap<>();
+	private final ExecutorService executor;
+	private final ScheduledThreadPoolExecutor scheduler;
+	private final Semaphore inFlight;
+	private final long resultTimeToLiveMs;
+
+	/**
+	 * Creates an engine running the operations on a cached thread pool
+	 */
+	public AsyncOperationEngine() {
+		this(Executors.newCachedThreadPool(runnable -> createDaemonThread(runnable, "AsyncOperationEngine")), DEFAULT_MAX_IN_FLIGHT, DEFAULT_RESULT_TIME_TO_LIVE_MS);
+	}
+
+	/**
+	 * 
+	 * @param executor
+	 *            runs the operations
+	 * @param maxInFlight
+	 *            maximum number of invocations that are in flight at the same
+	 *            time
+	 * @param resultTimeToLiveMs
+	 *            time after which a result that has not been retrieved is
+	 *            removed
+	 */
+	public AsyncOperationEngine(ExecutorService executor, int maxInFlight, long resultTimeToLiveMs) {
+		this.executor = executor;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.resultTimeToLiveMs = resultTimeToLiveMs;
+		this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> createDaemonThread(runnable, "AsyncOperationEngine-scheduler"));
+		// Timeouts of completed invocations are cancelled and shall not be kept
+		this.scheduler.setRemoveOnCancelPolicy(true);
+	}
+
+	private static Thread createDaemonThread(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	/**
+	 * Invokes an Operation with an invocation request
+	 */
+	public void invokeAsync(Operation operation, String operationId, InvocationRequest request, Collection<IOperationVariable> outputArguments) {
+		invokeAsync(operation, operationId, request.getRequestId(), request.unwrapInputParameters(), request.getInOutArguments(), outputArguments, request.getTimeout());
+	}
+
+	/**
+	 * Invokes an Operation without an invocation request
+	 */
+	public void invokeAsync(Operation operation, String operationId, String requestId, Object[] inputs, Collection<IOperationVariable> outputArguments, int timeout) {
+		invokeAsync(operation, operationId, requestId, inputs, new ArrayList<>(), outputArguments, timeout);
+	}
+
+	private void invokeAsync(Operation operation, String operationId, String requestId, Object[] inputs, Collection<IOperationVariable> inOutArguments, Collection<IOperationVariable> outputArguments, int timeout) {
+		if (!inFlight.tryAcquire()) {
+			throw new ProviderException("Request " + requestId + " rejected, since too many asynchronous invocations are in flight");
+		}
+
+		InvocationResponse response = new InvocationResponse(requestId, inOutArguments, outputArguments, ExecutionState.INITIATED);
+		Invocation invocation = new Invocation(requestId, operationId, response);
+		invocations.put(requestId, invocation);
+		try {
+			invocation.future = executor.submit(() -> invocation.run(operation, inputs));
+		} catch (RejectedExecutionException e) {
+			invocations.remove(requestId, invocation);
+			invocation.releaseSlot();
+			throw new ProviderException("Request " + requestId + " rejected by the executor", e);
+		}
+		invocation.timeout = scheduler.schedule(invocation::timeOut, timeout, TimeUnit.MILLISECONDS);
+		if (invocation.finished.get()) {
+			// Finished before its timeout has been scheduled
+			invocation.timeout.cancel(false);
+		}
+	}
+
+	/**
+	 * Gets the result of an invocation. Finished invocations are removed when
+	 * their result is retrieved.
+	 * 
+	 * @param requestId
+	 *            the id of the request
+	 * @param operationId
+	 *            the id of the requested Operation
+	 * @return the result of the Operation or a Message that it is not yet finished
+	 */
+	public Object retrieveResult(String requestId, String operationId) {
+		return retrieveResult(requestId, operationId, 0);
+	}
+
+	/**
+	 * Gets the result of an invocation. If the invocation has not finished yet,
+	 * waits for it to finish up to the passed time. This allows clients to wait
+	 * for results with a single request instead of polling.
+	 * 
+	 * @param requestId
+	 *            the id of the request
+	 * @param operationId
+	 *            the id of the requested Operation
+	 * @param waitMs
+	 *            maximum time to wait, limited to {@link #MAX_RESULT_WAIT_MS}
+	 * @return the result of the Operation or a Message that it is not yet finished
+	 */
+	public Object retrieveResult(String requestId, String operationId, long waitMs) {
+		Invocation invocation = getInvocation(requestId, operationId);
+		if (waitMs > 0 && !invocation.completion.isDone()) {
+			try {
+				invocation.completion.get(Math.min(waitMs, MAX_RESULT_WAIT_MS), TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// Return the unfinished response
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// The completion is never completed exceptionally
+			}
+		}
+
+		return takeResponse(invocation);
+	}
+
+	/**
+	 * Gets the result of an invocation without blocking the calling thread. If
+	 * the invocation has not finished yet, the returned future is completed when
+	 * it finishes or when the passed time has elapsed, whichever comes first.
+	 *
+	 * @param requestId
+	 *            the id of the request
+	 * @param operationId
+	 *            the id of the requested Operation
+	 * @param waitMs
+	 *            maximum time to wait, limited to {@link #MAX_RESULT_WAIT_MS}
+	 * @return the future of the result of the Operation or of a Message that it
+	 *         is not yet finished
+	 */
+	public CompletableFuture<Object> retrieveResultAsync(String requestId, String operationId, long waitMs) {
+		Invocation invocation = getInvocation(requestId, operationId);
+		if (waitMs <= 0 || invocation.completion.isDone()) {
+			return CompletableFuture.completedFuture(takeResponse(invocation));
+		}
+
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		ScheduledFuture<?> timeout = scheduler.schedule(() -> result.complete(takeResponse(invocation)), Math.min(waitMs, MAX_RESULT_WAIT_MS), TimeUnit.MILLISECONDS);
+		invocation.completion.whenComplete((response, error) -> {
+			timeout.cancel(false);
+			result.complete(takeResponse(invocation));
+		});
+		return result;
+	}
+
+	private Object takeResponse(Invocation invocation) {
+		if (invocation.completion.isDone()) {
+			invocations.remove(invocation.requestId, invocation);
+		}
+		return invocation.response;
+	}
+
+	/**
+	 * Returns a future that is completed with the response of an invocation once
+	 * it has finished. In contrast to {@link #retrieveResult(String, String)}, the
+	 * invocation is not removed.
+	 * 
+	 * @param requestId
+	 *            the id of the request
+	 * @param operationId
+	 *            the id of the requested Operation
+	 * @return the future of the response
+	 */
+	public CompletableFuture<InvocationResponse> getCompletion(String requestId, String operationId) {
+		return getInvocation(requestId, operationId).completion.copy();
+	}
+
+	private Invocation getInvocation(String requestId, String operationId) {
+		Invocation invocation = invocations.get(requestId);
+		if (invocation == null) {
+			throw new ResourceNotFoundException("RequestId '" + requestId + "' not found for operation '" + operationId + "'.");
+		}
+
+		if (!operationId.equals(invocation.operationId)) {
+			throw new ResourceNotFoundException("RequestId '" + requestId + "' does not belong to Operation '" + operationId + "'");
+		}
+		return invocation;
+	}
+
+	/**
+	 * Checks if a given requestId exists
+	 * 
+	 * @param requestId
+	 *            the id to be checked
+	 * @return if the id exists
+	 */
+	public boolean hasRequestId(String requestId) {
+		return invocations.containsKey(requestId);
+	}
+
+	/**
+	 * Cancels all running invocations and stops the threads of this engine
+	 */
+	public void shutdown() {
+		scheduler.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	private class Invocation {
+		private final String requestId;
+		private final String operationId;
+		private final InvocationResponse response;
+		private final AtomicBoolean finished = new AtomicBoolean();
+		// Completed after the final state of the response has been set
+		private final CompletableFuture<InvocationResponse> completion = new CompletableFuture<>();
+		private final AtomicBoolean slotReleased = new AtomicBoolean();
+		private volatile boolean started;
+		private volatile Future<?> future;
+		private volatile ScheduledFuture<?> timeout;
+
+		private Invocation(String requestId, String operationId, InvocationResponse response) {
+			this.requestId = requestId;
+			this.operationId = operationId;
+			this.response = response;
+		}
+
+		private void run(Operation operation, Object[] inputs) {
+			started = true;
+			Object result = null;
+			Exception failure = null;
+			try {
+				result = operation.invokeSimple(inputs);
+			} catch (Exception e) {
+				failure = e;
+			} finally {
+				// Release before finishing, so that the slot is free once the result is
+				// visible
+				releaseSlot();
+			}
+
+			if (!finish()) {
+				return;
+			}
+			if (failure == null) {
+				response.setExecutionState(ExecutionState.COMPLETED);
+				setOutput(result);
+			} else {
+				response.setExecutionState(ExecutionState.FAILED);
+				setOutput(new ProviderException("Request " + requestId + " failed", failure));
+			}
+			completion.complete(response);
+		}
+
+		private void timeOut() {
+			if (!finish()) {
+				return;
+			}
+			response.setExecutionState(ExecutionState.TIMEOUT);
+			setOutput(new ProviderException("Request " + requestId + " timed out", new OperationExecutionTimeoutException("Request " + requestId + " timed out")));
+			completion.complete(response);
+
+			future.cancel(true);
+			// Invocations cancelled before they started never release their slot
+			// themselves
+			if (!started) {
+				releaseSlot();
+			}
+		}
+
+		/**
+		 * Marks the invocation as finished and schedules the removal of its result
+		 * 
+		 * @return false, if the invocation has already been finished
+		 */
+		private boolean finish() {
+			if (!finished.compareAndSet(false, true)) {
+				return false;
+			}
+			ScheduledFuture<?> pendingTimeout = timeout;
+			if (pendingTimeout != null) {
+				pendingTimeout.cancel(false);
+			}
+			scheduler.schedule(() -> invocations.remove(requestId, this), resultTimeToLiveMs, TimeUnit.MILLISECONDS);
+			return true;
+		}
+
+		private void releaseSlot() {
+			if (slotReleased.compareAndSet(false, true)) {
+				inFlight.release();
+			}
+		}
+
+		private void setOutput(Object value) {
+			if (!response.getOutputArguments().isEmpty()) {
+				IOperationVariable output = response.getOutputArguments().iterator().next();
+				output.getValue().setValue(value);
+			}
+		}
+	}
+}
@@ -24,96 +24,42 @@
  ******************************************************************************/
 package org.eclipse.basyx.submodel.restapi.operation;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperationVariable;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
-import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.OperationExecutionTimeoutException;
-import org.eclipse.basyx.vab.exception.provider.ProviderException;
-import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 
 /**
- * Helperclass used to keep and invoke operations asynchronously.
+ * Helperclass used to keep and invoke operations asynchronously. Delegates to a
+ * default {@link AsyncOperationEngine} that is used by all providers not
+ * constructed with their own engine, e.g. a VABSubmodelAPI created for a
+ * specific server.
  * 
  * @author conradi, espen
  *
  */
 public class AsyncOperationHandler {
-	private static Map<String, InvocationResponse> responses = new LinkedHashMap<>();
-	private static Map<String, String> responseOperationMap = new LinkedHashMap<>();
-	private static ScheduledThreadPoolExecutor delayer = new ScheduledThreadPoolExecutor(0);
+	private static final AsyncOperationEngine defaultEngine = new AsyncOperationEngine();
 
 	/**
-	 * Invokes an Operation with an invocation request
-	 */
-	public static void invokeAsync(Operation operation, String operationId, InvocationRequest request, Collection<IOperationVariable> outputArguments) {
-		String requestId = request.getRequestId();
-		Collection<IOperationVariable> inOutArguments = request.getInOutArguments();
-		Object[] parameters = request.unwrapInputParameters();
-		invokeAsync(operation, operationId, requestId, parameters, inOutArguments, outputArguments, request.getTimeout());
-	}
-
-	/**
-	 * Invokes an Operation without an invocation request
+	 * Returns the engine used by default
 	 */
-	public static void invokeAsync(Operation operation, String operationId, String requestId, Object[] inputs, Collection<IOperationVariable> outputArguments, int timeout) {
-		invokeAsync(operation, operationId, requestId, inputs, new ArrayList<>(), outputArguments, timeout);
+	public static AsyncOperationEngine getDefaultEngine() {
+		return defaultEngine;
 	}
 
 	/**
-	 * Invokes an Operation and returns its requestId
+	 * Invokes an Operation with an invocation request
 	 */
-	private static void invokeAsync(Operation operation, String operationId, String requestId, Object[] inputs, Collection<IOperationVariable> inOutArguments, Collection<IOperationVariable> outputArguments, int timeout) {
-		synchronized (responses) {
-			InvocationResponse response = new InvocationResponse(requestId, inOutArguments, outputArguments, ExecutionState.INITIATED);
-
-			responses.put(requestId, response);
-			responseOperationMap.put(requestId, operationId);
-
-			CompletableFuture.supplyAsync(
-					// Run Operation asynchronously
-					() -> operation.invokeSimple(inputs))
-					// Accept either result or throw exception on timeout
-					.acceptEither(setTimeout(timeout, requestId), result -> {
-						// result accepted? => Write execution state if there is an output
-						response.setExecutionState(ExecutionState.COMPLETED);
-						if (!response.getOutputArguments().isEmpty()) {
-							IOperationVariable output = response.getOutputArguments().iterator().next();
-							output.getValue().setValue(result);
-						}
-					}).exceptionally(throwable -> {
-						// result not accepted? set operation state
-						ProviderException exception = null;
-						if (throwable.getCause() instanceof OperationExecutionTimeoutException) {
-							response.setExecutionState(ExecutionState.TIMEOUT);
-							exception = new ProviderException("Request " + requestId + " timed out", throwable);
-						} else {
-							response.setExecutionState(ExecutionState.FAILED);
-							exception = new ProviderException("Request " + requestId + " failed", throwable);
-						}
-						// set provider exception if there is an output
-						if (!response.getOutputArguments().isEmpty()) {
-							IOperationVariable output = response.getOutputArguments().iterator().next();
-							output.getValue().setValue(exception);
-						}
-						return null;
-					});
-		}
+	public static void invokeAsync(Operation operation, String operationId, InvocationRequest request, Collection<IOperationVariable> outputArguments) {
+		defaultEngine.invokeAsync(operation, operationId, request, outputArguments);
 	}
 
 	/**
-	 * Function for scheduling a timeout function with completable futures
+	 * Invokes an Operation without an invocation request
 	 */
-	private static CompletableFuture<Void> setTimeout(int timeout, String requestId) {
-		CompletableFuture<Void> result = new CompletableFuture<>();
-		delayer.schedule(() -> result.completeExceptionally(new OperationExecutionTimeoutException("Request " + requestId + " timed out")), timeout, TimeUnit.MILLISECONDS);
-		return result;
+	public static void invokeAsync(Operation operation, String operationId, String requestId, Object[] inputs, Collection<IOperationVariable> outputArguments, int timeout) {
+		defaultEngine.invokeAsync(operation, operationId, requestId, inputs, outputArguments, timeout);
 	}
 
 	/**
@@ -126,24 +72,7 @@ public class AsyncOperationHandler {
 	 * @return the result of the Operation or a Message that it is not yet finished
 	 */
 	public static Object retrieveResult(String requestId, String operationId) {
-		// Remove the Invocation if it is finished and its result was retrieved
-		synchronized (responses) {
-			if (!responses.containsKey(requestId)) {
-				throw new ResourceNotFoundException("RequestId '" + requestId + "' not found for operation '" + operationId + "'.");
-			}
-
-			String validOperationId = responseOperationMap.get(requestId);
-			if (!operationId.equals(validOperationId)) {
-				throw new ResourceNotFoundException("RequestId '" + requestId + "' does not belong to Operation '" + operationId + "'");
-			}
-
-			InvocationResponse response = responses.get(requestId);
-			if (ExecutionState.COMPLETED == response.getExecutionState() || ExecutionState.TIMEOUT == response.getExecutionState() || ExecutionState.FAILED == response.getExecutionState()) {
-				responses.remove(requestId);
-				responseOperationMap.remove(requestId);
-			}
-			return response;
-		}
+		return defaultEngine.retrieveResult(requestId, operationId);
 	}
 
 	/**
@@ -154,8 +83,6 @@ public class AsyncOperationHandler {
 	 * @return if the id exists
 	 */
 	public static boolean hasRequestId(String requestId) {
-		synchronized (responses) {
-			return responses.containsKey(requestId);
-		}
+		return defaultEngine.hasRequestId(requestId);
 	}
 }
@@ -37,6 +37,8 @@ import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.restapi.MultiSubmodelElementProvider;
 import org.eclipse.basyx.submodel.restapi.SubmodelAPIHelper;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationHandler;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
@@ -52,6 +54,10 @@ public class VABSubmodelAPI implements ISubmodelAPI {
 	// on
 	private IModelProvider modelProvider;
 
+	// Provider for the contained submodel elements. It does not hold any state
+	// besides the model provider and is therefore created only once
+	private MultiSubmodelElementProvider elementProvider;
+
 	/**
 	 * Creates a VABSubmodelAPI that wraps an IModelProvider
 	 * 
@@ -59,20 +65,34 @@ public class VABSubmodelAPI implements ISubmodelAPI {
 	 *            providing the Submodel
 	 */
 	public VABSubmodelAPI(IModelProvider modelProvider) {
+		this(modelProvider, AsyncOperationHandler.getDefaultEngine());
+	}
+
+	/**
+	 * Creates a VABSubmodelAPI that wraps an IModelProvider and invokes
+	 * operations asynchronously using the passed engine
+	 * 
+	 * @param modelProvider
+	 *            providing the Submodel
+	 * @param asyncEngine
+	 *            invoking operations asynchronously, e.g. one per server
+	 */
+	public VABSubmodelAPI(IModelProvider modelProvider, AsyncOperationEngine asyncEngine) {
 		super();
 		this.modelProvider = modelProvider;
+		IModelProvider elementProxy = new VABElementProxy(SubmodelAPIHelper.getSubmodelElementsPath(), modelProvider);
+		this.elementProvider = new MultiSubmodelElementProvider(elementProxy, asyncEngine);
 	}
 
 	/**
-	 * Creates an IModelProvider for handling accesses to the elements within the
+	 * Returns the IModelProvider for handling accesses to the elements within the
 	 * submodel
 	 * 
 	 * @return returns the SubmodelElementProvider pointing to the contained
 	 *         submodelelements
 	 */
 	private MultiSubmodelElementProvider getElementProvider() {
-		IModelProvider elementProxy = new VABElementProxy(SubmodelAPIHelper.getSubmodelElementsPath(), modelProvider);
-		return new MultiSubmodelElementProvider(elementProxy);
+		return elementProvider;
 	}
 
 	@SuppressWarnings("unchecked")
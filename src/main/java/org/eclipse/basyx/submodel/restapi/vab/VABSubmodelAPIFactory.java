@@ -27,6 +27,8 @@ package org.eclipse.basyx.submodel.restapi.vab;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationHandler;
 import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
 
 /**
@@ -36,8 +38,22 @@ import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
  *
  */
 public class VABSubmodelAPIFactory implements ISubmodelAPIFactory {
+	private final AsyncOperationEngine asyncEngine;
+
+	public VABSubmodelAPIFactory() {
+		this(AsyncOperationHandler.getDefaultEngine());
+	}
+
+	/**
+	 * Creates a factory whose APIs invoke operations asynchronously using the
+	 * passed engine
+	 */
+	public VABSubmodelAPIFactory(AsyncOperationEngine asyncEngine) {
+		this.asyncEngine = asyncEngine;
+	}
+
 	@Override
 	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
-		return new VABSubmodelAPI(new VABLambdaProvider(submodel));
+		return new VABSubmodelAPI(new VABLambdaProvider(submodel), asyncEngine);
 	}
 }
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.coder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes and decodes VAB values, i.e. primitives, maps, collections and
+ * functions, to and from a specific wire format. The wire format is identified
+ * by its media type, which is used for content negotiation.
+ */
+public interface ICodec {
+	/**
+	 * Returns the media type of the encoded values, e.g.
+	 * <i>application/json</i>
+	 */
+	public String getMediaType();
+
+	/**
+	 * Encodes a value to the given stream. The stream is not closed.
+	 */
+	public void encode(Object value, OutputStream outputStream) throws IOException;
+
+	/**
+	 * Decodes a value from the given stream. An empty stream is decoded to null.
+	 * The stream is not closed.
+	 */
+	public Object decode(InputStream inputStream) throws IOException;
+
+	/**
+	 * Encodes a value to a byte array
+	 */
+	public default byte[] encode(Object value) {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			encode(value, outputStream);
+		} catch (IOException e) {
+			// ByteArrayOutputStream does not throw IOExceptions
+			throw new UncheckedIOException(e);
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Decodes a value from a byte array
+	 */
+	public default Object decode(byte[] encoded) {
+		try {
+			return decode(new ByteArrayInputStream(encoded));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.coder.binary;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.eclipse.basyx.submodel.restapi.operation.InvocationRequest;
+import org.eclipse.basyx.vab.coder.ICodec;
+import org.eclipse.basyx.vab.coder.json.metaprotocol.MetaprotocolHandler;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.api.IBinaryBaSyxConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connector class responsible for encoding parameters and decoding results with
+ * the binary {@link MessagePackCodec}. Apart from the wire format, it behaves
+ * like the JSONConnector.
+ */
+public class BinaryConnector implements IModelProvider {
+
+	private static final Logger logger = LoggerFactory.getLogger(BinaryConnector.class);
+
+	/**
+	 * Reference to Connector backend
+	 */
+	protected IBinaryBaSyxConnector provider = null;
+
+	/**
+	 * Reference to encoder / decoder
+	 */
+	protected ICodec codec = null;
+
+	/**
+	 * Handles the meta protocol of decoded responses
+	 */
+	protected MetaprotocolHandler metaProtocolHandler = new MetaprotocolHandler();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param provider
+	 */
+	public BinaryConnector(IBinaryBaSyxConnector provider) {
+		this(provider, new DefaultTypeFactory());
+	}
+
+	/**
+	 * Constructor that accepts specific factory for the codec
+	 * 
+	 * @param provider
+	 */
+	public BinaryConnector(IBinaryBaSyxConnector provider, GSONToolsFactory factory) {
+		this.provider = provider;
+		this.codec = new MessagePackCodec(factory);
+	}
+
+	@Override
+	public Object getValue(String path) throws ProviderException {
+		VABPathTools.checkPathForNull(path);
+
+		// Get element from server
+		byte[] message = provider.getBinaryValue(path);
+
+		// Decode and verify
+		return decode(path, message);
+	}
+
+	@Override
+	public void setValue(String path, Object newValue) throws ProviderException {
+		VABPathTools.checkPathForNull(path);
+
+		byte[] message = provider.setBinaryValue(path, codec.encode(newValue));
+
+		// Decode and verify
+		decode(path, message);
+	}
+
+	@Override
+	public void createValue(String path, Object newEntity) throws ProviderException {
+		VABPathTools.checkPathForNull(path);
+
+		byte[] message = provider.createBinaryValue(path, codec.encode(newEntity));
+
+		// Decode and verify
+		decode(path, message);
+	}
+
+	@Override
+	public void deleteValue(String path) throws ProviderException {
+		VABPathTools.checkPathForNull(path);
+
+		byte[] message = provider.deleteBinaryValue(path);
+
+		// Decode and verify
+		decode(path, message);
+	}
+
+	@Override
+	public void deleteValue(String path, Object obj) throws ProviderException {
+		VABPathTools.checkPathForNull(path);
+
+		byte[] message = provider.deleteBinaryValue(path, codec.encode(obj));
+
+		// Decode and verify
+		decode(path, message);
+	}
+
+	@Override
+	public Object invokeOperation(String path, Object... parameter) throws ProviderException {
+		VABPathTools.checkPathForNull(path);
+
+		// Encode parameter
+		byte[] encoded;
+		if (parameter.length == 1 && parameter[0] instanceof InvocationRequest) {
+			encoded = codec.encode(parameter[0]);
+		} else {
+			encoded = codec.encode(Arrays.asList(parameter));
+		}
+
+		byte[] message = provider.invokeBinaryOperation(path, encoded);
+
+		// Decode and verify
+		return decode(path, message);
+	}
+
+	/**
+	 * Decodes a response and handles its meta information
+	 */
+	private Object decode(String path, byte[] message) throws ProviderException {
+		// Connectors indicate communication errors by a missing response
+		if (message == null) {
+			throw new ProviderException("No response received from '" + provider.getEndpointRepresentation(path) + "'");
+		}
+
+		Object response;
+		try {
+			response = codec.decode(message);
+		} catch (RuntimeException e) {
+			String msg = "Failed to decode response for '" + provider.getEndpointRepresentation(path) + "' (" + UUID.randomUUID() + ")";
+			logger.warn(msg);
+			throw new ProviderException(msg, e);
+		}
+
+		return metaProtocolHandler.verify(response);
+	}
+}
@@ -0,0 +1,609 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.coder.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.vab.coder.ICodec;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
+
+/**
+ * Compact binary codec based on the MessagePack format. <br>
+ * It produces the same structures as {@link GSONTools}: Maps and Collections
+ * are created by the {@link GSONToolsFactory}, integers are decoded to the
+ * smallest fitting type of int, long and BigInteger, null values in maps are
+ * omitted and functions are encoded with the same
+ * {@value GSONTools#BASYXFUNCTIONTYPE} markers. In contrast to JSON, serialized
+ * lambdas are transferred as raw bytes and integers larger than a long are
+ * encoded as extension type {@value #EXT_BIG_INTEGER}.
+ */
+public class MessagePackCodec implements ICodec {
+	/**
+	 * Media type of MessagePack encoded values
+	 */
+	public static final String MEDIA_TYPE = "application/msgpack";
+
+	/**
+	 * Extension type used for integers that exceed the range of a long. The
+	 * payload is the big-endian two's-complement representation.
+	 */
+	public static final byte EXT_BIG_INTEGER = 0x01;
+
+	/**
+	 * Default maximum length in bytes of a single string, binary or extension
+	 * value that is decoded
+	 */
+	public static final int DEFAULT_MAX_LENGTH = 16 * 1024 * 1024;
+
+	/**
+	 * Values larger than this are read in chunks of this size, so that memory is
+	 * only allocated for data that has actually been received
+	 */
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	// Format bytes
+	private static final int NIL = 0xc0;
+	private static final int FALSE = 0xc2;
+	private static final int TRUE = 0xc3;
+	private static final int BIN8 = 0xc4;
+	private static final int BIN16 = 0xc5;
+	private static final int BIN32 = 0xc6;
+	private static final int EXT8 = 0xc7;
+	private static final int EXT16 = 0xc8;
+	private static final int EXT32 = 0xc9;
+	private static final int FLOAT32 = 0xca;
+	private static final int FLOAT64 = 0xcb;
+	private static final int UINT8 = 0xcc;
+	private static final int UINT16 = 0xcd;
+	private static final int UINT32 = 0xce;
+	private static final int UINT64 = 0xcf;
+	private static final int INT8 = 0xd0;
+	private static final int INT16 = 0xd1;
+	private static final int INT32 = 0xd2;
+	private static final int INT64 = 0xd3;
+	private static final int FIXEXT1 = 0xd4;
+	private static final int FIXEXT2 = 0xd5;
+	private static final int FIXEXT4 = 0xd6;
+	private static final int FIXEXT8 = 0xd7;
+	private static final int FIXEXT16 = 0xd8;
+	private static final int STR8 = 0xd9;
+	private static final int STR16 = 0xda;
+	private static final int STR32 = 0xdb;
+	private static final int ARRAY16 = 0xdc;
+	private static final int ARRAY32 = 0xdd;
+	private static final int MAP16 = 0xde;
+	private static final int MAP32 = 0xdf;
+
+	/**
+	 * Type factory
+	 */
+	protected GSONToolsFactory toolsFactory;
+
+	/**
+	 * Maximum length in bytes of a single decoded string, binary or extension
+	 * value
+	 */
+	protected int maxLength;
+
+	/**
+	 * Constructor that uses the {@link DefaultTypeFactory}
+	 */
+	public MessagePackCodec() {
+		this(new DefaultTypeFactory());
+	}
+
+	/**
+	 * Constructor
+	 */
+	public MessagePackCodec(GSONToolsFactory factory) {
+		this(factory, DEFAULT_MAX_LENGTH);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param factory
+	 * @param maxLength
+	 *            maximum length in bytes of a single string, binary or extension
+	 *            value; longer values are rejected while decoding
+	 */
+	public MessagePackCodec(GSONToolsFactory factory, int maxLength) {
+		toolsFactory = factory;
+		this.maxLength = maxLength;
+	}
+
+	@Override
+	public String getMediaType() {
+		return MEDIA_TYPE;
+	}
+
+	@Override
+	public void encode(Object value, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		writeObject(out, value);
+		out.flush();
+	}
+
+	@Override
+	public Object decode(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+
+		// An empty stream is decoded to null, same as with JSON
+		int format = in.read();
+		if (format < 0) {
+			return null;
+		}
+
+		return readObject(in, format);
+	}
+
+	/**
+	 * Writes an arbitrary object
+	 */
+	@SuppressWarnings("unchecked")
+	private void writeObject(DataOutputStream out, Object obj) throws IOException {
+		if (obj == null) {
+			out.write(NIL);
+		} else if (obj instanceof Boolean) {
+			out.write((Boolean) obj ? TRUE : FALSE);
+		} else if (obj instanceof Integer || obj instanceof Long || obj instanceof Short || obj instanceof Byte) {
+			writeInteger(out, ((Number) obj).longValue());
+		} else if (obj instanceof Double) {
+			writeDouble(out, (Double) obj);
+		} else if (obj instanceof Float) {
+			// Use the decimal representation, so that the value is the same as with JSON
+			writeDouble(out, Double.parseDouble(obj.toString()));
+		} else if (obj instanceof BigInteger) {
+			writeBigInteger(out, (BigInteger) obj);
+		} else if (obj instanceof Number) {
+			writeDouble(out, ((Number) obj).doubleValue());
+		} else if (obj instanceof String || obj instanceof Character) {
+			writeString(out, obj.toString());
+		} else if (obj instanceof Map<?, ?>) {
+			writeMap(out, (Map<String, Object>) obj);
+		} else if (obj instanceof Collection<?>) {
+			writeCollection(out, (Collection<Object>) obj);
+		} else if (isFunction(obj)) {
+			writeFunction(out, obj);
+		} else {
+			throw new RuntimeException("Unknown element!");
+		}
+	}
+
+	/**
+	 * Writes an integer using the smallest possible representation
+	 */
+	private void writeInteger(DataOutputStream out, long value) throws IOException {
+		if (value >= -32 && value <= 127) {
+			// Positive and negative fixint
+			out.write((int) value);
+		} else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+			out.write(INT8);
+			out.writeByte((int) value);
+		} else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+			out.write(INT16);
+			out.writeShort((int) value);
+		} else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+			out.write(INT32);
+			out.writeInt((int) value);
+		} else {
+			out.write(INT64);
+			out.writeLong(value);
+		}
+	}
+
+	private void writeDouble(DataOutputStream out, double value) throws IOException {
+		out.write(FLOAT64);
+		out.writeDouble(value);
+	}
+
+	private void writeBigInteger(DataOutputStream out, BigInteger value) throws IOException {
+		if (value.bitLength() < Long.SIZE) {
+			writeInteger(out, value.longValue());
+		} else {
+			byte[] data = value.toByteArray();
+			writeExtHeader(out, EXT_BIG_INTEGER, data.length);
+			out.write(data);
+		}
+	}
+
+	private void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] data = value.getBytes(StandardCharsets.UTF_8);
+		int length = data.length;
+		if (length <= 31) {
+			out.write(0xa0 | length);
+		} else if (length <= 0xff) {
+			out.write(STR8);
+			out.write(length);
+		} else if (length <= 0xffff) {
+			out.write(STR16);
+			out.writeShort(length);
+		} else {
+			out.write(STR32);
+			out.writeInt(length);
+		}
+		out.write(data);
+	}
+
+	private void writeBinary(DataOutputStream out, byte[] data) throws IOException {
+		int length = data.length;
+		if (length <= 0xff) {
+			out.write(BIN8);
+			out.write(length);
+		} else if (length <= 0xffff) {
+			out.write(BIN16);
+			out.writeShort(length);
+		} else {
+			out.write(BIN32);
+			out.writeInt(length);
+		}
+		out.write(data);
+	}
+
+	private void writeExtHeader(DataOutputStream out, byte type, int length) throws IOException {
+		if (length <= 0xff) {
+			out.write(EXT8);
+			out.write(length);
+		} else if (length <= 0xffff) {
+			out.write(EXT16);
+			out.writeShort(length);
+		} else {
+			out.write(EXT32);
+			out.writeInt(length);
+		}
+		out.write(type);
+	}
+
+	/**
+	 * Writes a map; null values are omitted
+	 */
+	private void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+		int size = 0;
+		for (Object value : map.values()) {
+			if (value != null) {
+				size++;
+			}
+		}
+		writeMapHeader(out, size);
+
+		for (Entry<String, Object> entry : map.entrySet()) {
+			if (entry.getValue() != null) {
+				writeString(out, entry.getKey());
+				writeObject(out, entry.getValue());
+			}
+		}
+	}
+
+	private void writeMapHeader(DataOutputStream out, int size) throws IOException {
+		if (size <= 15) {
+			out.write(0x80 | size);
+		} else if (size <= 0xffff) {
+			out.write(MAP16);
+			out.writeShort(size);
+		} else {
+			out.write(MAP32);
+			out.writeInt(size);
+		}
+	}
+
+	private void writeCollection(DataOutputStream out, Collection<Object> collection) throws IOException {
+		int size = collection.size();
+		if (size <= 15) {
+			out.write(0x90 | size);
+		} else if (size <= 0xffff) {
+			out.write(ARRAY16);
+			out.writeShort(size);
+		} else {
+			out.write(ARRAY32);
+			out.writeInt(size);
+		}
+
+		for (Object o : collection) {
+			writeObject(out, o);
+		}
+	}
+
+	/**
+	 * Writes a function as map containing the function type marker
+	 */
+	private void writeFunction(DataOutputStream out, Object function) throws IOException {
+		if (function instanceof Serializable) {
+			// Serializable functions will be serialized.
+			writeMapHeader(out, 2);
+			writeString(out, GSONTools.BASYXFUNCTIONTYPE);
+			writeString(out, GSONTools.LAMBDA);
+			writeString(out, GSONTools.BASYXFUNCTIONVALUE);
+			writeBinary(out, serializeFunction((Serializable) function));
+		} else {
+			// Not serializable functions will be not be serialized.
+			writeMapHeader(out, 1);
+			writeString(out, GSONTools.BASYXFUNCTIONTYPE);
+			writeString(out, GSONTools.OPERATION);
+		}
+	}
+
+	/**
+	 * Reads the object identified by the given format byte
+	 */
+	private Object readObject(DataInputStream in, int format) throws IOException {
+		if (format <= 0x7f) {
+			// Positive fixint
+			return format;
+		} else if (format <= 0x8f) {
+			return readMap(in, format & 0x0f);
+		} else if (format <= 0x9f) {
+			return readCollection(in, format & 0x0f);
+		} else if (format <= 0xbf) {
+			return readString(in, format & 0x1f);
+		} else if (format >= 0xe0) {
+			// Negative fixint
+			return (int) (byte) format;
+		}
+
+		switch (format) {
+		case NIL:
+			return null;
+		case FALSE:
+			return false;
+		case TRUE:
+			return true;
+		case BIN8:
+			return readBytes(in, in.readUnsignedByte());
+		case BIN16:
+			return readBytes(in, in.readUnsignedShort());
+		case BIN32:
+			return readBytes(in, readLength(in));
+		case EXT8:
+			return readExt(in, in.readUnsignedByte());
+		case EXT16:
+			return readExt(in, in.readUnsignedShort());
+		case EXT32:
+			return readExt(in, readLength(in));
+		case FLOAT32:
+			return (double) in.readFloat();
+		case FLOAT64:
+			return in.readDouble();
+		case UINT8:
+			return in.readUnsignedByte();
+		case UINT16:
+			return in.readUnsignedShort();
+		case UINT32:
+			return narrow(in.readInt() & 0xffffffffL);
+		case UINT64:
+			long value = in.readLong();
+			if (value >= 0) {
+				return narrow(value);
+			} else {
+				return new BigInteger(1, longToBytes(value));
+			}
+		case INT8:
+			return (int) in.readByte();
+		case INT16:
+			return (int) in.readShort();
+		case INT32:
+			return in.readInt();
+		case INT64:
+			return narrow(in.readLong());
+		case FIXEXT1:
+			return readExt(in, 1);
+		case FIXEXT2:
+			return readExt(in, 2);
+		case FIXEXT4:
+			return readExt(in, 4);
+		case FIXEXT8:
+			return readExt(in, 8);
+		case FIXEXT16:
+			return readExt(in, 16);
+		case STR8:
+			return readString(in, in.readUnsignedByte());
+		case STR16:
+			return readString(in, in.readUnsignedShort());
+		case STR32:
+			return readString(in, readLength(in));
+		case ARRAY16:
+			return readCollection(in, in.readUnsignedShort());
+		case ARRAY32:
+			return readCollection(in, readLength(in));
+		case MAP16:
+			return readMap(in, in.readUnsignedShort());
+		case MAP32:
+			return readMap(in, readLength(in));
+		default:
+			throw new IOException("Unknown MessagePack format 0x" + Integer.toHexString(format));
+		}
+	}
+
+	private Object readNext(DataInputStream in) throws IOException {
+		int format = in.read();
+		if (format < 0) {
+			throw new EOFException("Unexpected end of MessagePack stream");
+		}
+		return readObject(in, format);
+	}
+
+	/**
+	 * Reads a 32 bit length; lengths exceeding the array limits are rejected
+	 */
+	private int readLength(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("MessagePack length exceeds supported size");
+		}
+		return length;
+	}
+
+	/**
+	 * Returns an int if the value fits, otherwise a long
+	 */
+	private Object narrow(long value) {
+		if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+			return (int) value;
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Reads a value of the given length. Since the length stems from the input,
+	 * it is checked against the maximum length and the input that is actually
+	 * available before allocating memory for it.
+	 */
+	private byte[] readBytes(DataInputStream in, int length) throws IOException {
+		if (length > maxLength) {
+			throw new IOException("MessagePack value of " + length + " bytes exceeds the maximum of " + maxLength + " bytes");
+		}
+
+		if (length <= CHUNK_SIZE) {
+			byte[] data = new byte[length];
+			in.readFully(data);
+			return data;
+		}
+
+		ByteArrayOutputStream data = new ByteArrayOutputStream(CHUNK_SIZE);
+		byte[] chunk = new byte[CHUNK_SIZE];
+		int remaining = length;
+		while (remaining > 0) {
+			int read = in.read(chunk, 0, Math.min(remaining, CHUNK_SIZE));
+			if (read < 0) {
+				throw new EOFException("Unexpected end of MessagePack stream");
+			}
+			data.write(chunk, 0, read);
+			remaining -= read;
+		}
+		return data.toByteArray();
+	}
+
+	private String readString(DataInputStream in, int length) throws IOException {
+		return new String(readBytes(in, length), StandardCharsets.UTF_8);
+	}
+
+	private Object readExt(DataInputStream in, int length) throws IOException {
+		byte type = in.readByte();
+		byte[] data = readBytes(in, length);
+		if (type != EXT_BIG_INTEGER) {
+			throw new IOException("Unknown MessagePack extension type " + type);
+		}
+
+		BigInteger value = new BigInteger(data);
+		if (value.bitLength() < Long.SIZE) {
+			return narrow(value.longValue());
+		} else {
+			return value;
+		}
+	}
+
+	private Collection<Object> readCollection(DataInputStream in, int size) throws IOException {
+		Collection<Object> list = toolsFactory.createCollection();
+		for (int i = 0; i < size; i++) {
+			list.add(readNext(in));
+		}
+		return list;
+	}
+
+	/**
+	 * Reads a map to either a map or a function, depending on the contained
+	 * function type marker
+	 */
+	private Object readMap(DataInputStream in, int size) throws IOException {
+		Map<String, Object> map = toolsFactory.createMap();
+		for (int i = 0; i < size; i++) {
+			String key = String.valueOf(readNext(in));
+			map.put(key, readNext(in));
+		}
+
+		if (!map.containsKey(GSONTools.BASYXFUNCTIONTYPE)) {
+			return map;
+		}
+
+		String functionType = String.valueOf(map.get(GSONTools.BASYXFUNCTIONTYPE));
+		if (functionType.equals(GSONTools.OPERATION)) {
+			return GSONTools.BASYXINVOCABLE;
+		} else if (functionType.equals(GSONTools.LAMBDA)) {
+			Object value = map.get(GSONTools.BASYXFUNCTIONVALUE);
+			if (value instanceof String) {
+				// Lambdas that have been forwarded from JSON are still Base64 encoded
+				value = Base64.getDecoder().decode((String) value);
+			}
+			return deserializeFunction((byte[]) value);
+		} else {
+			throw new RuntimeException("Unknown function type " + functionType + "!");
+		}
+	}
+
+	/**
+	 * Checks if an object is a lambda function
+	 */
+	private boolean isFunction(Object value) {
+		return (value instanceof Supplier<?>) || (value instanceof Function<?, ?>) || (value instanceof Consumer<?>) || (value instanceof BiConsumer<?, ?> || (value instanceof Runnable));
+	}
+
+	private byte[] serializeFunction(Serializable function) throws IOException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(outStream)) {
+			oos.writeObject(function);
+		}
+		return outStream.toByteArray();
+	}
+
+	private Object deserializeFunction(byte[] data) throws IOException {
+		try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+			return stream.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Could not deserialize function", e);
+		}
+	}
+
+	private static byte[] longToBytes(long value) {
+		byte[] data = new byte[Long.BYTES];
+		for (int i = Long.BYTES - 1; i >= 0; i--) {
+			data[i] = (byte) value;
+			value >>= 8;
+		}
+		return data;
+	}
+}
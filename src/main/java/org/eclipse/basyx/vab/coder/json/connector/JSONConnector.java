@@ -24,8 +24,12 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.coder.json.connector;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.eclipse.basyx.submodel.restapi.operation.InvocationRequest;
 import org.eclipse.basyx.vab.coder.json.metaprotocol.IMetaProtocolHandler;
@@ -35,8 +39,12 @@ import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
+import org.eclipse.basyx.vab.modelprovider.api.IBatchModelProvider;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.api.IAsyncBaSyxConnector;
 import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
+import org.eclipse.basyx.vab.protocol.api.IBatchBaSyxConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,10 +53,18 @@ import org.slf4j.LoggerFactory;
  * results. It verifies the results, removes the message header and returns the
  * requested entity.
  * 
+ * If the connector backend implements {@link IAsyncBaSyxConnector}, the
+ * asynchronous calls do not block. Otherwise, they are executed synchronously
+ * and return completed futures.
+ * 
+ * If the connector backend implements {@link IBatchBaSyxConnector}, multiple
+ * values are retrieved with a single request. Otherwise, they are retrieved one
+ * by one.
+ * 
  * @author pschorn
  *
  */
-public class JSONConnector implements IModelProvider {
+public class JSONConnector implements IModelProvider, IAsyncModelProvider, IBatchModelProvider {
 
 	private static final Logger LOGGER_DEFAULT = LoggerFactory.getLogger(JSONConnector.class);
 	private static final Logger LOGGER_COMMUNICATION = LoggerFactory.getLogger(LOGGER_DEFAULT.getName() + ".MALFORMED");
@@ -105,6 +121,34 @@ public class JSONConnector implements IModelProvider {
 		String message = provider.getValue(path);
 
 		// De-serialize and verify
+		return deserializeValue(path, message);
+	}
+
+	@Override
+	public List<Object> getValues(List<String> paths) throws ProviderException {
+		List<Object> values = new ArrayList<>();
+		if (!(provider instanceof IBatchBaSyxConnector)) {
+			for (String path : paths) {
+				values.add(getValue(path));
+			}
+			return values;
+		}
+
+		String message = ((IBatchBaSyxConnector) provider).getValues("", serializer.serialize(paths));
+
+		// De-serialize and verify the whole response, then each of its entries
+		Object response = deserializeValue(VABPathTools.BATCH_GET, message);
+		if (!(response instanceof List<?>)) {
+			throw new ProviderException("Batch get response is not a list: " + response);
+		}
+
+		for (Object entry : (List<?>) response) {
+			values.add(metaProtocolHandler.verify(entry));
+		}
+		return values;
+	}
+
+	private Object deserializeValue(String path, String message) throws ProviderException {
 		try {
 			return metaProtocolHandler.deserialize(message);
 		} catch (ProviderException e) {
@@ -171,17 +215,108 @@ public class JSONConnector implements IModelProvider {
 	public Object invokeOperation(String path, Object... parameter) throws ProviderException {
 		VABPathTools.checkPathForNull(path);
 
-		// Serialize parameter
-		String jsonString;
+		String message = provider.invokeOperation(path, serializeParameters(parameter));
+
+		// De-serialize and verify
+		return metaProtocolHandler.deserialize(message);
+	}
+
+	private String serializeParameters(Object... parameter) {
 		if (parameter.length == 1 && parameter[0] instanceof InvocationRequest) {
-			jsonString = serializer.serialize(parameter[0]);
+			return serializer.serialize(parameter[0]);
 		} else {
-			jsonString = serializer.serialize(Arrays.asList(parameter));
+			return serializer.serialize(Arrays.asList(parameter));
 		}
+	}
 
-		String message = provider.invokeOperation(path, jsonString);
+	@Override
+	public CompletableFuture<Object> getValueAsync(String path) {
+		if (!(provider instanceof IAsyncBaSyxConnector)) {
+			return callSynchronously(() -> getValue(path));
+		}
+		VABPathTools.checkPathForNull(path);
 
-		// De-serialize and verify
-		return metaProtocolHandler.deserialize(message);
+		return getAsyncProvider().getValueAsync(path).thenApply(message -> deserializeValue(path, message));
+	}
+
+	@Override
+	public CompletableFuture<Void> setValueAsync(String path, Object newValue) {
+		if (!(provider instanceof IAsyncBaSyxConnector)) {
+			return callSynchronously(() -> {
+				setValue(path, newValue);
+				return null;
+			});
+		}
+		VABPathTools.checkPathForNull(path);
+
+		return getAsyncProvider().setValueAsync(path, serializer.serialize(newValue)).thenAccept(metaProtocolHandler::deserialize);
+	}
+
+	@Override
+	public CompletableFuture<Void> createValueAsync(String path, Object newEntity) {
+		if (!(provider instanceof IAsyncBaSyxConnector)) {
+			return callSynchronously(() -> {
+				createValue(path, newEntity);
+				return null;
+			});
+		}
+		VABPathTools.checkPathForNull(path);
+
+		return getAsyncProvider().createValueAsync(path, serializer.serialize(newEntity)).thenAccept(metaProtocolHandler::deserialize);
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path) {
+		if (!(provider instanceof IAsyncBaSyxConnector)) {
+			return callSynchronously(() -> {
+				deleteValue(path);
+				return null;
+			});
+		}
+		VABPathTools.checkPathForNull(path);
+
+		return getAsyncProvider().deleteValueAsync(path).thenAccept(metaProtocolHandler::deserialize);
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path, Object obj) {
+		if (!(provider instanceof IAsyncBaSyxConnector)) {
+			return callSynchronously(() -> {
+				deleteValue(path, obj);
+				return null;
+			});
+		}
+		VABPathTools.checkPathForNull(path);
+
+		return getAsyncProvider().deleteValueAsync(path, serializer.serialize(obj)).thenAccept(metaProtocolHandler::deserialize);
+	}
+
+	@Override
+	public CompletableFuture<Object> invokeOperationAsync(String path, Object... parameter) {
+		if (!(provider instanceof IAsyncBaSyxConnector)) {
+			return callSynchronously(() -> invokeOperation(path, parameter));
+		}
+		VABPathTools.checkPathForNull(path);
+
+		return getAsyncProvider().invokeOperationAsync(path, serializeParameters(parameter)).thenApply(metaProtocolHandler::deserialize);
+	}
+
+	private IAsyncBaSyxConnector getAsyncProvider() {
+		return (IAsyncBaSyxConnector) provider;
+	}
+
+	/**
+	 * Executes a call of a connector without asynchronous support in the calling
+	 * thread
+	 * 
+	 * @param call
+	 * @return completed future
+	 */
+	private <T> CompletableFuture<T> callSynchronously(Supplier<T> call) {
+		try {
+			return CompletableFuture.completedFuture(call.get());
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
 	}
 }
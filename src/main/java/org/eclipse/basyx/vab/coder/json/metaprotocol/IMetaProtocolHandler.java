@@ -44,4 +44,13 @@ public interface IMetaProtocolHandler {
 	 */
 	public Object deserialize(String message) throws ProviderException;
 
+	/**
+	 * Handle meta-information of an already deserialized response
+	 * 
+	 * @param response
+	 *            deserialized response
+	 * @return response object with handled meta-information
+	 */
+	public Object verify(Object response) throws ProviderException;
+
 }
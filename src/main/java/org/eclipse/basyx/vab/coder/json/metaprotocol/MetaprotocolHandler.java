@@ -59,24 +59,37 @@ public class MetaprotocolHandler implements IMetaProtocolHandler {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public Object deserialize(String message) throws ProviderException {
 
 		// First get the GSON object from the JSON string
 		Object gsonObj = serializer.deserialize(message);
 
 		// Then interpret and verify the result object
+		return verify(gsonObj);
+	}
+
+	/**
+	 * Handle meta-information of an already decoded response, e.g. one that has
+	 * been received in a binary format, and return the response object
+	 * 
+	 * @param response
+	 *            decoded response
+	 * @return response object with handled meta-information
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object verify(Object response) throws ProviderException {
 		Object result = null;
 
 		// If it is a map, see if it does contain an exception
-		if (gsonObj instanceof Map) {
-			Map<String, Object> responseMap = (Map<String, Object>) gsonObj;
+		if (response instanceof Map) {
+			Map<String, Object> responseMap = (Map<String, Object>) response;
 
 			// Handle meta information and exceptions
 			result = handleResult(responseMap);
 		} else {
 			// Otherwise, return directly.
-			result = gsonObj;
+			result = response;
 		}
 		return result;
 	}
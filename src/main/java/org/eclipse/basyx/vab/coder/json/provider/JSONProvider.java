@@ -24,21 +24,30 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.coder.json.provider;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import javax.servlet.ServletOutputStream;
 
+import org.eclipse.basyx.vab.coder.ICodec;
 import org.eclipse.basyx.vab.coder.json.metaprotocol.Result;
 import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.eclipse.basyx.vab.coder.json.serialization.GSONToolsFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.JSONCodec;
 import org.eclipse.basyx.vab.exception.LostHTTPRequestParameterException;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +64,11 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 
 	private static Logger logger = LoggerFactory.getLogger(JSONProvider.class);
 
+	/**
+	 * Default size up to which encoded responses are buffered
+	 */
+	public static final int DEFAULT_BUFFER_THRESHOLD = 256 * 1024;
+
 	/**
 	 * Reference to IModelProvider backend
 	 */
@@ -65,6 +79,17 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	 */
 	protected GSONTools serializer = null;
 
+	/**
+	 * Codec for values that are exchanged via streams. Uses the serializer if not
+	 * specified otherwise.
+	 */
+	protected ICodec codec = null;
+
+	/**
+	 * Size up to which encoded responses are buffered before they are streamed
+	 */
+	protected int bufferThreshold = DEFAULT_BUFFER_THRESHOLD;
+
 	/**
 	 * Constructor
 	 */
@@ -74,6 +99,7 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 
 		// Create GSON serializer
 		serializer = new GSONTools(new DefaultTypeFactory());
+		codec = new JSONCodec(serializer);
 	}
 
 	/**
@@ -85,6 +111,17 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 
 		// Create GSON serializer
 		serializer = new GSONTools(factory);
+		codec = new JSONCodec(serializer);
+	}
+
+	/**
+	 * Constructor that exchanges values with the given codec instead of JSON. This
+	 * only affects the stream based process methods and all responses; values
+	 * that are passed as String are always expected to be JSON serialized.
+	 */
+	public JSONProvider(ModelProvider modelProviderBackend, ICodec codec) {
+		this(modelProviderBackend);
+		this.codec = codec;
 	}
 
 	/**
@@ -95,35 +132,29 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	}
 
 	/**
-	 * Get backend reference
+	 * Get codec reference
 	 */
-	public ModelProvider getBackendReference() {
-		return providerBackend;
+	public ICodec getCodec() {
+		return codec;
 	}
 
 	/**
-	 * Marks success as false and delivers exception cause messages
+	 * Sets the size up to which encoded responses are buffered. If encoding a
+	 * response fails within this size, only the exception is sent. Larger
+	 * responses are streamed afterwards, so that a failure can only abort them.
 	 * 
-	 * @param e
-	 * @return
+	 * @param bufferThreshold
+	 *            the size in bytes, 0 to always stream
 	 */
-	private String serialize(Exception e) {
-		// Create Ack
-		Result result = new Result(e);
-
-		// Serialize the whole thing
-		return serialize(result);
+	public void setBufferThreshold(int bufferThreshold) {
+		this.bufferThreshold = bufferThreshold;
 	}
 
 	/**
-	 * Serialize IResult (LinkedHashMap)
-	 * 
-	 * @param string
-	 * @return
+	 * Get backend reference
 	 */
-	private String serialize(Result string) {
-		// Serialize the whole thing
-		return serializer.serialize(string);
+	public ModelProvider getBackendReference() {
+		return providerBackend;
 	}
 
 	/**
@@ -134,11 +165,16 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	 * @param resp
 	 */
 	private void sendException(OutputStream resp, Exception e) throws ProviderException {
+		// Appending the exception to a partially sent value would only corrupt the
+		// response further
+		if (e instanceof PartialResponseException) {
+			logger.error("Exception in JSONProvider after parts of the response have been sent", e.getCause());
+			throw new ProviderException(e.getCause());
+		}
 
-		// Serialize Exception
-		String jsonString = serialize(e);
+		// Encode Exception
 		try {
-			resp.write(jsonString.getBytes(StandardCharsets.UTF_8));
+			codec.encode(new Result(e), resp);
 		} catch (IOException innerE) {
 			throw new ProviderException("Failed to send Exception '" + e.getMessage() + "' to client", innerE);
 		}
@@ -153,6 +189,29 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 		throw new ProviderException(e);
 	}
 
+	/**
+	 * Encodes a value to the response stream. Encoding may fail after parts of the
+	 * value have been written, e.g. if a lazily resolved element throws. Thus, the
+	 * beginning of the response is buffered up to the buffer threshold, so that
+	 * the exception can still be sent instead if nothing has been written yet.
+	 * 
+	 * @param value
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	private void encode(Object value, OutputStream outputStream) throws IOException {
+		ResponseBuffer buffer = new ResponseBuffer(outputStream, bufferThreshold);
+		try {
+			codec.encode(value, buffer);
+		} catch (IOException | RuntimeException e) {
+			if (buffer.isCommitted()) {
+				throw new PartialResponseException(e);
+			}
+			throw e;
+		}
+		buffer.commit();
+	}
+
 	/**
 	 * Extracts parameter from JSON and handles de-serialization errors
 	 * 
@@ -179,6 +238,24 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 		return result;
 	}
 
+	/**
+	 * Extracts parameter directly from a JSON stream and handles de-serialization
+	 * errors
+	 * 
+	 * @param inputStream
+	 * @return
+	 * @throws MalformedRequestException
+	 */
+	private Object extractParameter(InputStream inputStream) throws MalformedRequestException {
+		try {
+			// Deserialize json body
+			return codec.decode(inputStream);
+		} catch (Exception e) {
+			// JSON could not be deserialized
+			throw new MalformedRequestException(e);
+		}
+	}
+
 	/**
 	 * Process a BaSys get operation, return JSON serialized result
 	 * 
@@ -188,18 +265,159 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 
 		try {
 			// Get requested value from provider backend
+			Object value = resolve(providerBackend.getValue(path));
+
+			encode(value, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	/**
+	 * Retrieves the value of a BaSys get operation without encoding it. Providers
+	 * may return a {@link CompletionStage} for values that become available later,
+	 * e.g. operation results that are waited for. In this case, the returned
+	 * future completes with the value of the stage, so that servers can send the
+	 * response without blocking a thread in the meantime.
+	 * 
+	 * @param path
+	 * @return the future of the requested value, completed exceptionally if it
+	 *         could not be retrieved
+	 */
+	public CompletableFuture<Object> retrieveBaSysValue(String path) {
+		try {
 			Object value = providerBackend.getValue(path);
+			if (value instanceof CompletionStage<?>) {
+				return ((CompletionStage<?>) value).toCompletableFuture().thenApply(resolved -> resolved);
+			}
+			return CompletableFuture.completedFuture(value);
+		} catch (Exception e) {
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
 
-			// Serialize as json string - any messages?
-			String jsonString = serializer.serialize(value);
+	/**
+	 * Sends a value retrieved by {@link #retrieveBaSysValue(String)}, return JSON
+	 * serialized result. Blocks until the value is available.
+	 * 
+	 * @param value
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void sendBaSysValue(CompletableFuture<Object> value, OutputStream outputStream) throws ProviderException {
+		try {
+			encode(resolve(value), outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
 
-			// Send response
-			outputStream.write(jsonString.getBytes(StandardCharsets.UTF_8));
+	/**
+	 * Encodes a value retrieved by {@link #retrieveBaSysValue(String)} completely
+	 * into the given buffer, e.g. to compute a hash of the response before it is
+	 * sent. Blocks until the value is available. The buffer is reset before, and
+	 * only contains the encoded exception if the value could not be encoded.
+	 * 
+	 * @param value
+	 * @param body
+	 * @throws ProviderException
+	 */
+	public void encodeBaSysValue(CompletableFuture<Object> value, ByteArrayOutputStream body) throws ProviderException {
+		body.reset();
+		try {
+			codec.encode(resolve(value), body);
+		} catch (Exception e) {
+			// Discard the partially encoded value
+			body.reset();
+			sendException(body, e);
+		}
+	}
+
+	/**
+	 * Waits for values that are provided as {@link CompletionStage}
+	 * 
+	 * @param value
+	 * @return the value itself or the result of the stage
+	 * @throws Exception
+	 *             the exception the stage has been completed with
+	 */
+	private static Object resolve(Object value) throws Exception {
+		if (!(value instanceof CompletionStage<?>)) {
+			return value;
+		}
+
+		try {
+			return ((CompletionStage<?>) value).toCompletableFuture().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Process a BaSys batch get operation. The parameter is a list of paths
+	 * relative to the given path. The response is a list with the value of each
+	 * path, or the encoded exception if its value could not be retrieved.
+	 * 
+	 * @param path
+	 * @param serializedJSONValue
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysBatchGet(String path, String serializedJSONValue, OutputStream outputStream) throws ProviderException {
+		try {
+			batchGet(path, extractParameter(path, serializedJSONValue, outputStream), outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
 	}
 
+	/**
+	 * Process a BaSys batch get operation with a list of paths that is
+	 * deserialized directly from the given stream
+	 * 
+	 * @param path
+	 * @param jsonInputStream
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysBatchGet(String path, InputStream jsonInputStream, OutputStream outputStream) throws ProviderException {
+		try {
+			batchGet(path, extractParameter(jsonInputStream), outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
+
+	private void batchGet(String path, Object parameter, OutputStream outputStream) throws Exception {
+		if (!(parameter instanceof Collection<?>)) {
+			throw new MalformedRequestException("Batch get expects a list of paths");
+		}
+
+		List<Object> values = new ArrayList<>();
+		for (Object elementPath : (Collection<?>) parameter) {
+			if (!(elementPath instanceof String)) {
+				throw new MalformedRequestException("Batch get expects a list of paths, but contained " + elementPath);
+			}
+
+			try {
+				values.add(resolve(providerBackend.getValue(VABPathTools.isEmptyPath(path) ? (String) elementPath : VABPathTools.concatenatePaths(path, (String) elementPath))));
+			} catch (ProviderException e) {
+				// Failures of single paths do not fail the whole batch
+				values.add(new Result(e));
+			} catch (Exception e) {
+				logger.error("Unknown Exception in JSONProvider while retrieving " + elementPath, e);
+				values.add(new Result(e));
+			}
+		}
+
+		encode(values, outputStream);
+	}
+
 	/**
 	 * Process a BaSys set operation
 	 * 
@@ -212,65 +430,95 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 
 		// Try to set value of BaSys VAB element
 		try {
-
 			// Deserialize json body. If parameter is not ex
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
 
-			// Set the value of the element
-			providerBackend.setValue(path, parameter);
-
-			// Send response
-			outputStream.write("".getBytes(StandardCharsets.UTF_8));
+			set(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
 
+	/**
+	 * Process a BaSys set operation with a JSON body that is deserialized directly
+	 * from the given stream
+	 * 
+	 * @param path
+	 * @param jsonInputStream
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysSet(String path, InputStream jsonInputStream, OutputStream outputStream) throws ProviderException {
+		try {
+			set(path, extractParameter(jsonInputStream), outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
 	}
 
+	private void set(String path, Object parameter, OutputStream outputStream) throws Exception {
+		// Set the value of the element
+		providerBackend.setValue(path, parameter);
+
+		// Send response
+		outputStream.write("".getBytes(StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Process a BaSys invoke operation
 	 * 
 	 * @throws ProviderException
 	 */
-	@SuppressWarnings("unchecked")
 	public void processBaSysInvoke(String path, String serializedJSONValue, OutputStream outputStream) throws ProviderException {
-
 		try {
-
 			// Deserialize json body.
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
 
-			// If only a single parameter has been sent, pack it into an array so it can be
-			// casted safely
-			if (parameter instanceof Collection<?>) {
-				Collection<Object> list = (Collection<Object>) parameter;
-				Object[] parameterArray = new Object[list.size()];
-				int i = 0;
-				for (Object o : list) {
-					parameterArray[i] = o;
-					i++;
-				}
-				parameter = parameterArray;
-			}
+			invoke(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
 
-			if (!(parameter instanceof Object[])) {
-				Object[] parameterArray = new Object[1];
-				Object tmp = parameter;
-				parameterArray[0] = tmp;
-				parameter = parameterArray;
-			}
+	/**
+	 * Process a BaSys invoke operation with a JSON body that is deserialized
+	 * directly from the given stream
+	 * 
+	 * @throws ProviderException
+	 */
+	public void processBaSysInvoke(String path, InputStream jsonInputStream, OutputStream outputStream) throws ProviderException {
+		try {
+			invoke(path, extractParameter(jsonInputStream), outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
 
-			Object result = providerBackend.invokeOperation(path, (Object[]) parameter);
+	@SuppressWarnings("unchecked")
+	private void invoke(String path, Object parameter, OutputStream outputStream) throws Exception {
+		// If only a single parameter has been sent, pack it into an array so it can be
+		// casted safely
+		if (parameter instanceof Collection<?>) {
+			Collection<Object> list = (Collection<Object>) parameter;
+			Object[] parameterArray = new Object[list.size()];
+			int i = 0;
+			for (Object o : list) {
+				parameterArray[i] = o;
+				i++;
+			}
+			parameter = parameterArray;
+		}
 
-			// Serialize result as json string
-			String jsonString = serializer.serialize(result);
+		if (!(parameter instanceof Object[])) {
+			Object[] parameterArray = new Object[1];
+			Object tmp = parameter;
+			parameterArray[0] = tmp;
+			parameter = parameterArray;
+		}
 
-			// Send response
-			outputStream.write(jsonString.getBytes(StandardCharsets.UTF_8));
+		Object result = providerBackend.invokeOperation(path, (Object[]) parameter);
 
-		} catch (Exception e) {
-			sendException(outputStream, e);
-		}
+		encode(result, outputStream);
 	}
 
 	/**
@@ -287,25 +535,45 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 	public void processBaSysDelete(String path, String serializedJSONValue, OutputStream outputStream) throws ProviderException {
 
 		try {
-
 			// Deserialize json body. If parameter is not ex
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
 
-			// Process delete request with or without argument
-			if (parameter == null) {
-				this.providerBackend.deleteValue(path);
-			} else {
-				this.providerBackend.deleteValue(path, parameter);
-			}
-
-			// Send response
-			outputStream.write("".getBytes(StandardCharsets.UTF_8));
+			delete(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
 
+	/**
+	 * Implement "Delete" operation with a JSON body that is deserialized directly
+	 * from the given stream. An empty stream deletes the resource under the given
+	 * path.
+	 * 
+	 * @param path
+	 * @param jsonInputStream
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysDelete(String path, InputStream jsonInputStream, OutputStream outputStream) throws ProviderException {
+		try {
+			delete(path, extractParameter(jsonInputStream), outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
 	}
 
+	private void delete(String path, Object parameter, OutputStream outputStream) throws Exception {
+		// Process delete request with or without argument
+		if (parameter == null) {
+			this.providerBackend.deleteValue(path);
+		} else {
+			this.providerBackend.deleteValue(path, parameter);
+		}
+
+		// Send response
+		outputStream.write("".getBytes(StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Creates a resource under the given path
 	 * 
@@ -320,15 +588,36 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 			// Deserialize json body.
 			Object parameter = extractParameter(path, serializedJSONValue, outputStream);
 
-			providerBackend.createValue(path, parameter);
+			create(path, parameter, outputStream);
+		} catch (Exception e) {
+			sendException(outputStream, e);
+		}
+	}
 
-			// Send response
-			outputStream.write("".getBytes(StandardCharsets.UTF_8));
+	/**
+	 * Creates a resource under the given path with a JSON body that is
+	 * deserialized directly from the given stream
+	 * 
+	 * @param path
+	 * @param jsonInputStream
+	 * @param outputStream
+	 * @throws ProviderException
+	 */
+	public void processBaSysCreate(String path, InputStream jsonInputStream, OutputStream outputStream) throws ProviderException {
+		try {
+			create(path, extractParameter(jsonInputStream), outputStream);
 		} catch (Exception e) {
 			sendException(outputStream, e);
 		}
 	}
 
+	private void create(String path, Object parameter, OutputStream outputStream) throws Exception {
+		providerBackend.createValue(path, parameter);
+
+		// Send response
+		outputStream.write("".getBytes(StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Uploads a resource at given path
 	 * 
@@ -346,4 +635,70 @@ public class JSONProvider<ModelProvider extends IModelProvider> {
 			sendException(outputStream, e);
 		}
 	}
+
+	/**
+	 * Buffers the beginning of a response and streams it to the target once the
+	 * threshold is exceeded or the response is complete
+	 */
+	private static class ResponseBuffer extends OutputStream {
+		private final OutputStream target;
+		private final int threshold;
+		private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		public ResponseBuffer(OutputStream target, int threshold) {
+			this.target = target;
+			this.threshold = threshold;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (buffer != null && buffer.size() + len > threshold) {
+				commit();
+			}
+			if (buffer != null) {
+				buffer.write(b, off, len);
+			} else {
+				target.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			// Buffered data is only written once the response is committed
+			if (buffer == null) {
+				target.flush();
+			}
+		}
+
+		/**
+		 * Writes the buffered data to the target and streams all further data
+		 */
+		public void commit() throws IOException {
+			if (buffer != null) {
+				buffer.writeTo(target);
+				buffer = null;
+			}
+		}
+
+		public boolean isCommitted() {
+			return buffer == null;
+		}
+	}
+
+	/**
+	 * Indicates that encoding a response failed after parts of it have been
+	 * written
+	 */
+	private static class PartialResponseException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		public PartialResponseException(Exception cause) {
+			super(cause);
+		}
+	}
 }
@@ -26,12 +26,21 @@ package org.eclipse.basyx.vab.coder.json.serialization;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.Map;
@@ -44,13 +53,15 @@ import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Provides means for (de-)serialization of Primitives (int, double, string,
@@ -76,6 +87,11 @@ public class GSONTools implements Serializer {
 	public static final String BASYXINVOCABLE = "_basyxInvocable";
 	public static final String BASYXFUNCTIONVALUE = "_basyxFunctionValue";
 
+	/**
+	 * Maximum number of decimal digits that can not overflow a long
+	 */
+	private static final int MAX_LONG_SAFE_DIGITS = 18;
+
 	/**
 	 * JsonParser reference
 	 */
@@ -127,39 +143,114 @@ public class GSONTools implements Serializer {
 		return deserializeJsonElement(elem);
 	}
 
+	/**
+	 * Deserializes UTF-8 encoded JSON directly from the given stream without
+	 * building an intermediate string or JSON tree. The stream is not closed.
+	 * 
+	 * @param inputStream
+	 * @return
+	 * @throws IOException
+	 */
+	@Override
+	public Object deserialize(InputStream inputStream) throws IOException {
+		return deserialize(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Deserializes JSON directly from the given reader without building an
+	 * intermediate string or JSON tree. The reader is not closed.
+	 * 
+	 * @param reader
+	 * @return
+	 * @throws IOException
+	 */
+	public Object deserialize(Reader reader) throws IOException {
+		JsonReader jsonReader = new JsonReader(reader);
+		jsonReader.setLenient(true);
+
+		// An empty document is deserialized to null, same as with the JsonParser
+		try {
+			jsonReader.peek();
+		} catch (EOFException e) {
+			return null;
+		}
+
+		Object result = readObject(jsonReader);
+		if (result != null && jsonReader.peek() != JsonToken.END_DOCUMENT) {
+			throw new JsonSyntaxException("Did not consume the entire document.");
+		}
+		return result;
+	}
+
 	@Override
 	public String serialize(Object obj) {
-		JsonElement elem = serializeObject(obj);
-		// Removing null value if the removeNull flag is on
-		if (removeNull) {
-			// Gson#toJson removes null automatically
-			Gson gson = new Gson();
-			return gson.toJson(elem);
-		} else {
-			return elem.toString();
+		StringWriter writer = new StringWriter();
+		try {
+			serialize(obj, writer);
+		} catch (IOException e) {
+			// StringWriter does not throw IOExceptions
+			throw new UncheckedIOException(e);
 		}
+		return writer.toString();
 	}
 
 	/**
-	 * Serialized an arbitrary object to a JsonElement
+	 * Serializes an object directly to the given stream using UTF-8 without
+	 * building an intermediate JSON tree or string. The stream is flushed, but
+	 * not closed.
 	 * 
 	 * @param obj
-	 * @return
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	@Override
+	public void serialize(Object obj, OutputStream outputStream) throws IOException {
+		Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+		serialize(obj, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Serializes an object directly to the given writer without building an
+	 * intermediate JSON tree. The writer is flushed, but not closed.
+	 * 
+	 * @param obj
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void serialize(Object obj, Writer writer) throws IOException {
+		JsonWriter jsonWriter = new JsonWriter(writer);
+		jsonWriter.setLenient(true);
+		// If null values are removed, the output has to be the same as the one of
+		// Gson#toJson, which also escapes HTML characters
+		jsonWriter.setSerializeNulls(!removeNull);
+		jsonWriter.setHtmlSafe(removeNull);
+		writeObject(jsonWriter, obj);
+		jsonWriter.flush();
+	}
+
+	/**
+	 * Writes an arbitrary object to a JsonWriter
+	 * 
+	 * @param writer
+	 * @param obj
+	 * @throws IOException
 	 */
 	@SuppressWarnings("unchecked")
-	private JsonElement serializeObject(Object obj) {
+	private void writeObject(JsonWriter writer, Object obj) throws IOException {
 		if (obj == null) {
-			return JsonNull.INSTANCE;
+			writer.nullValue();
 		} else if (obj.getClass().isPrimitive() || isWrapperType(obj.getClass()) || obj instanceof String || obj instanceof Number) {
-			return serializePrimitive(obj);
+			writePrimitive(writer, obj);
 		} else if (obj instanceof Map<?, ?>) {
-			return serializeMap((Map<String, Object>) obj);
+			writeMap(writer, (Map<String, Object>) obj);
 		} else if (obj instanceof Collection<?>) {
-			return serializeCollection((Collection<Object>) obj);
+			writeCollection(writer, (Collection<Object>) obj);
 		} else if (isFunction(obj)) {
-			return serializeFunction(obj);
+			writeFunction(writer, obj);
+		} else {
+			throw new RuntimeException("Unknown element!");
 		}
-		throw new RuntimeException("Unknown element!");
 	}
 
 	/**
@@ -179,6 +270,31 @@ public class GSONTools implements Serializer {
 		return null;
 	}
 
+	/**
+	 * Reads the next value from a JsonReader to an object
+	 * 
+	 * @param reader
+	 * @return
+	 * @throws IOException
+	 */
+	private Object readObject(JsonReader reader) throws IOException {
+		switch (reader.peek()) {
+		case BEGIN_OBJECT:
+			return readJsonObject(reader);
+		case BEGIN_ARRAY:
+			return readJsonArray(reader);
+		case NUMBER:
+			return deserializeNumber(reader.nextString());
+		case BOOLEAN:
+			return reader.nextBoolean();
+		case NULL:
+			reader.nextNull();
+			return null;
+		default:
+			return reader.nextString();
+		}
+	}
+
 	/**
 	 * Indicates if a class is a wrapper type, e.g. <i>Integer</i> for <i>int</i>
 	 * 
@@ -198,23 +314,7 @@ public class GSONTools implements Serializer {
 	 */
 	private Object deserializeJsonPrimitive(JsonPrimitive primitive) {
 		if (primitive.isNumber()) {
-			if (primitive.getAsString().contains(".")) {
-				return primitive.getAsDouble();
-			} else {
-				// Get value as Big integer
-				BigInteger tmp = primitive.getAsBigInteger();
-				if (BigInteger.valueOf(Integer.MAX_VALUE).compareTo(tmp) >= 0 && BigInteger.valueOf(Integer.MIN_VALUE).compareTo(tmp) <= 0) {
-					// convert to int
-					return primitive.getAsInt();
-				} else if (BigInteger.valueOf(Long.MAX_VALUE).compareTo(tmp) >= 0 && BigInteger.valueOf(Long.MIN_VALUE).compareTo(tmp) <= 0) {
-					// convert to long
-					return primitive.getAsLong();
-				} else {
-					// for types NonNegativeInteger, NonPositiveInteger, NegativeInteger,
-					// PositiveInteger
-					return tmp;
-				}
-			}
+			return deserializeNumber(primitive.getAsString());
 		} else if (primitive.isBoolean()) {
 			return primitive.getAsBoolean();
 		} else {
@@ -223,18 +323,67 @@ public class GSONTools implements Serializer {
 	}
 
 	/**
-	 * Serializes either string, number or boolean to a JsonPrimitive
+	 * Deserializes the textual representation of a JSON number to either int,
+	 * long, double or BigInteger. Integers are decoded directly from their digits;
+	 * a BigInteger is only created if the value may exceed the long range.
 	 * 
-	 * @param primitive
+	 * @param number
 	 * @return
 	 */
-	private JsonPrimitive serializePrimitive(Object primitive) {
+	private Object deserializeNumber(String number) {
+		int length = number.length();
+		boolean negative = number.charAt(0) == '-';
+		int start = negative ? 1 : 0;
+
+		// Fractions and exponents are decoded as double
+		for (int i = start; i < length; i++) {
+			char c = number.charAt(i);
+			if (c < '0' || c > '9') {
+				return Double.parseDouble(number);
+			}
+		}
+
+		// Up to 18 digits always fit into a long
+		if (length - start <= MAX_LONG_SAFE_DIGITS) {
+			long value = 0;
+			for (int i = start; i < length; i++) {
+				value = value * 10 + (number.charAt(i) - '0');
+			}
+			if (negative) {
+				value = -value;
+			}
+
+			if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+				return (int) value;
+			} else {
+				return value;
+			}
+		}
+
+		BigInteger tmp = new BigInteger(number);
+		if (tmp.bitLength() < Long.SIZE) {
+			return tmp.longValue();
+		} else {
+			// for types NonNegativeInteger, NonPositiveInteger, NegativeInteger,
+			// PositiveInteger
+			return tmp;
+		}
+	}
+
+	/**
+	 * Writes either string, number or boolean
+	 * 
+	 * @param writer
+	 * @param primitive
+	 * @throws IOException
+	 */
+	private void writePrimitive(JsonWriter writer, Object primitive) throws IOException {
 		if (primitive instanceof Number) {
-			return new JsonPrimitive((Number) primitive);
+			writer.value((Number) primitive);
 		} else if (primitive instanceof Boolean) {
-			return new JsonPrimitive((Boolean) primitive);
+			writer.value((Boolean) primitive);
 		} else {
-			return new JsonPrimitive((String) primitive);
+			writer.value((String) primitive);
 		}
 	}
 
@@ -275,21 +424,57 @@ public class GSONTools implements Serializer {
 	}
 
 	/**
-	 * Serializes a Map to a JsonObject
+	 * Reads a JSON object to either a map or a function, depending on the
+	 * contained function type marker
 	 * 
-	 * @param map
+	 * @param reader
 	 * @return
+	 * @throws IOException
 	 */
-	private JsonObject serializeMap(Map<String, Object> map) {
-		JsonObject obj = new JsonObject();
+	private Object readJsonObject(JsonReader reader) throws IOException {
+		Map<String, Object> ret = toolsFactory.createMap();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			ret.put(key, readObject(reader));
+		}
+		reader.endObject();
+
+		// The function type marker may be located anywhere in the object, so it can
+		// only be evaluated after the whole object has been read
+		if (ret.containsKey(BASYXFUNCTIONTYPE)) {
+			String functionType = String.valueOf(ret.get(BASYXFUNCTIONTYPE));
+			if (functionType.equals(OPERATION)) {
+				return BASYXINVOCABLE;
+			} else if (functionType.equals(LAMBDA)) {
+				return deserializeObjectFromString(String.valueOf(ret.get(BASYXFUNCTIONVALUE)));
+			} else {
+				throw new RuntimeException("Unknown function type " + functionType + "!");
+			}
+		} else {
+			return ret;
+		}
+	}
+
+	/**
+	 * Writes a Map as JSON object
+	 * 
+	 * @param writer
+	 * @param map
+	 * @throws IOException
+	 */
+	private void writeMap(JsonWriter writer, Map<String, Object> map) throws IOException {
+		writer.beginObject();
 		for (Entry<String, Object> entry : map.entrySet()) {
 			Object value = entry.getValue();
 			// Remove empty list if removeEmpty flag is on
 			if (!removeEmpty || !(value instanceof Collection<?> && ((Collection<?>) value).isEmpty())) {
-				obj.add(entry.getKey(), serializeObject(value));
+				// Null values are skipped by the writer if removeNull flag is on
+				writer.name(entry.getKey());
+				writeObject(writer, value);
 			}
 		}
-		return obj;
+		writer.endObject();
 	}
 
 	/**
@@ -309,6 +494,23 @@ public class GSONTools implements Serializer {
 		return list;
 	}
 
+	/**
+	 * Reads a JSON array to a Collection, preserving the order of the array
+	 * 
+	 * @param reader
+	 * @return
+	 * @throws IOException
+	 */
+	private Collection<Object> readJsonArray(JsonReader reader) throws IOException {
+		Collection<Object> list = toolsFactory.createCollection();
+		reader.beginArray();
+		while (reader.hasNext()) {
+			list.add(readObject(reader));
+		}
+		reader.endArray();
+		return list;
+	}
+
 	/**
 	 * Checks if an object is a lambda function
 	 * 
@@ -320,28 +522,32 @@ public class GSONTools implements Serializer {
 	}
 
 	/**
-	 * Serializes a list to a JsonArray and adds index where appropriate
+	 * Writes a collection as JSON array
 	 * 
-	 * @param list
-	 * @return
+	 * @param writer
+	 * @param collection
+	 * @throws IOException
 	 */
-	private JsonArray serializeCollection(Collection<Object> collection) {
-		JsonArray array = new JsonArray();
-		collection.stream().map(this::serializeObject).forEach(array::add);
-		return array;
+	private void writeCollection(JsonWriter writer, Collection<Object> collection) throws IOException {
+		writer.beginArray();
+		for (Object o : collection) {
+			writeObject(writer, o);
+		}
+		writer.endArray();
 	}
 
 	/**
-	 * Serializes a function if possible
+	 * Writes a function if possible
 	 * 
+	 * @param writer
 	 * @param function
-	 * @return
+	 * @throws IOException
 	 */
-	private JsonObject serializeFunction(Object function) {
+	private void writeFunction(JsonWriter writer, Object function) throws IOException {
 		if (function instanceof Serializable) {
-			return serializeSerializableOperation((Serializable) function);
+			writeSerializableOperation(writer, (Serializable) function);
 		} else {
-			return serializeNotSerializableOperation(function);
+			writeNotSerializableOperation(writer);
 		}
 	}
 
@@ -378,30 +584,28 @@ public class GSONTools implements Serializer {
 	}
 
 	/**
-	 * Serialize an operation descriptor
+	 * Write an operation descriptor
 	 */
-	private JsonObject serializeSerializableOperation(Serializable value) {
-		JsonObject target = new JsonObject();
+	private void writeSerializableOperation(JsonWriter writer, Serializable value) throws IOException {
+		writer.beginObject();
 		// Serializable functions will be serialized.
-		target.add(BASYXFUNCTIONTYPE, new JsonPrimitive(LAMBDA));
+		writer.name(BASYXFUNCTIONTYPE).value(LAMBDA);
 
 		String serialized = serializeObjectToString(value);
-		target.add(BASYXFUNCTIONVALUE, new JsonPrimitive(serialized));
-
-		return target;
+		writer.name(BASYXFUNCTIONVALUE).value(serialized);
+		writer.endObject();
 	}
 
 	/**
-	 * Serializes a NonSerializableOperation to a String indicating that fact
+	 * Writes a NonSerializableOperation as an object indicating that fact
 	 * 
-	 * @param function
-	 * @return
+	 * @param writer
+	 * @throws IOException
 	 */
-	private JsonObject serializeNotSerializableOperation(Object function) {
-		JsonObject target = new JsonObject();
+	private void writeNotSerializableOperation(JsonWriter writer) throws IOException {
+		writer.beginObject();
 		// Not serializable functions will be not be serialized.
-		target.add(BASYXFUNCTIONTYPE, new JsonPrimitive(OPERATION));
-
-		return target;
+		writer.name(BASYXFUNCTIONTYPE).value(OPERATION);
+		writer.endObject();
 	}
 }
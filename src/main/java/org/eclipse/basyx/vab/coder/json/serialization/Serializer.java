@@ -24,6 +24,11 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.coder.json.serialization;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * A BaSys serializer
  * 
@@ -36,8 +41,24 @@ public interface Serializer {
 	 */
 	public String serialize(Object value);
 
+	/**
+	 * Serialize a primitive or complex value into JSON object and write it UTF-8
+	 * encoded to the given stream. The stream is not closed.
+	 */
+	public default void serialize(Object value, OutputStream outputStream) throws IOException {
+		outputStream.write(serialize(value).getBytes(StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Deserialize a primitive or complex value from JSON object
 	 */
 	public Object deserialize(String serializedValue);
+
+	/**
+	 * Deserialize a primitive or complex value from UTF-8 encoded JSON read from
+	 * the given stream. The stream is not closed.
+	 */
+	public default Object deserialize(InputStream inputStream) throws IOException {
+		return deserialize(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+	}
 }
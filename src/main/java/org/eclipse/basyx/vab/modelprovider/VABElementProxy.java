@@ -24,7 +24,14 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.modelprovider;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
+import org.eclipse.basyx.vab.modelprovider.api.IBatchModelProvider;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,7 +42,7 @@ import org.slf4j.LoggerFactory;
  * @author kuhn
  *
  */
-public class VABElementProxy implements IModelProvider {
+public class VABElementProxy implements IModelProvider, IBatchModelProvider {
 
 	private static Logger logger = LoggerFactory.getLogger(VABElementProxy.class);
 
@@ -84,6 +91,62 @@ public class VABElementProxy implements IModelProvider {
 		}
 	}
 
+	/**
+	 * Read VAB element value without blocking, if the provider supports it.
+	 * Otherwise, the value is read in the calling thread. If the value is a
+	 * CompletionStage, e.g. a result waited for by a provider connected directly,
+	 * the returned future is completed with its value.
+	 * 
+	 * @param elementPath
+	 * @return future of the value, completed exceptionally with a
+	 *         ProviderException on failure
+	 */
+	public CompletableFuture<Object> getValueAsync(String elementPath) {
+		try {
+			if (provider instanceof IAsyncModelProvider) {
+				return ((IAsyncModelProvider) provider).getValueAsync(constructPath(elementPath));
+			}
+
+			Object value = getValue(elementPath);
+			if (value instanceof CompletionStage<?>) {
+				return ((CompletionStage<?>) value).toCompletableFuture().thenApply(v -> v);
+			}
+			return CompletableFuture.completedFuture(value);
+		} catch (ProviderException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Read multiple VAB element values. If the provider supports it, all values
+	 * are retrieved with a single request.
+	 */
+	@Override
+	public List<Object> getValues(List<String> elementPaths) throws ProviderException {
+		List<String> paths = new ArrayList<>();
+		for (String elementPath : elementPaths) {
+			paths.add(constructPath(elementPath));
+		}
+
+		// Get elements from server
+		try {
+			if (provider instanceof IBatchModelProvider) {
+				return ((IBatchModelProvider) provider).getValues(paths);
+			}
+
+			List<Object> values = new ArrayList<>();
+			for (String path : paths) {
+				values.add(provider.getValue(path));
+			}
+			return values;
+		} catch (ProviderException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.debug("Exception in getValues", e);
+			throw new ProviderException(e);
+		}
+	}
+
 	/**
 	 * Update VAB element value <br>
 	 * <br>
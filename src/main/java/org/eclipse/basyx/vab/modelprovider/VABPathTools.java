@@ -42,6 +42,13 @@ import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 public class VABPathTools {
 	public static final String SEPERATOR = "/";
 
+	/**
+	 * Reserved last path element for reading multiple values with a single
+	 * request. Can not collide with elements, since idShorts must not contain
+	 * '$'.
+	 */
+	public static final String BATCH_GET = "$batch";
+
 	/**
 	 * Removes leading and trailing slashes
 	 * 
@@ -275,6 +282,16 @@ public class VABPathTools {
 		return pathElements[pathElements.length - 1].startsWith(Operation.INVOKE) || isOperationPath(path);
 	}
 
+	/**
+	 * Checks, if the last element of the path is {@link #BATCH_GET}
+	 * 
+	 * @param path
+	 * @return
+	 */
+	public static boolean isBatchGetPath(String path) {
+		return BATCH_GET.equals(getLastElement(path));
+	}
+
 	private static boolean isOperationPath(String path) {
 		String lowerCasePath = path.toLowerCase();
 		return lowerCasePath.startsWith("operations/") || path.toLowerCase().contains("/operations/");
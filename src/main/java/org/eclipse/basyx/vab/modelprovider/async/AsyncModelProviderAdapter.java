@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+
+/**
+ * Provides a blocking IModelProvider as IAsyncModelProvider. The calls are
+ * executed by the given executor, so each outstanding call occupies one of its
+ * threads.
+ */
+public class AsyncModelProviderAdapter implements IAsyncModelProvider {
+	private final IModelProvider provider;
+	private final Executor executor;
+
+	public AsyncModelProviderAdapter(IModelProvider provider, Executor executor) {
+		this.provider = provider;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Object> getValueAsync(String path) {
+		return CompletableFuture.supplyAsync(() -> provider.getValue(path), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> setValueAsync(String path, Object newValue) {
+		return CompletableFuture.runAsync(() -> provider.setValue(path, newValue), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> createValueAsync(String path, Object newEntity) {
+		return CompletableFuture.runAsync(() -> provider.createValue(path, newEntity), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path) {
+		return CompletableFuture.runAsync(() -> provider.deleteValue(path), executor);
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteValueAsync(String path, Object obj) {
+		return CompletableFuture.runAsync(() -> provider.deleteValue(path, obj), executor);
+	}
+
+	@Override
+	public CompletableFuture<Object> invokeOperationAsync(String path, Object... parameter) {
+		return CompletableFuture.supplyAsync(() -> provider.invokeOperation(path, parameter), executor);
+	}
+}
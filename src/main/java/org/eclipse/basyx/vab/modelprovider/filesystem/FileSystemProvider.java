@@ -320,6 +320,69 @@ public class FileSystemProvider implements IModelProvider {
 		}
 	}
 
+	/**
+	 * Updates the folder in the relative path to mirror the given map. In contrast
+	 * to deleting the folder and mirroring the map again, files and folders that
+	 * still exist are updated in place
+	 */
+	@SuppressWarnings("unchecked")
+	private void updateDirectory(String path, Map<String, Object> map) throws ProviderException {
+		String fullPath = rootDir + "/" + path;
+		HashSet<String> collections = readMetaFile(path);
+		boolean collectionsChanged = false;
+
+		List<File> directoryFiles;
+		try {
+			directoryFiles = fileSystem.readDirectory(fullPath);
+		} catch (IOException e) {
+			throw new ProviderException("Path \"" + path + "\" could not be read.");
+		}
+		removeMetaFile(directoryFiles);
+
+		// First remove replaced values, since writing collections modifies the _meta
+		// file
+		Map<String, Object> toWrite = new LinkedHashMap<>(map);
+		for (File file : directoryFiles) {
+			String fileName = VABPathTools.getLastElement(file.getName());
+			boolean isCollection = collections != null && collections.contains(fileName);
+			Object newValue = map.get(fileName);
+
+			if (map.containsKey(fileName) && file.getType() == FileType.DATA && !(newValue instanceof Map) && !(newValue instanceof Collection<?>)) {
+				// It's a file that is still a file
+				serializeAndSave(file.getName(), newValue);
+				toWrite.remove(fileName);
+			} else if (map.containsKey(fileName) && file.getType() == FileType.DIRECTORY && !isCollection && newValue instanceof Map) {
+				// It's a folder that is still a folder
+				updateDirectory(stripRootDir(file.getName()), (Map<String, Object>) newValue);
+				toWrite.remove(fileName);
+			} else {
+				// It's removed or its type changed
+				if (file.getType() == FileType.DATA) {
+					deleteFile(file.getName());
+				} else {
+					deleteDirectory(file.getName());
+				}
+				if (isCollection) {
+					collections.remove(fileName);
+					collectionsChanged = true;
+				}
+			}
+		}
+
+		if (collectionsChanged) {
+			serializeAndSave(fullPath + "/" + metaFileName, collections);
+		}
+
+		String prefix = path.isEmpty() ? "" : path + "/";
+		for (Map.Entry<String, Object> entry : toWrite.entrySet()) {
+			if (entry.getValue() instanceof Map) {
+				fromMapToDirectory(prefix + entry.getKey(), (Map<String, Object>) entry.getValue());
+			} else {
+				writeObject(prefix + entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
 	private void writeReferences(String path, List<Integer> ref) throws ProviderException {
 		serializeAndSave(path + "/" + referenceFileName, ref);
 	}
@@ -416,8 +479,7 @@ public class FileSystemProvider implements IModelProvider {
 			}
 		} else if (type == FileType.DIRECTORY) {
 			if ((collections == null || !collections.contains(fileName)) && newValue instanceof Map) {
-				deleteDirectory(fullPath);
-				fromMapToDirectory(path, (Map<String, Object>) newValue);
+				updateDirectory(path, (Map<String, Object>) newValue);
 			} else {
 				deleteDirectory(fullPath);
 				writeObject(path, newValue);
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.filesystem.filesystem;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File system that caches the files and directory listings of another file
+ * system and delays writing files. <br>
+ * Cached files and listings are validated by their modification time, so that
+ * modifications by others are detected if the file system supports
+ * {@link FileSystem#getLastModified(String)}. <br>
+ * Written files are kept in memory and written after a delay, so that
+ * repeated writes of the same file are written once. Files whose content does
+ * not change are not written at all. Creating and deleting files and
+ * directories is executed immediately. Files that have not been written yet
+ * are lost if the process terminates before {@link #flush()} or
+ * {@link #close()} is called.
+ */
+public class CachingFileSystem implements FileSystem, Flushable, Closeable {
+	private static Logger logger = LoggerFactory.getLogger(CachingFileSystem.class);
+
+	public static final long DEFAULT_FLUSH_DELAY_MS = 1000;
+	public static final int DEFAULT_MAX_CACHED_FILES = 4096;
+
+	/**
+	 * Executes the delayed writes of all instances
+	 */
+	private static final ScheduledExecutorService FLUSH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, CachingFileSystem.class.getSimpleName() + "-flush");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final FileSystem fileSystem;
+	private final long flushDelayMs;
+
+	/**
+	 * Files as contained in the underlying file system, by path. Evicts the least
+	 * recently used file if full.
+	 */
+	private final Map<String, Cached<String>> files;
+
+	/**
+	 * Directory listings as contained in the underlying file system, by path.
+	 * Evicts the least recently used listing if full.
+	 */
+	private final Map<String, Cached<List<File>>> directories;
+
+	/**
+	 * Contents of the files that have not been written yet, by path
+	 */
+	private final Map<String, String> unwritten = new LinkedHashMap<>();
+
+	private ScheduledFuture<?> scheduledFlush;
+
+	public CachingFileSystem(FileSystem fileSystem) {
+		this(fileSystem, DEFAULT_FLUSH_DELAY_MS, DEFAULT_MAX_CACHED_FILES);
+	}
+
+	/**
+	 * @param fileSystem
+	 *            the file system to cache
+	 * @param flushDelayMs
+	 *            time after which written files are written to the underlying file
+	 *            system. 0 writes files immediately.
+	 * @param maxCachedFiles
+	 *            maximum number of cached files and of cached directory listings
+	 */
+	public CachingFileSystem(FileSystem fileSystem, long flushDelayMs, int maxCachedFiles) {
+		this.fileSystem = fileSystem;
+		this.flushDelayMs = flushDelayMs;
+		this.files = createLRUMap(maxCachedFiles);
+		this.directories = createLRUMap(maxCachedFiles);
+	}
+
+	private static <T> Map<String, T> createLRUMap(int maxSize) {
+		return new LinkedHashMap<String, T>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	@Override
+	public synchronized String readFile(String path) throws IOException {
+		path = normalize(path);
+		String content = unwritten.get(path);
+		if (content != null) {
+			return content;
+		}
+
+		Cached<String> cached = getValid(files, path);
+		if (cached == null) {
+			// Get the modification time first, so that modifications while reading are
+			// detected on the next read
+			long lastModified = fileSystem.getLastModified(path);
+			cached = new Cached<>(fileSystem.readFile(path), lastModified);
+			files.put(path, cached);
+		}
+		return cached.value;
+	}
+
+	@Override
+	public synchronized void writeFile(String path, String content) throws IOException {
+		path = normalize(path);
+		String parent = getParent(path);
+		if (getType(parent) != FileType.DIRECTORY) {
+			throw new NoSuchFileException(parent);
+		}
+
+		Cached<String> cached = getValid(files, path);
+		if (cached != null && cached.value.equals(content)) {
+			// The file already has this content
+			unwritten.remove(path);
+			return;
+		}
+
+		if (flushDelayMs <= 0) {
+			writeThrough(path, content);
+		} else {
+			unwritten.put(path, content);
+			scheduleFlush();
+		}
+	}
+
+	@Override
+	public synchronized void deleteFile(String path) throws IOException {
+		path = normalize(path);
+		unwritten.remove(path);
+		files.remove(path);
+		fileSystem.deleteFile(path);
+		directories.remove(getParent(path));
+	}
+
+	@Override
+	public synchronized void createDirectory(String path) throws IOException {
+		path = normalize(path);
+		if (fileSystem.getType(path) == FileType.DIRECTORY) {
+			return;
+		}
+
+		fileSystem.createDirectory(path);
+		// Parent directories are created as well
+		for (String parent = getParent(path); !parent.isEmpty(); parent = getParent(parent)) {
+			directories.remove(parent);
+		}
+	}
+
+	@Override
+	public synchronized List<File> readDirectory(String path) throws IOException {
+		path = normalize(path);
+		Cached<List<File>> cached = getValid(directories, path);
+		if (cached == null) {
+			long lastModified = fileSystem.getLastModified(path);
+			cached = new Cached<>(fileSystem.readDirectory(path), lastModified);
+			directories.put(path, cached);
+		}
+
+		// Copy the listing, since it may be modified by the caller
+		List<File> listing = new ArrayList<>(cached.value);
+
+		// Add files that have not been written yet
+		Set<String> listed = new HashSet<>();
+		listing.forEach(file -> listed.add(normalize(file.getName())));
+		for (String unwrittenPath : unwritten.keySet()) {
+			if (getParent(unwrittenPath).equals(path) && !listed.contains(unwrittenPath)) {
+				listing.add(new File(unwrittenPath, FileType.DATA));
+			}
+		}
+		return listing;
+	}
+
+	@Override
+	public synchronized void deleteDirectory(String path) throws IOException {
+		path = normalize(path);
+		String prefix = path + "/";
+		unwritten.keySet().removeIf(p -> p.startsWith(prefix));
+		files.keySet().removeIf(p -> p.startsWith(prefix));
+		directories.keySet().removeIf(p -> p.equals(path) || p.startsWith(prefix));
+
+		fileSystem.deleteDirectory(path);
+		directories.remove(getParent(path));
+	}
+
+	@Override
+	public synchronized FileType getType(String path) {
+		path = normalize(path);
+		if (unwritten.containsKey(path)) {
+			return FileType.DATA;
+		}
+		return fileSystem.getType(path);
+	}
+
+	@Override
+	public long getLastModified(String path) {
+		return fileSystem.getLastModified(normalize(path));
+	}
+
+	/**
+	 * Writes all files that have not been written yet to the underlying file
+	 * system
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		Iterator<Map.Entry<String, String>> iterator = unwritten.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, String> entry = iterator.next();
+			writeThrough(entry.getKey(), entry.getValue());
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Writes all files that have not been written yet and stops delaying writes
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+		flush();
+	}
+
+	private void writeThrough(String path, String content) throws IOException {
+		fileSystem.writeFile(path, content);
+		files.put(path, new Cached<>(content, fileSystem.getLastModified(path)));
+
+		// Writing a new file modifies the listing of its directory
+		Cached<List<File>> parentListing = directories.get(getParent(path));
+		if (parentListing != null && parentListing.value.stream().noneMatch(file -> normalize(file.getName()).equals(path))) {
+			directories.remove(getParent(path));
+		}
+	}
+
+	private void scheduleFlush() {
+		if (scheduledFlush == null) {
+			scheduledFlush = FLUSH_SCHEDULER.schedule(this::flushScheduled, flushDelayMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private synchronized void flushScheduled() {
+		scheduledFlush = null;
+		try {
+			flush();
+		} catch (IOException e) {
+			logger.error("Could not write files, retrying after " + flushDelayMs + " ms", e);
+			scheduleFlush();
+		}
+	}
+
+	/**
+	 * Returns the cached value if it has not been modified in the underlying file
+	 * system since it has been cached
+	 */
+	private <T> Cached<T> getValid(Map<String, Cached<T>> cache, String path) {
+		Cached<T> cached = cache.get(path);
+		if (cached == null || cached.lastModified < 0) {
+			// Without modification time, cached values are assumed to be valid
+			return cached;
+		}
+		if (fileSystem.getLastModified(path) != cached.lastModified) {
+			cache.remove(path);
+			return null;
+		}
+		return cached;
+	}
+
+	private static String normalize(String path) {
+		path = path.replaceAll("/+", "/");
+		if (path.length() > 1 && path.endsWith("/")) {
+			path = path.substring(0, path.length() - 1);
+		}
+		return path;
+	}
+
+	private static String getParent(String path) {
+		int lastSlash = path.lastIndexOf('/');
+		return lastSlash < 0 ? "" : path.substring(0, lastSlash);
+	}
+
+	private static class Cached<T> {
+		private final T value;
+		private final long lastModified;
+
+		private Cached(T value, long lastModified) {
+			this.value = value;
+			this.lastModified = lastModified;
+		}
+	}
+}
@@ -104,4 +104,15 @@ public interface FileSystem {
 	 *         does not exist
 	 */
 	public FileType getType(String path);
+
+	/**
+	 * Gets the time of the last modification of the object at a specified path.
+	 * Used to detect modifications of cached objects.
+	 * 
+	 * @param path
+	 * @return The time of the last modification in ms or -1 if it is unknown
+	 */
+	public default long getLastModified(String path) {
+		return -1;
+	}
 }
@@ -114,6 +114,16 @@ public class GenericFileSystem implements FileSystem {
 		return FileType.DATA;
 	}
 
+	@Override
+	public long getLastModified(String path) {
+		path = toLowerCase(path);
+		try {
+			return Files.getLastModifiedTime(getPath(path)).toMillis();
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
 	private Path getPath(String path) {
 		return FileSystems.getDefault().getPath(path);
 	}
@@ -0,0 +1,661 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.journal;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Model provider that makes the state of an in-memory model provider durable.
+ * <br>
+ * Every successful mutation is appended to a write-ahead journal before the
+ * call returns. Concurrent writers share a single sync of the journal (group
+ * commit), so the sync cost is amortized over all mutations that arrived in the
+ * meantime. After a configurable number of mutations, the whole model is
+ * written to a snapshot and older journal segments are discarded. On creation,
+ * the latest snapshot is loaded and the remaining journal is replayed. If the
+ * directory does not contain a journaled state yet, the initial model of the
+ * backend is written to a snapshot, so that the journal is never replayed onto
+ * a different model.<br>
+ * <br>
+ * The directory layout is:
+ * <ul>
+ * <li>snapshot.json - the model at a given journal sequence number</li>
+ * <li>journal-&lt;sequence&gt;.log - one JSON record per line for all mutations
+ * after the given sequence number</li>
+ * </ul>
+ * The backend has to support replacing its root element with
+ * {@link IModelProvider#setValue(String, Object)} on the empty path, as e.g.
+ * the VABMapProvider and VABLambdaProvider do.<br>
+ * <br>
+ * The model is journaled as JSON, which can not contain functions, e.g. the
+ * invokables of operations or the getters and setters of lambda properties.
+ * Therefore, functions are removed from snapshots and journal records. On
+ * recovery, the functions of the initial model of the backend are restored at
+ * their paths, unless the recovered model contains a value there. Functions
+ * written after creation are only available until the provider is recreated.
+ * Backends resolving lambda properties on retrieval, e.g. the
+ * VABLambdaProvider, do not return their functions. Such lambda properties are
+ * journaled with their current values and recovered as static values.
+ */
+public class JournaledModelProvider implements IModelProvider, Closeable {
+	private static Logger logger = LoggerFactory.getLogger(JournaledModelProvider.class);
+
+	public static final int DEFAULT_SNAPSHOT_INTERVAL = 10000;
+
+	private static final String SNAPSHOT_FILE = "snapshot.json";
+	private static final String SNAPSHOT_TMP_FILE = "snapshot.json.tmp";
+	private static final String JOURNAL_PREFIX = "journal-";
+	private static final String JOURNAL_SUFFIX = ".log";
+
+	private static final String SEQUENCE = "sequence";
+	private static final String OPERATION = "operation";
+	private static final String PATH = "path";
+	private static final String VALUE = "value";
+	private static final String MODEL = "model";
+
+	private static final String SET = "set";
+	private static final String CREATE = "create";
+	private static final String DELETE = "delete";
+	private static final String DELETE_OBJECT = "deleteObject";
+
+	// Snapshots are written in the background, so that the mutation triggering
+	// them is not delayed
+	private static final ExecutorService SNAPSHOT_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, JournaledModelProvider.class.getSimpleName() + "-snapshot");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final IModelProvider backend;
+	private final Path directory;
+	private final int snapshotInterval;
+
+	// Null values have to be kept, since a property may explicitly be set to null
+	private final GSONTools tools = new GSONTools(new DefaultTypeFactory(), false, false);
+
+	// Mutations hold the write lock while applying and appending, so that the
+	// journal order always matches the order the backend has seen
+	private final ReentrantReadWriteLock modelLock = new ReentrantReadWriteLock();
+
+	// Guards the journal state below
+	private final Object journalMonitor = new Object();
+	private FileChannel journal;
+	private long journalStart;
+	private List<byte[]> pending = new ArrayList<>();
+	private long appendedSequence;
+	private long durableSequence;
+	private boolean flushing;
+	private IOException failure;
+	private boolean closed;
+
+	// Only one snapshot is written at a time
+	private final Object snapshotMonitor = new Object();
+	private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+	private volatile long snapshotSequence;
+
+	/**
+	 * Creates a journaled provider that takes a snapshot every
+	 * {@value #DEFAULT_SNAPSHOT_INTERVAL} mutations
+	 * 
+	 * @param backend
+	 *            in-memory provider holding the model. If the directory already
+	 *            contains a journaled state, the model of the backend is replaced
+	 *            by it
+	 * @param directory
+	 *            directory containing the snapshot and the journal
+	 */
+	public JournaledModelProvider(IModelProvider backend, String directory) {
+		this(backend, directory, DEFAULT_SNAPSHOT_INTERVAL);
+	}
+
+	/**
+	 * Creates a journaled provider
+	 * 
+	 * @param backend
+	 *            in-memory provider holding the model. If the directory already
+	 *            contains a journaled state, the model of the backend is replaced
+	 *            by it
+	 * @param directory
+	 *            directory containing the snapshot and the journal
+	 * @param snapshotInterval
+	 *            number of mutations after which a snapshot is taken
+	 *            automatically. Values &lt;= 0 disable automatic snapshots
+	 */
+	public JournaledModelProvider(IModelProvider backend, String directory, int snapshotInterval) {
+		this.backend = backend;
+		this.directory = Paths.get(directory);
+		this.snapshotInterval = snapshotInterval;
+
+		try {
+			Files.createDirectories(this.directory);
+			if (!recover()) {
+				writeSnapshot(0, createSnapshot(0));
+			}
+			journal = openSegment(appendedSequence);
+			journalStart = appendedSequence;
+		} catch (IOException e) {
+			throw new ProviderException("Could not open journal in " + directory, e);
+		}
+	}
+
+	/**
+	 * Returns the sequence number of the last mutation
+	 * 
+	 * @return
+	 */
+	public long getSequence() {
+		synchronized (journalMonitor) {
+			return appendedSequence;
+		}
+	}
+
+	@Override
+	public Object getValue(String path) throws ProviderException {
+		modelLock.readLock().lock();
+		try {
+			return backend.getValue(path);
+		} finally {
+			modelLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void setValue(String path, Object newValue) throws ProviderException {
+		mutate(SET, path, newValue, () -> backend.setValue(path, newValue));
+	}
+
+	@Override
+	public void createValue(String path, Object newEntity) throws ProviderException {
+		mutate(CREATE, path, newEntity, () -> backend.createValue(path, newEntity));
+	}
+
+	@Override
+	public void deleteValue(String path) throws ProviderException {
+		mutate(DELETE, path, null, () -> backend.deleteValue(path));
+	}
+
+	@Override
+	public void deleteValue(String path, Object obj) throws ProviderException {
+		mutate(DELETE_OBJECT, path, obj, () -> backend.deleteValue(path, obj));
+	}
+
+	@Override
+	public Object invokeOperation(String path, Object... parameter) throws ProviderException {
+		// Operations may access this provider themselves and are therefore not
+		// executed under the model lock
+		return backend.invokeOperation(path, parameter);
+	}
+
+	/**
+	 * Writes a snapshot of the current model and removes the journal segments
+	 * that are covered by it
+	 * 
+	 * @throws ProviderException
+	 *             if the snapshot could not be written
+	 */
+	public void snapshot() throws ProviderException {
+		synchronized (snapshotMonitor) {
+			long sequence;
+			String snapshot;
+
+			// No mutation can be appended while the read lock is held
+			modelLock.readLock().lock();
+			try {
+				sequence = getSequence();
+				if (isClosed() || sequence == snapshotSequence) {
+					return;
+				}
+
+				snapshot = createSnapshot(sequence);
+
+				awaitDurable(sequence);
+				rotate(sequence);
+			} finally {
+				modelLock.readLock().unlock();
+			}
+
+			try {
+				writeSnapshot(sequence, snapshot);
+
+				// The segments before the current one are now covered by the snapshot
+				for (Path segment : listSegments()) {
+					if (getSegmentStart(segment) < sequence) {
+						Files.delete(segment);
+					}
+				}
+			} catch (IOException e) {
+				throw new ProviderException("Could not write snapshot in " + directory, e);
+			}
+		}
+	}
+
+	/**
+	 * Syncs all pending journal records and closes the journal. Further
+	 * mutations are rejected.
+	 */
+	@Override
+	public void close() throws IOException {
+		// Waits for a running snapshot, since it may still remove journal segments
+		synchronized (snapshotMonitor) {
+			modelLock.writeLock().lock();
+			try {
+				awaitDurable(getSequence());
+				synchronized (journalMonitor) {
+					closed = true;
+					journal.close();
+				}
+			} catch (ProviderException e) {
+				throw new IOException(e);
+			} finally {
+				modelLock.writeLock().unlock();
+			}
+		}
+	}
+
+	private void mutate(String operation, String path, Object value, Runnable mutation) {
+		long sequence;
+		modelLock.writeLock().lock();
+		try {
+			sequence = getSequence() + 1;
+
+			// The record is serialized before the mutation, since the backend may
+			// take ownership of the passed value
+			Map<String, Object> record = new LinkedHashMap<>();
+			record.put(SEQUENCE, sequence);
+			record.put(OPERATION, operation);
+			record.put(PATH, path);
+			record.put(VALUE, removeFunctions(value));
+			byte[] serialized = (tools.serialize(record) + "\n").getBytes(StandardCharsets.UTF_8);
+
+			synchronized (journalMonitor) {
+				checkWritable();
+			}
+			mutation.run();
+			synchronized (journalMonitor) {
+				pending.add(serialized);
+				appendedSequence = sequence;
+			}
+		} finally {
+			modelLock.writeLock().unlock();
+		}
+
+		awaitDurable(sequence);
+
+		if (snapshotInterval > 0 && sequence - snapshotSequence >= snapshotInterval && snapshotScheduled.compareAndSet(false, true)) {
+			SNAPSHOT_EXECUTOR.execute(() -> {
+				try {
+					snapshot();
+				} catch (ProviderException e) {
+					logger.error("Could not write snapshot in " + directory, e);
+				} finally {
+					snapshotScheduled.set(false);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Waits until the record with the given sequence number has been synced. If
+	 * no other thread is currently syncing, the calling thread writes and syncs
+	 * all pending records, including those of concurrent writers.
+	 */
+	private void awaitDurable(long sequence) {
+		List<byte[]> batch;
+		long batchSequence;
+		FileChannel channel;
+		synchronized (journalMonitor) {
+			while (true) {
+				checkFailure();
+				if (durableSequence >= sequence) {
+					return;
+				}
+				if (!flushing) {
+					break;
+				}
+				try {
+					journalMonitor.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new ProviderException("Interrupted while waiting for the journal", e);
+				}
+			}
+			flushing = true;
+			batch = pending;
+			pending = new ArrayList<>();
+			batchSequence = appendedSequence;
+			channel = journal;
+		}
+
+		IOException error = null;
+		try {
+			write(channel, batch);
+			channel.force(false);
+		} catch (IOException e) {
+			error = e;
+		}
+
+		synchronized (journalMonitor) {
+			flushing = false;
+			if (error == null) {
+				durableSequence = batchSequence;
+			} else {
+				logger.error("Could not write journal in " + directory, error);
+				failure = error;
+			}
+			journalMonitor.notifyAll();
+			checkFailure();
+		}
+	}
+
+	/**
+	 * Serializes the current model for a snapshot at the given sequence
+	 */
+	private String createSnapshot(long sequence) {
+		Map<String, Object> content = new LinkedHashMap<>();
+		content.put(SEQUENCE, sequence);
+		content.put(MODEL, removeFunctions(backend.getValue("")));
+		return tools.serialize(content);
+	}
+
+	/**
+	 * Replaces the snapshot file atomically. All records up to the sequence have
+	 * to be durable.
+	 */
+	private void writeSnapshot(long sequence, String snapshot) throws IOException {
+		Path tmp = directory.resolve(SNAPSHOT_TMP_FILE);
+		try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(channel, Collections.singletonList(snapshot.getBytes(StandardCharsets.UTF_8)));
+			channel.force(true);
+		}
+		Files.move(tmp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		snapshotSequence = sequence;
+	}
+
+	/**
+	 * Starts a new journal segment for the records after the given sequence. All
+	 * records up to the sequence have to be durable.
+	 */
+	private void rotate(long sequence) {
+		synchronized (journalMonitor) {
+			checkWritable();
+			if (journalStart == sequence) {
+				return;
+			}
+			try {
+				FileChannel next = openSegment(sequence);
+				journal.close();
+				journal = next;
+				journalStart = sequence;
+			} catch (IOException e) {
+				throw new ProviderException("Could not start journal segment in " + directory, e);
+			}
+		}
+	}
+
+	/**
+	 * Restores the journaled state of the directory
+	 * 
+	 * @return false, if the directory did not contain a journaled state
+	 */
+	private boolean recover() throws IOException {
+		// Functions are not journaled and are therefore taken from the initial model
+		Object initial = backend.getValue("");
+		long sequence = 0;
+
+		Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+		boolean hasSnapshot = Files.exists(snapshotFile);
+		if (hasSnapshot) {
+			Map<String, Object> snapshot = asMap(tools.deserialize(new String(Files.readAllBytes(snapshotFile), StandardCharsets.UTF_8)));
+			sequence = ((Number) snapshot.get(SEQUENCE)).longValue();
+			backend.setValue("", snapshot.get(MODEL));
+		}
+		snapshotSequence = sequence;
+
+		for (Path segment : listSegments()) {
+			try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isEmpty()) {
+						continue;
+					}
+
+					Map<String, Object> record;
+					try {
+						record = asMap(tools.deserialize(line));
+					} catch (RuntimeException e) {
+						// Only the last record of a segment can be incomplete, e.g. after a crash
+						logger.warn("Ignoring incomplete journal record in " + segment);
+						break;
+					}
+
+					long recordSequence = ((Number) record.get(SEQUENCE)).longValue();
+					if (recordSequence > sequence) {
+						replay(record);
+						sequence = recordSequence;
+					}
+				}
+			}
+		}
+
+		appendedSequence = sequence;
+		durableSequence = sequence;
+		if (!hasSnapshot && sequence == 0) {
+			return false;
+		}
+
+		if (containsFunctions(initial)) {
+			Object model = backend.getValue("");
+			restoreFunctions(model, initial);
+			backend.setValue("", model);
+		}
+
+		logger.info("Recovered journaled model in " + directory + " at sequence " + sequence);
+		return true;
+	}
+
+	private void replay(Map<String, Object> record) {
+		String path = (String) record.get(PATH);
+		Object value = record.get(VALUE);
+		String operation = (String) record.get(OPERATION);
+		switch (operation) {
+		case SET:
+			backend.setValue(path, value);
+			break;
+		case CREATE:
+			backend.createValue(path, value);
+			break;
+		case DELETE:
+			backend.deleteValue(path);
+			break;
+		case DELETE_OBJECT:
+			backend.deleteValue(path, value);
+			break;
+		default:
+			throw new ProviderException("Unknown journal operation " + operation);
+		}
+	}
+
+	/**
+	 * Returns a copy of the value without functions. Maps and collections are
+	 * only copied if they contain functions. A function itself is replaced by
+	 * null.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object removeFunctions(Object value) {
+		if (isFunction(value)) {
+			return null;
+		} else if (!containsFunctions(value)) {
+			return value;
+		} else if (value instanceof Map<?, ?>) {
+			Map<String, Object> copy = new LinkedHashMap<>();
+			for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+				if (!isFunction(entry.getValue())) {
+					copy.put(entry.getKey(), removeFunctions(entry.getValue()));
+				}
+			}
+			return copy;
+		} else if (value instanceof Collection<?>) {
+			List<Object> copy = new ArrayList<>();
+			for (Object element : (Collection<Object>) value) {
+				if (!isFunction(element)) {
+					copy.add(removeFunctions(element));
+				}
+			}
+			return copy;
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Adds the functions of the initial model to the recovered model, if the
+	 * recovered model does not contain a value at their paths
+	 */
+	@SuppressWarnings("unchecked")
+	private static void restoreFunctions(Object recovered, Object initial) {
+		if (!(recovered instanceof Map<?, ?>) || !(initial instanceof Map<?, ?>)) {
+			return;
+		}
+
+		Map<String, Object> recoveredMap = (Map<String, Object>) recovered;
+		for (Map.Entry<String, Object> entry : ((Map<String, Object>) initial).entrySet()) {
+			if (isFunction(entry.getValue())) {
+				recoveredMap.putIfAbsent(entry.getKey(), entry.getValue());
+			} else {
+				restoreFunctions(recoveredMap.get(entry.getKey()), entry.getValue());
+			}
+		}
+	}
+
+	private static boolean containsFunctions(Object value) {
+		if (isFunction(value)) {
+			return true;
+		} else if (value instanceof Map<?, ?>) {
+			return ((Map<?, ?>) value).values().stream().anyMatch(JournaledModelProvider::containsFunctions);
+		} else if (value instanceof Collection<?>) {
+			return ((Collection<?>) value).stream().anyMatch(JournaledModelProvider::containsFunctions);
+		} else {
+			return false;
+		}
+	}
+
+	private static boolean isFunction(Object value) {
+		return value instanceof Supplier<?> || value instanceof Function<?, ?> || value instanceof Consumer<?> || value instanceof BiConsumer<?, ?> || value instanceof Runnable;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> asMap(Object deserialized) {
+		if (!(deserialized instanceof Map<?, ?>) || !((Map<String, Object>) deserialized).containsKey(SEQUENCE)) {
+			throw new ProviderException("Invalid journal content " + deserialized);
+		}
+		return (Map<String, Object>) deserialized;
+	}
+
+	private List<Path> listSegments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(p -> {
+				String name = p.getFileName().toString();
+				return name.startsWith(JOURNAL_PREFIX) && name.endsWith(JOURNAL_SUFFIX);
+			}).sorted((p1, p2) -> Long.compare(getSegmentStart(p1), getSegmentStart(p2))).collect(Collectors.toList());
+		}
+	}
+
+	private long getSegmentStart(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(JOURNAL_PREFIX.length(), name.length() - JOURNAL_SUFFIX.length()));
+	}
+
+	private FileChannel openSegment(long start) throws IOException {
+		// An existing segment with the same start can not contain any valid records
+		// after it, but may end with an incomplete record
+		Path segment = directory.resolve(String.format("%s%020d%s", JOURNAL_PREFIX, start, JOURNAL_SUFFIX));
+		return FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	private static void write(FileChannel channel, List<byte[]> records) throws IOException {
+		if (records.isEmpty()) {
+			return;
+		}
+		int size = records.stream().mapToInt(r -> r.length).sum();
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		records.forEach(buffer::put);
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private boolean isClosed() {
+		synchronized (journalMonitor) {
+			return closed;
+		}
+	}
+
+	private void checkWritable() {
+		checkFailure();
+		if (closed) {
+			throw new ProviderException("Journal in " + directory + " is closed");
+		}
+	}
+
+	private void checkFailure() {
+		if (failure != null) {
+			throw new ProviderException("Journal in " + directory + " failed", failure);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.lambda;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * View of a model collection whose elements are resolved when they are
+ * accessed for the first time. The references to the elements are taken when
+ * the view is created. Modifying the view creates a copy of it, so that the
+ * model itself is never modified through the view.<br/>
+ * <br/>
+ * Reading the view is thread-safe and each element is resolved at most once.
+ */
+class LazyResolvedList extends AbstractList<Object> {
+	private static final Object UNRESOLVED = new Object();
+
+	private final Object[] elements;
+	private final AtomicReferenceArray<Object> resolved;
+	private final UnaryOperator<Object> resolver;
+
+	/**
+	 * Copy created by the first modification; null as long as this is a view
+	 */
+	private volatile List<Object> copy;
+
+	public LazyResolvedList(Collection<Object> source, UnaryOperator<Object> resolver) {
+		this.elements = source.toArray();
+		this.resolved = new AtomicReferenceArray<>(elements.length);
+		this.resolver = resolver;
+		for (int i = 0; i < elements.length; i++) {
+			resolved.set(i, UNRESOLVED);
+		}
+	}
+
+	@Override
+	public Object get(int index) {
+		List<Object> currentCopy = copy;
+		if (currentCopy != null) {
+			return currentCopy.get(index);
+		}
+		Object value = resolved.get(index);
+		if (value != UNRESOLVED) {
+			return value;
+		}
+		synchronized (this) {
+			if (resolved.get(index) == UNRESOLVED) {
+				resolved.set(index, resolver.apply(elements[index]));
+			}
+			return resolved.get(index);
+		}
+	}
+
+	@Override
+	public int size() {
+		List<Object> currentCopy = copy;
+		return currentCopy != null ? currentCopy.size() : elements.length;
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		materialize();
+		return copy.set(index, element);
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		materialize();
+		copy.add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		materialize();
+		modCount++;
+		return copy.remove(index);
+	}
+
+	/**
+	 * Replaces the view by a copy. Values of nested elements stay lazy.
+	 */
+	private synchronized void materialize() {
+		if (copy == null) {
+			List<Object> newCopy = new ArrayList<>(elements.length);
+			for (int i = 0; i < elements.length; i++) {
+				newCopy.add(get(i));
+			}
+			copy = newCopy;
+		}
+	}
+}
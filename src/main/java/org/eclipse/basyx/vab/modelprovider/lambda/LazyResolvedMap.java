@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.modelprovider.lambda;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * View of a model map whose values are resolved when they are accessed for the
+ * first time. The entries of the model map are taken over when the view is
+ * created, so later modifications of the model do not affect the view.
+ * Modifying the view creates a copy of it, so that the model itself is never
+ * modified through the view.<br/>
+ * <br/>
+ * Reading the view is thread-safe and each value is resolved at most once.
+ */
+class LazyResolvedMap extends AbstractMap<String, Object> {
+	private final Map<String, Object> source;
+	private final UnaryOperator<Object> resolver;
+
+	/**
+	 * Marks resolved null values, since the cache cannot contain null
+	 */
+	private static final Object NULL = new Object();
+
+	/**
+	 * Values that have already been resolved, by key
+	 */
+	private final Map<String, Object> resolved = new ConcurrentHashMap<>();
+
+	/**
+	 * Copy created by the first modification; null as long as this is a view of
+	 * the source
+	 */
+	private volatile Map<String, Object> copy;
+
+	public LazyResolvedMap(Map<String, Object> source, UnaryOperator<Object> resolver) {
+		// Only the entries are copied, their values are still resolved lazily
+		this.source = new LinkedHashMap<>(source);
+		this.resolver = resolver;
+	}
+
+	@Override
+	public Object get(Object key) {
+		Map<String, Object> currentCopy = copy;
+		if (currentCopy != null) {
+			return currentCopy.get(key);
+		}
+		if (!source.containsKey(key)) {
+			return null;
+		}
+		return resolve((String) key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		Map<String, Object> currentCopy = copy;
+		return currentCopy != null ? currentCopy.containsKey(key) : source.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		Map<String, Object> currentCopy = copy;
+		return currentCopy != null ? currentCopy.size() : source.size();
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		materialize();
+		return copy.put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		materialize();
+		return copy.remove(key);
+	}
+
+	@Override
+	public void clear() {
+		materialize();
+		copy.clear();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		Map<String, Object> currentCopy = copy;
+		if (currentCopy != null) {
+			return currentCopy.entrySet();
+		}
+
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				Iterator<String> keys = source.keySet().iterator();
+				return new Iterator<Entry<String, Object>>() {
+					@Override
+					public boolean hasNext() {
+						return keys.hasNext();
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+						String key = keys.next();
+						return new SimpleImmutableEntry<>(key, resolve(key));
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return source.size();
+			}
+		};
+	}
+
+	private Object resolve(String key) {
+		Object value = resolved.computeIfAbsent(key, k -> {
+			Object resolvedValue = resolver.apply(source.get(k));
+			return resolvedValue == null ? NULL : resolvedValue;
+		});
+		return value == NULL ? null : value;
+	}
+
+	/**
+	 * Replaces the view by a copy. Values of nested elements stay lazy.
+	 */
+	private synchronized void materialize() {
+		if (copy == null) {
+			Map<String, Object> newCopy = new LinkedHashMap<>();
+			for (String key : source.keySet()) {
+				newCopy.put(key, resolve(key));
+			}
+			copy = newCopy;
+		}
+	}
+}
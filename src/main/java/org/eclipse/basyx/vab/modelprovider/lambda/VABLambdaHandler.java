@@ -41,6 +41,11 @@ import org.eclipse.basyx.vab.modelprovider.map.VABMapHandler;
  * VABHandler that can additionally handle maps with hidden
  * get/set/delete/invoke properties.
  * 
+ * By default, all hidden getters of a retrieved element are invoked and the
+ * element is copied. With lazy resolution, the element is returned as a view
+ * whose hidden getters are only invoked when the respective value is accessed,
+ * e.g. by the serializer.
+ * 
  * @author schnicke, espen
  *
  */
@@ -51,8 +56,29 @@ public class VABLambdaHandler extends VABMapHandler {
 	public static final String VALUE_REMOVEKEY_SUFFIX = "removeKey";
 	public static final String VALUE_REMOVEOBJ_SUFFIX = "removeObject";
 
+	private final boolean lazyResolution;
+
+	public VABLambdaHandler() {
+		this(false);
+	}
+
+	/**
+	 * 
+	 * @param lazyResolution
+	 *            if true, retrieved elements are views that resolve their values
+	 *            on access. Since the values are read from the model when they
+	 *            are accessed, the views reflect later changes of values that
+	 *            have not been accessed yet.
+	 */
+	public VABLambdaHandler(boolean lazyResolution) {
+		this.lazyResolution = lazyResolution;
+	}
+
 	@Override
 	public Object postprocessObject(Object element) {
+		if (lazyResolution) {
+			return super.postprocessObject(resolveLazily(element));
+		}
 		return super.postprocessObject(resolveAll(element));
 	}
 
@@ -140,6 +166,22 @@ public class VABLambdaHandler extends VABMapHandler {
 		}
 	}
 
+	/**
+	 * Resolves a value and wraps maps and collections in views that resolve their
+	 * values on access
+	 */
+	@SuppressWarnings("unchecked")
+	private Object resolveLazily(Object o) {
+		o = resolveSingle(o);
+		if (o instanceof Map<?, ?>) {
+			return new LazyResolvedMap((Map<String, Object>) o, this::resolveLazily);
+		} else if (o instanceof Collection<?>) {
+			return new LazyResolvedList((Collection<Object>) o, this::resolveLazily);
+		} else {
+			return o;
+		}
+	}
+
 	private Object resolveMap(Map<String, Object> map) {
 		Map<String, Object> ret = new LinkedHashMap<>();
 		for (String s : map.keySet()) {
@@ -45,4 +45,16 @@ public class VABLambdaProvider extends VABModelProvider {
 	public VABLambdaProvider(Map<String, Object> elements) {
 		super(elements, new VABLambdaHandler());
 	}
+
+	/**
+	 * 
+	 * @param elements
+	 * @param lazyResolution
+	 *            if true, hidden getters are only invoked when the respective
+	 *            value of a retrieved element is accessed
+	 * @see VABLambdaHandler#VABLambdaHandler(boolean)
+	 */
+	public VABLambdaProvider(Map<String, Object> elements, boolean lazyResolution) {
+		super(elements, new VABLambdaHandler(lazyResolution));
+	}
 }
@@ -24,27 +24,25 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.api;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 
 /**
- * ConnectorProvider that caches connectors for addresses to save resources
+ * ConnectorProvider that caches connectors for addresses to save resources.
+ * Connectors can be requested concurrently.
  * 
  * @author schnicke
  *
  */
 public abstract class ConnectorFactory implements IConnectorFactory {
 
-	private Map<String, IModelProvider> providerMap = new LinkedHashMap<>();
+	private Map<String, IModelProvider> providerMap = new ConcurrentHashMap<>();
 
 	@Override
 	public IModelProvider getConnector(String addr) {
-		if (!providerMap.containsKey(addr)) {
-			providerMap.put(addr, createProvider(addr));
-		}
-		return providerMap.get(addr);
+		return providerMap.computeIfAbsent(addr, this::createProvider);
 	}
 
 	/**
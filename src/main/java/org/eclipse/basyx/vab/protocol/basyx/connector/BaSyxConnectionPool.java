@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.connector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+
+/**
+ * Pool of persistent, pipelined channels to a single BaSyx TCP server.
+ * Concurrent callers are distributed round-robin over the channels. Each
+ * channel can carry several outstanding requests at once, so callers do not
+ * wait for each other's responses before sending.<br/>
+ * <br/>
+ * Channels are opened lazily and are reopened transparently if the server
+ * closed them. Get calls that were left unanswered because the server closed
+ * the channel are resent once on the reopened channel. Other calls may already
+ * have been applied by the server and therefore fail.
+ */
+public class BaSyxConnectionPool {
+
+	/**
+	 * Default number of channels per server
+	 */
+	public static final int DEFAULT_POOL_SIZE = 4;
+
+	private final InetSocketAddress serverSocketAddress;
+	private final BaSyxPipelinedChannel[] channels;
+	private final Object[] channelLocks;
+	private final AtomicInteger nextChannel = new AtomicInteger();
+
+	/**
+	 * Creates a pool with {@value #DEFAULT_POOL_SIZE} channels
+	 * 
+	 * @param serverSocketAddress
+	 */
+	public BaSyxConnectionPool(InetSocketAddress serverSocketAddress) {
+		this(serverSocketAddress, DEFAULT_POOL_SIZE);
+	}
+
+	/**
+	 * Creates a pool with the given number of channels
+	 * 
+	 * @param serverSocketAddress
+	 * @param poolSize
+	 *            number of channels kept open to the server
+	 */
+	public BaSyxConnectionPool(InetSocketAddress serverSocketAddress, int poolSize) {
+		if (poolSize < 1) {
+			throw new IllegalArgumentException("Pool size has to be at least 1, but was " + poolSize);
+		}
+		this.serverSocketAddress = serverSocketAddress;
+		this.channels = new BaSyxPipelinedChannel[poolSize];
+		this.channelLocks = new Object[poolSize];
+		for (int i = 0; i < poolSize; i++) {
+			channelLocks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Sends a call frame and blocks until its response frame has been received.
+	 * If the call can not be written, it is resent once on a freshly opened
+	 * channel. Get calls are also resent if they are left unanswered because the
+	 * server closed the selected channel.
+	 * 
+	 * @param call
+	 *            the complete frame including its length header
+	 * @return the response frame without its length header
+	 * @throws IOException
+	 */
+	public byte[] invoke(byte[] call) throws IOException {
+		try {
+			return send(call).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for response", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Channel to " + serverSocketAddress + " failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Sends a call frame without waiting for its response. The returned future is
+	 * completed by the receiver thread of the channel, so dependent actions should
+	 * not block.
+	 * 
+	 * @param call
+	 *            the complete frame including its length header
+	 * @return future for the response frame without its length header
+	 */
+	public CompletableFuture<byte[]> invokeAsync(byte[] call) {
+		try {
+			return send(call);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(new IOException("Channel to " + serverSocketAddress + " failed", e));
+		}
+	}
+
+	private CompletableFuture<byte[]> send(byte[] call) throws IOException {
+		int slot = Math.floorMod(nextChannel.getAndIncrement(), channels.length);
+		CompletableFuture<byte[]> response;
+		try {
+			response = getChannel(slot).send(call);
+		} catch (IOException e) {
+			// The server does not process incomplete frames. Thus, it is safe to retry the
+			// request on a new channel
+			return getChannel(slot).send(call);
+		}
+
+		// If the server closed the channel before answering, e.g. because it has been
+		// idle, the call may still have been processed. Only reads can be resent
+		// safely
+		if (!isIdempotent(call)) {
+			return response;
+		}
+		CompletableFuture<byte[]> result = new CompletableFuture<>();
+		response.whenComplete((frame, error) -> {
+			if (error == null) {
+				result.complete(frame);
+			} else if (error instanceof BaSyxPipelinedChannel.PeerClosedException) {
+				resend(slot, call, result);
+			} else {
+				result.completeExceptionally(error);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Checks if the command of a call frame only reads values
+	 */
+	private static boolean isIdempotent(byte[] call) {
+		if (call.length < 5) {
+			return false;
+		}
+		byte command = (byte) (call[4] & ~VABBaSyxTCPInterface.BASYX_FLAG_BINARY);
+		return command == VABBaSyxTCPInterface.BASYX_GET || command == VABBaSyxTCPInterface.BASYX_GET_BATCH;
+	}
+
+	private void resend(int slot, byte[] call, CompletableFuture<byte[]> result) {
+		try {
+			getChannel(slot).send(call).whenComplete((frame, error) -> {
+				if (error == null) {
+					result.complete(frame);
+				} else {
+					result.completeExceptionally(error);
+				}
+			});
+		} catch (IOException e) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Closes all channels of this pool. Pending calls fail with an exception.
+	 */
+	public void close() {
+		for (int i = 0; i < channels.length; i++) {
+			synchronized (channelLocks[i]) {
+				if (channels[i] != null) {
+					channels[i].close();
+					channels[i] = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the address of the server this pool connects to
+	 */
+	public InetSocketAddress getServerSocketAddress() {
+		return serverSocketAddress;
+	}
+
+	/**
+	 * Returns an open channel for the given slot; reopens it if necessary
+	 */
+	private BaSyxPipelinedChannel getChannel(int slot) throws IOException {
+		synchronized (channelLocks[slot]) {
+			BaSyxPipelinedChannel channel = channels[slot];
+			if (channel == null || !channel.isOpen()) {
+				channel = new BaSyxPipelinedChannel(serverSocketAddress);
+				channels[slot] = channel;
+			}
+			return channel;
+		}
+	}
+}
@@ -29,26 +29,48 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.protocol.api.IAsyncBaSyxConnector;
 import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
+import org.eclipse.basyx.vab.protocol.api.IBatchBaSyxConnector;
+import org.eclipse.basyx.vab.protocol.api.IBinaryBaSyxConnector;
 import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
 import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+import org.eclipse.basyx.vab.support.SharedExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * BaSyx connector class
  * 
+ * Asynchronous calls are only non-blocking if the connector uses a connection
+ * pool. Otherwise, they are executed synchronously and return completed
+ * futures.
+ * 
  * @author kuhn, pschorn, schnicke
  *
  */
-public class BaSyxConnector implements IBaSyxConnector {
+public class BaSyxConnector implements IBaSyxConnector, IBinaryBaSyxConnector, IAsyncBaSyxConnector, IBatchBaSyxConnector {
 
 	private Logger logger = LoggerFactory.getLogger(BaSyxConnector.class);
 	private InetSocketAddress serverSocketAddress;
 	private SocketChannel channelToProvider;
 
+	/**
+	 * Pool of persistent channels; if null, a new connection is opened for each
+	 * call
+	 */
+	private BaSyxConnectionPool connectionPool;
+
+	/**
+	 * Executor completing asynchronous calls, so that dependent actions do not run
+	 * on the receiver threads of the pool
+	 */
+	private Executor asyncExecutor = SharedExecutor.get();
+
 	/**
 	 * Constructor that creates a connection.
 	 * 
@@ -69,6 +91,30 @@ public class BaSyxConnector implements IBaSyxConnector {
 		}
 	}
 
+	/**
+	 * Constructor that uses persistent, pipelined connections of the given pool
+	 * instead of opening a new connection for each call. Calls are not serialized
+	 * in this mode, i.e. concurrent callers share the channels of the pool.
+	 * 
+	 * @param connectionPool
+	 *            the pool; can be shared by multiple connectors to the same
+	 *            server
+	 */
+	public BaSyxConnector(BaSyxConnectionPool connectionPool) {
+		this.connectionPool = connectionPool;
+		this.serverSocketAddress = connectionPool.getServerSocketAddress();
+	}
+
+	/**
+	 * Sets the executor that completes asynchronous calls. By default, the bounded
+	 * {@link SharedExecutor} is used.
+	 * 
+	 * @param asyncExecutor
+	 */
+	public void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
 	/**
 	 * Close connection
 	 */
@@ -85,7 +131,68 @@ public class BaSyxConnector implements IBaSyxConnector {
 	/**
 	 * Invoke a BaSyx operation in a remote provider
 	 */
-	protected synchronized String invokeBaSyx(byte[] call) {
+	protected String invokeBaSyx(byte[] call) {
+		return extractResult(invokeBaSyxFrame(call));
+	}
+
+	/**
+	 * Invoke a BaSyx operation with binary encoded values in a remote provider
+	 */
+	protected byte[] invokeBaSyxBinary(byte[] call) {
+		return extractBinaryResult(invokeBaSyxFrame(call));
+	}
+
+	/**
+	 * Invoke a BaSyx operation in a remote provider without waiting for its
+	 * response
+	 */
+	protected CompletableFuture<String> invokeBaSyxAsync(byte[] call) {
+		if (connectionPool == null) {
+			try {
+				return CompletableFuture.completedFuture(invokeBaSyx(call));
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
+
+		return connectionPool.invokeAsync(call).handleAsync((rxFrame, e) -> {
+			if (e != null) {
+				throw new ProviderException("Exception in invokeBaSyx", e);
+			}
+			return extractResult(rxFrame);
+		}, asyncExecutor);
+	}
+
+	/**
+	 * Invoke a BaSyx operation and return the response frame
+	 */
+	private byte[] invokeBaSyxFrame(byte[] call) {
+		if (connectionPool != null) {
+			return invokeBaSyxPooled(call);
+		} else {
+			return invokeBaSyxUnpooled(call);
+		}
+	}
+
+	/**
+	 * Invoke a BaSyx operation using a channel of the connection pool
+	 */
+	private byte[] invokeBaSyxPooled(byte[] call) {
+		try {
+			return connectionPool.invoke(call);
+		} catch (IOException e) {
+			logger.error("Exception in invokeBaSyx", e);
+		}
+
+		// Indicate error
+		return null;
+	}
+
+	/**
+	 * Invoke a BaSyx operation using a dedicated connection that is closed
+	 * afterwards
+	 */
+	private synchronized byte[] invokeBaSyxUnpooled(byte[] call) {
 		// Catch exceptions
 		try {
 			// Send byte array (BaSyx operation) via channel to provider
@@ -114,23 +221,11 @@ public class BaSyxConnector implements IBaSyxConnector {
 			// System.out.println("RX2-d");
 			byte[] rxFrame = rxBuffer2.array();
 
-			// Return received data
-
-			// Result check
-			if ((rxFrame == null) || (rxFrame.length < 2))
-				return null;
-
-			// - FIXME: Check result on position 0
-
-			// Extract response
-			int jsonResultLen = CoderTools.getInt32(rxFrame, 1);
-			String jsonResult = new String(rxFrame, 1 + 4, jsonResultLen);
-
 			// Close connection to prevent unused open channels
 			closeConnection();
 
 			// Return result
-			return jsonResult.toString();
+			return rxFrame;
 		} catch (IOException e) {
 			// Print stack trace
 			logger.error("Exception in invokeBaSyx", e);
@@ -140,6 +235,34 @@ public class BaSyxConnector implements IBaSyxConnector {
 		return null;
 	}
 
+	/**
+	 * Extract the JSON result from a received response frame
+	 */
+	private String extractResult(byte[] rxFrame) {
+		// Result check
+		if ((rxFrame == null) || (rxFrame.length < 2))
+			return null;
+
+		// - FIXME: Check result on position 0
+
+		// Extract response
+		int jsonResultLen = CoderTools.getInt32(rxFrame, 1);
+		return new String(rxFrame, 1 + 4, jsonResultLen);
+	}
+
+	/**
+	 * Extract the binary encoded result from a received response frame
+	 */
+	private byte[] extractBinaryResult(byte[] rxFrame) {
+		// Result check
+		if ((rxFrame == null) || (rxFrame.length < 2))
+			return null;
+
+		// Extract response
+		int resultLen = CoderTools.getInt32(rxFrame, 1);
+		return CoderTools.getByteArray(rxFrame, 1 + 4, resultLen);
+	}
+
 	/**
 	 * Read a number of bytes
 	 */
@@ -243,6 +366,85 @@ public class BaSyxConnector implements IBaSyxConnector {
 		return invokeBaSyx(call);
 	}
 
+	/**
+	 * Invoke a Basys batch get operation
+	 */
+	@Override
+	public String getValues(String servicePath, String jsonPaths) throws ProviderException {
+
+		byte[] call = createCall(servicePath, jsonPaths, VABBaSyxTCPInterface.BASYX_GET_BATCH);
+
+		// Invoke BaSyx call and return result
+		return invokeBaSyx(call);
+	}
+
+	@Override
+	public CompletableFuture<String> getValueAsync(String servicePath) {
+		return invokeBaSyxAsync(createCall(servicePath, VABBaSyxTCPInterface.BASYX_GET));
+	}
+
+	@Override
+	public CompletableFuture<String> setValueAsync(String servicePath, String newValue) {
+		return invokeBaSyxAsync(createCall(servicePath, newValue, VABBaSyxTCPInterface.BASYX_SET));
+	}
+
+	@Override
+	public CompletableFuture<String> createValueAsync(String servicePath, String newEntity) {
+		return invokeBaSyxAsync(createCall(servicePath, newEntity, VABBaSyxTCPInterface.BASYX_CREATE));
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath) {
+		return invokeBaSyxAsync(createCall(servicePath, VABBaSyxTCPInterface.BASYX_DELETE));
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath, String obj) {
+		return invokeBaSyxAsync(createCall(servicePath, obj, VABBaSyxTCPInterface.BASYX_DELETE));
+	}
+
+	@Override
+	public CompletableFuture<String> invokeOperationAsync(String servicePath, String parameters) {
+		return invokeBaSyxAsync(createCall(servicePath, parameters, VABBaSyxTCPInterface.BASYX_INVOKE));
+	}
+
+	@Override
+	public byte[] getBinaryValue(String servicePath) throws ProviderException {
+		return invokeBaSyxBinary(createCall(servicePath, binary(VABBaSyxTCPInterface.BASYX_GET)));
+	}
+
+	@Override
+	public byte[] setBinaryValue(String servicePath, byte[] newValue) throws ProviderException {
+		return invokeBaSyxBinary(createCall(servicePath, newValue, binary(VABBaSyxTCPInterface.BASYX_SET)));
+	}
+
+	@Override
+	public byte[] createBinaryValue(String servicePath, byte[] newEntity) throws ProviderException {
+		return invokeBaSyxBinary(createCall(servicePath, newEntity, binary(VABBaSyxTCPInterface.BASYX_CREATE)));
+	}
+
+	@Override
+	public byte[] deleteBinaryValue(String servicePath) throws ProviderException {
+		return invokeBaSyxBinary(createCall(servicePath, binary(VABBaSyxTCPInterface.BASYX_DELETE)));
+	}
+
+	@Override
+	public byte[] deleteBinaryValue(String servicePath, byte[] obj) throws ProviderException {
+		return invokeBaSyxBinary(createCall(servicePath, obj, binary(VABBaSyxTCPInterface.BASYX_DELETE)));
+	}
+
+	@Override
+	public byte[] invokeBinaryOperation(String servicePath, byte[] parameter) throws ProviderException {
+		return invokeBaSyxBinary(createCall(servicePath, parameter, binary(VABBaSyxTCPInterface.BASYX_INVOKE)));
+	}
+
+	/**
+	 * Flags a call type to carry binary encoded values
+	 */
+	private static byte binary(byte callType) {
+		return (byte) (callType | VABBaSyxTCPInterface.BASYX_FLAG_BINARY);
+	}
+
 	/**
 	 * Create non-parameterized call that can be used as an argument to the
 	 * invokeBaSyx function
@@ -292,6 +494,31 @@ public class BaSyxConnector implements IBaSyxConnector {
 		return call;
 	}
 
+	/**
+	 * Create parameterized byte call with a binary encoded value
+	 * 
+	 * @param servicePath
+	 * @param newValue
+	 * @param callType
+	 * @return
+	 */
+	private byte[] createCall(String servicePath, byte[] newValue, byte callType) {
+		// Create call
+		byte[] call = new byte[4 + 1 + 4 + servicePath.length() + 4 + newValue.length];
+		// - Encode size does not include leading four bytes
+		CoderTools.setInt32(call, 0, call.length - 4);
+		// - Encode operation
+		CoderTools.setInt8(call, 4, callType);
+		// - Encode path
+		CoderTools.setInt32(call, 5, servicePath.length());
+		CoderTools.setString(call, 9, servicePath);
+		// - Encode value
+		CoderTools.setInt32(call, 9 + servicePath.length(), newValue.length);
+		CoderTools.setByteArray(call, 9 + servicePath.length() + 4, newValue);
+
+		return call;
+	}
+
 	/**
 	 * Get string representation of endpoint for given path for debugging.
 	 * 
@@ -24,7 +24,15 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.basyx.connector;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.basyx.vab.coder.binary.BinaryConnector;
 import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
@@ -38,6 +46,52 @@ import org.eclipse.basyx.vab.protocol.api.ConnectorFactory;
  */
 public class BaSyxConnectorFactory extends ConnectorFactory {
 
+	/**
+	 * Number of persistent channels per server; 0 disables pooling
+	 */
+	private int poolSize;
+
+	/**
+	 * Exchange values with the binary codec instead of JSON
+	 */
+	private boolean useBinaryCodec;
+
+	/**
+	 * Connection pools shared by all connectors to the same server
+	 */
+	private Map<String, BaSyxConnectionPool> pools = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a factory whose connectors open a new connection for each call
+	 */
+	public BaSyxConnectorFactory() {
+		this(0);
+	}
+
+	/**
+	 * Creates a factory whose connectors share a pool of persistent, pipelined
+	 * connections per server
+	 * 
+	 * @param poolSize
+	 *            number of connections kept open per server; 0 disables pooling
+	 */
+	public BaSyxConnectorFactory(int poolSize) {
+		this(poolSize, false);
+	}
+
+	/**
+	 * Creates a factory whose connectors exchange values with the binary
+	 * MessagePackCodec, if requested
+	 * 
+	 * @param poolSize
+	 *            number of connections kept open per server; 0 disables pooling
+	 * @param useBinaryCodec
+	 */
+	public BaSyxConnectorFactory(int poolSize, boolean useBinaryCodec) {
+		this.poolSize = poolSize;
+		this.useBinaryCodec = useBinaryCodec;
+	}
+
 	/**
 	 * Create the provider
 	 */
@@ -51,7 +105,13 @@ public class BaSyxConnectorFactory extends ConnectorFactory {
 		int hostPort = Integer.parseInt(splitted[0].substring(address.indexOf(':') + 1));
 
 		// Create connector, connect
-		IModelProvider provider = new JSONConnector(new BaSyxConnector(hostName, hostPort));
+		BaSyxConnector connector = createConnector(hostName, hostPort);
+		IModelProvider provider;
+		if (useBinaryCodec) {
+			provider = new BinaryConnector(connector);
+		} else {
+			provider = new JSONConnector(connector);
+		}
 
 		// Create a proxy, if necessary
 		String path = address.replaceFirst(hostName + ":" + hostPort, "");
@@ -62,4 +122,28 @@ public class BaSyxConnectorFactory extends ConnectorFactory {
 		return provider;
 	}
 
+	/**
+	 * Closes all pooled connections created by this factory
+	 */
+	public void closeConnections() {
+		pools.values().forEach(BaSyxConnectionPool::close);
+		pools.clear();
+	}
+
+	private BaSyxConnector createConnector(String hostName, int hostPort) {
+		if (poolSize <= 0) {
+			return new BaSyxConnector(hostName, hostPort);
+		}
+
+		BaSyxConnectionPool pool = pools.computeIfAbsent(hostName + ":" + hostPort, k -> new BaSyxConnectionPool(resolve(hostName, hostPort), poolSize));
+		return new BaSyxConnector(pool);
+	}
+
+	private InetSocketAddress resolve(String hostName, int hostPort) {
+		try {
+			return new InetSocketAddress(InetAddress.getByName(hostName), hostPort);
+		} catch (IOException e) {
+			throw new ProviderException("Could not resolve " + hostName, e);
+		}
+	}
 }
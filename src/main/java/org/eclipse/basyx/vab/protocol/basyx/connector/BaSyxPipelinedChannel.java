@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.connector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single long-lived channel to a BaSyx TCP server that supports pipelining.
+ * Several frames may be written before their responses are read. Since the
+ * server processes the frames of one connection strictly in order, responses
+ * are correlated to their requests by the order in which the requests have been
+ * written.
+ */
+class BaSyxPipelinedChannel {
+
+	private static Logger logger = LoggerFactory.getLogger(BaSyxPipelinedChannel.class);
+
+	/**
+	 * Socket channel to the provider
+	 */
+	private final SocketChannel channel;
+
+	/**
+	 * Signals that the server closed the channel at a frame boundary, i.e.
+	 * without having started any of the pending responses. This happens e.g. if
+	 * the server closes idle connections.
+	 */
+	static class PeerClosedException extends ClosedChannelException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Requests that have been written, but whose response has not yet been read
+	 */
+	private final Queue<CompletableFuture<byte[]>> pendingResponses = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Lock guarding the write and enqueue sequence, so that frame order and
+	 * response order stay aligned
+	 */
+	private final Object writeLock = new Object();
+
+	/**
+	 * Thread reading response frames
+	 */
+	private final Thread receiver;
+
+	/**
+	 * Indicates that this channel is not usable anymore
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Opens a channel to the given address and starts its receiver
+	 * 
+	 * @param serverSocketAddress
+	 * @throws IOException
+	 */
+	public BaSyxPipelinedChannel(InetSocketAddress serverSocketAddress) throws IOException {
+		channel = SocketChannel.open();
+		channel.configureBlocking(true);
+		channel.socket().setTcpNoDelay(true);
+		channel.socket().setKeepAlive(true);
+		channel.connect(serverSocketAddress);
+
+		receiver = new Thread(this::receive, BaSyxPipelinedChannel.class.getName() + " " + serverSocketAddress);
+		receiver.setDaemon(true);
+		receiver.start();
+	}
+
+	/**
+	 * Writes a call frame to the channel. The returned future is completed with
+	 * the response frame (without its leading length header) as soon as it has
+	 * been received.
+	 * 
+	 * @param call
+	 *            the complete frame including its length header
+	 * @return future for the response frame
+	 * @throws IOException
+	 *             if the frame could not be written; the channel is closed then
+	 */
+	public CompletableFuture<byte[]> send(byte[] call) throws IOException {
+		CompletableFuture<byte[]> response = new CompletableFuture<>();
+		synchronized (writeLock) {
+			if (closed) {
+				throw new ClosedChannelException();
+			}
+			pendingResponses.add(response);
+			try {
+				ByteBuffer txBuffer = ByteBuffer.wrap(call);
+				while (txBuffer.hasRemaining()) {
+					channel.write(txBuffer);
+				}
+			} catch (IOException e) {
+				close(e);
+				throw e;
+			}
+		}
+		return response;
+	}
+
+	/**
+	 * Indicates, if this channel can still be used for sending calls
+	 */
+	public boolean isOpen() {
+		return !closed && channel.isOpen();
+	}
+
+	/**
+	 * Closes the channel. All responses that are still pending are completed
+	 * exceptionally.
+	 */
+	public void close() {
+		close(new ClosedChannelException());
+	}
+
+	private void close(Throwable cause) {
+		closed = true;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.debug("Exception while closing the channel", e);
+		}
+
+		// Fail all callers that are still waiting for a response
+		CompletableFuture<byte[]> pending;
+		while ((pending = pendingResponses.poll()) != null) {
+			pending.completeExceptionally(cause);
+		}
+	}
+
+	/**
+	 * Receiver main function; reads response frames and hands them to the oldest
+	 * pending request
+	 */
+	private void receive() {
+		ByteBuffer headerBuffer = ByteBuffer.allocate(4);
+		try {
+			while (!closed) {
+				// Wait for leading 4 byte header that contains frame length
+				headerBuffer.clear();
+				if (channel.read(headerBuffer) == -1) {
+					throw new PeerClosedException();
+				}
+				readBytes(headerBuffer);
+				int frameSize = CoderTools.getInt32(headerBuffer.array(), 0);
+
+				// Wait for frame to arrive
+				ByteBuffer frameBuffer = ByteBuffer.allocate(frameSize);
+				readBytes(frameBuffer);
+
+				CompletableFuture<byte[]> pending = pendingResponses.poll();
+				if (pending == null) {
+					throw new IOException("Received response frame without pending request");
+				}
+				pending.complete(frameBuffer.array());
+			}
+		} catch (IOException e) {
+			if (!closed) {
+				logger.debug("Channel to provider has been closed", e);
+			}
+			close(e);
+		}
+	}
+
+	/**
+	 * Read bytes until the buffer is full
+	 */
+	private void readBytes(ByteBuffer bytes) throws IOException {
+		while (bytes.hasRemaining()) {
+			if (channel.read(bytes) == -1) {
+				throw new ClosedChannelException();
+			}
+		}
+	}
+}
@@ -0,0 +1,560 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.basyx.vab.coder.ICodec;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.service.api.BaSyxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * BaSyx TCP server that multiplexes all connections over a single selector
+ * thread instead of creating one thread per connection. Received frames are
+ * processed by a worker pool; the frames of one connection are processed
+ * strictly in order, so that clients can pipeline requests.<br/>
+ * <br/>
+ * Receive buffers are kept per connection and reused for all of its frames.
+ * If a connection has more than {@value #MAX_QUEUED_FRAMES} unprocessed
+ * frames, reading from it is paused until the workers have caught up.
+ * Connections announcing a negative frame size or one larger than the
+ * configured maximum are closed.
+ */
+public class BaSyxNIOTCPServer<T extends IModelProvider> implements Runnable, BaSyxService {
+
+	private static Logger logger = LoggerFactory.getLogger(BaSyxNIOTCPServer.class);
+
+	/**
+	 * Initial size of the receive buffer of a connection. It grows if larger
+	 * frames are received.
+	 */
+	public static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * Maximum number of received, but unprocessed frames per connection
+	 */
+	public static final int MAX_QUEUED_FRAMES = 64;
+
+	/**
+	 * Default maximum size of a received frame
+	 */
+	public static final int DEFAULT_MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Store server socket channel instance
+	 */
+	protected ServerSocketChannel serverSockChannel = null;
+
+	/**
+	 * Selector for all channels of this server
+	 */
+	protected Selector selector = null;
+
+	/**
+	 * Decodes frames and forwards them to the IModelProvider backend
+	 */
+	protected BaSyxTCPFrameHandler<T> frameHandler = null;
+
+	/**
+	 * Pool processing the received frames
+	 */
+	protected ExecutorService workers = null;
+
+	/**
+	 * Indicates, if the worker pool has been created by this server and has to
+	 * be shut down by it
+	 */
+	private boolean ownsWorkers = false;
+
+	/**
+	 * Maximum size of a received frame, excluding its length header
+	 */
+	private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+
+	/**
+	 * Connections whose interest set has to be updated by the selector thread
+	 */
+	private final Queue<Connection> pendingUpdates = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Exit flag
+	 */
+	protected volatile boolean exit = false;
+
+	/**
+	 * Store thread
+	 */
+	protected Thread thread = null;
+
+	/**
+	 * Store name
+	 */
+	protected String name = null;
+
+	/**
+	 * Constructor that processes frames on a fixed pool with one worker per
+	 * available processor
+	 */
+	public BaSyxNIOTCPServer(T modelProviderBackend, int serverPort) {
+		this(modelProviderBackend, serverPort, Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+		ownsWorkers = true;
+	}
+
+	/**
+	 * Constructor that processes frames on the given executor. The executor is
+	 * not shut down by this server.
+	 */
+	public BaSyxNIOTCPServer(T modelProviderBackend, int serverPort, ExecutorService workers) {
+		frameHandler = new BaSyxTCPFrameHandler<T>(modelProviderBackend);
+		this.workers = workers;
+
+		// Create communication channel
+		try {
+			// The channel should listen on all interfaces, binding on 127.0.0.1 prohibits
+			// remote communication
+			InetAddress hostIPAddress = InetAddress.getByName("0.0.0.0");
+
+			selector = Selector.open();
+			serverSockChannel = ServerSocketChannel.open();
+			serverSockChannel.configureBlocking(false);
+			serverSockChannel.socket().bind(new InetSocketAddress(hostIPAddress, serverPort));
+			serverSockChannel.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			logger.error("Exception in BaSyxNIOTCPServer", e);
+		}
+	}
+
+	/**
+	 * Default constructor without port number
+	 */
+	public BaSyxNIOTCPServer(T modelProviderBackend) {
+		this(modelProviderBackend, 6998);
+	}
+
+	/**
+	 * Accepts frames flagged with {@link VABBaSyxTCPInterface#BASYX_FLAG_BINARY}
+	 * and decodes their values with the given codec, e.g. the MessagePackCodec.
+	 * Binary frames are rejected by default. Has to be called before the server
+	 * is started.
+	 * 
+	 * @param binaryCodec
+	 *            the codec or null to reject binary frames
+	 */
+	public void setBinaryCodec(ICodec binaryCodec) {
+		frameHandler = new BaSyxTCPFrameHandler<T>(frameHandler.providerBackend.getBackendReference(), binaryCodec);
+	}
+
+	/**
+	 * Sets the maximum size of a received frame. Connections sending larger
+	 * frames are closed. Has to be called before the server is started.
+	 * 
+	 * @param maxFrameSize
+	 *            the maximum size in bytes, excluding the length header
+	 */
+	public void setMaxFrameSize(int maxFrameSize) {
+		if (maxFrameSize < 0) {
+			throw new IllegalArgumentException("Maximum frame size must not be negative");
+		}
+		this.maxFrameSize = maxFrameSize;
+	}
+
+	/**
+	 * Selector thread main method
+	 */
+	@Override
+	public void run() {
+		try {
+			while (!exit) {
+				selector.select();
+				applyPendingUpdates();
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handleKey(key);
+				}
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			if (!exit) {
+				logger.error("Exception in run", e);
+			}
+		} finally {
+			closeAll();
+		}
+	}
+
+	private void handleKey(SelectionKey key) {
+		if (!key.isValid()) {
+			return;
+		}
+
+		if (key.isAcceptable()) {
+			acceptIncomingConnection();
+			return;
+		}
+
+		Connection connection = (Connection) key.attachment();
+		try {
+			if (key.isReadable()) {
+				connection.read();
+			}
+			if (key.isValid() && key.isWritable()) {
+				connection.write();
+			}
+		} catch (IOException e) {
+			logger.debug("Connection closed", e);
+			connection.close();
+		} catch (RuntimeException e) {
+			// Must not end the selector thread and thereby all other connections
+			logger.error("Exception while handling connection", e);
+			connection.close();
+		}
+	}
+
+	/**
+	 * Accept an incoming connection
+	 */
+	protected void acceptIncomingConnection() {
+		try {
+			SocketChannel channel = serverSockChannel.accept();
+			if (channel == null) {
+				return;
+			}
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			key.attach(new Connection(channel, key));
+		} catch (IOException e) {
+			// Indicate exception only iff exit flag is false
+			if (!exit) {
+				logger.error("Exception in acceptIncomingConnection", e);
+			}
+		}
+	}
+
+	/**
+	 * Updates the interest sets of all connections whose state changed outside of
+	 * the selector thread
+	 */
+	private void applyPendingUpdates() {
+		Connection connection;
+		while ((connection = pendingUpdates.poll()) != null) {
+			connection.updateInterest();
+		}
+	}
+
+	private void closeAll() {
+		for (SelectionKey key : selector.keys()) {
+			// Only client channels carry a connection as attachment
+			if (key.attachment() != null) {
+				((Connection) key.attachment()).close();
+			}
+		}
+		try {
+			selector.close();
+		} catch (IOException e) {
+			logger.debug("Exception while closing the selector", e);
+		}
+	}
+
+	/**
+	 * End server
+	 */
+	protected void shutdown() {
+		// End thread
+		exit = true;
+
+		// Handle IOException
+		try {
+			// Close stream
+			serverSockChannel.close();
+		} catch (IOException e) {
+			// Indicate exception
+			logger.error("Exception in shutdown", e);
+		}
+		selector.wakeup();
+
+		if (ownsWorkers) {
+			workers.shutdown();
+		}
+	}
+
+	/**
+	 * Start the server
+	 */
+	@Override
+	public void start() {
+		// Create thread
+		thread = new Thread(this, BaSyxNIOTCPServer.class.getName());
+
+		// Start thread
+		thread.start();
+	}
+
+	/**
+	 * Stop the server and block until the server thread is finished
+	 */
+	@Override
+	public void stop() {
+		// Shutdown thread
+		shutdown();
+
+		// Wait for thread end
+		waitFor();
+	}
+
+	/**
+	 * Change service name
+	 */
+	@Override
+	public BaSyxService setName(String newName) {
+		// Store name
+		name = newName;
+
+		// Return 'this' instance
+		return this;
+	}
+
+	/**
+	 * Return service name
+	 */
+	@Override
+	public String getName() {
+		// Return service name
+		return name;
+	}
+
+	/**
+	 * Wait for end of runnable
+	 */
+	@Override
+	public void waitFor() {
+		// Wait for thread end
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			logger.error("Exception in waitFor", e);
+		}
+	}
+
+	/**
+	 * Indicate if this service has ended
+	 */
+	@Override
+	public boolean hasEnded() {
+		// Return exit flag that indicates requested end of service execution
+		return !serverSockChannel.isOpen();
+	}
+
+	/**
+	 * State of a single client connection. Reading, writing and interest updates
+	 * are done by the selector thread; frames are processed by the workers.
+	 */
+	private class Connection {
+		private final SocketChannel channel;
+		private final SelectionKey key;
+
+		/**
+		 * Receive buffer; always in write mode between two reads
+		 */
+		private ByteBuffer rxBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+		/**
+		 * Received frames that have not yet been processed, guarded by this
+		 */
+		private final Queue<byte[]> rxFrames = new ArrayDeque<>();
+
+		/**
+		 * Indicates that a worker is processing the frames of this connection,
+		 * guarded by this
+		 */
+		private boolean processing = false;
+
+		/**
+		 * Encoded response frames that have not yet been transmitted
+		 */
+		private final Queue<ByteBuffer> txFrames = new ConcurrentLinkedQueue<>();
+
+		public Connection(SocketChannel channel, SelectionKey key) {
+			this.channel = channel;
+			this.key = key;
+		}
+
+		/**
+		 * Reads available bytes and queues all completely received frames
+		 */
+		public void read() throws IOException {
+			if (channel.read(rxBuffer) == -1) {
+				close();
+				return;
+			}
+
+			rxBuffer.flip();
+			while (rxBuffer.remaining() >= 4) {
+				int frameSize = getFrameSize(rxBuffer.position());
+				if (rxBuffer.remaining() < 4 + frameSize) {
+					break;
+				}
+				byte[] rxFrame = new byte[frameSize];
+				rxBuffer.position(rxBuffer.position() + 4);
+				rxBuffer.get(rxFrame);
+				enqueue(rxFrame);
+			}
+			rxBuffer.compact();
+
+			// Grow buffer if the next frame does not fit into it
+			if (rxBuffer.position() >= 4) {
+				int required = 4 + getFrameSize(0);
+				if (required > rxBuffer.capacity()) {
+					ByteBuffer larger = ByteBuffer.allocate(required);
+					rxBuffer.flip();
+					larger.put(rxBuffer);
+					rxBuffer = larger;
+				}
+			}
+			updateInterest();
+		}
+
+		/**
+		 * Returns the size of the frame whose length header starts at the given
+		 * position of the receive buffer
+		 */
+		private int getFrameSize(int position) throws IOException {
+			int frameSize = CoderTools.getInt32(rxBuffer.array(), position);
+			if (frameSize < 0 || frameSize > maxFrameSize) {
+				throw new IOException("Invalid frame size " + frameSize);
+			}
+			return frameSize;
+		}
+
+		/**
+		 * Writes as many pending response frames as the channel accepts
+		 */
+		public void write() throws IOException {
+			ByteBuffer txFrame;
+			while ((txFrame = txFrames.peek()) != null) {
+				channel.write(txFrame);
+				if (txFrame.hasRemaining()) {
+					break;
+				}
+				txFrames.poll();
+			}
+			updateInterest();
+		}
+
+		/**
+		 * Adjusts the interest set to the current state. Must only be called by the
+		 * selector thread.
+		 */
+		public void updateInterest() {
+			if (!key.isValid()) {
+				return;
+			}
+			int interest = 0;
+			synchronized (this) {
+				if (rxFrames.size() < MAX_QUEUED_FRAMES) {
+					interest |= SelectionKey.OP_READ;
+				}
+			}
+			if (!txFrames.isEmpty()) {
+				interest |= SelectionKey.OP_WRITE;
+			}
+			key.interestOps(interest);
+		}
+
+		private void enqueue(byte[] rxFrame) {
+			synchronized (this) {
+				rxFrames.add(rxFrame);
+				if (processing) {
+					return;
+				}
+				processing = true;
+			}
+			try {
+				workers.execute(this::process);
+			} catch (RejectedExecutionException e) {
+				logger.error("Worker pool rejected frame", e);
+				close();
+			}
+		}
+
+		/**
+		 * Worker function; processes the queued frames of this connection in order
+		 */
+		private void process() {
+			while (true) {
+				byte[] rxFrame;
+				synchronized (this) {
+					rxFrame = rxFrames.poll();
+					if (rxFrame == null) {
+						processing = false;
+						return;
+					}
+				}
+
+				try {
+					txFrames.add(frameHandler.processInputFrame(rxFrame));
+				} catch (RuntimeException e) {
+					logger.error("Exception while processing frame", e);
+					close();
+					return;
+				}
+
+				// Let the selector thread register for writing and, if necessary,
+				// resume reading
+				pendingUpdates.add(this);
+				selector.wakeup();
+			}
+		}
+
+		public void close() {
+			key.cancel();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				logger.debug("Exception while closing the channel", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.basyx.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.eclipse.basyx.vab.coder.ICodec;
+import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes BaSyx TCP request frames, forwards them to a {@link JSONProvider}
+ * and encodes the response frames. This class is independent of the way frames
+ * are transported and is shared by the blocking and the selector based server.
+ * 
+ * @author kuhn, pschorn
+ *
+ */
+public class BaSyxTCPFrameHandler<ModelProvider extends IModelProvider> {
+
+	private static Logger logger = LoggerFactory.getLogger(BaSyxTCPFrameHandler.class);
+
+	/**
+	 * Reference to IModelProvider backend
+	 */
+	protected JSONProvider<ModelProvider> providerBackend = null;
+
+	/**
+	 * Backend for frames flagged with
+	 * {@link VABBaSyxTCPInterface#BASYX_FLAG_BINARY}; null if binary frames are
+	 * not accepted
+	 */
+	protected JSONProvider<ModelProvider> binaryProviderBackend = null;
+
+	/**
+	 * Constructor for a handler that only accepts JSON encoded frames
+	 */
+	public BaSyxTCPFrameHandler(ModelProvider modelProviderBackend) {
+		this(modelProviderBackend, null);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param modelProviderBackend
+	 * @param binaryCodec
+	 *            codec for frames flagged with
+	 *            {@link VABBaSyxTCPInterface#BASYX_FLAG_BINARY}, e.g. the
+	 *            MessagePackCodec; null if binary frames are not accepted
+	 */
+	public BaSyxTCPFrameHandler(ModelProvider modelProviderBackend, ICodec binaryCodec) {
+		providerBackend = new JSONProvider<ModelProvider>(modelProviderBackend);
+		if (binaryCodec != null) {
+			binaryProviderBackend = new JSONProvider<ModelProvider>(modelProviderBackend, binaryCodec);
+		}
+	}
+
+	/**
+	 * Process an input frame and return the encoded response frame
+	 * 
+	 * @param rxFrame
+	 *            received frame without its leading length header
+	 * @return response frame including its leading length header
+	 */
+	public ByteBuffer processInputFrame(byte[] rxFrame) {
+		// Create output stream; the response is directly serialized into the frame
+		FrameOutputStream output = new FrameOutputStream();
+
+		// Binary encoded values are handled separately
+		if ((rxFrame[0] & VABBaSyxTCPInterface.BASYX_FLAG_BINARY) != 0) {
+			if (binaryProviderBackend == null) {
+				throw new RuntimeException("Binary encoded BaSyx TCP frames are not enabled");
+			}
+			processBinaryInputFrame(rxFrame, output);
+			return output.toFrame(VABBaSyxTCPInterface.BASYX_RESULT_OK);
+		}
+
+		// Get command
+		switch (rxFrame[0]) {
+
+		case VABBaSyxTCPInterface.BASYX_GET: {
+			// Get path string
+			int pathLen = CoderTools.getInt32(rxFrame, 1);
+			String path = new String(rxFrame, 1 + 4, pathLen);
+
+			// Forward request to provider
+			try {
+				providerBackend.processBaSysGet(path, output);
+			} catch (ProviderException e) {
+				logger.debug("Exception in BASYX_GET", e);
+				// Catch Exceptions from JSONProvider
+				// No further action here, as the current version
+				// of the TCP-Mapping states, that always Statuscode 0x00
+				// should be returned with Exceptions encoded in returned String
+			}
+			break;
+		}
+
+		case VABBaSyxTCPInterface.BASYX_SET: {
+			// Get path string length and value
+			int pathLen = CoderTools.getInt32(rxFrame, 1);
+			String path = new String(rxFrame, 1 + 4, pathLen);
+			// Get value string length and value
+			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
+			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
+
+			// Invoke get operation
+			try {
+				providerBackend.processBaSysSet(path, jsonValue, output);
+			} catch (ProviderException e) {
+				logger.debug("Exception in BASYX_SET", e);
+				// Catch Exceptions from JSONProvider
+				// No further action here, as the current version
+				// of the TCP-Mapping states, that always Statuscode 0x00
+				// should be returned with Exceptions encoded in returned String
+			}
+			break;
+		}
+
+		case VABBaSyxTCPInterface.BASYX_CREATE: {
+			// Get path string length and value
+			int pathLen = CoderTools.getInt32(rxFrame, 1);
+			String path = new String(rxFrame, 1 + 4, pathLen);
+			// Get value string length and value
+			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
+			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
+
+			// Invoke get operation
+			try {
+				providerBackend.processBaSysCreate(path, jsonValue, output);
+			} catch (ProviderException e) {
+				logger.debug("Exception in BASYX_CREATE", e);
+				// Catch Exceptions from JSONProvider
+				// No further action here, as the current version
+				// of the TCP-Mapping states, that always Statuscode 0x00
+				// should be returned with Exceptions encoded in returned String
+			}
+			break;
+		}
+
+		case VABBaSyxTCPInterface.BASYX_DELETE: {
+			// Get path string length and value
+			int pathLen = CoderTools.getInt32(rxFrame, 1);
+			String path = new String(rxFrame, 1 + 4, pathLen);
+
+			// Get value string length and value if available; default is null value
+			String jsonValue = "";
+			try {
+				int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
+				jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
+
+			} catch (ArrayIndexOutOfBoundsException e) {
+				// pass, provide serialize null argument to processBaSysDelete to indicate that
+				// an
+				// entity should be removed
+			}
+
+			// Invoke delete operation
+			try {
+				providerBackend.processBaSysDelete(path, jsonValue, output);
+			} catch (ProviderException e) {
+				logger.debug("Exception in BASYX_DELETE", e);
+				// Catch Exceptions from JSONProvider
+				// No further action here, as the current version
+				// of the TCP-Mapping states, that always Statuscode 0x00
+				// should be returned with Exceptions encoded in returned String
+			}
+			break;
+		}
+
+		case VABBaSyxTCPInterface.BASYX_INVOKE: {
+			// Get path string length and value
+			int pathLen = CoderTools.getInt32(rxFrame, 1);
+			String path = new String(rxFrame, 1 + 4, pathLen);
+			// Get value string length and value
+			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
+			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
+			// Invoke get operation
+			try {
+				providerBackend.processBaSysInvoke(path, jsonValue, output);
+			} catch (ProviderException e) {
+				logger.debug("Exception in BASYX_INVOKE", e);
+				// Catch Exceptions from JSONProvider
+				// No further action here, as the current version
+				// of the TCP-Mapping states, that always Statuscode 0x00
+				// should be returned with Exceptions encoded in returned String
+			}
+			break;
+		}
+
+		case VABBaSyxTCPInterface.BASYX_GET_BATCH: {
+			// Get path string length and value
+			int pathLen = CoderTools.getInt32(rxFrame, 1);
+			String path = new String(rxFrame, 1 + 4, pathLen);
+			// Get paths string length and value
+			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
+			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
+
+			try {
+				providerBackend.processBaSysBatchGet(path, jsonValue, output);
+			} catch (ProviderException e) {
+				logger.debug("Exception in BASYX_GET_BATCH", e);
+				// Exceptions are encoded in returned String
+			}
+			break;
+		}
+
+		default:
+			throw new RuntimeException("Unknown BaSyx TCP command received");
+		}
+
+		// Create response frame with positive response
+		return output.toFrame(VABBaSyxTCPInterface.BASYX_RESULT_OK);
+	}
+
+	/**
+	 * Process an input frame whose values are encoded with the binary codec. The
+	 * values are decoded directly from the received frame.
+	 * 
+	 * @param rxFrame
+	 *            received frame without its leading length header
+	 * @param output
+	 *            stream for the encoded response
+	 */
+	private void processBinaryInputFrame(byte[] rxFrame, OutputStream output) {
+		byte command = (byte) (rxFrame[0] & ~VABBaSyxTCPInterface.BASYX_FLAG_BINARY);
+
+		// Get path string
+		int pathLen = CoderTools.getInt32(rxFrame, 1);
+		String path = new String(rxFrame, 1 + 4, pathLen);
+
+		// Get encoded value if available; an empty value is decoded to null
+		int valueOffset = 1 + 4 + pathLen;
+		InputStream value;
+		if (rxFrame.length >= valueOffset + 4) {
+			value = new ByteArrayInputStream(rxFrame, valueOffset + 4, CoderTools.getInt32(rxFrame, valueOffset));
+		} else {
+			value = new ByteArrayInputStream(new byte[0]);
+		}
+
+		try {
+			switch (command) {
+			case VABBaSyxTCPInterface.BASYX_GET:
+				binaryProviderBackend.processBaSysGet(path, output);
+				break;
+			case VABBaSyxTCPInterface.BASYX_SET:
+				binaryProviderBackend.processBaSysSet(path, value, output);
+				break;
+			case VABBaSyxTCPInterface.BASYX_CREATE:
+				binaryProviderBackend.processBaSysCreate(path, value, output);
+				break;
+			case VABBaSyxTCPInterface.BASYX_DELETE:
+				binaryProviderBackend.processBaSysDelete(path, value, output);
+				break;
+			case VABBaSyxTCPInterface.BASYX_INVOKE:
+				binaryProviderBackend.processBaSysInvoke(path, value, output);
+				break;
+			case VABBaSyxTCPInterface.BASYX_GET_BATCH:
+				binaryProviderBackend.processBaSysBatchGet(path, value, output);
+				break;
+			default:
+				throw new RuntimeException("Unknown BaSyx TCP command received");
+			}
+		} catch (ProviderException e) {
+			logger.debug("Exception in binary BaSyx TCP command " + command, e);
+			// Exceptions are encoded in the response, same as for JSON
+		}
+	}
+
+	/**
+	 * Output stream that reserves space for the frame header in front of the
+	 * JSON response, so that the frame can be sent without copying the response
+	 */
+	private static class FrameOutputStream extends ByteArrayOutputStream {
+		/**
+		 * Frame size (4 bytes), result (1 byte) and JSON length (4 bytes)
+		 */
+		private static final int HEADER_SIZE = 4 + 1 + 4;
+
+		public FrameOutputStream() {
+			super(256);
+			count = HEADER_SIZE;
+		}
+
+		/**
+		 * Fills in the header and returns the complete frame
+		 */
+		public ByteBuffer toFrame(int result) {
+			// - Encoded size does not include leading four bytes
+			CoderTools.setInt32(buf, 0, count - 4);
+			CoderTools.setInt8(buf, 4, result);
+			CoderTools.setInt32(buf, 5, count - HEADER_SIZE);
+			return ByteBuffer.wrap(buf, 0, count);
+		}
+	}
+}
@@ -31,6 +31,7 @@ import java.net.SocketException;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 
+import org.eclipse.basyx.vab.coder.ICodec;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.service.api.BaSyxService;
 
@@ -57,6 +58,11 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 	 */
 	protected T providerBackend = null;
 
+	/**
+	 * Codec for binary encoded frames; null if only JSON is accepted
+	 */
+	protected ICodec binaryCodec = null;
+
 	/**
 	 * Exit flag
 	 */
@@ -103,6 +109,19 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 		this(modelProviderBackend, 6998);
 	}
 
+	/**
+	 * Accepts frames flagged with {@link VABBaSyxTCPInterface#BASYX_FLAG_BINARY}
+	 * and decodes their values with the given codec, e.g. the MessagePackCodec.
+	 * Binary frames are rejected by default. Only affects connections accepted
+	 * afterwards.
+	 * 
+	 * @param binaryCodec
+	 *            the codec or null to reject binary frames
+	 */
+	public void setBinaryCodec(ICodec binaryCodec) {
+		this.binaryCodec = binaryCodec;
+	}
+
 	/**
 	 * Thread main method
 	 */
@@ -136,7 +155,7 @@ public class BaSyxTCPServer<T extends IModelProvider> implements Runnable, BaSyx
 
 			// Handle an incoming connection
 			// - Create and connect BaSyx client provider for communication socket
-			VABBaSyxTCPInterface<T> tcpProvider = new VABBaSyxTCPInterface<T>(providerBackend, communicationSocket);
+			VABBaSyxTCPInterface<T> tcpProvider = new VABBaSyxTCPInterface<T>(providerBackend, communicationSocket, binaryCodec);
 			// - Start TCP provider
 			tcpProvider.start();
 		} catch (IOException e) {
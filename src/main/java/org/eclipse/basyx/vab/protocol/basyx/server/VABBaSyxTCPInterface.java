@@ -24,14 +24,12 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.basyx.server;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SocketChannel;
 
-import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
-import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.coder.ICodec;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
 import org.slf4j.Logger;
@@ -73,15 +71,27 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 	 */
 	public static final byte BASYX_INVOKE = 0x05;
 
+	/**
+	 * BaSyx batch get command; the value is a list of paths relative to the path
+	 */
+	public static final byte BASYX_GET_BATCH = 0x06;
+
+	/**
+	 * Flag that is combined with a command to indicate that the values of the
+	 * request and the response are encoded with the binary MessagePackCodec
+	 * instead of JSON
+	 */
+	public static final byte BASYX_FLAG_BINARY = (byte) 0x80;
+
 	/**
 	 * BaSyx result 'OK' : 0x00
 	 */
 	public static final byte BASYX_RESULT_OK = 0x00;
 
 	/**
-	 * Reference to IModelProvider backend
+	 * Decodes frames and forwards them to the IModelProvider backend
 	 */
-	protected JSONProvider<ModelProvider> providerBackend = null;
+	protected BaSyxTCPFrameHandler<ModelProvider> frameHandler = null;
 
 	/**
 	 * Socket communication channel
@@ -92,8 +102,16 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 	 * Constructor that accepts an already created server socket channel
 	 */
 	public VABBaSyxTCPInterface(ModelProvider modelProviderBackend, SocketChannel channel) {
+		this(modelProviderBackend, channel, null);
+	}
+
+	/**
+	 * Constructor that additionally accepts frames flagged with
+	 * {@link #BASYX_FLAG_BINARY}, if a codec for them is given
+	 */
+	public VABBaSyxTCPInterface(ModelProvider modelProviderBackend, SocketChannel channel, ICodec binaryCodec) {
 		// Store reference to channel and backend
-		providerBackend = new JSONProvider<ModelProvider>(modelProviderBackend);
+		frameHandler = new BaSyxTCPFrameHandler<ModelProvider>(modelProviderBackend, binaryCodec);
 		commChannel = channel;
 		setName(VABBaSyxTCPInterface.class.getName() + " " + System.currentTimeMillis());
 		logger.debug("Socket created");
@@ -103,193 +121,11 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 	 * Process input frame
 	 */
 	public void processInputFrame(byte[] rxFrame) throws IOException {
-		// Create output streams
-		ByteArrayOutputStream output = new ByteArrayOutputStream();
-
-		// Get command
-		switch (rxFrame[0]) {
-
-		case BASYX_GET: {
-			// Get path string
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-
-			// Forward request to provider
-			try {
-				providerBackend.processBaSysGet(path, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_GET", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00
-				// should be returned with Exceptions encoded in returned String
-			}
-
-			// System.out.println("Processed GET:"+path);
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
-		}
-
-		case BASYX_SET: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-			// Get value string length and value
-			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-
-			// Invoke get operation
-			try {
-				providerBackend.processBaSysSet(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_SET", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00
-				// should be returned with Exceptions encoded in returned String
-			}
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
-		}
-
-		case BASYX_CREATE: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-			// Get value string length and value
-			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-
-			// Invoke get operation
-			try {
-				providerBackend.processBaSysCreate(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_CREATE", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00
-				// should be returned with Exceptions encoded in returned String
-			}
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
-		}
-
-		case BASYX_DELETE: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-
-			// Get value string length and value if available; default is null value
-			String jsonValue = "";
-			try {
-				int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-				jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-
-			} catch (ArrayIndexOutOfBoundsException e) {
-				// pass, provide serialize null argument to processBaSysDelete to indicate that
-				// an
-				// entity should be removed
-			}
-
-			// Invoke delete operation
-			try {
-				providerBackend.processBaSysDelete(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_DELETE", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00
-				// should be returned with Exceptions encoded in returned String
-			}
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
-		}
-
-		case BASYX_INVOKE: {
-			// Get path string length and value
-			int pathLen = CoderTools.getInt32(rxFrame, 1);
-			String path = new String(rxFrame, 1 + 4, pathLen);
-			// Get value string length and value
-			int jsonValueLen = CoderTools.getInt32(rxFrame, 1 + 4 + pathLen);
-			String jsonValue = new String(rxFrame, 1 + 4 + pathLen + 4, jsonValueLen);
-			// Invoke get operation
-			try {
-				providerBackend.processBaSysInvoke(path, jsonValue, output);
-			} catch (ProviderException e) {
-				logger.debug("Exception in BASYX_INVOKE", e);
-				// Catch Exceptions from JSONProvider
-				// No further action here, as the current version
-				// of the TCP-Mapping states, that always Statuscode 0x00
-				// should be returned with Exceptions encoded in returned String
-			}
-
-			// Send response frame
-			output.flush();
-			sendResponseFrame(output);
-
-			break;
-		}
-
-		default:
-			throw new RuntimeException("Unknown BaSyx TCP command received");
-		}
-	}
-
-	/**
-	 * Sends a response to the client that carries the JSON response
-	 * 
-	 * @param byteArrayOutput
-	 * @throws IOException
-	 */
-	private void sendResponseFrame(ByteArrayOutputStream byteArrayOutput) throws IOException {
-		// Create response frame with positive response
-		sendResponseFrame(byteArrayOutput, BASYX_RESULT_OK);
-	}
-
-	/**
-	 * Sends a response to the client that carries the JSON response
-	 * 
-	 * @param byteArrayOutput
-	 * @throws IOException
-	 */
-	private void sendResponseFrame(ByteArrayOutputStream byteArrayOutput, int result) throws IOException {
-		// Create response frame
-		byte[] encodedResult = byteArrayOutput.toByteArray();
-		int resultFrameSize = encodedResult.length + 1;
-		byte[] frameLength = new byte[4];
-		byte[] encodedResultLength = new byte[4];
-		CoderTools.setInt32(frameLength, 0, resultFrameSize + 4);
-		CoderTools.setInt32(encodedResultLength, 0, encodedResult.length);
-
-		// Place response frame in buffer
-		ByteBuffer buffer = ByteBuffer.allocate(resultFrameSize + 4 + 4);
-		buffer.put(frameLength);
-		buffer.put((byte) result);
-		buffer.put(encodedResultLength);
-		buffer.put(encodedResult);
-		buffer.flip();
-
 		// Transmit response frame
-		commChannel.write(buffer);
-
-		// Reset output stream
-		byteArrayOutput.reset();
+		ByteBuffer buffer = frameHandler.processInputFrame(rxFrame);
+		while (buffer.hasRemaining()) {
+			commChannel.write(buffer);
+		}
 	}
 
 	/**
@@ -310,13 +146,16 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 	 */
 	@Override
 	public void run() {
+		// Header buffer is reused for all frames of this connection
+		ByteBuffer rxBuffer1 = ByteBuffer.allocate(4);
+
 		// Run forever (until socket is closed)
 		while (true) {
 			// Process inputs
 			try {
 				// Read response
 				// - Wait for leading 4 byte header that contains frame length
-				ByteBuffer rxBuffer1 = ByteBuffer.allocate(4);
+				rxBuffer1.clear();
 				readBytes(rxBuffer1, 4);
 				int frameSize = CoderTools.getInt32(rxBuffer1.array(), 0);
 				logger.debug("Read Frame with size: " + frameSize);
@@ -336,6 +175,10 @@ public class VABBaSyxTCPInterface<ModelProvider extends IModelProvider> extends
 
 				// Output error
 				logger.error("Exception in run", e);
+			} catch (RuntimeException e) {
+				// Frames that can not be processed, e.g. unknown commands, end the connection
+				logger.error("Exception while processing frame", e);
+				break;
 			}
 		}
 		try {
@@ -27,25 +27,37 @@ package org.eclipse.basyx.vab.protocol.http.connector;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.Invocation.Builder;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import org.eclipse.basyx.vab.coder.binary.MessagePackCodec;
 import org.eclipse.basyx.vab.coder.json.metaprotocol.Message;
 import org.eclipse.basyx.vab.coder.json.metaprotocol.MessageType;
 import org.eclipse.basyx.vab.coder.json.metaprotocol.Result;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.protocol.api.IAsyncBaSyxConnector;
 import org.eclipse.basyx.vab.protocol.api.IBaSyxConnector;
+import org.eclipse.basyx.vab.protocol.api.IBatchBaSyxConnector;
+import org.eclipse.basyx.vab.protocol.api.IBinaryBaSyxConnector;
 import org.eclipse.basyx.vab.protocol.http.server.ExceptionToHTTPCodeMapper;
+import org.eclipse.basyx.vab.support.SharedExecutor;
 import org.glassfish.jersey.client.HttpUrlConnectorProvider;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.Nullable;
@@ -57,19 +69,54 @@ import io.netty.handler.codec.http.HttpMethod;
 /**
  * HTTP connector class
  * 
+ * Asynchronous calls are executed by an executor, since the underlying HTTP
+ * connection blocks until the response has been received. Only long polls are
+ * sent asynchronously by the client, since they may wait for a long time.
+ * 
  * @author kuhn, pschorn, schnicke
  *
  */
-public class HTTPConnector implements IBaSyxConnector {
+public class HTTPConnector implements IBaSyxConnector, IBinaryBaSyxConnector, IAsyncBaSyxConnector, IBatchBaSyxConnector {
 
 	private static Logger logger = LoggerFactory.getLogger(HTTPConnector.class);
 
+	/**
+	 * Content encodings accepted for response bodies
+	 */
+	private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+	/**
+	 * Query parameter of GET requests that are answered by the server only after
+	 * waiting, e.g. for the result of an operation. Such long polls are limited
+	 * by separate permits of a shared client, so that they do not starve other
+	 * requests to the same route. Asynchronous long polls do not occupy a thread
+	 * while waiting for the response.
+	 */
+	public static final String WAIT_PARAMETER = "wait";
+
 	private String address;
 	private String mediaType;
 	@Nullable
 	private final IAuthorizationSupplier authorizationSupplier;
 	protected Client client;
 
+	/**
+	 * Client shared with other connectors; null if this connector has its own
+	 * client
+	 */
+	@Nullable
+	private final SharedHTTPClient sharedClient;
+	private final String route;
+
+	private Executor asyncExecutor = SharedExecutor.get();
+
+	/**
+	 * Cache of GET responses for conditional requests; null if responses are not
+	 * cached
+	 */
+	@Nullable
+	private HTTPResponseCache responseCache;
+
 	/**
 	 * Invoke a BaSys get operation via HTTP GET
 	 * 
@@ -79,7 +126,23 @@ public class HTTPConnector implements IBaSyxConnector {
 	 */
 	@Override
 	public String getValue(String servicePath) {
-		return httpGet(servicePath);
+		if (isLongPoll(servicePath)) {
+			return performLongPoll(() -> httpGet(servicePath));
+		}
+		return perform(() -> httpGet(servicePath));
+	}
+
+	private static boolean isLongPoll(String servicePath) {
+		int queryStart = servicePath.indexOf('?');
+		if (queryStart < 0) {
+			return false;
+		}
+		for (String parameter : servicePath.substring(queryStart + 1).split("&")) {
+			if (parameter.startsWith(WAIT_PARAMETER + "=")) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	public HTTPConnector(String address) {
@@ -95,16 +158,71 @@ public class HTTPConnector implements IBaSyxConnector {
 	}
 
 	public HTTPConnector(final String address, final String mediaType, @Nullable final IAuthorizationSupplier authorizationSupplier) {
+		this(address, mediaType, authorizationSupplier, null);
+	}
+
+	/**
+	 * Creates a connector that uses a client shared with other connectors instead
+	 * of creating its own client
+	 * 
+	 * @param address
+	 * @param sharedClient
+	 */
+	public HTTPConnector(String address, SharedHTTPClient sharedClient) {
+		this(address, MediaType.APPLICATION_JSON + ";charset=UTF-8", null, sharedClient);
+	}
+
+	public HTTPConnector(final String address, final String mediaType, @Nullable final IAuthorizationSupplier authorizationSupplier, @Nullable final SharedHTTPClient sharedClient) {
 		this.address = address;
 		this.mediaType = mediaType;
 		this.authorizationSupplier = authorizationSupplier;
-
-		// Create client
-		client = ClientBuilder.newClient();
+		this.sharedClient = sharedClient;
+
+		if (sharedClient == null) {
+			// Create client
+			client = enableContentDecoding(ClientBuilder.newClient());
+			route = null;
+		} else {
+			client = sharedClient.getClient();
+			route = SharedHTTPClient.getRoute(address);
+		}
 
 		logger.trace("Create with addr: {}", address);
 	}
 
+	/**
+	 * Enables transparent decoding of gzip and deflate encoded response bodies
+	 * 
+	 * @param client
+	 * @return the passed client
+	 */
+	protected static Client enableContentDecoding(Client client) {
+		return client.register(GZipEncoder.class).register(DeflateEncoder.class);
+	}
+
+	/**
+	 * Sets the executor of asynchronous calls. By default, the bounded
+	 * {@link SharedExecutor} is used.
+	 * 
+	 * @param asyncExecutor
+	 */
+	public void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	/**
+	 * Sets the cache of GET responses. If set, GET requests for responses that
+	 * carried an ETag are sent conditionally and the cached response is reused if
+	 * it was not modified. The cache may be shared with other connectors. By
+	 * default, responses are not cached.
+	 * 
+	 * @param responseCache
+	 *            the cache or null to disable caching
+	 */
+	public void setResponseCache(@Nullable HTTPResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
 	/**
 	 * Invokes BasysPut method via HTTP PUT. Overrides existing property, operation
 	 * or event.
@@ -117,7 +235,7 @@ public class HTTPConnector implements IBaSyxConnector {
 	@Override
 	public String setValue(String servicePath, String newValue) throws ProviderException {
 
-		return httpPut(servicePath, newValue);
+		return perform(() -> httpPut(servicePath, newValue));
 	}
 
 	/**
@@ -133,7 +251,7 @@ public class HTTPConnector implements IBaSyxConnector {
 	@Override
 	public String deleteValue(String servicePath, String obj) throws ProviderException {
 
-		return httpPatch(servicePath, obj);
+		return perform(() -> httpPatch(servicePath, obj));
 	}
 
 	/**
@@ -144,7 +262,7 @@ public class HTTPConnector implements IBaSyxConnector {
 	@Override
 	public String createValue(String servicePath, String newValue) throws ProviderException {
 
-		return httpPost(servicePath, newValue);
+		return perform(() -> httpPost(servicePath, newValue));
 	}
 
 	/**
@@ -156,7 +274,7 @@ public class HTTPConnector implements IBaSyxConnector {
 	@Override
 	public String deleteValue(String servicePath) throws ProviderException {
 
-		return httpDelete(servicePath);
+		return perform(() -> httpDelete(servicePath));
 	}
 
 	/**
@@ -169,6 +287,7 @@ public class HTTPConnector implements IBaSyxConnector {
 		// Build request, set JSON encoding
 		Builder request = resource.request();
 		request.accept(mediaType);
+		request.header(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
 		getAuthorization().ifPresent(authorization -> request.header(HttpHeaders.AUTHORIZATION, authorization));
 
 		// Return JSON request
@@ -197,28 +316,126 @@ public class HTTPConnector implements IBaSyxConnector {
 	}
 
 	/**
-	 * Perform a HTTP get request
+	 * Perform a HTTP get request. If a previous response for the same path
+	 * carried an ETag and has been cached, the request is conditional and the
+	 * previous response is reused if it was not modified.
 	 * 
 	 * @param servicePath
 	 * @return
 	 */
 	private String httpGet(String servicePath) throws ProviderException {
-		logger.trace("[HTTP Get] {}", VABPathTools.concatenatePaths(address, servicePath));
+		String url = VABPathTools.concatenatePaths(address, servicePath);
+		logger.trace("[HTTP Get] {}", url);
 
 		Builder request = retrieveBuilder(servicePath);
 
+		HTTPResponseCache.Entry cached = responseCache == null ? null : responseCache.get(url);
+		if (cached != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, cached.getETag());
+		}
+
 		// Perform request
 		Response rsp = null;
 		try {
 			rsp = request.get();
 		} finally {
-			if (!isRequestSuccess(rsp)) {
+			if (!isRequestSuccess(rsp) && !isNotModified(rsp, cached)) {
 				throw this.handleProcessingException(HttpMethod.GET, rsp);
 			}
 		}
 
+		if (isNotModified(rsp, cached)) {
+			rsp.close();
+			return cached.getBody();
+		}
+
 		// Return response message (header)
-		return rsp.readEntity(String.class);
+		String body = rsp.readEntity(String.class);
+		cacheResponse(url, rsp.getHeaderString(HttpHeaders.ETAG), body);
+		return body;
+	}
+
+	/**
+	 * Performs a long poll without blocking the caller. The future is completed by
+	 * the callback of the client once the response has been received. Responses
+	 * of long polls are not cached.
+	 * 
+	 * @param servicePath
+	 * @return the future of the response
+	 */
+	private CompletableFuture<String> getLongPollAsync(String servicePath) {
+		if (sharedClient == null) {
+			return httpGetAsync(servicePath);
+		}
+
+		return sharedClient.acquireLongPollAsync(route).thenCompose(v -> {
+			CompletableFuture<String> response;
+			try {
+				response = httpGetAsync(servicePath);
+			} catch (RuntimeException e) {
+				sharedClient.releaseLongPoll(route);
+				throw e;
+			}
+			return response.whenComplete((body, e) -> sharedClient.releaseLongPoll(route));
+		});
+	}
+
+	private CompletableFuture<String> httpGetAsync(String servicePath) {
+		logger.trace("[HTTP Get] {}", VABPathTools.concatenatePaths(address, servicePath));
+
+		CompletableFuture<String> result = new CompletableFuture<>();
+		retrieveBuilder(servicePath).async().get(new InvocationCallback<Response>() {
+			@Override
+			public void completed(Response rsp) {
+				try {
+					if (isRequestSuccess(rsp)) {
+						result.complete(rsp.readEntity(String.class));
+					} else {
+						result.completeExceptionally(handleProcessingException(HttpMethod.GET, rsp));
+					}
+				} catch (RuntimeException e) {
+					result.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void failed(Throwable throwable) {
+				logger.trace("[HTTP Get] failed", throwable);
+				result.completeExceptionally(handleProcessingException(HttpMethod.GET, null));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Keeps a GET response for conditional requests if it carried an ETag
+	 * 
+	 * @param url
+	 * @param eTag
+	 * @param body
+	 */
+	private void cacheResponse(String url, String eTag, String body) {
+		if (responseCache == null) {
+			return;
+		}
+
+		if (eTag == null) {
+			responseCache.remove(url);
+		} else {
+			responseCache.put(url, eTag, body);
+		}
+	}
+
+	/**
+	 * Returns true if the response confirms that the cached response is still
+	 * valid
+	 * 
+	 * @param rsp
+	 * @param cached
+	 * @return
+	 */
+	private boolean isNotModified(Response rsp, HTTPResponseCache.Entry cached) {
+		return rsp != null && cached != null && rsp.getStatus() == Status.NOT_MODIFIED.getStatusCode();
 	}
 
 	private String httpPut(String servicePath, String newValue) throws ProviderException {
@@ -301,7 +518,157 @@ public class HTTPConnector implements IBaSyxConnector {
 	@Override
 	public String invokeOperation(String path, String parameter) throws ProviderException {
 
-		return httpPost(path, parameter);
+		return perform(() -> httpPost(path, parameter));
+	}
+
+	/**
+	 * Invoke a BaSys batch get operation via HTTP POST to the reserved path
+	 * {@link VABPathTools#BATCH_GET}
+	 */
+	@Override
+	public String getValues(String servicePath, String jsonPaths) throws ProviderException {
+		return perform(() -> httpPost(VABPathTools.concatenatePaths(servicePath, VABPathTools.BATCH_GET), jsonPaths));
+	}
+
+	@Override
+	public CompletableFuture<String> getValueAsync(String servicePath) {
+		if (isLongPoll(servicePath)) {
+			return getLongPollAsync(servicePath);
+		}
+		return CompletableFuture.supplyAsync(() -> getValue(servicePath), asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<String> setValueAsync(String servicePath, String newValue) {
+		return CompletableFuture.supplyAsync(() -> setValue(servicePath, newValue), asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<String> createValueAsync(String servicePath, String newEntity) {
+		return CompletableFuture.supplyAsync(() -> createValue(servicePath, newEntity), asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath) {
+		return CompletableFuture.supplyAsync(() -> deleteValue(servicePath), asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<String> deleteValueAsync(String servicePath, String obj) {
+		return CompletableFuture.supplyAsync(() -> deleteValue(servicePath, obj), asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<String> invokeOperationAsync(String servicePath, String parameter) {
+		return CompletableFuture.supplyAsync(() -> invokeOperation(servicePath, parameter), asyncExecutor);
+	}
+
+	@Override
+	public byte[] getBinaryValue(String servicePath) throws ProviderException {
+		return perform(() -> httpBinary(HttpMethod.GET, servicePath, null));
+	}
+
+	@Override
+	public byte[] setBinaryValue(String servicePath, byte[] newValue) throws ProviderException {
+		return perform(() -> httpBinary(HttpMethod.PUT, servicePath, newValue));
+	}
+
+	@Override
+	public byte[] createBinaryValue(String servicePath, byte[] newEntity) throws ProviderException {
+		return perform(() -> httpBinary(HttpMethod.POST, servicePath, newEntity));
+	}
+
+	@Override
+	public byte[] deleteBinaryValue(String servicePath) throws ProviderException {
+		return perform(() -> httpBinary(HttpMethod.DELETE, servicePath, null));
+	}
+
+	@Override
+	public byte[] deleteBinaryValue(String servicePath, byte[] obj) throws ProviderException {
+		return perform(() -> httpBinary(HttpMethod.PATCH, servicePath, obj));
+	}
+
+	@Override
+	public byte[] invokeBinaryOperation(String servicePath, byte[] parameter) throws ProviderException {
+		return perform(() -> httpBinary(HttpMethod.POST, servicePath, parameter));
+	}
+
+	/**
+	 * Perform a HTTP request whose body and response are encoded with the binary
+	 * codec
+	 * 
+	 * @param method
+	 * @param servicePath
+	 * @param body
+	 *            encoded body; null if the request has no body
+	 * @return
+	 */
+	private byte[] httpBinary(HttpMethod method, String servicePath, byte[] body) throws ProviderException {
+		logger.trace("[HTTP {} binary] {}", method.name(), VABPathTools.concatenatePaths(address, servicePath));
+
+		final Builder request = this.client.target(VABPathTools.concatenatePaths(address, servicePath)).request();
+		request.accept(MessagePackCodec.MEDIA_TYPE);
+		request.header(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+		getAuthorization().ifPresent(authorization -> request.header(HttpHeaders.AUTHORIZATION, authorization));
+
+		// Perform request
+		Response rsp = null;
+		try {
+			Invocation invocation;
+			if (body == null) {
+				invocation = request.build(method.name());
+			} else {
+				invocation = request.build(method.name(), Entity.entity(body, MessagePackCodec.MEDIA_TYPE));
+			}
+			rsp = invocation.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true).invoke();
+		} finally {
+			if (!isRequestSuccess(rsp)) {
+				throw this.handleBinaryProcessingException(method, rsp);
+			}
+		}
+
+		// Return response message (header)
+		return rsp.readEntity(byte[].class);
+	}
+
+	/**
+	 * Performs a request. If the client is shared, waits for a free connection of
+	 * the route first.
+	 * 
+	 * @param request
+	 * @return the result of the request
+	 */
+	private <T> T perform(Supplier<T> request) throws ProviderException {
+		if (sharedClient == null) {
+			return request.get();
+		}
+
+		sharedClient.acquire(route);
+		try {
+			return request.get();
+		} finally {
+			sharedClient.release(route);
+		}
+	}
+
+	/**
+	 * Performs a long poll. If the client is shared, waits for a free long poll
+	 * permit of the route first.
+	 * 
+	 * @param request
+	 * @return the result of the request
+	 */
+	private <T> T performLongPoll(Supplier<T> request) throws ProviderException {
+		if (sharedClient == null) {
+			return request.get();
+		}
+
+		sharedClient.acquireLongPoll(route);
+		try {
+			return request.get();
+		} finally {
+			sharedClient.releaseLongPoll(route);
+		}
 	}
 
 	/**
@@ -331,6 +698,34 @@ public class HTTPConnector implements IBaSyxConnector {
 		return e;
 	}
 
+	@SuppressWarnings("unchecked")
+	private ProviderException handleBinaryProcessingException(HttpMethod method, Response rsp) {
+		if (rsp == null) {
+			return ExceptionToHTTPCodeMapper.mapToException(404, buildMessageString(method.name(), null));
+		}
+
+		int statusCode = getStatusCode(rsp);
+		Object response;
+		try {
+			response = new MessagePackCodec().decode(rsp.readEntity(byte[].class));
+		} catch (RuntimeException e) {
+			response = null;
+		}
+
+		// Responses that do not stem from the VAB server, e.g. error pages, carry no
+		// result
+		if (!(response instanceof Map<?, ?>) || !((Map<?, ?>) response).containsKey(Result.MESSAGES)) {
+			return ExceptionToHTTPCodeMapper.mapToException(statusCode, buildMessageString(method.name(), null));
+		}
+
+		Result result = Result.createAsFacade((Map<String, Object>) response);
+
+		List<Message> messages = result.getMessages();
+		messages.add(new Message(MessageType.Exception, buildMessageString(method.name(), result)));
+
+		return ExceptionToHTTPCodeMapper.mapToException(statusCode, result.getMessages());
+	}
+
 	/**
 	 * Get status code from HTTP Response
 	 * 
@@ -24,20 +24,94 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.http.connector;
 
+import org.eclipse.basyx.vab.coder.binary.BinaryConnector;
 import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.api.ConnectorFactory;
 
 public class HTTPConnectorFactory extends ConnectorFactory {
 
+	/**
+	 * Exchange values with the binary codec instead of JSON
+	 */
+	private boolean useBinaryCodec;
+
+	/**
+	 * Client shared by all connectors; null if each connector has its own client
+	 */
+	private SharedHTTPClient sharedClient;
+
+	/**
+	 * Cache of GET responses shared by all connectors; null if responses are not
+	 * cached
+	 */
+	private HTTPResponseCache responseCache;
+
+	/**
+	 * Creates a factory whose connectors exchange JSON
+	 */
+	public HTTPConnectorFactory() {
+		this(false);
+	}
+
+	/**
+	 * Creates a factory whose connectors exchange values with the binary
+	 * MessagePackCodec, if requested
+	 * 
+	 * @param useBinaryCodec
+	 */
+	public HTTPConnectorFactory(boolean useBinaryCodec) {
+		this(useBinaryCodec, null);
+	}
+
+	/**
+	 * Creates a factory whose connectors exchange JSON using a shared client
+	 * 
+	 * @param sharedClient
+	 */
+	public HTTPConnectorFactory(SharedHTTPClient sharedClient) {
+		this(false, sharedClient);
+	}
+
+	/**
+	 * Creates a factory whose connectors all use the same client. Thus,
+	 * connections are reused across connectors and limited per route.
+	 * 
+	 * @param useBinaryCodec
+	 * @param sharedClient
+	 *            the shared client or null if each connector should create its
+	 *            own client
+	 */
+	public HTTPConnectorFactory(boolean useBinaryCodec, SharedHTTPClient sharedClient) {
+		this.useBinaryCodec = useBinaryCodec;
+		this.sharedClient = sharedClient;
+	}
+
+	/**
+	 * Sets a cache of GET responses that is shared by all connectors created
+	 * afterwards. By default, responses are not cached.
+	 * 
+	 * @param responseCache
+	 *            the cache or null to disable caching
+	 * @see HTTPConnector#setResponseCache(HTTPResponseCache)
+	 */
+	public void setResponseCache(HTTPResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
 	/**
 	 * returns HTTPConnetor wrapped with ConnectedHashmapProvider that handles
 	 * message header information
 	 */
 	@Override
 	protected IModelProvider createProvider(String addr) {
+		HTTPConnector connector = sharedClient == null ? new HTTPConnector(addr) : new HTTPConnector(addr, sharedClient);
+		connector.setResponseCache(responseCache);
+		if (useBinaryCodec) {
+			return new BinaryConnector(connector);
+		}
 
-		return new JSONConnector(new HTTPConnector(addr));
+		return new JSONConnector(connector);
 	}
 
 }
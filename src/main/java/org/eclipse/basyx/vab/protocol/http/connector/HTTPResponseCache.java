@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.connector;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cache of GET responses that carried an ETag, by URL. HTTPConnectors that use
+ * it send conditional requests and reuse the cached body if the server answers
+ * with 304 - Not Modified. A single cache can be shared by any number of
+ * connectors, e.g. all connectors of a HTTPConnectorFactory.<br/>
+ * <br/>
+ * The cache is bounded by the approximate memory its entries occupy. If it is
+ * full, the least recently used responses are evicted.
+ */
+public class HTTPResponseCache {
+	/**
+	 * Default maximum size in bytes of all cached responses
+	 */
+	public static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+	private final long maxSize;
+
+	/**
+	 * Accumulated size of all entries, guarded by this
+	 */
+	private long size = 0;
+
+	/**
+	 * Entries in access order, guarded by this
+	 */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Creates a cache with a maximum size of {@value #DEFAULT_MAX_SIZE} bytes
+	 */
+	public HTTPResponseCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * 
+	 * @param maxSize
+	 *            maximum size in bytes of all cached responses. Responses larger
+	 *            than this are not cached at all.
+	 */
+	public HTTPResponseCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the cached response for the URL or null if there is none
+	 */
+	public synchronized Entry get(String url) {
+		return entries.get(url);
+	}
+
+	/**
+	 * Caches a response and evicts the least recently used responses if the
+	 * maximum size is exceeded
+	 * 
+	 * @param url
+	 * @param eTag
+	 * @param body
+	 */
+	public synchronized void put(String url, String eTag, String body) {
+		remove(url);
+
+		Entry entry = new Entry(url, eTag, body);
+		if (entry.size > maxSize) {
+			return;
+		}
+		entries.put(url, entry);
+		size += entry.size;
+
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (size > maxSize) {
+			size -= eldest.next().size;
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Removes the cached response for the URL, if any
+	 */
+	public synchronized void remove(String url) {
+		Entry removed = entries.remove(url);
+		if (removed != null) {
+			size -= removed.size;
+		}
+	}
+
+	/**
+	 * Returns the approximate size in bytes of all cached responses
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * A cached response
+	 */
+	public static class Entry {
+		private final String eTag;
+		private final String body;
+		private final long size;
+
+		private Entry(String url, String eTag, String body) {
+			this.eTag = eTag;
+			this.body = body;
+
+			// Strings take two bytes per char at most
+			this.size = 2L * (url.length() + eTag.length() + body.length());
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+
+		public String getBody() {
+			return body;
+		}
+	}
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.connector;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+
+/**
+ * HTTP client that is shared by multiple HTTPConnectors, e.g. all connectors
+ * of a HTTPConnectorFactory. Connections are kept alive and reused by the
+ * JDK's connection cache, which holds at most <i>http.maxConnections</i> idle
+ * connections per route. Therefore, the number of concurrent requests per
+ * route is limited to the same number by default, so that connections are
+ * reused instead of being closed after each request.
+ * 
+ * Long polls, i.e. requests the server answers only after waiting, are limited
+ * by separate permits per route. Thus, they do not starve other requests to
+ * the same route, but their number is still bounded.
+ */
+public class SharedHTTPClient {
+	public static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+	public static final int DEFAULT_READ_TIMEOUT = 30000;
+	public static final int DEFAULT_MAX_LONG_POLLS_PER_ROUTE = 32;
+
+	private final Client client;
+	private final int maxConnectionsPerRoute;
+	private final int maxLongPollsPerRoute;
+	private final int connectTimeout;
+	private final Map<String, Semaphore> routes = new ConcurrentHashMap<>();
+	private final Map<String, AsyncPermits> longPollRoutes = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a client with default timeouts and as many connections per route as
+	 * are kept alive by the JDK
+	 */
+	public SharedHTTPClient() {
+		this(Integer.getInteger("http.maxConnections", 5), DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+	}
+
+	/**
+	 * 
+	 * @param maxConnectionsPerRoute
+	 *            maximum number of concurrent requests to the same host and port
+	 * @param connectTimeout
+	 *            timeout in milliseconds for establishing a connection and for
+	 *            waiting for a free connection of a route. 0 waits infinitely.
+	 * @param readTimeout
+	 *            timeout in milliseconds for reading a response. 0 waits
+	 *            infinitely.
+	 */
+	public SharedHTTPClient(int maxConnectionsPerRoute, int connectTimeout, int readTimeout) {
+		this(maxConnectionsPerRoute, connectTimeout, readTimeout, DEFAULT_MAX_LONG_POLLS_PER_ROUTE);
+	}
+
+	/**
+	 * 
+	 * @param maxConnectionsPerRoute
+	 *            maximum number of concurrent requests to the same host and port
+	 * @param connectTimeout
+	 *            timeout in milliseconds for establishing a connection and for
+	 *            waiting for a free connection of a route. 0 waits infinitely.
+	 * @param readTimeout
+	 *            timeout in milliseconds for reading a response. 0 waits
+	 *            infinitely.
+	 * @param maxLongPollsPerRoute
+	 *            maximum number of concurrent long polls to the same host and
+	 *            port
+	 */
+	public SharedHTTPClient(int maxConnectionsPerRoute, int connectTimeout, int readTimeout, int maxLongPollsPerRoute) {
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		this.maxLongPollsPerRoute = maxLongPollsPerRoute;
+		this.connectTimeout = connectTimeout;
+
+		Client newClient = ClientBuilder.newBuilder().connectTimeout(connectTimeout, TimeUnit.MILLISECONDS).readTimeout(readTimeout, TimeUnit.MILLISECONDS).build();
+		client = HTTPConnector.enableContentDecoding(newClient);
+	}
+
+	public Client getClient() {
+		return client;
+	}
+
+	/**
+	 * Returns the route, i.e. scheme, host and port, of an address
+	 * 
+	 * @param address
+	 * @return
+	 */
+	public static String getRoute(String address) {
+		try {
+			URI uri = URI.create(address);
+			return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+		} catch (IllegalArgumentException e) {
+			// Limit the address itself if it can not be parsed
+			return address;
+		}
+	}
+
+	/**
+	 * Waits for a free connection of the route. Each successful call has to be
+	 * followed by {@link #release(String)}.
+	 * 
+	 * @param route
+	 * @throws ProviderException
+	 *             if no connection became free within the connect timeout
+	 */
+	public void acquire(String route) throws ProviderException {
+		Semaphore connections = routes.computeIfAbsent(route, r -> new Semaphore(maxConnectionsPerRoute, true));
+		try {
+			if (connectTimeout == 0) {
+				connections.acquire();
+			} else if (!connections.tryAcquire(connectTimeout, TimeUnit.MILLISECONDS)) {
+				throw new ProviderException("No connection to " + route + " became available within " + connectTimeout + "ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProviderException("Interrupted while waiting for a connection to " + route, e);
+		}
+	}
+
+	/**
+	 * Releases a connection acquired by {@link #acquire(String)}
+	 * 
+	 * @param route
+	 */
+	public void release(String route) {
+		routes.get(route).release();
+	}
+
+	/**
+	 * Waits for a free long poll permit of the route. Each successful call has to
+	 * be followed by {@link #releaseLongPoll(String)}.
+	 * 
+	 * @param route
+	 * @throws ProviderException
+	 *             if no permit became free within the connect timeout
+	 */
+	public void acquireLongPoll(String route) throws ProviderException {
+		try {
+			acquireLongPollAsync(route).join();
+		} catch (CompletionException e) {
+			throw (ProviderException) e.getCause();
+		}
+	}
+
+	/**
+	 * Returns a future that is completed once a long poll permit of the route is
+	 * free, without blocking the caller. Each successfully completed future has to
+	 * be followed by {@link #releaseLongPoll(String)}.
+	 * 
+	 * @param route
+	 * @return the future of the permit, completed exceptionally with a
+	 *         ProviderException if no permit became free within the connect
+	 *         timeout
+	 */
+	public CompletableFuture<Void> acquireLongPollAsync(String route) {
+		AsyncPermits permits = longPollRoutes.computeIfAbsent(route, r -> new AsyncPermits(maxLongPollsPerRoute));
+		CompletableFuture<Void> permit = permits.acquire();
+		if (connectTimeout == 0) {
+			return permit;
+		}
+
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		permit.orTimeout(connectTimeout, TimeUnit.MILLISECONDS).whenComplete((v, e) -> {
+			if (e == null) {
+				result.complete(null);
+			} else if (e instanceof TimeoutException) {
+				result.completeExceptionally(new ProviderException("No long poll permit for " + route + " became available within " + connectTimeout + "ms"));
+			} else {
+				result.completeExceptionally(new ProviderException("Waiting for a long poll permit for " + route + " failed", e));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Releases a long poll permit acquired by {@link #acquireLongPoll(String)} or
+	 * {@link #acquireLongPollAsync(String)}
+	 * 
+	 * @param route
+	 */
+	public void releaseLongPoll(String route) {
+		longPollRoutes.get(route).release();
+	}
+
+	/**
+	 * Closes the client and all of its connections. Connectors using this client
+	 * can not be used afterwards.
+	 */
+	public void close() {
+		client.close();
+	}
+
+	/**
+	 * Permits that are handed out in order of their requests. Waiting for a permit
+	 * does not block a thread.
+	 */
+	private static class AsyncPermits {
+		private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+		private int available;
+
+		public AsyncPermits(int permits) {
+			this.available = permits;
+		}
+
+		public CompletableFuture<Void> acquire() {
+			synchronized (this) {
+				if (available > 0) {
+					available--;
+					return CompletableFuture.completedFuture(null);
+				}
+				CompletableFuture<Void> permit = new CompletableFuture<>();
+				waiting.add(permit);
+				return permit;
+			}
+		}
+
+		public void release() {
+			while (true) {
+				CompletableFuture<Void> next;
+				synchronized (this) {
+					next = waiting.poll();
+					if (next == null) {
+						available++;
+						return;
+					}
+				}
+
+				// Complete outside of the lock, since dependent actions are executed
+				// directly. Waits that already timed out do not take the permit.
+				if (next.complete(null)) {
+					return;
+				}
+			}
+		}
+	}
+}
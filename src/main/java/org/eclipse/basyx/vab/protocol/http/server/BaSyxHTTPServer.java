@@ -141,7 +141,8 @@ public class BaSyxHTTPServer {
 		
 		configureCorsOrigin(context, servlet);
 
-		Tomcat.addServlet(rootCtx, Integer.toString(servlet.hashCode()), servlet);
+		// Allows servlets to answer requests asynchronously, e.g. waits for results
+		Tomcat.addServlet(rootCtx, Integer.toString(servlet.hashCode()), servlet).setAsyncSupported(true);
 		rootCtx.addServletMappingDecoded(mapping, Integer.toString(servlet.hashCode()));
 	}
 
@@ -186,6 +187,7 @@ public class BaSyxHTTPServer {
 		filterChainProxyFilterDefinition.setFilterName(FilterChainProxy.class.getSimpleName());
 		filterChainProxyFilterDefinition.setFilterClass(FilterChainProxy.class.getName());
 		filterChainProxyFilterDefinition.setFilter(filterChainProxy);
+		filterChainProxyFilterDefinition.setAsyncSupported(Boolean.TRUE.toString());
 		return filterChainProxyFilterDefinition;
 	}
 
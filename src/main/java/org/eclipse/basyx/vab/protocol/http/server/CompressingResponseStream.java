@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.protocol.http.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Output stream for HTTP responses that compresses the response body with the
+ * negotiated content encoding. The body is buffered until it reaches the
+ * compression threshold, so small responses are sent uncompressed and the
+ * Content-Encoding header is only set if the body is actually compressed.
+ */
+class CompressingResponseStream extends OutputStream {
+	public static final String GZIP = "gzip";
+	public static final String DEFLATE = "deflate";
+
+	private final HttpServletResponse resp;
+	private final String contentEncoding;
+	private final int threshold;
+
+	private ByteArrayOutputStream buffer;
+	private OutputStream target;
+
+	/**
+	 * 
+	 * @param resp
+	 * @param contentEncoding
+	 *            {@link #GZIP}, {@link #DEFLATE} or null if the body must not be
+	 *            compressed
+	 * @param threshold
+	 *            minimum size in bytes of a body to be compressed
+	 * @throws IOException
+	 */
+	public CompressingResponseStream(HttpServletResponse resp, String contentEncoding, int threshold) throws IOException {
+		this.resp = resp;
+		this.contentEncoding = contentEncoding;
+		this.threshold = threshold;
+
+		if (contentEncoding == null) {
+			target = resp.getOutputStream();
+		} else {
+			buffer = new ByteArrayOutputStream();
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (target == null) {
+			if (buffer.size() + len < threshold) {
+				buffer.write(b, off, len);
+				return;
+			}
+			startCompression();
+		}
+		target.write(b, off, len);
+	}
+
+	/**
+	 * Buffered data is kept until the threshold is reached or the stream is
+	 * finished, since flushing it would commit the response headers
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (target != null) {
+			target.flush();
+		}
+	}
+
+	/**
+	 * Writes all remaining data to the response without closing the underlying
+	 * stream. Afterwards, nothing may be written to this stream anymore.
+	 * 
+	 * @throws IOException
+	 */
+	public void finish() throws IOException {
+		if (target == null) {
+			buffer.writeTo(resp.getOutputStream());
+			buffer = null;
+		} else if (target instanceof DeflaterOutputStream) {
+			((DeflaterOutputStream) target).finish();
+		}
+	}
+
+	private void startCompression() throws IOException {
+		resp.setHeader("Content-Encoding", contentEncoding);
+
+		OutputStream out = resp.getOutputStream();
+		if (GZIP.equals(contentEncoding)) {
+			target = new GZIPOutputStream(out);
+		} else {
+			target = new DeflaterOutputStream(out);
+		}
+
+		buffer.writeTo(target);
+		buffer = null;
+	}
+}
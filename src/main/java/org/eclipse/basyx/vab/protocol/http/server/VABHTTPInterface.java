@@ -24,16 +24,25 @@
  ******************************************************************************/
 package org.eclipse.basyx.vab.protocol.http.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -42,6 +51,8 @@ import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.eclipse.basyx.vab.coder.ICodec;
+import org.eclipse.basyx.vab.coder.binary.MessagePackCodec;
 import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
@@ -50,8 +61,6 @@ import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.ByteSource;
 
 /**
  * VAB provider class that enables access to an IModelProvider via HTTP REST
@@ -67,7 +76,9 @@ import com.google.common.io.ByteSource;
  * - POST /aas/submodels/{subModelId}/operations/a Invoke operation a of
  * submodel {subModelId}<br>
  * - POST /aas/submodels/{subModelId}/operations/a/b Invoke operation a/b of
- * submodel {subModelId}
+ * submodel {subModelId}<br>
+ * - POST /aas/submodels/{subModelId}/$batch Retrieve the values of a list of
+ * paths relative to submodel {subModelId}
  * 
  * @author kuhn
  *
@@ -86,6 +97,23 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	 */
 	protected JSONProvider<ModelProvider> providerBackend = null;
 
+	/**
+	 * Backends for codecs other than JSON, by media type
+	 */
+	protected Map<String, JSONProvider<ModelProvider>> codecBackends = new LinkedHashMap<>();
+
+	/**
+	 * Minimum size in bytes of a GET response body to be compressed. Negative
+	 * values disable compression.
+	 */
+	private int compressionThreshold = 1024;
+
+	/**
+	 * If true, GET responses carry an ETag and conditional requests are answered
+	 * with 304 - Not Modified
+	 */
+	private boolean eTagEnabled = false;
+
 	/**
 	 * Constructor
 	 */
@@ -94,6 +122,38 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 		providerBackend = new JSONProvider<ModelProvider>(provider);
 	}
 
+	/**
+	 * Adds a codec that is used for requests whose Content-Type or Accept header
+	 * matches its media type, e.g. the {@link MessagePackCodec}. By default, only
+	 * JSON is supported.
+	 */
+	public void addCodec(ICodec codec) {
+		codecBackends.put(codec.getMediaType(), new JSONProvider<ModelProvider>(getModelProvider(), codec));
+	}
+
+	/**
+	 * Sets the minimum size in bytes of GET response bodies that are compressed
+	 * if the client accepts gzip or deflate encoding. Negative values disable
+	 * compression.
+	 * 
+	 * @param compressionThreshold
+	 */
+	public void setCompressionThreshold(int compressionThreshold) {
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * Enables content hash based ETags for GET responses. Requests with a
+	 * matching If-None-Match header are answered with 304 - Not Modified and no
+	 * body. Since the hash has to be known before the body is sent, responses
+	 * are buffered completely if enabled.
+	 * 
+	 * @param eTagEnabled
+	 */
+	public void setETagEnabled(boolean eTagEnabled) {
+		this.eTagEnabled = eTagEnabled;
+	}
+
 	/**
 	 * Access model provider
 	 */
@@ -117,23 +177,103 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	 */
 	@Override
 	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		CompressingResponseStream outputStream = null;
 		try {
 			String path = extractPath(req);
 
+			JSONProvider<ModelProvider> backend = selectProviderBackend(req);
+
 			// Setup HTML response header
-			resp.setContentType("application/json");
-			resp.setCharacterEncoding("UTF-8");
+			setContentType(resp, backend);
+			resp.setHeader("Vary", "Accept, Accept-Encoding");
 
 			resp.setStatus(200);
 
+			outputStream = new CompressingResponseStream(resp, selectContentEncoding(req), compressionThreshold);
+
 			// Process get request
-			providerBackend.processBaSysGet(path, resp.getOutputStream());
+			CompletableFuture<Object> value = backend.retrieveBaSysValue(path);
+			if (!value.isDone() && req.isAsyncSupported()) {
+				// Release the request thread while the value is not available yet, e.g.
+				// while waiting for the result of an operation
+				sendValueAsync(req, resp, backend, value, outputStream);
+				outputStream = null;
+				return;
+			}
+			sendValue(req, resp, backend, value, outputStream);
+		} catch (ProviderException e) {
+			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
+			resp.setStatus(httpCode);
+			logger.debug("Exception in HTTP-GET. Response-code: " + httpCode, e);
+		} finally {
+			if (outputStream != null) {
+				outputStream.finish();
+			}
+		}
+
+	}
+
+	private void sendValueAsync(HttpServletRequest req, HttpServletResponse resp, JSONProvider<ModelProvider> backend, CompletableFuture<Object> value, CompressingResponseStream outputStream) {
+		AsyncContext asyncContext = req.startAsync();
+		// The value is completed by the provider, which limits the time to wait
+		asyncContext.setTimeout(0);
+		value.whenComplete((result, error) -> asyncContext.start(() -> {
+			try {
+				sendValue(req, resp, backend, value, outputStream);
+				outputStream.finish();
+			} catch (IOException | RuntimeException e) {
+				logger.debug("Failed to send asynchronous HTTP-GET response", e);
+			} finally {
+				asyncContext.complete();
+			}
+		}));
+	}
+
+	private void sendValue(HttpServletRequest req, HttpServletResponse resp, JSONProvider<ModelProvider> backend, CompletableFuture<Object> value, CompressingResponseStream outputStream) throws IOException {
+		try {
+			if (eTagEnabled) {
+				processConditionalGet(req, resp, value, backend, outputStream);
+			} else {
+				backend.sendBaSysValue(value, outputStream);
+			}
 		} catch (ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
 			logger.debug("Exception in HTTP-GET. Response-code: " + httpCode, e);
 		}
+	}
+
+	/**
+	 * Processes a GET request with an ETag computed from the response body. If
+	 * the ETag matches the If-None-Match header of the request, the response
+	 * status is set to 304 and no body is sent.
+	 * 
+	 * @param req
+	 * @param resp
+	 * @param value
+	 * @param backend
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	private void processConditionalGet(HttpServletRequest req, HttpServletResponse resp, CompletableFuture<Object> value, JSONProvider<ModelProvider> backend, CompressingResponseStream outputStream) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try {
+			backend.encodeBaSysValue(value, body);
+		} catch (ProviderException e) {
+			// Still send the encoded exception
+			body.writeTo(outputStream);
+			throw e;
+		}
+
+		String eTag = createETag(body.toByteArray());
+		resp.setHeader("ETag", eTag);
+
+		if (matchesETag(req.getHeader("If-None-Match"), eTag)) {
+			resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
 
+		body.writeTo(outputStream);
 	}
 
 	/**
@@ -143,14 +283,13 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
 			String path = extractPath(req);
-			String serValue = extractSerializedValue(req);
-			logger.trace("DoPut: {}", serValue);
 
-			resp.setContentType("application/json");
-			resp.setCharacterEncoding("UTF-8");
+			JSONProvider<ModelProvider> backend = selectProviderBackend(req);
+
+			setContentType(resp, backend);
 			resp.setStatus(200);
 
-			providerBackend.processBaSysSet(path, serValue.toString(), resp.getOutputStream());
+			backend.processBaSysSet(path, req.getInputStream(), resp.getOutputStream());
 		} catch (ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
@@ -167,12 +306,13 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 		try {
 			String path = extractPath(req);
 
-			setPostResponseHeader(resp);
-
 			if (ServletFileUpload.isMultipartContent(req)) {
+				setPostResponseHeader(resp, providerBackend);
 				handleMultipartFormDataRequest(req, path, resp);
 			} else {
-				handleJSONPostRequest(req, path, resp);
+				JSONProvider<ModelProvider> backend = selectProviderBackend(req);
+				setPostResponseHeader(resp, backend);
+				handlePostRequest(req, path, resp, backend);
 			}
 		} catch (ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
@@ -189,12 +329,10 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	protected void doPatch(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
 			String path = extractPath(req);
-			String serValue = extractSerializedValue(req);
-			logger.trace("DoPatch: {}", serValue);
 
 			resp.setStatus(200);
 
-			providerBackend.processBaSysDelete(path, serValue, resp.getOutputStream());
+			selectProviderBackend(req).processBaSysDelete(path, req.getInputStream(), resp.getOutputStream());
 		} catch (ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
@@ -215,7 +353,7 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 
 			resp.setStatus(200);
 
-			providerBackend.processBaSysDelete(path, nullParam, resp.getOutputStream());
+			selectProviderBackend(req).processBaSysDelete(path, nullParam, resp.getOutputStream());
 		} catch (ProviderException e) {
 			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
 			resp.setStatus(httpCode);
@@ -287,18 +425,6 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 		return req.getContextPath().length() + req.getServletPath().length();
 	}
 
-	/**
-	 * Read serialized value
-	 * 
-	 * @param req
-	 * @return
-	 * @throws IOException
-	 */
-	private String extractSerializedValue(HttpServletRequest req) throws IOException {
-		// https://www.baeldung.com/convert-input-stream-to-string#guava
-		return getByteSource(req).asCharSource(Charsets.UTF_8).read();
-	}
-
 	/**
 	 * Extracts input streams from request
 	 * 
@@ -323,28 +449,149 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	}
 
 	/**
-	 * Gets a {@link ByteSource} from request stream
+	 * Selects the backend for the codec requested by the client. The Content-Type
+	 * of a request body takes precedence over the Accept header. JSON is used if
+	 * no other codec matches.
+	 * 
+	 * @param req
+	 * @return
+	 */
+	private JSONProvider<ModelProvider> selectProviderBackend(HttpServletRequest req) {
+		String requestedType = req.getContentType();
+		if (requestedType == null) {
+			requestedType = req.getHeader("Accept");
+		}
+
+		if (requestedType != null) {
+			for (Entry<String, JSONProvider<ModelProvider>> entry : codecBackends.entrySet()) {
+				if (requestedType.startsWith(entry.getKey())) {
+					return entry.getValue();
+				}
+			}
+		}
+		return providerBackend;
+	}
+
+	/**
+	 * Selects the content encoding of a GET response body from the encodings
+	 * accepted by the client. gzip is preferred over deflate.
+	 * 
+	 * @param req
+	 * @return the content encoding or null if the body must not be compressed
+	 */
+	private String selectContentEncoding(HttpServletRequest req) {
+		String acceptEncoding = req.getHeader("Accept-Encoding");
+		if (compressionThreshold < 0 || acceptEncoding == null) {
+			return null;
+		}
+
+		boolean deflateAccepted = false;
+		for (String entry : acceptEncoding.split(",")) {
+			String[] parts = entry.split(";");
+			if (isRejectedCoding(parts)) {
+				continue;
+			}
+
+			String coding = parts[0].trim().toLowerCase();
+			if (coding.equals("gzip") || coding.equals("x-gzip") || coding.equals("*")) {
+				return CompressingResponseStream.GZIP;
+			} else if (coding.equals("deflate")) {
+				deflateAccepted = true;
+			}
+		}
+		return deflateAccepted ? CompressingResponseStream.DEFLATE : null;
+	}
+
+	/**
+	 * Checks if a coding of the Accept-Encoding header is rejected by a quality
+	 * value of 0
+	 * 
+	 * @param parts
+	 *            the coding followed by its parameters
+	 * @return
+	 */
+	private boolean isRejectedCoding(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2)) == 0;
+				} catch (NumberFormatException e) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates a weak ETag from the hash of an encoded response body. The ETag is
+	 * weak, since the same body may be sent with different content encodings.
+	 * 
+	 * @param body
+	 * @return
+	 */
+	private String createETag(byte[] body) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+			return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform has to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Checks if the ETag matches one of the entity tags of an If-None-Match
+	 * header using weak comparison
 	 * 
+	 * @param ifNoneMatch
+	 * @param eTag
 	 * @return
 	 */
-	private ByteSource getByteSource(HttpServletRequest req) {
-		return new ByteSource() {
-			@Override
-			public InputStream openStream() throws IOException {
-				return req.getInputStream();
+	private boolean matchesETag(String ifNoneMatch, String eTag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+
+		String opaqueTag = stripWeakIndicator(eTag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.equals("*") || stripWeakIndicator(candidate).equals(opaqueTag)) {
+				return true;
 			}
-		};
+		}
+		return false;
+	}
+
+	private String stripWeakIndicator(String eTag) {
+		return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+	}
+
+	/**
+	 * Setup content type of the response depending on the codec of the backend
+	 * 
+	 * @param resp
+	 * @param backend
+	 */
+	private void setContentType(HttpServletResponse resp, JSONProvider<ModelProvider> backend) {
+		if (backend == providerBackend) {
+			resp.setContentType("application/json");
+			resp.setCharacterEncoding("UTF-8");
+		} else {
+			resp.setContentType(backend.getCodec().getMediaType());
+		}
 	}
 
 	/**
 	 * Setup HTML response header for HttpPost
 	 * 
 	 * @param resp
+	 * @param backend
 	 */
-	private void setPostResponseHeader(HttpServletResponse resp) {
+	private void setPostResponseHeader(HttpServletResponse resp, JSONProvider<ModelProvider> backend) {
 		resp.setStatus(201);
-		resp.setContentType("application/json");
-		resp.setCharacterEncoding("UTF-8");
+		setContentType(resp, backend);
 	}
 
 	/**
@@ -365,24 +612,27 @@ public class VABHTTPInterface<ModelProvider extends IModelProvider> extends Basy
 	}
 
 	/**
-	 * Handles POST request with JSON body
+	 * Handles POST request with JSON or otherwise encoded body
 	 * 
 	 * @param req
 	 * @param path
 	 * @param resp
+	 * @param backend
 	 * @throws IOException
 	 */
-	private void handleJSONPostRequest(HttpServletRequest req, String path, HttpServletResponse resp) throws IOException {
-		String serValue = extractSerializedValue(req);
-		logger.trace("DoPost: {}", serValue);
-
-		// Check if request is for property creation or operation invoke
-		if (VABPathTools.isOperationInvokationPath(path)) {
+	private void handlePostRequest(HttpServletRequest req, String path, HttpServletResponse resp, JSONProvider<ModelProvider> backend) throws IOException {
+		// Check if request is for reading multiple values, property creation or
+		// operation invoke
+		if (VABPathTools.isBatchGetPath(path)) {
+			// Batch get does not create anything
+			resp.setStatus(200);
+			backend.processBaSysBatchGet(VABPathTools.getParentPath(path), req.getInputStream(), resp.getOutputStream());
+		} else if (VABPathTools.isOperationInvokationPath(path)) {
 			// Invoke BaSys VAB 'invoke' primitive
-			providerBackend.processBaSysInvoke(path, serValue, resp.getOutputStream());
+			backend.processBaSysInvoke(path, req.getInputStream(), resp.getOutputStream());
 		} else {
 			// Invoke the BaSys 'create' primitive
-			providerBackend.processBaSysCreate(path, serValue, resp.getOutputStream());
+			backend.processBaSysCreate(path, req.getInputStream(), resp.getOutputStream());
 		}
 	}
 }
@@ -82,7 +82,7 @@ public class HTTPSConnector extends HTTPConnector {
 	 */
 	private void setHttpsClientWithoutValidation() {
 		try {
-			this.client = JerseyHttpsClientFactory.getJerseyHTTPSClientWithoutValidation();
+			this.client = enableContentDecoding(JerseyHttpsClientFactory.getJerseyHTTPSClientWithoutValidation());
 		} catch (KeyManagementException | NoSuchAlgorithmException e) {
 			logger.error("Cannot create a https client");
 		}
@@ -90,7 +90,7 @@ public class HTTPSConnector extends HTTPConnector {
 
 	private void setHttpsClientWithValidation() {
 		try {
-			this.client = JerseyHttpsClientFactory.getJerseyHTTPSClientWithValidation();
+			this.client = enableContentDecoding(JerseyHttpsClientFactory.getJerseyHTTPSClientWithValidation());
 		} catch (KeyManagementException | NoSuchAlgorithmException e) {
 			logger.error("Cannot create a https client");
 		}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+
+/**
+ * Retrieves values for multiple keys in parallel, e.g. submodels from their
+ * endpoints. At most a maximum number of retrievals are executed at the same
+ * time. Each retrieval that does not complete within a timeout is cancelled
+ * and reported as failure. Failures do not abort the other retrievals.
+ */
+public class ParallelRetrieval {
+	public static final int DEFAULT_MAX_PARALLELISM = 16;
+	public static final long DEFAULT_TIMEOUT_MS = 30000;
+
+	private final ExecutorService executor;
+	private final int maxParallelism;
+	private final long timeoutMs;
+
+	public ParallelRetrieval() {
+		this(SharedExecutor.get(), DEFAULT_MAX_PARALLELISM, DEFAULT_TIMEOUT_MS);
+	}
+
+	/**
+	 * 
+	 * @param executor
+	 *            executes the retrievals
+	 * @param maxParallelism
+	 *            maximum number of retrievals executed at the same time
+	 * @param timeoutMs
+	 *            time after which a running retrieval is cancelled
+	 */
+	public ParallelRetrieval(ExecutorService executor, int maxParallelism, long timeoutMs) {
+		if (maxParallelism <= 0) {
+			throw new IllegalArgumentException("The maximum parallelism has to be positive, but was " + maxParallelism);
+		}
+		this.executor = executor;
+		this.maxParallelism = maxParallelism;
+		this.timeoutMs = timeoutMs;
+	}
+
+	/**
+	 * Retrieves the values for the passed keys
+	 * 
+	 * @param keys
+	 * @param retriever
+	 *            retrieves the value of a key
+	 * @return the retrieved values and failures
+	 */
+	public <K, V> Result<K, V> retrieve(List<K> keys, Function<K, V> retriever) {
+		Result<K, V> result = new Result<>(keys.size());
+		CompletionService<V> completionService = new ExecutorCompletionService<>(executor);
+		// Running retrievals in the order of submission, which is also the order of
+		// their deadlines
+		Map<Future<V>, Running> running = new LinkedHashMap<>();
+		Iterator<K> keyIterator = keys.iterator();
+		int nextIndex = 0;
+		try {
+			while (keyIterator.hasNext() || !running.isEmpty()) {
+				while (running.size() < maxParallelism && keyIterator.hasNext()) {
+					K key = keyIterator.next();
+					Future<V> future = completionService.submit(() -> retriever.apply(key));
+					running.put(future, new Running(nextIndex++, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs)));
+				}
+
+				long wait = running.values().iterator().next().deadline - System.nanoTime();
+				Future<V> completed = completionService.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+				if (completed != null) {
+					// Cancelled retrievals complete as well, but have already been removed
+					Running retrieval = running.remove(completed);
+					if (retrieval != null) {
+						collect(result, keys.get(retrieval.index), retrieval.index, completed);
+					}
+				} else {
+					cancelExpired(result, keys, running);
+				}
+			}
+		} catch (InterruptedException e) {
+			running.keySet().forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new ProviderException("Interrupted while retrieving " + keys, e);
+		}
+		return result;
+	}
+
+	private <K, V> void collect(Result<K, V> result, K key, int index, Future<V> completed) throws InterruptedException {
+		try {
+			result.setValue(index, completed.get());
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			result.failures.put(key, cause instanceof RuntimeException ? (RuntimeException) cause : new ProviderException("Could not retrieve " + key, cause));
+		}
+	}
+
+	private <K, V> void cancelExpired(Result<K, V> result, List<K> keys, Map<Future<V>, Running> running) {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<Future<V>, Running>> iterator = running.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Future<V>, Running> entry = iterator.next();
+			if (entry.getValue().deadline - now > 0) {
+				break;
+			}
+			entry.getKey().cancel(true);
+			iterator.remove();
+			K key = keys.get(entry.getValue().index);
+			result.failures.put(key, new ProviderException("Retrieving " + key + " timed out after " + timeoutMs + " ms"));
+		}
+	}
+
+	private static class Running {
+		private final int index;
+		private final long deadline;
+
+		private Running(int index, long deadline) {
+			this.index = index;
+			this.deadline = deadline;
+		}
+	}
+
+	/**
+	 * Values and failures of a retrieval
+	 */
+	public static class Result<K, V> {
+		// Index-based, since the same key may be retrieved multiple times
+		private final List<V> values;
+		private final Map<K, RuntimeException> failures = new LinkedHashMap<>();
+		private final boolean[] retrieved;
+
+		private Result(int size) {
+			values = new ArrayList<>(Collections.nCopies(size, null));
+			retrieved = new boolean[size];
+		}
+
+		private void setValue(int index, V value) {
+			values.set(index, value);
+			retrieved[index] = true;
+		}
+
+		/**
+		 * Returns the successfully retrieved values in the order of their keys
+		 */
+		public List<V> getValues() {
+			List<V> successful = new ArrayList<>();
+			for (int i = 0; i < values.size(); i++) {
+				if (retrieved[i]) {
+					successful.add(values.get(i));
+				}
+			}
+			return successful;
+		}
+
+		/**
+		 * Returns the failures of the retrieval by key
+		 */
+		public Map<K, RuntimeException> getFailures() {
+			return failures;
+		}
+
+		/**
+		 * Returns all retrieved values in the order of their keys
+		 * 
+		 * @throws RuntimeException
+		 *             the first failure, with the other failures added as
+		 *             suppressed exceptions
+		 */
+		public List<V> getValuesOrThrow() {
+			if (failures.isEmpty()) {
+				return getValues();
+			}
+			Iterator<RuntimeException> iterator = failures.values().iterator();
+			RuntimeException first = iterator.next();
+			iterator.forEachRemaining(first::addSuppressed);
+			throw first;
+		}
+	}
+}
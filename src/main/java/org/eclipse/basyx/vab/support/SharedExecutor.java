@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.support;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pools of daemon threads that are shared by all components that
+ * execute blocking calls in the background. Short calls, e.g. asynchronous
+ * calls of the connectors or the parallel retrieval of submodels, are executed
+ * by {@link #get()}. Calls that block while waiting for an event, e.g. long
+ * polls for the result of an operation, are executed by
+ * {@link #getForWaits()}, so that pending waits can not starve short calls. At
+ * most the pool size of tasks are executed at the same time by each pool,
+ * further tasks are queued. Idle threads are terminated after a minute.<br/>
+ * <br/>
+ * The pool sizes can be configured by the system properties
+ * {@value #POOL_SIZE_PROPERTY} and {@value #WAIT_POOL_SIZE_PROPERTY} or at
+ * runtime by {@link #setPoolSize(int)} and {@link #setWaitPoolSize(int)}.
+ */
+public class SharedExecutor {
+	public static final String POOL_SIZE_PROPERTY = "basyx.sharedExecutor.poolSize";
+	public static final String WAIT_POOL_SIZE_PROPERTY = "basyx.sharedExecutor.waitPoolSize";
+	public static final int DEFAULT_POOL_SIZE = 64;
+	public static final int DEFAULT_WAIT_POOL_SIZE = 64;
+
+	private static final ThreadPoolExecutor EXECUTOR = createExecutor(Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE), SharedExecutor.class.getSimpleName());
+	private static final ThreadPoolExecutor WAIT_EXECUTOR = createExecutor(Integer.getInteger(WAIT_POOL_SIZE_PROPERTY, DEFAULT_WAIT_POOL_SIZE), SharedExecutor.class.getSimpleName() + "-wait");
+
+	private SharedExecutor() {
+	}
+
+	/**
+	 * Returns the shared executor of short calls. It must not be shut down.
+	 */
+	public static ExecutorService get() {
+		return EXECUTOR;
+	}
+
+	/**
+	 * Returns the shared executor of calls that wait for an event. It must not be
+	 * shut down.
+	 */
+	public static ExecutorService getForWaits() {
+		return WAIT_EXECUTOR;
+	}
+
+	/**
+	 * Returns the maximum number of short calls that are executed at the same
+	 * time
+	 */
+	public static int getPoolSize() {
+		return EXECUTOR.getMaximumPoolSize();
+	}
+
+	/**
+	 * Sets the maximum number of short calls that are executed at the same time
+	 * 
+	 * @param poolSize
+	 */
+	public static void setPoolSize(int poolSize) {
+		setPoolSize(EXECUTOR, poolSize);
+	}
+
+	/**
+	 * Returns the maximum number of waiting calls that are executed at the same
+	 * time
+	 */
+	public static int getWaitPoolSize() {
+		return WAIT_EXECUTOR.getMaximumPoolSize();
+	}
+
+	/**
+	 * Sets the maximum number of waiting calls that are executed at the same time
+	 * 
+	 * @param poolSize
+	 */
+	public static void setWaitPoolSize(int poolSize) {
+		setPoolSize(WAIT_EXECUTOR, poolSize);
+	}
+
+	private static synchronized void setPoolSize(ThreadPoolExecutor executor, int poolSize) {
+		if (poolSize <= 0) {
+			throw new IllegalArgumentException("The pool size has to be positive, but was " + poolSize);
+		}
+
+		// The core size must never exceed the maximum size
+		if (poolSize > executor.getMaximumPoolSize()) {
+			executor.setMaximumPoolSize(poolSize);
+			executor.setCorePoolSize(poolSize);
+		} else {
+			executor.setCorePoolSize(poolSize);
+			executor.setMaximumPoolSize(poolSize);
+		}
+	}
+
+	private static ThreadPoolExecutor createExecutor(int poolSize, String threadName) {
+		// Threads are only added up to the core size if the queue is unbounded.
+		// Thus, core and maximum size are equal and core threads time out.
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.vab.support;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks, of which one is assigned to each key. Allows to serialize
+ * modifications of the same key, while modifications of different keys are
+ * executed concurrently in most cases.
+ */
+public class StripedLock {
+	public static final int DEFAULT_STRIPES = 64;
+
+	private final Lock[] locks;
+
+	public StripedLock() {
+		this(DEFAULT_STRIPES);
+	}
+
+	/**
+	 * 
+	 * @param stripes
+	 *            number of locks
+	 */
+	public StripedLock(int stripes) {
+		if (stripes <= 0) {
+			throw new IllegalArgumentException("The number of stripes has to be positive, but was " + stripes);
+		}
+		locks = new Lock[stripes];
+		for (int i = 0; i < stripes; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Returns the lock assigned to a key
+	 * 
+	 * @param key
+	 * @return the lock, which is always the same for equal keys
+	 */
+	public Lock get(Object key) {
+		int hash = key.hashCode();
+		// Spread the bits, since only the lower bits are used for small stripe counts
+		hash ^= hash >>> 16;
+		return locks[Math.floorMod(hash, locks.length)];
+	}
+}
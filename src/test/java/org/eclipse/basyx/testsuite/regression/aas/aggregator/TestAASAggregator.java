@@ -24,8 +24,25 @@
  ******************************************************************************/
 package org.eclipse.basyx.testsuite.regression.aas.aggregator;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
 import org.eclipse.basyx.aas.aggregator.AASAggregator;
 import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.api.parts.asset.AssetKind;
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.parts.Asset;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.junit.Test;
 
 /**
  * Tests the AASAggregator implementation.
@@ -38,4 +55,71 @@ public class TestAASAggregator extends AASAggregatorSuite {
 	protected IAASAggregator getAggregator() {
 		return new AASAggregator();
 	}
+
+	/**
+	 * Tests that the AAS list can be retrieved while AAS are created concurrently
+	 */
+	@Test
+	public void testConcurrentCreateAndList() throws Exception {
+		IAASAggregator aggregator = getAggregator();
+		int threads = 4;
+		int aasPerThread = 50;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < aasPerThread; i++) {
+						String id = "concurrentAAS" + thread + "_" + i;
+						Asset asset = new Asset(id + "Asset", new Identifier(IdentifierType.CUSTOM, id + "Asset"), AssetKind.INSTANCE);
+						aggregator.createAAS(new AssetAdministrationShell(id, new Identifier(IdentifierType.CUSTOM, id), asset));
+					}
+				}));
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < aasPerThread; i++) {
+						aggregator.getAASList();
+					}
+				}));
+			}
+
+			// Rethrows exceptions that occurred in the threads
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(threads * aasPerThread, aggregator.getAASList().size());
+	}
+
+	/**
+	 * Tests that the AAS are listed in the order they have been created in
+	 */
+	@Test
+	public void testAASListKeepsOrder() {
+		IAASAggregator aggregator = getAggregator();
+		List<String> ids = Arrays.asList("orderC", "orderA", "orderE", "orderB", "orderD");
+		for (String id : ids) {
+			aggregator.createAAS(createAAS(id));
+		}
+		assertEquals(ids, getAASIds(aggregator));
+
+		// Updating an AAS keeps its position, while recreating it appends it
+		aggregator.updateAAS(createAAS("orderA"));
+		aggregator.deleteAAS(new Identifier(IdentifierType.CUSTOM, "orderE"));
+		aggregator.createAAS(createAAS("orderE"));
+		assertEquals(Arrays.asList("orderC", "orderA", "orderB", "orderD", "orderE"), getAASIds(aggregator));
+	}
+
+	private static AssetAdministrationShell createAAS(String id) {
+		Asset asset = new Asset(id + "Asset", new Identifier(IdentifierType.CUSTOM, id + "Asset"), AssetKind.INSTANCE);
+		return new AssetAdministrationShell(id, new Identifier(IdentifierType.CUSTOM, id), asset);
+	}
+
+	private static List<String> getAASIds(IAASAggregator aggregator) {
+		return aggregator.getAASList().stream().map(IAssetAdministrationShell::getIdentification).map(i -> i.getId()).collect(Collectors.toList());
+	}
 }
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.aas.aggregator.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.eclipse.basyx.aas.aggregator.AASAggregator;
+import org.eclipse.basyx.aas.aggregator.snapshot.AASAggregatorSnapshot;
+import org.eclipse.basyx.aas.metamodel.api.parts.asset.AssetKind;
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.parts.Asset;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.junit.Test;
+
+/**
+ * Tests writing and loading snapshots of the AASAggregator
+ */
+public class TestAASAggregatorSnapshot {
+	private static final String SNAPSHOT = "regressiontest/snapshot/aggregator.snapshot";
+	private static final String COPY = "regressiontest/snapshot/copy.snapshot";
+	private static final String PROPERTY_PATH = "/aas/submodels/sm/submodel/submodelElements/prop/value";
+
+	@Test
+	public void testSnapshotRoundtrip() throws IOException {
+		AASAggregator aggregator = new AASAggregator();
+		aggregator.createAAS(createAAS("aas1/s"));
+		aggregator.createAAS(createAAS("aas2"));
+		aggregator.getAASProvider(new Identifier(IdentifierType.CUSTOM, "aas1/s")).setValue("/aas/submodels/sm", createSubmodel());
+		aggregator.writeSnapshot(SNAPSHOT);
+
+		AASAggregator loaded = new AASAggregator();
+		loaded.loadSnapshot(SNAPSHOT);
+		assertEquals("aas1/s", loaded.getAAS(new Identifier(IdentifierType.CUSTOM, "aas1/s")).getIdShort());
+		assertEquals(5, loaded.getAASProvider(new Identifier(IdentifierType.CUSTOM, "aas1/s")).getValue(PROPERTY_PATH));
+		assertEquals(1, loaded.getAAS(new Identifier(IdentifierType.CUSTOM, "aas1/s")).getSubmodelReferences().size());
+		assertEquals(2, loaded.getAASList().size());
+	}
+
+	@Test
+	public void testModificationsOfLoadedAAS() throws IOException {
+		AASAggregator aggregator = new AASAggregator();
+		aggregator.createAAS(createAAS("aas1"));
+		aggregator.createAAS(createAAS("aas2"));
+		aggregator.createAAS(createAAS("aas3"));
+		aggregator.getAASProvider(new Identifier(IdentifierType.CUSTOM, "aas3")).setValue("/aas/submodels/sm", createSubmodel());
+		aggregator.writeSnapshot(SNAPSHOT);
+
+		AASAggregator loaded = new AASAggregator();
+		loaded.loadSnapshot(SNAPSHOT);
+
+		// Replace, delete and modify AAS that have not been accessed yet
+		AssetAdministrationShell replaced = createAAS("aas1");
+		replaced.setCategory("replaced");
+		loaded.createAAS(replaced);
+		loaded.deleteAAS(new Identifier(IdentifierType.CUSTOM, "aas2"));
+		loaded.getAASProvider(new Identifier(IdentifierType.CUSTOM, "aas3")).setValue(PROPERTY_PATH, 7);
+
+		assertEquals("replaced", loaded.getAAS(new Identifier(IdentifierType.CUSTOM, "aas1")).getCategory());
+		try {
+			loaded.getAAS(new Identifier(IdentifierType.CUSTOM, "aas2"));
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// expected
+		}
+
+		// Write the modified content again
+		loaded.writeSnapshot(COPY);
+		AASAggregator copy = new AASAggregator();
+		copy.loadSnapshot(COPY);
+		assertEquals(2, copy.getAASList().size());
+		assertEquals("replaced", copy.getAAS(new Identifier(IdentifierType.CUSTOM, "aas1")).getCategory());
+		assertEquals(7, copy.getAASProvider(new Identifier(IdentifierType.CUSTOM, "aas3")).getValue(PROPERTY_PATH));
+	}
+
+	@Test
+	public void testUnaccessedAASAreCopied() throws IOException {
+		AASAggregator aggregator = new AASAggregator();
+		aggregator.createAAS(createAAS("aas1"));
+		aggregator.getAASProvider(new Identifier(IdentifierType.CUSTOM, "aas1")).setValue("/aas/submodels/sm", createSubmodel());
+		aggregator.writeSnapshot(SNAPSHOT);
+
+		AASAggregator loaded = new AASAggregator();
+		loaded.loadSnapshot(SNAPSHOT);
+		loaded.writeSnapshot(COPY);
+
+		AASAggregator copy = new AASAggregator();
+		copy.loadSnapshot(COPY);
+		assertEquals(5, copy.getAASProvider(new Identifier(IdentifierType.CUSTOM, "aas1")).getValue(PROPERTY_PATH));
+	}
+
+	@Test
+	public void testCorruptedEntryIsDetected() throws IOException {
+		AASAggregator aggregator = new AASAggregator();
+		aggregator.createAAS(createAAS("aas1"));
+		aggregator.writeSnapshot(SNAPSHOT);
+
+		// Modify a byte of the first entry, directly after the header
+		try (RandomAccessFile file = new RandomAccessFile(SNAPSHOT, "rw")) {
+			file.seek(10);
+			int value = file.read();
+			file.seek(10);
+			file.write(value ^ 0xff);
+		}
+
+		AASAggregatorSnapshot snapshot = AASAggregatorSnapshot.open(SNAPSHOT);
+		assertTrue(snapshot.getAASIds().contains("aas1"));
+		try {
+			snapshot.getEntry("aas1");
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCorruptedIndexIsDetected() throws IOException {
+		AASAggregator aggregator = new AASAggregator();
+		aggregator.createAAS(createAAS("aas1"));
+
+		// Index: count, id length, id, offset, length, checksum
+		int lengthPosition = 4 + 4 + "aas1".length() + 4;
+		for (int corruptedLength : new int[] { -1, Integer.MAX_VALUE }) {
+			aggregator.writeSnapshot(SNAPSHOT);
+			try (RandomAccessFile file = new RandomAccessFile(SNAPSHOT, "rw")) {
+				file.seek(getIndexOffset(file) + lengthPosition);
+				file.writeInt(corruptedLength);
+			}
+			assertOpenFails();
+		}
+
+		// Index offset outside of the file
+		aggregator.writeSnapshot(SNAPSHOT);
+		try (RandomAccessFile file = new RandomAccessFile(SNAPSHOT, "rw")) {
+			file.seek(file.length() - 12);
+			file.writeLong(file.length());
+		}
+		assertOpenFails();
+	}
+
+	private static long getIndexOffset(RandomAccessFile file) throws IOException {
+		// Trailer: index offset, magic number
+		file.seek(file.length() - 12);
+		return file.readLong();
+	}
+
+	private static void assertOpenFails() {
+		try {
+			AASAggregatorSnapshot.open(SNAPSHOT);
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	private static AssetAdministrationShell createAAS(String id) {
+		return new AssetAdministrationShell(id, new Identifier(IdentifierType.CUSTOM, id), new Asset("asset", new Identifier(IdentifierType.CUSTOM, "asset-" + id), AssetKind.INSTANCE));
+	}
+
+	private static Submodel createSubmodel() {
+		Submodel submodel = new Submodel("sm", new Identifier(IdentifierType.CUSTOM, "smId"));
+		Property property = new Property("prop", 5);
+		submodel.addSubmodelElement(property);
+		return submodel;
+	}
+}
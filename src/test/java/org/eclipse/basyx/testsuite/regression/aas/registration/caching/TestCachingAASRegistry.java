@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.aas.registration.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.aas.registration.api.IAASRegistry;
+import org.eclipse.basyx.aas.registration.caching.CachingAASRegistry;
+import org.eclipse.basyx.aas.registration.memory.InMemoryRegistry;
+import org.eclipse.basyx.aas.registration.observing.ObservableAASRegistryService;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.testsuite.regression.aas.registration.TestRegistryProviderSuite;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CachingAASRegistry} against the registry test suite and
+ * tests its caching
+ */
+public class TestCachingAASRegistry extends TestRegistryProviderSuite {
+
+	@Override
+	protected IAASRegistry getRegistryService() {
+		return new CachingAASRegistry(new InMemoryRegistry());
+	}
+
+	/**
+	 * Registry counting the AAS lookups
+	 */
+	private static class CountingRegistry extends InMemoryRegistry {
+		private final AtomicInteger lookups = new AtomicInteger();
+
+		@Override
+		public AASDescriptor lookupAAS(IIdentifier aasIdentifier) throws ProviderException {
+			lookups.incrementAndGet();
+			return super.lookupAAS(aasIdentifier);
+		}
+	}
+
+	@Test
+	public void testLookupIsCached() {
+		CountingRegistry counting = new CountingRegistry();
+		counting.register(new AASDescriptor(aasIdShort1, aasId1, asset1, aasEndpoint1));
+		CachingAASRegistry registry = new CachingAASRegistry(counting);
+
+		registry.lookupAAS(aasId1);
+		registry.lookupAAS(aasId1);
+		registry.lookupSubmodels(aasId1);
+		assertEquals(1, counting.lookups.get());
+
+		// Modifications through the caching registry invalidate the cached lookup
+		registry.register(aasId1, new SubmodelDescriptor(smIdShort1, smId1, smEndpoint1));
+		assertEquals(smEndpoint1, registry.lookupSubmodel(aasId1, smId1).getFirstEndpoint());
+		assertEquals(2, counting.lookups.get());
+	}
+
+	@Test
+	public void testNotFoundIsCached() {
+		CountingRegistry counting = new CountingRegistry();
+		CachingAASRegistry registry = new CachingAASRegistry(counting);
+
+		assertNotFound(registry, aasId1);
+		assertNotFound(registry, aasId1);
+		assertEquals(1, counting.lookups.get());
+
+		registry.register(new AASDescriptor(aasIdShort1, aasId1, asset1, aasEndpoint1));
+		assertEquals(aasEndpoint1, registry.lookupAAS(aasId1).getFirstEndpoint());
+	}
+
+	@Test
+	public void testExpiration() throws InterruptedException {
+		CountingRegistry counting = new CountingRegistry();
+		counting.register(new AASDescriptor(aasIdShort1, aasId1, asset1, aasEndpoint1));
+		CachingAASRegistry registry = new CachingAASRegistry(counting, 1, 1, 16);
+
+		registry.lookupAAS(aasId1);
+		Thread.sleep(10);
+		registry.lookupAAS(aasId1);
+		assertEquals(2, counting.lookups.get());
+	}
+
+	@Test
+	public void testSizeBound() {
+		CountingRegistry counting = new CountingRegistry();
+		counting.register(new AASDescriptor(aasIdShort1, aasId1, asset1, aasEndpoint1));
+		counting.register(new AASDescriptor(aasIdShort2, aasId2, asset2, aasEndpoint2));
+		CachingAASRegistry registry = new CachingAASRegistry(counting, 60000, 60000, 1);
+
+		registry.lookupAAS(aasId1);
+		registry.lookupAAS(aasId2);
+		registry.lookupAAS(aasId1);
+		assertEquals(3, counting.lookups.get());
+	}
+
+	@Test
+	public void testInvalidationByEvents() {
+		ObservableAASRegistryService observable = new ObservableAASRegistryService(new InMemoryRegistry());
+		observable.register(new AASDescriptor(aasIdShort1, aasId1, asset1, aasEndpoint1));
+		CachingAASRegistry registry = new CachingAASRegistry(observable);
+		observable.addObserver(registry);
+
+		registry.lookupAAS(aasId1);
+		observable.delete(aasId1);
+		assertNotFound(registry, aasId1);
+	}
+
+	private void assertNotFound(IAASRegistry registry, IIdentifier aasId) {
+		try {
+			registry.lookupAAS(aasId);
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.aas.registration.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.aas.registration.api.IAASRegistry;
+import org.eclipse.basyx.aas.registration.memory.ConcurrentInMemoryRegistry;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.api.reference.enums.KeyElements;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.reference.Reference;
+import org.eclipse.basyx.testsuite.regression.aas.registration.TestRegistryProviderSuite;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ConcurrentInMemoryRegistry} against the registry test suite
+ * and tests its additional lookups
+ */
+public class TestConcurrentInMemoryRegistry extends TestRegistryProviderSuite {
+
+	@Override
+	protected IAASRegistry getRegistryService() {
+		return new ConcurrentInMemoryRegistry();
+	}
+
+	@Test
+	public void testPagedLookup() {
+		ConcurrentInMemoryRegistry registry = (ConcurrentInMemoryRegistry) proxy;
+
+		List<AASDescriptor> firstPage = registry.lookupAll(null, 1);
+		assertEquals(1, firstPage.size());
+		assertEquals(aasId1.getId(), firstPage.get(0).getIdentifier().getId());
+
+		List<AASDescriptor> secondPage = registry.lookupAll(aasId1.getId(), 1);
+		assertEquals(1, secondPage.size());
+		assertEquals(aasId2.getId(), secondPage.get(0).getIdentifier().getId());
+
+		assertTrue(registry.lookupAll(aasId2.getId(), 1).isEmpty());
+	}
+
+	@Test
+	public void testLookupBySubmodel() {
+		ConcurrentInMemoryRegistry registry = (ConcurrentInMemoryRegistry) proxy;
+
+		List<AASDescriptor> result = registry.lookupBySubmodel(smId1);
+		assertEquals(1, result.size());
+		assertEquals(aasId1.getId(), result.get(0).getIdentifier().getId());
+
+		registry.delete(aasId1, smId1);
+		assertTrue(registry.lookupBySubmodel(smId1).isEmpty());
+	}
+
+	@Test
+	public void testLookupBySemanticId() {
+		ConcurrentInMemoryRegistry registry = (ConcurrentInMemoryRegistry) proxy;
+		String semanticId = "urn:test:semantic:1";
+		SubmodelDescriptor smDescriptor = new SubmodelDescriptor(smIdShort2, smId2, smEndpoint2);
+		smDescriptor.setSemanticId(new Reference(new Identifier(IdentifierType.CUSTOM, semanticId), KeyElements.CONCEPTDESCRIPTION, false));
+		registry.register(aasId2, smDescriptor);
+
+		List<AASDescriptor> result = registry.lookupBySemanticId(semanticId);
+		assertEquals(1, result.size());
+		assertEquals(aasId2.getId(), result.get(0).getIdentifier().getId());
+
+		registry.delete(aasId2);
+		assertTrue(registry.lookupBySemanticId(semanticId).isEmpty());
+	}
+
+	/**
+	 * Tests that modifying a descriptor after its registration affects neither the
+	 * registered descriptor nor the indexes
+	 */
+	@Test
+	public void testModifyRegisteredDescriptor() {
+		ConcurrentInMemoryRegistry registry = (ConcurrentInMemoryRegistry) proxy;
+		IIdentifier aasId3 = new Identifier(IdentifierType.CUSTOM, "modifiedAAS");
+		IIdentifier smId3 = new Identifier(IdentifierType.CUSTOM, "modifiedSM");
+		AASDescriptor descriptor = new AASDescriptor("modifiedAAS", aasId3, "http://www.registrytest.de/aas03/aas");
+		descriptor.addSubmodelDescriptor(new SubmodelDescriptor("modifiedSM", smId3, "http://www.registrytest.de/aas03/aas/submodels/modifiedSM"));
+		registry.register(descriptor);
+
+		descriptor.removeSubmodelDescriptor(smId3);
+		assertEquals(1, registry.lookupAAS(aasId3).getSubmodelDescriptors().size());
+
+		registry.delete(aasId3);
+		assertTrue(registry.lookupBySubmodel(smId3).isEmpty());
+	}
+
+	/**
+	 * Tests that an asset described by multiple AAS can still be looked up after
+	 * one of them has been deleted
+	 */
+	@Test
+	public void testSharedAsset() {
+		IIdentifier aasId3 = new Identifier(IdentifierType.CUSTOM, "sharedAssetAAS");
+		proxy.register(new AASDescriptor("sharedAssetAAS", aasId3, asset1, "http://www.registrytest.de/aas03/aas"));
+		assertEquals(aasId3.getId(), proxy.lookupAAS(asset1.getIdentification()).getIdentifier().getId());
+
+		proxy.delete(aasId3);
+		assertEquals(aasId1.getId(), proxy.lookupAAS(asset1.getIdentification()).getIdentifier().getId());
+	}
+
+	/**
+	 * Tests that registering a submodel is not lost while the last other AAS with
+	 * a submodel of the same id is concurrently removed from the index
+	 */
+	@Test
+	public void testConcurrentSubmodelRegistration() throws Exception {
+		ConcurrentInMemoryRegistry registry = (ConcurrentInMemoryRegistry) proxy;
+		int pairs = 4;
+		int iterations = 200;
+
+		// For each submodel id, the keeping AAS registers it while the other AAS
+		// registers and deletes it at the same time
+		List<IIdentifier> keepingAASIds = new ArrayList<>();
+		List<IIdentifier> aasIds = new ArrayList<>();
+		for (int p = 0; p < pairs * 2; p++) {
+			IIdentifier aasId = new Identifier(IdentifierType.CUSTOM, "concurrentAAS" + p);
+			registry.register(new AASDescriptor("concurrentAAS" + p, aasId, "http://www.registrytest.de/concurrent" + p + "/aas"));
+			aasIds.add(aasId);
+			if (p % 2 == 0) {
+				keepingAASIds.add(aasId);
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(pairs * 2);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int p = 0; p < pairs; p++) {
+				int pair = p;
+				IIdentifier keepingAASId = aasIds.get(p * 2);
+				IIdentifier removingAASId = aasIds.get(p * 2 + 1);
+				CyclicBarrier barrier = new CyclicBarrier(2);
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < iterations; i++) {
+						registry.register(removingAASId, createSubmodelDescriptor(pair, i));
+						barrier.await(10, TimeUnit.SECONDS);
+						registry.delete(removingAASId, createSubmodelDescriptor(pair, i).getIdentifier());
+					}
+					return null;
+				}));
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < iterations; i++) {
+						barrier.await(10, TimeUnit.SECONDS);
+						registry.register(keepingAASId, createSubmodelDescriptor(pair, i));
+					}
+					return null;
+				}));
+			}
+
+			// Rethrows exceptions that occurred in the threads
+			for (Future<?> future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (int p = 0; p < pairs; p++) {
+			for (int i = 0; i < iterations; i++) {
+				List<AASDescriptor> found = registry.lookupBySubmodel(createSubmodelDescriptor(p, i).getIdentifier());
+				assertEquals(1, found.size());
+				assertEquals(keepingAASIds.get(p).getId(), found.get(0).getIdentifier().getId());
+			}
+		}
+
+		for (IIdentifier aasId : aasIds) {
+			registry.delete(aasId);
+		}
+		assertTrue(registry.lookupBySubmodel(createSubmodelDescriptor(0, 0).getIdentifier()).isEmpty());
+	}
+
+	private static SubmodelDescriptor createSubmodelDescriptor(int pair, int iteration) {
+		String idShort = "concurrentSM" + pair + "_" + iteration;
+		return new SubmodelDescriptor(idShort, new Identifier(IdentifierType.CUSTOM, idShort), "http://www.registrytest.de/" + idShort);
+	}
+}
@@ -17,15 +17,22 @@ import java.util.stream.Collectors;
 import org.eclipse.basyx.aas.metamodel.api.parts.asset.AssetKind;
 import org.eclipse.basyx.aas.metamodel.connected.ConnectedAssetAdministrationShell;
 import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
 import org.eclipse.basyx.aas.metamodel.map.descriptor.ModelUrn;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
 import org.eclipse.basyx.aas.metamodel.map.parts.Asset;
 import org.eclipse.basyx.aas.restapi.AASModelProvider;
+import org.eclipse.basyx.aas.registration.memory.InMemoryRegistry;
 import org.eclipse.basyx.aas.restapi.MultiSubmodelProvider;
+import org.eclipse.basyx.aas.restapi.vab.VABAASAPIFactory;
+import org.eclipse.basyx.submodel.aggregator.SubmodelAggregator;
 import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
 import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
+import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
 import org.eclipse.basyx.submodel.metamodel.map.modeltype.ModelType;
+import org.eclipse.basyx.submodel.metamodel.map.qualifier.Referable;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
@@ -38,6 +45,8 @@ import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
 import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProviderHelper;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -241,6 +250,66 @@ public class MultiSubmodelProviderTest {
 		}
 	}
 
+	/**
+	 * Tests that the submodel list fails if a remote submodel can not be
+	 * retrieved, unless partial lists are allowed
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void unreachableRemoteSubmodelTest() {
+		MultiSubmodelProvider provider = createProviderWithRemoteSubmodels(true);
+		try {
+			provider.getValue("/aas/submodels");
+			fail();
+		} catch (ProviderException e) {
+			assertEquals("Connection refused", e.getMessage());
+		}
+
+		provider.setPartialRemoteSubmodelsAllowed(true);
+		List<Map<String, Object>> submodels = (List<Map<String, Object>>) provider.getValue("/aas/submodels");
+		assertEquals(1, submodels.size());
+		assertEquals("RemoteSM", submodels.get(0).get(Referable.IDSHORT));
+	}
+
+	/**
+	 * Tests that the submodel list fails if no remote submodel can be retrieved,
+	 * even if partial lists are allowed
+	 */
+	@Test
+	public void allRemoteSubmodelsUnreachableTest() {
+		MultiSubmodelProvider provider = createProviderWithRemoteSubmodels(false);
+		provider.setPartialRemoteSubmodelsAllowed(true);
+		try {
+			provider.getValue("/aas/submodels");
+			fail();
+		} catch (ProviderException e) {
+			assertEquals(1, e.getSuppressed().length);
+		}
+	}
+
+	/**
+	 * Creates a provider for an AAS with two remote submodels, one of them being
+	 * unreachable
+	 */
+	private MultiSubmodelProvider createProviderWithRemoteSubmodels(boolean firstReachable) {
+		AssetAdministrationShell aas = new AssetAdministrationShell(AASIDSHORT, AASURN, new Asset("assetIdShort", new Identifier(IdentifierType.CUSTOM, "assetId"), AssetKind.INSTANCE));
+		Submodel remoteSm = new SimpleAASSubmodel("RemoteSM");
+		remoteSm.setIdentification(IdentifierType.CUSTOM, "RemoteSMId");
+
+		InMemoryRegistry registry = new InMemoryRegistry();
+		registry.register(new AASDescriptor(aas, "http://localhost:4001/aasServer/shells/StubAAS/aas"));
+		registry.register(AASURN, new SubmodelDescriptor(remoteSm, "http://remote:4002/" + (firstReachable ? "working" : "unreachable1") + "/submodel"));
+		registry.register(AASURN, new SubmodelDescriptor("UnreachableSM", new Identifier(IdentifierType.CUSTOM, "UnreachableSMId"), "http://remote:4002/unreachable/submodel"));
+
+		IConnectorFactory connectorFactory = addr -> {
+			if (addr.contains("unreachable")) {
+				throw new ProviderException("Connection refused");
+			}
+			return new VABMapProvider(SubmodelElementMapCollectionConverter.smToMap(remoteSm));
+		};
+		return new MultiSubmodelProvider(new AASModelProvider(aas), registry, connectorFactory, new VABAASAPIFactory(), new SubmodelAggregator());
+	}
+
 	private void getTestRunner(String smId) {
 		// Get property value
 		Integer value = (Integer) proxy.getValue("/aas/submodels/" + smId + "/" + SubmodelProvider.SUBMODEL + "/" + MultiSubmodelElementProvider.ELEMENTS + "/integerProperty/value");
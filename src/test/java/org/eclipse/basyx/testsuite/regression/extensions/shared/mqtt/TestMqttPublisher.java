@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.extensions.shared.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.basyx.extensions.shared.mqtt.MqttPublisher;
+import org.eclipse.basyx.extensions.shared.mqtt.MqttPublisher.OverflowPolicy;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.moquette.broker.Server;
+import io.moquette.broker.config.ClasspathResourceLoader;
+import io.moquette.broker.config.IConfig;
+import io.moquette.broker.config.IResourceLoader;
+import io.moquette.broker.config.ResourceLoaderConfig;
+
+/**
+ * Tests the asynchronous publishing of the MqttPublisher
+ */
+public class TestMqttPublisher {
+	private static final String SERVER_URI = "tcp://localhost:1884";
+
+	private static Server mqttBroker;
+	private MqttTestListener listener;
+
+	@BeforeClass
+	public static void setUpClass() throws IOException {
+		mqttBroker = new Server();
+		IResourceLoader classpathLoader = new ClasspathResourceLoader();
+		final IConfig classPathConfig = new ResourceLoaderConfig(classpathLoader);
+		mqttBroker.startServer(classPathConfig);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		mqttBroker.stopServer();
+	}
+
+	@Before
+	public void setUp() {
+		listener = new MqttTestListener();
+		mqttBroker.addInterceptHandler(listener);
+	}
+
+	@After
+	public void tearDown() {
+		mqttBroker.removeInterceptHandler(listener);
+	}
+
+	@Test
+	public void testOrderIsPreserved() throws Exception {
+		MqttClient client = createConnectedClient("publisherOrderClient");
+		MqttPublisher publisher = new MqttPublisher(client);
+
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			expected.add("order/" + i);
+			assertTrue(publisher.publish("order/" + i, new MqttMessage(("" + i).getBytes())));
+		}
+		publisher.flush();
+
+		assertEquals(expected, awaitTopics(expected.size()));
+		publisher.close();
+		client.disconnect();
+	}
+
+	@Test
+	public void testCoalescing() throws Exception {
+		MqttClient client = createConnectedClient("publisherCoalescingClient");
+		MqttPublisher publisher = new MqttPublisher(client);
+		publisher.setCoalescing(60000, "update");
+
+		publisher.publish("update", new MqttMessage("a".getBytes()));
+		publisher.publish("update", new MqttMessage("a".getBytes()));
+		publisher.publish("update", new MqttMessage("a".getBytes()));
+
+		// Is not coalesced across a message of another topic
+		publisher.publish("delete", new MqttMessage("a".getBytes()));
+		publisher.publish("update", new MqttMessage("a".getBytes()));
+		assertEquals(3, publisher.getQueueSize());
+		assertEquals(2, publisher.getCoalescedCount());
+
+		publisher.flush();
+		assertEquals(Arrays.asList("update", "delete", "update"), awaitTopics(3));
+		publisher.close();
+		client.disconnect();
+	}
+
+	@Test
+	public void testDropNewest() throws MqttException {
+		MqttPublisher publisher = createHeldBackPublisher(OverflowPolicy.DROP_NEWEST);
+		assertTrue(publisher.publish("held", new MqttMessage("a".getBytes())));
+		assertTrue(publisher.publish("held", new MqttMessage("b".getBytes())));
+		assertFalse(publisher.publish("held", new MqttMessage("c".getBytes())));
+		assertEquals(1, publisher.getDroppedCount());
+		assertEquals(2, publisher.getQueueSize());
+		publisher.close();
+	}
+
+	@Test
+	public void testDropOldest() throws MqttException {
+		MqttPublisher publisher = createHeldBackPublisher(OverflowPolicy.DROP_OLDEST);
+		assertTrue(publisher.publish("held", new MqttMessage("a".getBytes())));
+		assertTrue(publisher.publish("held", new MqttMessage("b".getBytes())));
+		assertTrue(publisher.publish("held", new MqttMessage("c".getBytes())));
+		assertEquals(1, publisher.getDroppedCount());
+		assertEquals(2, publisher.getQueueSize());
+		publisher.close();
+	}
+
+	/**
+	 * Creates a publisher with a capacity of two, whose messages are held back by
+	 * the coalescing window
+	 */
+	private MqttPublisher createHeldBackPublisher(OverflowPolicy policy) throws MqttException {
+		MqttClient client = new MqttClient(SERVER_URI, "publisherHeldBackClient", new MemoryPersistence());
+		MqttPublisher publisher = new MqttPublisher(client, 2, policy);
+		publisher.setCoalescing(60000, "held");
+		return publisher;
+	}
+
+	private MqttClient createConnectedClient(String clientId) throws MqttException {
+		MqttClient client = new MqttClient(SERVER_URI, clientId, new MemoryPersistence());
+		client.connect();
+		return client;
+	}
+
+	/**
+	 * Waits until the broker has received the expected number of messages
+	 */
+	private List<String> awaitTopics(int count) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			synchronized (listener) {
+				if (listener.getTopics().size() >= count) {
+					return new ArrayList<>(listener.getTopics());
+				}
+			}
+			Thread.sleep(50);
+		}
+		synchronized (listener) {
+			return new ArrayList<>(listener.getTopics());
+		}
+	}
+}
@@ -26,9 +26,20 @@
 
 package org.eclipse.basyx.testsuite.regression.submodel.aggregator;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.basyx.submodel.aggregator.SubmodelAggregator;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregator;
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
 import org.junit.BeforeClass;
+import org.junit.Test;
 
 /**
  * 
@@ -49,4 +60,32 @@ public class TestInMemorySubmodelAggregator extends SubmodelAggregatorSuite {
 	public static void initialize() {
 		aggregator = new SubmodelAggregator();
 	}
+
+	/**
+	 * Tests that accesses by identifier do not retrieve other submodels
+	 */
+	@Test
+	public void testIdentifierAccessDoesNotRetrieveOtherSubmodels() {
+		SubmodelAggregator indexedAggregator = new SubmodelAggregator();
+		AtomicInteger retrievals = new AtomicInteger();
+		for (int i = 0; i < 10; i++) {
+			Submodel submodel = new Submodel("indexedSubmodel" + i, new Identifier(IdentifierType.CUSTOM, "indexedSubmodelId" + i));
+			indexedAggregator.createSubmodel(new VABSubmodelAPI(new VABLambdaProvider(submodel)) {
+				@Override
+				public ISubmodel getSubmodel() {
+					retrievals.incrementAndGet();
+					return super.getSubmodel();
+				}
+			});
+		}
+		retrievals.set(0);
+
+		Identifier identifier = new Identifier(IdentifierType.CUSTOM, "indexedSubmodelId5");
+		assertEquals("indexedSubmodel5", indexedAggregator.getSubmodel(identifier).getIdShort());
+		assertEquals(1, retrievals.get());
+
+		indexedAggregator.deleteSubmodelByIdentifier(identifier);
+		assertEquals(1, retrievals.get());
+		assertEquals(9, indexedAggregator.getSubmodelList().size());
+	}
 }
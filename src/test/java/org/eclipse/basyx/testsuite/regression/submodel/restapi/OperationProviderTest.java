@@ -25,18 +25,23 @@
 package org.eclipse.basyx.testsuite.regression.submodel.restapi;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.basyx.submodel.metamodel.api.qualifier.haskind.ModelingKind;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperationVariable;
+import org.eclipse.basyx.submodel.metamodel.connected.submodelelement.operation.ConnectedAsyncInvocation;
 import org.eclipse.basyx.submodel.metamodel.map.qualifier.qualifiable.Qualifier;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
@@ -46,9 +51,16 @@ import org.eclipse.basyx.submodel.restapi.operation.CallbackResponse;
 import org.eclipse.basyx.submodel.restapi.operation.DelegatedInvocationManager;
 import org.eclipse.basyx.submodel.restapi.operation.InvocationRequest;
 import org.eclipse.basyx.submodel.restapi.operation.InvocationResponse;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.connector.SharedHTTPClient;
 import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
 import org.eclipse.basyx.vab.protocol.http.server.BaSyxHTTPServer;
 import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
@@ -69,7 +81,10 @@ public class OperationProviderTest {
 	private static final String OPID_IN = "opIn";
 	private static final String OPID_OUT = "opOut";
 
+	private static final String OPID_BLOCKING = "opBlocking";
+
 	private static final String API_INVOKE_URL = "http://" + SERVER + ":" + PORT + "/" + CONTEXT_PATH + "/" + OPID_OUT + "/invoke";
+	private static final String API_BLOCKING_URL = "http://" + SERVER + ":" + PORT + "/" + CONTEXT_PATH + "/" + OPID_BLOCKING;
 
 	private static Integer requestId = 0;
 
@@ -274,6 +289,161 @@ public class OperationProviderTest {
 		server.shutdown();
 	}
 
+	/**
+	 * Tests waiting for the result of an asynchronous invocation via HTTP
+	 */
+	@Test(timeout = 30000)
+	public void testWaitForResultViaHTTP() {
+		CountDownLatch release = new CountDownLatch(1);
+		BaSyxHTTPServer server = startServer(createBlockingOperationProvider(release));
+		try {
+			ConnectedAsyncInvocation invocation = new ConnectedAsyncInvocation(createProxy(new HTTPConnector(API_BLOCKING_URL)), OPID_BLOCKING, getBlockingInvocationRequest());
+			releaseLater(release);
+			assertEquals(4, invocation.getResult());
+		} finally {
+			server.shutdown();
+		}
+	}
+
+	/**
+	 * Tests retrieving the result as future while another request is sent to
+	 * the server. The waiting request must not occupy the only connection of the
+	 * route.
+	 */
+	@Test(timeout = 30000)
+	public void testGetResultAsyncViaHTTP() {
+		CountDownLatch release = new CountDownLatch(1);
+		BaSyxHTTPServer server = startServer(createBlockingOperationProvider(release));
+		SharedHTTPClient client = new SharedHTTPClient(1, 1000, 30000);
+		try {
+			VABElementProxy proxy = createProxy(new HTTPConnector(API_BLOCKING_URL, client));
+			ConnectedAsyncInvocation invocation = new ConnectedAsyncInvocation(proxy, OPID_BLOCKING, getBlockingInvocationRequest());
+			CompletableFuture<Object> result = invocation.getResultAsync();
+
+			// Answered while the result is waited for
+			assertFalse(invocation.isFinished());
+			release.countDown();
+			assertEquals(4, result.join());
+		} finally {
+			release.countDown();
+			client.close();
+			server.shutdown();
+		}
+	}
+
+	/**
+	 * Tests retrieving the result as future from a provider connected directly.
+	 * The future is completed once the invocation finishes.
+	 */
+	@Test(timeout = 30000)
+	public void testGetResultAsyncDirectly() {
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			VABElementProxy proxy = new VABElementProxy("", createBlockingOperationProvider(release));
+			ConnectedAsyncInvocation invocation = new ConnectedAsyncInvocation(proxy, OPID_BLOCKING, getBlockingInvocationRequest());
+			CompletableFuture<Object> result = invocation.getResultAsync();
+
+			assertFalse(result.isDone());
+			release.countDown();
+			assertEquals(4, result.join());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	/**
+	 * Tests if the result retrieved as future is polled from providers that do
+	 * not support waiting for results
+	 */
+	@Test(timeout = 30000)
+	public void testGetResultAsyncFromOldProvider() {
+		CountDownLatch release = new CountDownLatch(1);
+		VABElementProxy proxy = new VABElementProxy("", createProviderWithoutWait(createBlockingOperationProvider(release)));
+		ConnectedAsyncInvocation invocation = new ConnectedAsyncInvocation(proxy, OPID_BLOCKING, getBlockingInvocationRequest());
+		CompletableFuture<Object> result = invocation.getResultAsync();
+		releaseLater(release);
+		assertEquals(4, result.join());
+	}
+
+	/**
+	 * Tests if the result is polled from servers that do not support waiting for
+	 * results
+	 */
+	@Test(timeout = 30000)
+	public void testWaitForResultFromOldServer() {
+		CountDownLatch release = new CountDownLatch(1);
+		OperationProvider provider = createBlockingOperationProvider(release);
+		BaSyxHTTPServer server = startServer(createProviderWithoutWait(provider));
+		try {
+			ConnectedAsyncInvocation invocation = new ConnectedAsyncInvocation(createProxy(new HTTPConnector(API_BLOCKING_URL)), OPID_BLOCKING, getBlockingInvocationRequest());
+			releaseLater(release);
+			assertEquals(4, invocation.getResult());
+		} finally {
+			server.shutdown();
+		}
+	}
+
+	private static OperationProvider createBlockingOperationProvider(CountDownLatch release) {
+		Operation operation = createOperation(OPID_BLOCKING, getInVariables(), getOutVariables(), v -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return SUB_RETURN_FUNC.apply(v);
+		});
+		return new OperationProvider(new VABLambdaProvider(operation));
+	}
+
+	/**
+	 * Providers without wait support do not find the request id including the
+	 * parameter
+	 */
+	private static IModelProvider createProviderWithoutWait(OperationProvider provider) {
+		return new VABMapProvider(new HashMap<>()) {
+			@Override
+			public Object getValue(String path) throws ProviderException {
+				if (path.contains("?" + OperationProvider.WAIT + "=")) {
+					throw new ResourceNotFoundException("RequestId not found: " + path);
+				}
+				return provider.getValue(path);
+			}
+
+			@Override
+			public Object invokeOperation(String path, Object... parameters) throws ProviderException {
+				return provider.invokeOperation(path, parameters);
+			}
+		};
+	}
+
+	private static BaSyxHTTPServer startServer(IModelProvider provider) {
+		BaSyxContext context = new BaSyxContext("/" + CONTEXT_PATH, "", SERVER, PORT);
+		context.addServletMapping("/" + OPID_BLOCKING + "/*", new VABHTTPInterface<IModelProvider>(provider));
+		BaSyxHTTPServer server = new BaSyxHTTPServer(context);
+		server.start();
+		return server;
+	}
+
+	private static VABElementProxy createProxy(HTTPConnector connector) {
+		return new VABElementProxy("", new JSONConnector(connector));
+	}
+
+	private static void releaseLater(CountDownLatch release) {
+		new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			release.countDown();
+		}).start();
+	}
+
+	private InvocationRequest getBlockingInvocationRequest() {
+		Collection<IOperationVariable> inVariables = Arrays.asList(new OperationVariable(new Property("testIn1", 10)), new OperationVariable(new Property("testIn2", 6)));
+		return new InvocationRequest((requestId++).toString(), new ArrayList<>(), inVariables, 20000);
+	}
+
 	@SuppressWarnings("unchecked")
 	private Collection<IOperationVariable> invokeSync(OperationProvider provider, InvocationRequest request) {
 		InvocationResponse response = InvocationResponse.createAsFacade((Map<String, Object>) provider.invokeOperation("invoke", request));
@@ -27,9 +27,12 @@
 package org.eclipse.basyx.testsuite.regression.submodel.restapi;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.basyx.submodel.metamodel.api.qualifier.haskind.ModelingKind;
@@ -51,6 +54,7 @@ public class TestSubmodelElementCollectionProvider {
 	private static final String PROP_VALUE2 = "value2";
 	private static final String OP_ID1 = "op1";
 	private static final String COL_ID1 = "col1";
+	private static final String COL_ID2 = "col2";
 
 	private static SubmodelElementCollectionProvider colProvider;
 
@@ -119,4 +123,34 @@ public class TestSubmodelElementCollectionProvider {
 		Operation opElem = Operation.createAsFacade(elemMap);
 		assertEquals(OP_ID1, opElem.getIdShort());
 	}
+
+	/**
+	 * Tests that accessing an element within a nested collection does not retrieve
+	 * the nested collection as a whole
+	 */
+	@Test
+	public void testNestedAccessDoesNotRetrieveCollection() {
+		Property prop = new Property(PROP_ID1, PROP_VALUE1);
+		prop.setValueType(ValueType.String);
+
+		SubmodelElementCollection innerCol = new SubmodelElementCollection(COL_ID2);
+		innerCol.addSubmodelElement(prop);
+
+		SubmodelElementCollection outerCol = new SubmodelElementCollection(COL_ID1);
+		outerCol.addSubmodelElement(innerCol);
+
+		List<String> requestedPaths = new ArrayList<>();
+		VABLambdaProvider recordingProvider = new VABLambdaProvider(outerCol) {
+			@Override
+			public Object getValue(String path) {
+				requestedPaths.add(path);
+				return super.getValue(path);
+			}
+		};
+		SubmodelElementCollectionProvider provider = new SubmodelElementCollectionProvider(recordingProvider);
+
+		String valuePath = "/" + COL_ID2 + "/" + PROP_ID1 + "/" + Property.VALUE;
+		assertEquals(PROP_VALUE1, provider.getValue(valuePath));
+		assertFalse(requestedPaths.contains(MultiSubmodelElementProvider.VALUE + "/" + COL_ID2));
+	}
 }
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi.indexed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
+import org.eclipse.basyx.submodel.restapi.indexed.IndexedSubmodelAPI;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SimpleAASSubmodel;
+import org.eclipse.basyx.testsuite.regression.submodel.restapi.SubmodelProviderTest;
+import org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestsuiteDirectory;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.protocol.api.ConnectorFactory;
+import org.junit.Test;
+
+/**
+ * Tests the SubmodelProvider based on the IndexedSubmodelAPI
+ */
+public class IndexedSubmodelProviderTest extends SubmodelProviderTest {
+	private VABConnectionManager connManager;
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		if (connManager == null) {
+			connManager = new VABConnectionManager(new TestsuiteDirectory(), new ConnectorFactory() {
+				@Override
+				protected IModelProvider createProvider(String addr) {
+					return new SubmodelProvider(new IndexedSubmodelAPI(new SimpleAASSubmodel("mySubmodelId")));
+				}
+			});
+		}
+		return connManager;
+	}
+
+	@Test
+	public void testRangeListing() {
+		SubmodelElementCollection collection = new SubmodelElementCollection("collection");
+		for (int i = 0; i < 5; i++) {
+			collection.addSubmodelElement(new Property("prop" + i, i));
+		}
+		SimpleAASSubmodel submodel = new SimpleAASSubmodel();
+		submodel.addSubmodelElement(collection);
+		IndexedSubmodelAPI api = new IndexedSubmodelAPI(submodel);
+
+		Collection<ISubmodelElement> range = api.getSubmodelElements("collection", 1, 2);
+		assertEquals(2, range.size());
+		Iterator<ISubmodelElement> iterator = range.iterator();
+		assertEquals("prop1", iterator.next().getIdShort());
+		assertEquals("prop2", iterator.next().getIdShort());
+
+		// Elements added through the API are indexed
+		api.addSubmodelElement("collection/prop5", new Property("prop5", 5));
+		assertEquals(5, api.getSubmodelElementValue("collection/prop5"));
+		assertEquals(6, api.getSubmodelElements("collection", 0, Integer.MAX_VALUE).size());
+
+		try {
+			api.getSubmodelElements("collection/prop0", 0, 1);
+			fail();
+		} catch (MalformedRequestException e) {
+			// expected
+		}
+	}
+}
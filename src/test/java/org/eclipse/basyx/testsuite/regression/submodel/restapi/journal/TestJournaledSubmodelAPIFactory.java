@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.submodel.aggregator.SubmodelAggregator;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.restapi.journal.JournaledSubmodelAPIFactory;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the lifecycle of the submodels provided by the
+ * JournaledSubmodelAPIFactory
+ */
+public class TestJournaledSubmodelAPIFactory {
+	private static final String ID_SHORT = "journaled";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String root;
+
+	@Before
+	public void setUp() {
+		root = folder.getRoot().getPath();
+	}
+
+	@Test
+	public void testUpdateReplacesSubmodel() throws IOException {
+		IIdentifier id = new CustomId("updated");
+		JournaledSubmodelAPIFactory factory = new JournaledSubmodelAPIFactory(root, 0);
+		SubmodelAggregator aggregator = new SubmodelAggregator(factory);
+
+		aggregator.createSubmodel(createSubmodel(id, "first"));
+		aggregator.updateSubmodel(createSubmodel(id, "second"));
+		assertElements(aggregator, "second");
+		factory.close();
+
+		// The update has been persisted and is recovered instead of the passed
+		// submodel
+		JournaledSubmodelAPIFactory restarted = new JournaledSubmodelAPIFactory(root, 0);
+		SubmodelAggregator recovered = new SubmodelAggregator(restarted);
+		recovered.createSubmodel(createSubmodel(id, "first"));
+		assertElements(recovered, "second");
+		restarted.close();
+	}
+
+	@Test
+	public void testCreatedSubmodelIsRecovered() throws IOException {
+		IIdentifier id = new CustomId("created");
+		JournaledSubmodelAPIFactory factory = new JournaledSubmodelAPIFactory(root, 0);
+		new SubmodelAggregator(factory).createSubmodel(createSubmodel(id, "first"));
+		factory.close();
+
+		// The initial submodel has been persisted and is recovered instead of the
+		// passed submodel
+		JournaledSubmodelAPIFactory restarted = new JournaledSubmodelAPIFactory(root, 0);
+		SubmodelAggregator recovered = new SubmodelAggregator(restarted);
+		recovered.createSubmodel(createSubmodel(id, "second"));
+		assertElements(recovered, "first");
+		restarted.close();
+	}
+
+	@Test
+	public void testOperationIsKept() throws IOException {
+		IIdentifier id = new CustomId("operation");
+		JournaledSubmodelAPIFactory factory = new JournaledSubmodelAPIFactory(root, 0);
+		new SubmodelAggregator(factory).createSubmodel(createSubmodelWithOperation(id));
+		factory.close();
+
+		JournaledSubmodelAPIFactory restarted = new JournaledSubmodelAPIFactory(root, 0);
+		SubmodelAggregator recovered = new SubmodelAggregator(restarted);
+		recovered.createSubmodel(createSubmodelWithOperation(id));
+		assertEquals(3, recovered.getSubmodelAPIById(id).invokeOperation("operation"));
+		restarted.close();
+	}
+
+	@Test
+	public void testDeleteRemovesPersistedState() throws IOException {
+		IIdentifier id = new CustomId("deleted");
+		Path directory = Paths.get(root, VABPathTools.encodePathElement(id.getId()));
+		JournaledSubmodelAPIFactory factory = new JournaledSubmodelAPIFactory(root, 0);
+		SubmodelAggregator aggregator = new SubmodelAggregator(factory);
+
+		aggregator.createSubmodel(createSubmodel(id, "first"));
+		aggregator.updateSubmodel(createSubmodel(id, "second"));
+		assertTrue(Files.exists(directory));
+
+		aggregator.deleteSubmodelByIdentifier(id);
+		assertFalse(Files.exists(directory));
+
+		// Created anew instead of recovering the deleted state
+		aggregator.createSubmodel(createSubmodel(id, "first"));
+		assertElements(aggregator, "first");
+		factory.close();
+	}
+
+	private static Submodel createSubmodel(IIdentifier id, String element) {
+		Submodel submodel = new Submodel(ID_SHORT, id);
+		submodel.addSubmodelElement(new Property(element, 1));
+		return submodel;
+	}
+
+	private static Submodel createSubmodelWithOperation(IIdentifier id) {
+		Submodel submodel = createSubmodel(id, "first");
+		Operation operation = new Operation((Function<Object[], Object>) v -> 3);
+		operation.setIdShort("operation");
+		submodel.addSubmodelElement(operation);
+		return submodel;
+	}
+
+	private static void assertElements(SubmodelAggregator aggregator, String expected) {
+		Map<String, ISubmodelElement> elements = aggregator.getSubmodelbyIdShort(ID_SHORT).getSubmodelElements();
+		assertEquals(1, elements.size());
+		assertTrue(elements.containsKey(expected));
+	}
+}
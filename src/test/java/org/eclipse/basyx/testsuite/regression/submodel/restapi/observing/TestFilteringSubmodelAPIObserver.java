@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi.observing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.submodel.restapi.observing.ElementUpdateFilter;
+import org.eclipse.basyx.submodel.restapi.observing.FilteringSubmodelAPIObserver;
+import org.eclipse.basyx.submodel.restapi.observing.ISubmodelAPIObserver;
+import org.junit.Test;
+
+/**
+ * Tests the FilteringSubmodelAPIObserver
+ */
+public class TestFilteringSubmodelAPIObserver {
+	private static final String PROPERTY = "prop";
+
+	private RecordingObserver recorder = new RecordingObserver();
+
+	@Test
+	public void testUnchangedValuesAreSuppressed() {
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder);
+		observer.elementUpdated(PROPERTY, "a");
+		observer.elementUpdated(PROPERTY, "a");
+		observer.elementUpdated(PROPERTY, "b");
+		observer.elementUpdated(PROPERTY, "b");
+
+		assertEquals(Arrays.asList("updated prop a", "updated prop b"), recorder.getEvents());
+	}
+
+	@Test
+	public void testAbsoluteDeadband() {
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder, new ElementUpdateFilter().setAbsoluteDeadband(0.5));
+		observer.elementUpdated(PROPERTY, 10);
+		observer.elementUpdated(PROPERTY, 10.3);
+		observer.elementUpdated(PROPERTY, 9.5);
+		observer.elementUpdated(PROPERTY, 10.6);
+
+		assertEquals(Arrays.asList("updated prop 10", "updated prop 10.6"), recorder.getEvents());
+	}
+
+	@Test
+	public void testPercentDeadband() {
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder, new ElementUpdateFilter().setPercentDeadband(10));
+		observer.elementUpdated(PROPERTY, 100);
+		observer.elementUpdated(PROPERTY, 109);
+		observer.elementUpdated(PROPERTY, 111);
+		observer.elementUpdated(PROPERTY, 121);
+
+		assertEquals(Arrays.asList("updated prop 100", "updated prop 111"), recorder.getEvents());
+	}
+
+	@Test
+	public void testPathSpecificFilter() {
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder);
+		observer.setFilter("/coll/prop/", new ElementUpdateFilter().setAbsoluteDeadband(5));
+		observer.elementUpdated("coll/prop", 1);
+		observer.elementUpdated("coll/prop", 2);
+		observer.elementUpdated("other", 1);
+		observer.elementUpdated("other", 2);
+
+		assertEquals(Arrays.asList("updated coll/prop 1", "updated other 1", "updated other 2"), recorder.getEvents());
+	}
+
+	@Test
+	public void testMinIntervalForwardsLatestValue() throws InterruptedException {
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder, new ElementUpdateFilter().setMinInterval(100));
+		observer.elementUpdated(PROPERTY, 1);
+		observer.elementUpdated(PROPERTY, 2);
+		observer.elementUpdated(PROPERTY, 3);
+		assertEquals(Arrays.asList("updated prop 1"), recorder.getEvents());
+
+		for (int i = 0; i < 100 && recorder.getEvents().size() < 2; i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(Arrays.asList("updated prop 1", "updated prop 3"), recorder.getEvents());
+	}
+
+	@Test
+	public void testDeleteForwardsHeldBackUpdates() {
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder, new ElementUpdateFilter().setMinInterval(60000));
+		observer.elementUpdated("coll/prop", 1);
+		observer.elementUpdated("coll/prop", 2);
+		observer.elementDeleted("coll");
+
+		// The last values are forgotten after the deletion
+		observer.elementAdded("coll", null);
+		observer.elementUpdated("coll/prop", 2);
+
+		assertEquals(Arrays.asList("updated coll/prop 1", "updated coll/prop 2", "deleted coll", "added coll", "updated coll/prop 2"), recorder.getEvents());
+	}
+
+	@Test
+	public void testFlush() {
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder, new ElementUpdateFilter().setMinInterval(60000));
+		observer.elementUpdated(PROPERTY, 1);
+		observer.elementUpdated(PROPERTY, 2);
+		observer.flush();
+
+		assertEquals(Arrays.asList("updated prop 1", "updated prop 2"), recorder.getEvents());
+	}
+
+	@Test
+	public void testHeldBackUpdatesUseExecutor() throws InterruptedException {
+		AtomicInteger executed = new AtomicInteger();
+		Executor executor = runnable -> {
+			executed.incrementAndGet();
+			runnable.run();
+		};
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(recorder, new ElementUpdateFilter().setMinInterval(50), executor);
+		observer.elementUpdated(PROPERTY, 1);
+		observer.elementUpdated(PROPERTY, 2);
+
+		for (int i = 0; i < 100 && recorder.getEvents().size() < 2; i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(Arrays.asList("updated prop 1", "updated prop 2"), recorder.getEvents());
+		assertEquals(1, executed.get());
+	}
+
+	/**
+	 * Tests if updates are not blocked while the observer is called for the same
+	 * element and if they are forwarded in order
+	 */
+	@Test(timeout = 10000)
+	public void testObserverIsCalledWithoutLock() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingObserver blocking = new RecordingObserver() {
+			@Override
+			public void elementUpdated(String idShortPath, Object newValue) {
+				super.elementUpdated(idShortPath, newValue);
+				entered.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		FilteringSubmodelAPIObserver observer = new FilteringSubmodelAPIObserver(blocking);
+
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> observer.elementUpdated(PROPERTY, 1));
+		entered.await();
+		CompletableFuture.runAsync(() -> observer.elementUpdated(PROPERTY, 2)).get(5, TimeUnit.SECONDS);
+
+		release.countDown();
+		first.get();
+		assertEquals(Arrays.asList("updated prop 1", "updated prop 2"), blocking.getEvents());
+	}
+
+	private static class RecordingObserver implements ISubmodelAPIObserver {
+		private final List<String> events = new ArrayList<>();
+
+		@Override
+		public synchronized void elementAdded(String idShortPath, Object newValue) {
+			events.add("added " + idShortPath);
+		}
+
+		@Override
+		public synchronized void elementDeleted(String idShortPath) {
+			events.add("deleted " + idShortPath);
+		}
+
+		@Override
+		public synchronized void elementUpdated(String idShortPath, Object newValue) {
+			events.add("updated " + idShortPath + " " + newValue);
+		}
+
+		public synchronized List<String> getEvents() {
+			return new ArrayList<>(events);
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.submodel.restapi.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperationVariable;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.valuetype.ValueType;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operation;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.OperationVariable;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationEngine;
+import org.eclipse.basyx.submodel.restapi.operation.AsyncOperationHandler;
+import org.eclipse.basyx.submodel.restapi.operation.CallbackResponse;
+import org.eclipse.basyx.submodel.restapi.operation.ExecutionState;
+import org.eclipse.basyx.submodel.restapi.operation.InvocationResponse;
+import org.eclipse.basyx.submodel.restapi.vab.VABSubmodelAPI;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the bounds and cleanup of the {@link AsyncOperationEngine}
+ */
+public class TestAsyncOperationEngine {
+	private static final String OPERATION_ID = "operation";
+
+	private AsyncOperationEngine engine;
+	private CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		engine.shutdown();
+	}
+
+	@Test(timeout = 10000)
+	public void testMaxInFlight() throws InterruptedException {
+		engine = new AsyncOperationEngine(Executors.newCachedThreadPool(), 1, 60000);
+		Operation operation = createBlockingOperation();
+
+		engine.invokeAsync(operation, OPERATION_ID, "1", new Object[0], createOutputs(), 60000);
+		try {
+			engine.invokeAsync(operation, OPERATION_ID, "2", new Object[0], createOutputs(), 60000);
+			fail();
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		release.countDown();
+		awaitState("1", ExecutionState.COMPLETED);
+		engine.invokeAsync(operation, OPERATION_ID, "3", new Object[0], createOutputs(), 60000);
+	}
+
+	@Test(timeout = 10000)
+	public void testTimeoutCancelsInvocation() throws InterruptedException {
+		engine = new AsyncOperationEngine(Executors.newCachedThreadPool(), 1, 60000);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		Operation operation = new Operation((Function<Object[], Object>) v -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return 1;
+		});
+		operation.setIdShort(OPERATION_ID);
+
+		engine.invokeAsync(operation, OPERATION_ID, "1", new Object[0], createOutputs(), 50);
+		awaitState("1", ExecutionState.TIMEOUT);
+		interrupted.await();
+
+		// The slot of the cancelled invocation is available again once the
+		// operation has returned
+		while (true) {
+			try {
+				engine.invokeAsync(operation, OPERATION_ID, "2", new Object[0], createOutputs(), 60000);
+				return;
+			} catch (ProviderException e) {
+				Thread.sleep(10);
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testUnretrievedResultIsRemoved() throws InterruptedException {
+		engine = new AsyncOperationEngine(Executors.newCachedThreadPool(), 1, 50);
+		release.countDown();
+
+		engine.invokeAsync(createBlockingOperation(), OPERATION_ID, "1", new Object[0], createOutputs(), 60000);
+		assertTrue(engine.hasRequestId("1"));
+		while (engine.hasRequestId("1")) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testRetrieveResultWaits() throws Exception {
+		engine = new AsyncOperationEngine(Executors.newCachedThreadPool(), 1, 60000);
+		engine.invokeAsync(createBlockingOperation(), OPERATION_ID, "1", new Object[0], createOutputs(), 60000);
+
+		// Not finished within the waiting time
+		InvocationResponse response = (InvocationResponse) engine.retrieveResult("1", OPERATION_ID, 20);
+		assertEquals(ExecutionState.INITIATED, response.getExecutionState());
+
+		CompletableFuture<InvocationResponse> completion = engine.getCompletion("1", OPERATION_ID);
+		new Thread(() -> {
+			sleep(50);
+			release.countDown();
+		}).start();
+
+		response = (InvocationResponse) engine.retrieveResult("1", OPERATION_ID, 5000);
+		assertEquals(ExecutionState.COMPLETED, response.getExecutionState());
+		assertEquals(1, response.getFirstOutput());
+		assertEquals(ExecutionState.COMPLETED, completion.get().getExecutionState());
+		assertFalse(engine.hasRequestId("1"));
+	}
+
+	@Test(timeout = 10000)
+	public void testRetrieveResultAsync() throws Exception {
+		engine = new AsyncOperationEngine(Executors.newCachedThreadPool(), 1, 60000);
+		engine.invokeAsync(createBlockingOperation(), OPERATION_ID, "1", new Object[0], createOutputs(), 60000);
+
+		// Completed with the unfinished response after the waiting time
+		InvocationResponse response = (InvocationResponse) engine.retrieveResultAsync("1", OPERATION_ID, 20).get();
+		assertEquals(ExecutionState.INITIATED, response.getExecutionState());
+
+		// Completed as soon as the invocation finishes, without blocking the caller
+		CompletableFuture<Object> result = engine.retrieveResultAsync("1", OPERATION_ID, 60000);
+		assertFalse(result.isDone());
+		release.countDown();
+		response = (InvocationResponse) result.get();
+		assertEquals(ExecutionState.COMPLETED, response.getExecutionState());
+		assertEquals(1, response.getFirstOutput());
+		assertFalse(engine.hasRequestId("1"));
+	}
+
+	/**
+	 * Tests if the engine passed to a submodel API is used for its operations,
+	 * including those nested in collections, instead of the default engine
+	 */
+	@Test(timeout = 10000)
+	public void testEngineOfSubmodelAPI() {
+		engine = new AsyncOperationEngine(Executors.newCachedThreadPool(), 1, 60000);
+		release.countDown();
+		SubmodelElementCollection collection = new SubmodelElementCollection("collection");
+		collection.addSubmodelElement(createBlockingOperation());
+		Submodel submodel = new Submodel("submodel", new Identifier(IdentifierType.CUSTOM, "submodel"));
+		submodel.addSubmodelElement(createBlockingOperation());
+		submodel.addSubmodelElement(collection);
+		VABSubmodelAPI api = new VABSubmodelAPI(new VABLambdaProvider(submodel), engine);
+
+		for (String idShortPath : new String[] { OPERATION_ID, "collection/" + OPERATION_ID }) {
+			CallbackResponse response = (CallbackResponse) api.invokeAsync(idShortPath);
+			assertTrue(engine.hasRequestId(response.getRequestId()));
+			assertFalse(AsyncOperationHandler.hasRequestId(response.getRequestId()));
+		}
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Operation createBlockingOperation() {
+		Operation operation = new Operation((Function<Object[], Object>) v -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return 1;
+		});
+		operation.setIdShort(OPERATION_ID);
+		return operation;
+	}
+
+	private void awaitState(String requestId, ExecutionState state) throws InterruptedException {
+		while (true) {
+			InvocationResponse response = (InvocationResponse) engine.retrieveResult(requestId, OPERATION_ID);
+			if (response.getExecutionState() == state) {
+				return;
+			}
+			assertEquals(ExecutionState.INITIATED, response.getExecutionState());
+			Thread.sleep(10);
+		}
+	}
+
+	private static Collection<IOperationVariable> createOutputs() {
+		Collection<IOperationVariable> outputs = new ArrayList<>();
+		outputs.add(new OperationVariable(new Property("out", ValueType.Int32)));
+		return outputs;
+	}
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.coder.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.basyx.vab.coder.binary.MessagePackCodec;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.junit.Test;
+
+/**
+ * Tests if the binary codec produces the same structures as the JSON
+ * serialization
+ */
+public class TestMessagePackCodec {
+
+	private MessagePackCodec codec = new MessagePackCodec();
+	private GSONTools tools = new GSONTools(new DefaultTypeFactory());
+
+	/**
+	 * Tests if primitives are decoded to the same types as with JSON
+	 */
+	@Test
+	public void testPrimitives() {
+		Object[] primitives = { 0, 1, -1, 127, 128, -32, -33, -129, 32768, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE + 1L, Long.MIN_VALUE, Long.MAX_VALUE, BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE),
+				BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.TEN), 12.3, -0.5, true, false, "", "TestValue", "\u00e4\u20ac", (short) 5, (byte) -3, 1.5f };
+
+		for (Object primitive : primitives) {
+			assertCodecParity(primitive);
+		}
+	}
+
+	/**
+	 * Tests if strings and collections exceeding the compact header formats are
+	 * decoded correctly
+	 */
+	@Test
+	public void testLargeValues() {
+		StringBuilder builder = new StringBuilder();
+		List<Object> list = new ArrayList<>();
+		for (int i = 0; i < 70000; i++) {
+			builder.append((char) ('a' + i % 26));
+			list.add(i);
+		}
+
+		assertCodecParity(builder.substring(0, 31));
+		assertCodecParity(builder.substring(0, 32));
+		assertCodecParity(builder.substring(0, 256));
+		assertCodecParity(builder.toString());
+		assertCodecParity(list.subList(0, 15));
+		assertCodecParity(list.subList(0, 16));
+		assertCodecParity(list);
+	}
+
+	/**
+	 * Tests if nested maps and collections are decoded correctly and if null values
+	 * are removed from maps like with JSON
+	 */
+	@Test
+	public void testMapWithCollection() {
+		Map<String, Object> inner = new LinkedHashMap<>();
+		inner.put("a", 1);
+		inner.put("null", null);
+
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("list", Arrays.asList(1, null, "2", inner));
+		map.put("set", new LinkedHashSet<>(Arrays.asList(1, 2)));
+		map.put("empty", new ArrayList<>());
+		map.put("map", inner);
+
+		assertCodecParity(map);
+		assertEquals(2, ((Collection<?>) ((Map<?, ?>) codec.decode(codec.encode(map))).get("set")).size());
+	}
+
+	/**
+	 * Tests if functions are encoded with the function type markers
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFunctions() {
+		Consumer<Integer> consumer = x -> {
+		};
+		assertEquals(GSONTools.BASYXINVOCABLE, codec.decode(codec.encode(consumer)));
+
+		Function<Integer, Integer> function = (Function<Integer, Integer> & Serializable) (x -> x * x);
+		Function<Integer, Integer> decoded = (Function<Integer, Integer>) codec.decode(codec.encode(function));
+		assertEquals(function.apply(5), decoded.apply(5));
+	}
+
+	/**
+	 * Tests if an empty input is decoded to null
+	 */
+	@Test
+	public void testEmpty() {
+		assertNull(codec.decode(new byte[0]));
+		assertNull(codec.decode(codec.encode(null)));
+	}
+
+	/**
+	 * Tests if the binary encoding of numeric arrays is more compact than JSON
+	 */
+	@Test
+	public void testCompactness() {
+		List<Object> list = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			list.add(i * 1000);
+		}
+
+		assertTrue(codec.encode(list).length < tools.serialize(list).length());
+	}
+
+	/**
+	 * Tests if lengths read from the input are checked before memory is allocated
+	 * for them
+	 */
+	@Test
+	public void testForgedLengths() {
+		// str32 and bin32 headers announcing about 2 GB, followed by two bytes
+		byte[] str32 = { (byte) 0xdb, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 'a', 'b' };
+		byte[] bin32 = { (byte) 0xc6, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 'a', 'b' };
+		// ext32 header with a length that is negative as int
+		byte[] ext32 = { (byte) 0xc9, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, MessagePackCodec.EXT_BIG_INTEGER };
+
+		for (byte[] forged : Arrays.asList(str32, bin32, ext32)) {
+			assertDecodingFails(codec, forged);
+		}
+
+		// Without a relevant limit, the missing input is detected before allocating
+		MessagePackCodec unlimitedCodec = new MessagePackCodec(new DefaultTypeFactory(), Integer.MAX_VALUE);
+		assertDecodingFails(unlimitedCodec, str32);
+		assertDecodingFails(unlimitedCodec, bin32);
+	}
+
+	/**
+	 * Tests if values exceeding the configured maximum length are rejected
+	 */
+	@Test
+	public void testMaxLength() {
+		MessagePackCodec limitedCodec = new MessagePackCodec(new DefaultTypeFactory(), 10);
+		assertEquals("0123456789", limitedCodec.decode(limitedCodec.encode("0123456789")));
+		assertDecodingFails(limitedCodec, limitedCodec.encode("0123456789a"));
+	}
+
+	private void assertDecodingFails(MessagePackCodec codec, byte[] encoded) {
+		try {
+			codec.decode(encoded);
+			fail();
+		} catch (UncheckedIOException e) {
+			// Expected
+		}
+	}
+
+	private void assertCodecParity(Object value) {
+		Object expected = tools.deserialize(tools.serialize(value));
+		Object decoded = codec.decode(codec.encode(value));
+		assertEquals(expected, decoded);
+		if (expected != null) {
+			assertEquals(expected.getClass(), decoded.getClass());
+		}
+	}
+}
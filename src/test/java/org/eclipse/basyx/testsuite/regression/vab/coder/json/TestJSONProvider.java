@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.coder.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.basyx.vab.coder.json.metaprotocol.Result;
+import org.eclipse.basyx.vab.coder.json.provider.JSONProvider;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProviderHelper;
+import org.junit.Test;
+
+/**
+ * Tests the responses written by the JSONProvider
+ */
+public class TestJSONProvider {
+
+	/**
+	 * Tests if a value whose encoding fails after parts of it could have been
+	 * written results in a response that only contains the exception
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testGetterThrowsWhileEncoding() {
+		JSONProvider<VABLambdaProvider> provider = createFailingContainerProvider();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			provider.processBaSysGet("/container", outputStream);
+			fail();
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		String response = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+		Map<String, Object> result = (Map<String, Object>) new GSONTools(new DefaultTypeFactory()).deserialize(response);
+		assertEquals(false, result.get(Result.SUCCESS));
+	}
+
+	/**
+	 * Tests if responses exceeding the buffer threshold are streamed and only
+	 * aborted, without an appended exception, if their encoding fails
+	 */
+	@Test
+	public void testGetterThrowsAfterThreshold() {
+		JSONProvider<VABLambdaProvider> provider = createFailingContainerProvider();
+		provider.setBufferThreshold(1024);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			provider.processBaSysGet("/container", outputStream);
+			fail();
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		String response = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+		assertTrue(response.startsWith("{\"working\":\"xxx"));
+		assertFalse(response.contains(Result.SUCCESS));
+	}
+
+	/**
+	 * Tests if a value encoded completely into a buffer is replaced by the
+	 * exception if its encoding fails
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testEncodeValueWithFailingGetter() {
+		JSONProvider<VABLambdaProvider> provider = createFailingContainerProvider();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try {
+			provider.encodeBaSysValue(provider.retrieveBaSysValue("/container"), body);
+			fail();
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		Map<String, Object> result = (Map<String, Object>) new GSONTools(new DefaultTypeFactory()).deserialize(new String(body.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(false, result.get(Result.SUCCESS));
+	}
+
+	/**
+	 * Tests if an unexpected exception of a single path does not fail the whole
+	 * batch
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testBatchGetWithFailingGetter() throws ProviderException {
+		Map<String, Object> elements = new HashMap<>();
+		elements.put("working", 5);
+		elements.put("failing", VABLambdaProviderHelper.createSimple(() -> {
+			throw new IllegalStateException("Getter failed");
+		}, null));
+
+		JSONProvider<VABLambdaProvider> provider = new JSONProvider<>(new VABLambdaProvider(elements));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		provider.processBaSysBatchGet("", "[\"/working\", \"/failing\"]", outputStream);
+
+		String response = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+		List<Object> values = (List<Object>) new GSONTools(new DefaultTypeFactory()).deserialize(response);
+		assertEquals(2, values.size());
+		assertEquals(5, values.get(0));
+		assertEquals(false, ((Map<String, Object>) values.get(1)).get(Result.SUCCESS));
+	}
+
+	/**
+	 * Tests if values that providers complete later are sent once they are
+	 * available
+	 */
+	@Test
+	public void testDeferredValue() throws ProviderException {
+		CompletableFuture<Object> deferred = new CompletableFuture<>();
+		JSONProvider<VABMapProvider> provider = new JSONProvider<>(new VABMapProvider(new HashMap<>()) {
+			@Override
+			public Object getValue(String path) throws ProviderException {
+				return deferred;
+			}
+		});
+
+		CompletableFuture<Object> value = provider.retrieveBaSysValue("/deferred");
+		assertFalse(value.isDone());
+		deferred.complete(5);
+		assertTrue(value.isDone());
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		provider.sendBaSysValue(value, outputStream);
+		assertEquals(5, new GSONTools(new DefaultTypeFactory()).deserialize(new String(outputStream.toByteArray(), StandardCharsets.UTF_8)));
+
+		// Blocking requests wait for the value
+		outputStream = new ByteArrayOutputStream();
+		provider.processBaSysGet("/deferred", outputStream);
+		assertEquals(5, new GSONTools(new DefaultTypeFactory()).deserialize(new String(outputStream.toByteArray(), StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Tests if a value that is completed exceptionally is sent as exception
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFailedDeferredValue() {
+		CompletableFuture<Object> deferred = new CompletableFuture<>();
+		deferred.completeExceptionally(new ResourceNotFoundException("Not found"));
+		JSONProvider<VABMapProvider> provider = new JSONProvider<>(new VABMapProvider(new HashMap<>()) {
+			@Override
+			public Object getValue(String path) throws ProviderException {
+				return deferred;
+			}
+		});
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			provider.sendBaSysValue(provider.retrieveBaSysValue("/deferred"), outputStream);
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+
+		Map<String, Object> result = (Map<String, Object>) new GSONTools(new DefaultTypeFactory()).deserialize(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(false, result.get(Result.SUCCESS));
+	}
+
+	/**
+	 * Creates a provider with a container whose getter is only invoked while the
+	 * retrieved container is encoded and fails after a large value
+	 */
+	private static JSONProvider<VABLambdaProvider> createFailingContainerProvider() {
+		Map<String, Object> container = new LinkedHashMap<>();
+		// Large enough to be flushed to the stream before the next value is encoded
+		container.put("working", new String(new char[64 * 1024]).replace('\0', 'x'));
+		container.put("failing", VABLambdaProviderHelper.createSimple(() -> {
+			throw new IllegalStateException("Getter failed");
+		}, null));
+		Map<String, Object> elements = new HashMap<>();
+		elements.put("container", container);
+		return new JSONProvider<>(new VABLambdaProvider(elements, true));
+	}
+}
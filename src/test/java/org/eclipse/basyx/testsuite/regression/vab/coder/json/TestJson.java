@@ -27,11 +27,13 @@ package org.eclipse.basyx.testsuite.regression.vab.coder.json;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
@@ -50,7 +52,9 @@ import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.junit.Test;
 
 import com.google.common.collect.Sets;
+import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 
@@ -93,6 +97,32 @@ public class TestJson {
 		assertEquals(dec, deserialized);
 	}
 
+	/**
+	 * Tests if numbers at the boundaries of int and long are deserialized to the
+	 * smallest fitting type and if exponent notation is decoded as double
+	 */
+	@Test
+	public void testNumberBoundaries() {
+		testDeserializePrimitive(Integer.MAX_VALUE);
+		testDeserializePrimitive(Integer.MIN_VALUE);
+		testDeserializePrimitive(0);
+		testDeserializePrimitive(-12);
+		testDeserializePrimitive(Integer.MAX_VALUE + 1L);
+		testDeserializePrimitive(Integer.MIN_VALUE - 1L);
+		testDeserializePrimitive(999999999999999999L);
+		testDeserializePrimitive(-999999999999999999L);
+		testDeserializePrimitive(Long.MAX_VALUE);
+		testDeserializePrimitive(Long.MIN_VALUE);
+		testDeserializePrimitive(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+		testDeserializePrimitive(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE));
+		testDeserializePrimitive(-0.5);
+		testDeserializePrimitive(1.0E20);
+
+		assertEquals(0, tools.deserialize("-0"));
+		assertEquals(100000.0, tools.deserialize("1e5"));
+		assertEquals(-0.025, tools.deserialize("-2.5E-2"));
+	}
+
 	/**
 	 * Tests if a boolean is correctly (de-)serialized
 	 */
@@ -357,6 +387,79 @@ public class TestJson {
 		assertEquals(expectedObj.toString(), toolWithRemoveFlagOn.serialize(expected));
 	}
 
+	/**
+	 * Tests if serializing to a stream yields the same UTF-8 encoded JSON as
+	 * serializing to a string, including the HTML escaping done by Gson if null
+	 * values are removed
+	 */
+	@Test
+	public void testSerializeToStream() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("html", "<a href='x'>&</a>");
+		map.put("unicode", "\u00e4\u20ac");
+		map.put("null", null);
+		map.put("list", Arrays.asList(1, null, 2.5, true));
+
+		JsonObject expectedObj = new JsonObject();
+		expectedObj.add("html", new JsonPrimitive("<a href='x'>&</a>"));
+		expectedObj.add("unicode", new JsonPrimitive("\u00e4\u20ac"));
+		expectedObj.add("null", JsonNull.INSTANCE);
+		JsonArray expectedList = new JsonArray();
+		expectedList.add(1);
+		expectedList.add(JsonNull.INSTANCE);
+		expectedList.add(2.5);
+		expectedList.add(true);
+		expectedObj.add("list", expectedList);
+
+		GSONTools toolWithRemoveFlagOn = new GSONTools(new DefaultTypeFactory(), true, false);
+		assertEquals(expectedObj.toString(), serializeToStream(tools, map));
+		assertEquals(new Gson().toJson(expectedObj), serializeToStream(toolWithRemoveFlagOn, map));
+		assertEquals(tools.serialize(map), serializeToStream(tools, map));
+		assertEquals(toolWithRemoveFlagOn.serialize(map), serializeToStream(toolWithRemoveFlagOn, map));
+	}
+
+	private String serializeToStream(GSONTools tools, Object obj) throws IOException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		tools.serialize(obj, outStream);
+		return new String(outStream.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Tests if deserializing from a stream yields the same result as deserializing
+	 * from a string, including function markers, nulls and an empty body
+	 */
+	@Test
+	public void testDeserializeFromStream() throws IOException {
+		JsonObject functionObject = new JsonObject();
+		functionObject.add(GSONTools.BASYXFUNCTIONTYPE, new JsonPrimitive(GSONTools.OPERATION));
+
+		JsonArray list = new JsonArray();
+		list.add(1);
+		list.add(3000000000L);
+		list.add(new BigInteger("100000000000000000000"));
+		list.add(2.5);
+		list.add(JsonNull.INSTANCE);
+		list.add("\u00e4\u20ac");
+
+		JsonObject obj = new JsonObject();
+		obj.add("list", list);
+		obj.add("bool", new JsonPrimitive(true));
+		obj.add("null", JsonNull.INSTANCE);
+		obj.add("function", functionObject);
+		obj.add("empty", new JsonArray());
+
+		String json = obj.toString();
+		Object expected = tools.deserialize(json);
+		assertEquals(expected, deserializeFromStream(json));
+		assertEquals(GSONTools.BASYXINVOCABLE, deserializeFromStream(functionObject.toString()));
+		assertEquals(5, deserializeFromStream("5"));
+		assertEquals(null, deserializeFromStream(""));
+	}
+
+	private Object deserializeFromStream(String json) throws IOException {
+		return tools.deserialize(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
 	/**
 	 * Tests for an arbitrary primitive object if it is deserialized correctly
 	 * 
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.VABElementProxy;
+
+/**
+ * Snippet to test reading multiple values at once with a VABElementProxy
+ */
+public class MapBatchRead {
+
+	public static void test(VABConnectionManager connManager) {
+		// Connect to VAB element with ID "urn:fhg:es.iese:vab:1:1:simplevabelement"
+		VABElementProxy connVABElement = connManager.connectToVABElement("urn:fhg:es.iese:vab:1:1:simplevabelement");
+
+		// Test reading different data types in the requested order
+		List<Object> values = connVABElement.getValues(Arrays.asList("/primitives/integer", "primitives/string", "special/null", "primitives"));
+		assertEquals(4, values.size());
+		assertEquals(123, values.get(0));
+		assertEquals("TestValue", values.get(1));
+		assertNull(values.get(2));
+		assertEquals(3, ((Map<?, ?>) values.get(3)).size());
+
+		// Paths are relative to deep proxies
+		VABElementProxy primitives = connVABElement.getDeepProxy("primitives");
+		assertEquals(Arrays.asList(123, 3.14d), primitives.getValues(Arrays.asList("integer", "double")));
+
+		// Empty batch
+		assertEquals(0, connVABElement.getValues(Arrays.asList()).size());
+
+		// Non-existing element
+		try {
+			connVABElement.getValues(Arrays.asList("primitives/integer", "unknown/x"));
+			fail();
+		} catch (ResourceNotFoundException e) {
+		}
+	}
+}
@@ -48,6 +48,11 @@ public abstract class TestProvider {
 		MapRead.test(getConnectionManager());
 	}
 
+	@Test
+	public void testMapBatchRead() {
+		MapBatchRead.test(getConnectionManager());
+	}
+
 	@Test
 	public void testMapUpdate() {
 		MapUpdate.test(getConnectionManager());
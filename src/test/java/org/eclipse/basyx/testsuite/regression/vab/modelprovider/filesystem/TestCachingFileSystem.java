@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider.filesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.vab.modelprovider.filesystem.filesystem.CachingFileSystem;
+import org.eclipse.basyx.vab.modelprovider.filesystem.filesystem.FileType;
+import org.eclipse.basyx.vab.modelprovider.filesystem.filesystem.GenericFileSystem;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching and delayed writing of the {@link CachingFileSystem}
+ */
+public class TestCachingFileSystem {
+	// Lower case only, since the GenericFileSystem escapes upper case characters
+	private static final String ROOT = "regressiontest/cachingfs";
+	private static final String FILE = ROOT + "/file";
+
+	private AtomicInteger reads = new AtomicInteger();
+	private AtomicInteger writes = new AtomicInteger();
+	private GenericFileSystem countingFileSystem = new GenericFileSystem() {
+		@Override
+		public String readFile(String path) throws IOException {
+			reads.incrementAndGet();
+			return super.readFile(path);
+		}
+
+		@Override
+		public void writeFile(String path, String content) throws IOException {
+			writes.incrementAndGet();
+			super.writeFile(path, content);
+		}
+	};
+
+	@Before
+	public void setUp() throws IOException {
+		GenericFileSystem fileSystem = new GenericFileSystem();
+		fileSystem.deleteDirectory(ROOT);
+		fileSystem.createDirectory(ROOT);
+	}
+
+	@Test
+	public void testReadsAreCached() throws IOException {
+		countingFileSystem.writeFile(FILE, "a");
+		CachingFileSystem cachingFileSystem = new CachingFileSystem(countingFileSystem);
+
+		assertEquals("a", cachingFileSystem.readFile(FILE));
+		assertEquals("a", cachingFileSystem.readFile(FILE));
+		assertEquals(1, reads.get());
+	}
+
+	@Test
+	public void testWritesAreCoalesced() throws IOException {
+		CachingFileSystem cachingFileSystem = new CachingFileSystem(countingFileSystem, 60000, 16);
+
+		cachingFileSystem.writeFile(FILE, "a");
+		cachingFileSystem.writeFile(FILE, "b");
+		assertEquals(0, writes.get());
+		assertEquals(FileType.DATA, cachingFileSystem.getType(FILE));
+		assertEquals("b", cachingFileSystem.readFile(FILE));
+		assertTrue(cachingFileSystem.readDirectory(ROOT).stream().anyMatch(file -> file.getName().equals(FILE)));
+
+		cachingFileSystem.flush();
+		assertEquals(1, writes.get());
+		assertEquals("b", new GenericFileSystem().readFile(FILE));
+
+		// Unchanged content is not written again
+		cachingFileSystem.writeFile(FILE, "b");
+		cachingFileSystem.flush();
+		assertEquals(1, writes.get());
+	}
+
+	@Test
+	public void testDeletedDirectoryIsNotWritten() throws IOException {
+		CachingFileSystem cachingFileSystem = new CachingFileSystem(countingFileSystem, 60000, 16);
+		cachingFileSystem.createDirectory(ROOT + "/dir");
+		cachingFileSystem.writeFile(ROOT + "/dir/file", "a");
+		cachingFileSystem.deleteDirectory(ROOT + "/dir");
+		cachingFileSystem.close();
+
+		assertEquals(0, writes.get());
+		assertEquals(null, cachingFileSystem.getType(ROOT + "/dir"));
+	}
+
+	@Test
+	public void testModificationIsDetected() throws IOException {
+		countingFileSystem.writeFile(FILE, "a");
+		CachingFileSystem cachingFileSystem = new CachingFileSystem(countingFileSystem);
+		assertEquals("a", cachingFileSystem.readFile(FILE));
+
+		new GenericFileSystem().writeFile(FILE, "b");
+		Files.setLastModifiedTime(Paths.get(FILE), FileTime.fromMillis(Files.getLastModifiedTime(Paths.get(FILE)).toMillis() + 10000));
+		assertEquals("b", cachingFileSystem.readFile(FILE));
+	}
+}
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.testsuite.regression.vab.protocol.http.TestsuiteDirectory;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.journal.JournaledModelProvider;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.api.ConnectorFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the JournaledModelProvider according to the test cases in the snippet
+ * package and its recovery from the journal
+ */
+public class TestJournaledModelProvider extends TestProvider {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private VABConnectionManager connManager;
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		if (connManager == null) {
+			connManager = new VABConnectionManager(new TestsuiteDirectory(), new ConnectorFactory() {
+				@Override
+				protected IModelProvider createProvider(String addr) {
+					String directory = getDirectory("provider/" + VABPathTools.encodePathElement(addr));
+					deleteDirectory(directory);
+					return new JournaledModelProvider(new VABMapProvider(new SimpleVABElement()), directory);
+				}
+			});
+		}
+		return connManager;
+	}
+
+	@Test
+	public void testRecovery() throws IOException {
+		String directory = getDirectory("recovery");
+
+		JournaledModelProvider provider = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		provider.setValue("/a", 1);
+		provider.createValue("/b", "test");
+		provider.createValue("/list", 3);
+		provider.deleteValue("/list", 1);
+		provider.deleteValue("/b");
+		provider.close();
+
+		JournaledModelProvider recovered = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		assertEquals(1, recovered.getValue("/a"));
+		assertEquals(5, recovered.getSequence());
+		assertFalse(((Map<?, ?>) recovered.getValue("")).containsKey("b"));
+		assertEquals(2, ((Collection<?>) recovered.getValue("/list")).size());
+		assertTrue(((Collection<?>) recovered.getValue("/list")).contains(3));
+		recovered.close();
+	}
+
+	@Test
+	public void testRecoveryFromSnapshot() throws IOException {
+		String directory = getDirectory("snapshot");
+
+		JournaledModelProvider provider = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		provider.setValue("/a", 1);
+		provider.snapshot();
+		provider.setValue("/a", 2);
+		provider.close();
+
+		// Only the snapshot and the segment after it are left
+		assertTrue(Files.exists(Paths.get(directory, "snapshot.json")));
+		assertEquals(1, listSegments(directory).size());
+
+		JournaledModelProvider recovered = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		assertEquals(2, recovered.getValue("/a"));
+		assertEquals(2, recovered.getSequence());
+		recovered.close();
+	}
+
+	@Test
+	public void testIncompleteRecordIsIgnored() throws IOException {
+		String directory = getDirectory("incomplete");
+
+		JournaledModelProvider provider = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		provider.setValue("/a", 1);
+		provider.close();
+
+		// Simulate a crash while appending a record
+		Files.write(listSegments(directory).get(0), "{\"sequence\":2,\"operation\":\"set\",\"pa".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		JournaledModelProvider recovered = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		assertEquals(1, recovered.getValue("/a"));
+		recovered.setValue("/a", 3);
+		recovered.close();
+
+		recovered = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		assertEquals(3, recovered.getValue("/a"));
+		recovered.close();
+	}
+
+	@Test
+	public void testConcurrentWrites() throws Exception {
+		String directory = getDirectory("concurrent");
+
+		JournaledModelProvider provider = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 50);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			String key = "/t" + i;
+			provider.createValue(key, 0);
+			Thread thread = new Thread(() -> {
+				for (int j = 1; j <= 100; j++) {
+					provider.setValue(key, j);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		provider.close();
+
+		JournaledModelProvider recovered = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(100, recovered.getValue("/t" + i));
+		}
+		assertEquals(404, recovered.getSequence());
+		recovered.close();
+	}
+
+	@Test
+	public void testInitialModelIsRecovered() throws IOException {
+		String directory = getDirectory("initial");
+
+		JournaledModelProvider provider = new JournaledModelProvider(new VABMapProvider(createModel()), directory, 0);
+		provider.close();
+
+		// The journal is not replayed onto a different model passed on restart
+		Map<String, Object> other = createModel();
+		other.put("a", 5);
+		JournaledModelProvider recovered = new JournaledModelProvider(new VABMapProvider(other), directory, 0);
+		assertEquals(0, recovered.getValue("/a"));
+		assertEquals(0, recovered.getSequence());
+		recovered.close();
+	}
+
+	@Test
+	public void testFunctionsAreNotJournaled() throws IOException {
+		String directory = getDirectory("functions");
+
+		JournaledModelProvider provider = new JournaledModelProvider(new VABMapProvider(createModelWithFunction()), directory, 0);
+		provider.setValue("/a", 1);
+		Map<String, Object> created = new LinkedHashMap<>();
+		created.put("value", 2);
+		created.put("function", (Supplier<Object>) () -> 3);
+		provider.createValue("/created", created);
+		provider.close();
+
+		for (Path file : listFiles(directory)) {
+			assertFalse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("_basyx"));
+		}
+
+		// The functions of the initial model are restored, functions written later
+		// are not
+		JournaledModelProvider recovered = new JournaledModelProvider(new VABMapProvider(createModelWithFunction()), directory, 0);
+		assertEquals(1, recovered.getValue("/a"));
+		assertEquals(7, recovered.invokeOperation("/function"));
+		assertEquals(2, recovered.getValue("/created/value"));
+		assertFalse(((Map<?, ?>) recovered.getValue("/created")).containsKey("function"));
+		recovered.close();
+	}
+
+	private String getDirectory(String name) {
+		return new File(folder.getRoot(), name).getPath();
+	}
+
+	private static Map<String, Object> createModelWithFunction() {
+		Map<String, Object> model = createModel();
+		model.put("function", (Supplier<Object>) () -> 7);
+		return model;
+	}
+
+	private static Map<String, Object> createModel() {
+		Map<String, Object> model = new LinkedHashMap<>();
+		model.put("a", 0);
+		List<Object> list = new ArrayList<>();
+		list.add(1);
+		list.add(2);
+		model.put("list", list);
+		return model;
+	}
+
+	private static List<Path> listSegments(String directory) throws IOException {
+		return listFiles(directory).stream().filter(p -> p.getFileName().toString().endsWith(".log")).collect(Collectors.toList());
+	}
+
+	private static List<Path> listFiles(String directory) throws IOException {
+		try (Stream<Path> files = Files.list(Paths.get(directory))) {
+			return files.collect(Collectors.toList());
+		}
+	}
+
+	private static void deleteDirectory(String directory) {
+		Path path = Paths.get(directory);
+		if (!Files.exists(path)) {
+			return;
+		}
+		try (Stream<Path> files = Files.walk(path)) {
+			files.sorted((p1, p2) -> p2.compareTo(p1)).forEach(p -> p.toFile().delete());
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -72,8 +72,15 @@ public class TestLambdaProvider extends TestProvider {
 		return connManager;
 	}
 
+	/**
+	 * Creates the provider under test for the given lambda elements
+	 */
+	protected IModelProvider createLambdaProvider(Map<String, Object> elements) {
+		return new VABLambdaProvider(elements);
+	}
+
 	@SuppressWarnings("unchecked")
-	private static IModelProvider buildProvider() {
+	private IModelProvider buildProvider() {
 		// Create primitive lambda elements
 		LinkedHashMap<String, Object> primitives = (LinkedHashMap<String, Object>) rootElement.get("primitives");
 		// Has no hidden setter (==null), so value should be completely replaced when
@@ -144,7 +151,6 @@ public class TestLambdaProvider extends TestProvider {
 		// Replace actual map property with lambda accessor
 		structureElement.put("map", mapAccessor);
 
-		VABLambdaProvider provider = new VABLambdaProvider(rootAccessor);
-		return provider;
+		return createLambdaProvider(rootAccessor);
 	}
 }
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.modelprovider.lambda;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProvider;
+import org.eclipse.basyx.vab.modelprovider.lambda.VABLambdaProviderHelper;
+import org.junit.Test;
+
+/**
+ * Tests the functionality of the VABLambdaProvider with lazy resolution
+ * according to the test cases in the snippet package
+ */
+public class TestLambdaProviderLazy extends TestLambdaProvider {
+
+	@Override
+	protected IModelProvider createLambdaProvider(Map<String, Object> elements) {
+		return new VABLambdaProvider(elements, true);
+	}
+
+	/**
+	 * Tests that hidden getters are only invoked when their value is accessed
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testLazyResolution() {
+		AtomicInteger firstCalls = new AtomicInteger();
+		AtomicInteger secondCalls = new AtomicInteger();
+
+		Map<String, Object> root = new HashMap<>();
+		root.put("first", VABLambdaProviderHelper.createSimple((Supplier<Object>) () -> {
+			return firstCalls.incrementAndGet();
+		}, (Consumer<Object>) null));
+		List<Object> list = new ArrayList<>();
+		list.add(VABLambdaProviderHelper.createSimple((Supplier<Object>) () -> {
+			return secondCalls.incrementAndGet();
+		}, (Consumer<Object>) null));
+		root.put("second", list);
+
+		IModelProvider provider = new VABLambdaProvider(root, true);
+		Map<String, Object> value = (Map<String, Object>) provider.getValue("");
+		assertEquals(0, firstCalls.get());
+		assertEquals(0, secondCalls.get());
+
+		// Access to a value only resolves this value, and only once
+		assertEquals(1, value.get("first"));
+		assertEquals(1, value.get("first"));
+		assertEquals(1, firstCalls.get());
+		assertEquals(0, secondCalls.get());
+
+		List<Object> second = (List<Object>) value.get("second");
+		assertEquals(0, secondCalls.get());
+		assertEquals(1, second.get(0));
+		assertEquals(1, secondCalls.get());
+
+		// Modifications of the retrieved value do not affect the model
+		value.remove("first");
+		second.clear();
+		assertFalse(value.containsKey("first"));
+		assertTrue(second.isEmpty());
+		assertTrue(root.containsKey("first"));
+		assertEquals(1, list.size());
+	}
+
+	/**
+	 * Tests that the retrieved value is not affected by later modifications of
+	 * the model
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testModelModifiedAfterRetrieval() {
+		Map<String, Object> root = new HashMap<>();
+		for (int i = 0; i < 10; i++) {
+			root.put("element" + i, i);
+		}
+
+		IModelProvider provider = new VABLambdaProvider(root, true);
+		Map<String, Object> value = (Map<String, Object>) provider.getValue("");
+
+		int count = 0;
+		for (Entry<String, Object> entry : value.entrySet()) {
+			// Would fail the iteration if it was backed by the model
+			root.put("added" + count, count);
+			root.remove("element" + count);
+			assertEquals(Integer.parseInt(entry.getKey().substring("element".length())), entry.getValue());
+			count++;
+		}
+		assertEquals(10, count);
+		assertEquals(10, value.size());
+		assertNull(value.get("added0"));
+	}
+
+	/**
+	 * Tests that a getter is invoked only once, even if its value is accessed
+	 * concurrently
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testConcurrentResolution() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		Map<String, Object> root = new HashMap<>();
+		for (int i = 0; i < 50; i++) {
+			root.put("element" + i, VABLambdaProviderHelper.createSimple((Supplier<Object>) () -> {
+				calls.incrementAndGet();
+				return null;
+			}, (Consumer<Object>) null));
+		}
+
+		IModelProvider provider = new VABLambdaProvider(root, true);
+		Map<String, Object> value = (Map<String, Object>) provider.getValue("");
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (Entry<String, Object> entry : value.entrySet()) {
+						assertNull(entry.getValue());
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(50, calls.get());
+	}
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+
+/**
+ * Snippet to test if concurrent callers sharing a provider each receive the
+ * response to their own request. The provider has to serve a
+ * {@link SimpleVABElement}.
+ */
+public class ConcurrentCalls {
+	public static void test(IModelProvider provider) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				String path = i % 2 == 0 ? "/primitives/integer" : "/primitives/string";
+				results.add(executor.submit(() -> provider.getValue(path)));
+			}
+
+			for (int i = 0; i < results.size(); i++) {
+				Object expected = i % 2 == 0 ? 123 : "TestValue";
+				assertEquals(expected, results.get(i).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectorFactory;
+import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxNIOTCPServer;
+import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test VAB using the BaSyx protocol served by the selector based server. This
+ * is an integration test
+ */
+public class TestVABBaSyxNIOTCP extends TestProvider {
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory_BaSyxNative(), new BaSyxConnectorFactory());
+
+	private BaSyxNIOTCPServer<IModelProvider> server;
+
+	@Before
+	public void startServer() {
+		server = new BaSyxNIOTCPServer<>(new VABMapProvider(new SimpleVABElement()));
+		server.start();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+
+	/**
+	 * Tests if pipelined requests of concurrent callers are answered in order
+	 */
+	@Test
+	public void testPipelinedCalls() throws Exception {
+		BaSyxConnectorFactory pooledFactory = new BaSyxConnectorFactory(2);
+		try {
+			ConcurrentCalls.test(pooledFactory.create("basyx://localhost:6998"));
+		} finally {
+			pooledFactory.closeConnections();
+		}
+	}
+
+	/**
+	 * Tests if frames that arrive in several fragments are reassembled
+	 */
+	@Test
+	public void testPartialFrames() throws Exception {
+		byte[] call = createGetCall("/primitives/integer");
+		try (Socket socket = new Socket("localhost", 6998)) {
+			socket.setTcpNoDelay(true);
+			OutputStream out = socket.getOutputStream();
+
+			// Split header and payload of the frame
+			for (byte b : call) {
+				out.write(b);
+				out.flush();
+				Thread.sleep(5);
+			}
+			assertEquals("123", readResult(socket));
+
+			// Send one and a half frames, then the rest
+			out.write(call);
+			out.write(call, 0, 6);
+			out.flush();
+			Thread.sleep(50);
+			out.write(call, 6, call.length - 6);
+			out.flush();
+			assertEquals("123", readResult(socket));
+			assertEquals("123", readResult(socket));
+		}
+	}
+
+	/**
+	 * Tests if reading from a connection is resumed after it has been paused due
+	 * to too many unprocessed frames, and that no frame is lost
+	 */
+	@Test
+	public void testQueuedFramesLimit() throws Exception {
+		int frameCount = BaSyxNIOTCPServer.MAX_QUEUED_FRAMES * 3;
+		Map<String, Object> values = new HashMap<>();
+		for (int i = 0; i < frameCount; i++) {
+			values.put(Integer.toString(i), i);
+		}
+
+		// Blocks all workers until the client has sent all frames
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger processed = new AtomicInteger();
+		VABMapProvider blockingProvider = new VABMapProvider(values) {
+			@Override
+			public Object getValue(String path) throws ProviderException {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				processed.incrementAndGet();
+				return super.getValue(path);
+			}
+		};
+
+		BaSyxNIOTCPServer<IModelProvider> blockingServer = new BaSyxNIOTCPServer<>(blockingProvider, 6997);
+		blockingServer.start();
+		try (Socket socket = new Socket("localhost", 6997)) {
+			socket.setSoTimeout(10000);
+			OutputStream out = socket.getOutputStream();
+
+			// Exceed the limit, so that the server pauses reading from the connection
+			int firstBatch = BaSyxNIOTCPServer.MAX_QUEUED_FRAMES + 1;
+			for (int i = 0; i < firstBatch; i++) {
+				out.write(createGetCall("/" + i));
+			}
+			out.flush();
+			Thread.sleep(100);
+
+			// These frames can only be received after reading has been resumed
+			for (int i = firstBatch; i < frameCount; i++) {
+				out.write(createGetCall("/" + i));
+			}
+			out.flush();
+			Thread.sleep(100);
+			assertEquals(0, processed.get());
+			release.countDown();
+
+			for (int i = 0; i < frameCount; i++) {
+				assertEquals(Integer.toString(i), readResult(socket));
+			}
+			assertEquals(frameCount, processed.get());
+		} finally {
+			release.countDown();
+			blockingServer.stop();
+		}
+	}
+
+	/**
+	 * Tests if a connection announcing an invalid frame size is closed without
+	 * affecting the other connections
+	 */
+	@Test
+	public void testInvalidFrameSize() throws Exception {
+		server.stop();
+		server = new BaSyxNIOTCPServer<>(new VABMapProvider(new SimpleVABElement()));
+		server.setMaxFrameSize(1024);
+		server.start();
+
+		try (Socket other = new Socket("localhost", 6998)) {
+			other.setSoTimeout(10000);
+			for (int frameSize : new int[] { -1, Integer.MIN_VALUE, 1025, Integer.MAX_VALUE }) {
+				try (Socket socket = new Socket("localhost", 6998)) {
+					socket.setSoTimeout(10000);
+					byte[] header = new byte[4];
+					CoderTools.setInt32(header, 0, frameSize);
+					OutputStream out = socket.getOutputStream();
+					out.write(header);
+					out.flush();
+
+					// The server closes the connection
+					assertEquals(-1, socket.getInputStream().read());
+				}
+			}
+
+			other.getOutputStream().write(createGetCall("/primitives/integer"));
+			other.getOutputStream().flush();
+			assertEquals("123", readResult(other));
+		}
+	}
+
+	/**
+	 * Creates a get call frame including its length header
+	 */
+	private static byte[] createGetCall(String path) {
+		byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+		byte[] call = new byte[4 + 1 + 4 + pathBytes.length];
+		CoderTools.setInt32(call, 0, 1 + 4 + pathBytes.length);
+		call[4] = VABBaSyxTCPInterface.BASYX_GET;
+		CoderTools.setInt32(call, 5, pathBytes.length);
+		System.arraycopy(pathBytes, 0, call, 9, pathBytes.length);
+		return call;
+	}
+
+	/**
+	 * Reads the next response frame and returns its serialized result
+	 */
+	private static String readResult(Socket socket) throws IOException {
+		DataInputStream in = new DataInputStream(socket.getInputStream());
+		byte[] header = new byte[4];
+		in.readFully(header);
+		byte[] frame = new byte[CoderTools.getInt32(header, 0)];
+		in.readFully(frame);
+		return new String(frame, 1 + 4, CoderTools.getInt32(frame, 1), StandardCharsets.UTF_8);
+	}
+}
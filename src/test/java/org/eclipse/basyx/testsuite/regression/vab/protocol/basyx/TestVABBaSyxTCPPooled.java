@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.SimpleVABElement;
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
+import org.eclipse.basyx.vab.modelprovider.async.BlockingModelProviderAdapter;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.eclipse.basyx.vab.protocol.basyx.CoderTools;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectionPool;
+import org.eclipse.basyx.vab.protocol.basyx.connector.BaSyxConnectorFactory;
+import org.eclipse.basyx.vab.protocol.basyx.server.VABBaSyxTCPInterface;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test VAB using the BaSyx protocol with pooled, pipelined connections. This is
+ * an integration test
+ */
+public class TestVABBaSyxTCPPooled extends TestProvider {
+	private BaSyxConnectorFactory connectorFactory = new BaSyxConnectorFactory(2);
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory_BaSyxNative(), connectorFactory);
+
+	@Rule
+	public VABTCPServerResource res = new VABTCPServerResource(new VABMapProvider(new SimpleVABElement()));
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+
+	@After
+	public void closeConnections() {
+		connectorFactory.closeConnections();
+	}
+
+	/**
+	 * Tests if concurrent callers that share the pooled connections each receive
+	 * the response to their own request
+	 */
+	@Test
+	public void testConcurrentCalls() throws Exception {
+		ConcurrentCalls.test(connectorFactory.create("basyx://localhost:6998"));
+	}
+
+	/**
+	 * Tests if asynchronous calls that are all outstanding at the same time are
+	 * completed with the response to their own request
+	 */
+	@Test
+	public void testAsyncCalls() {
+		IAsyncModelProvider provider = (IAsyncModelProvider) connectorFactory.create("basyx://localhost:6998");
+
+		List<CompletableFuture<Object>> results = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			String path = i % 2 == 0 ? "/primitives/integer" : "/primitives/string";
+			results.add(provider.getValueAsync(path));
+		}
+
+		for (int i = 0; i < results.size(); i++) {
+			Object expected = i % 2 == 0 ? 123 : "TestValue";
+			assertEquals(expected, results.get(i).join());
+		}
+
+		provider.setValueAsync("/primitives/integer", 7).join();
+		assertEquals(7, provider.getValueAsync("/primitives/integer").join());
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void testAsyncException() {
+		IAsyncModelProvider provider = (IAsyncModelProvider) connectorFactory.create("basyx://localhost:6998");
+		BlockingModelProviderAdapter.await(provider.getValueAsync("/unknown"));
+	}
+
+	/**
+	 * Tests if a get call is resent on a new channel if the server closed the
+	 * channel without answering, e.g. because the connection has been idle
+	 */
+	@Test
+	public void testResendAfterServerClosedChannel() throws Exception {
+		try (ServerSocket server = new ServerSocket(0)) {
+			Thread echoServer = new Thread(() -> {
+				try {
+					// Drop the first connection without answering
+					server.accept().close();
+
+					// Echo the frame received on the second connection
+					try (Socket socket = server.accept()) {
+						DataInputStream in = new DataInputStream(socket.getInputStream());
+						byte[] header = new byte[4];
+						in.readFully(header);
+						byte[] frame = new byte[CoderTools.getInt32(header, 0)];
+						in.readFully(frame);
+
+						OutputStream out = socket.getOutputStream();
+						out.write(header);
+						out.write(frame);
+						out.flush();
+					}
+				} catch (Exception e) {
+					// Test fails due to missing response
+				}
+			});
+			echoServer.setDaemon(true);
+			echoServer.start();
+
+			BaSyxConnectionPool pool = new BaSyxConnectionPool(new InetSocketAddress("localhost", server.getLocalPort()), 1);
+			try {
+				byte[] call = createCall(VABBaSyxTCPInterface.BASYX_GET);
+				assertArrayEquals(Arrays.copyOfRange(call, 4, call.length), pool.invoke(call));
+			} finally {
+				pool.close();
+			}
+		}
+	}
+
+	/**
+	 * Tests if a modifying call fails instead of being resent if the server
+	 * closed the channel without answering, since it may have been applied
+	 * before
+	 */
+	@Test
+	public void testNoResendOfModifyingCall() throws Exception {
+		try (ServerSocket server = new ServerSocket(0)) {
+			CountDownLatch secondConnection = new CountDownLatch(1);
+			Thread closingServer = new Thread(() -> {
+				try {
+					// Read the call and close the connection without answering
+					try (Socket socket = server.accept()) {
+						DataInputStream in = new DataInputStream(socket.getInputStream());
+						byte[] frame = new byte[4 + 5];
+						in.readFully(frame);
+					}
+					server.accept().close();
+					secondConnection.countDown();
+				} catch (Exception e) {
+					// Server socket closed at the end of the test
+				}
+			});
+			closingServer.setDaemon(true);
+			closingServer.start();
+
+			BaSyxConnectionPool pool = new BaSyxConnectionPool(new InetSocketAddress("localhost", server.getLocalPort()), 1);
+			try {
+				pool.invoke(createCall(VABBaSyxTCPInterface.BASYX_SET));
+				fail();
+			} catch (IOException e) {
+				// Expected
+			} finally {
+				pool.close();
+			}
+			assertFalse(secondConnection.await(200, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	private static byte[] createCall(byte command) {
+		byte[] call = new byte[4 + 5];
+		CoderTools.setInt32(call, 0, 5);
+		CoderTools.setInt8(call, 4, command);
+		CoderTools.setInt32(call, 5, 0);
+		return call;
+	}
+}
@@ -24,6 +24,7 @@
  ******************************************************************************/
 package org.eclipse.basyx.testsuite.regression.vab.protocol.basyx;
 
+import org.eclipse.basyx.vab.coder.ICodec;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.basyx.server.BaSyxTCPServer;
 import org.junit.rules.ExternalResource;
@@ -38,18 +39,28 @@ import org.junit.rules.ExternalResource;
  */
 public class VABTCPServerResource extends ExternalResource {
 	private IModelProvider provider;
+	private ICodec binaryCodec;
 	private BaSyxTCPServer<IModelProvider> server;
 
 	/**
 	 * Constructor taking the provider of the requested server resource
 	 */
 	public VABTCPServerResource(IModelProvider provider) {
+		this(provider, null);
+	}
+
+	/**
+	 * Constructor for a server that additionally accepts binary encoded frames
+	 */
+	public VABTCPServerResource(IModelProvider provider, ICodec binaryCodec) {
 		this.provider = provider;
+		this.binaryCodec = binaryCodec;
 	}
 
 	@Override
 	protected void before() {
 		server = new BaSyxTCPServer<IModelProvider>(provider);
+		server.setBinaryCodec(binaryCodec);
 		server.start();
 	}
 
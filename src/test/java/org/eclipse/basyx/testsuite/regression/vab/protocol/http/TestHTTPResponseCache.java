@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPResponseCache;
+import org.junit.Test;
+
+/**
+ * Tests the size bound of the HTTPResponseCache
+ */
+public class TestHTTPResponseCache {
+
+	/**
+	 * Tests if the least recently used responses are evicted once the maximum
+	 * size is exceeded
+	 */
+	@Test
+	public void testEviction() {
+		// Each entry takes 2 * (1 + 1 + 8) = 20 bytes
+		HTTPResponseCache cache = new HTTPResponseCache(60);
+		cache.put("a", "1", "aaaaaaaa");
+		cache.put("b", "1", "bbbbbbbb");
+		cache.put("c", "1", "cccccccc");
+		assertEquals(60, cache.getSize());
+
+		// Accessing a makes b the least recently used entry
+		assertNotNull(cache.get("a"));
+		cache.put("d", "1", "dddddddd");
+
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("a"));
+		assertNotNull(cache.get("c"));
+		assertEquals("dddddddd", cache.get("d").getBody());
+		assertEquals(60, cache.getSize());
+	}
+
+	/**
+	 * Tests if replacing and removing responses keeps the size consistent
+	 */
+	@Test
+	public void testReplaceAndRemove() {
+		HTTPResponseCache cache = new HTTPResponseCache(1000);
+		cache.put("a", "1", "aaaaaaaa");
+		cache.put("a", "2", "aa");
+		assertEquals("2", cache.get("a").getETag());
+		assertEquals(8, cache.getSize());
+
+		cache.remove("a");
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getSize());
+	}
+
+	/**
+	 * Tests if responses larger than the cache are not cached
+	 */
+	@Test
+	public void testTooLarge() {
+		HTTPResponseCache cache = new HTTPResponseCache(10);
+		cache.put("a", "1", "aaaaaaaa");
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getSize());
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPResponseCache;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test VAB using HTTP protocol with compressed responses and conditional GET
+ * requests. This is an integration test
+ */
+public class TestVABHTTPConditionalGet extends TestProvider {
+	private static final String SIMPLE_VAB_URL = "http://localhost:8080/basys.sdk/Testsuite/SimpleVAB/";
+	private static final String INTEGER_URL = SIMPLE_VAB_URL + "primitives/integer";
+
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory(), createConnectorFactory());
+
+	/**
+	 * Makes sure Tomcat Server is started after before each test case
+	 */
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir")).addServletMapping("/Testsuite/SimpleVAB/*", createServlet()));
+
+	private Client client = ClientBuilder.newClient();
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+
+	@Test
+	public void testCompressedResponse() throws IOException {
+		byte[] uncompressed = client.target(SIMPLE_VAB_URL).request(MediaType.APPLICATION_JSON).get(byte[].class);
+
+		Response rsp = client.target(SIMPLE_VAB_URL).request(MediaType.APPLICATION_JSON).header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip").get();
+		assertEquals("gzip", rsp.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+
+		try (InputStream in = new GZIPInputStream(rsp.readEntity(InputStream.class))) {
+			assertArrayEquals(uncompressed, in.readAllBytes());
+		}
+	}
+
+	@Test
+	public void testRejectedEncoding() {
+		Response rsp = client.target(SIMPLE_VAB_URL).request(MediaType.APPLICATION_JSON).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0").get();
+		assertNull(rsp.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	public void testNotModified() {
+		Response rsp = client.target(INTEGER_URL).request(MediaType.APPLICATION_JSON).get();
+		String eTag = rsp.getHeaderString(HttpHeaders.ETAG);
+		assertNotNull(eTag);
+
+		Response conditional = client.target(INTEGER_URL).request(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag).get();
+		assertEquals(304, conditional.getStatus());
+
+		// Modifying the value changes the ETag
+		client.target(INTEGER_URL).request(MediaType.APPLICATION_JSON).put(Entity.json("7"));
+
+		Response modified = client.target(INTEGER_URL).request(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag).get();
+		assertEquals(200, modified.getStatus());
+		assertNotEquals(eTag, modified.getHeaderString(HttpHeaders.ETAG));
+		assertEquals("7", modified.readEntity(String.class));
+	}
+
+	private static HTTPConnectorFactory createConnectorFactory() {
+		HTTPConnectorFactory factory = new HTTPConnectorFactory();
+		factory.setResponseCache(new HTTPResponseCache());
+		return factory;
+	}
+
+	private static SimpleVABElementServlet createServlet() {
+		SimpleVABElementServlet servlet = new SimpleVABElementServlet();
+		servlet.setETagEnabled(true);
+		servlet.setCompressionThreshold(0);
+		return servlet;
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.protocol.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.basyx.testsuite.regression.vab.modelprovider.TestProvider;
+import org.eclipse.basyx.vab.coder.json.connector.JSONConnector;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.manager.VABConnectionManager;
+import org.eclipse.basyx.vab.modelprovider.api.IAsyncModelProvider;
+import org.eclipse.basyx.vab.modelprovider.async.BlockingModelProviderAdapter;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnector;
+import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
+import org.eclipse.basyx.vab.protocol.http.connector.SharedHTTPClient;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test VAB using HTTP protocol with a client shared by all connectors. This is
+ * an integration test
+ */
+public class TestVABHTTPSharedClient extends TestProvider {
+	protected VABConnectionManager connManager = new VABConnectionManager(new TestsuiteDirectory(), new HTTPConnectorFactory(new SharedHTTPClient()));
+
+	/**
+	 * Makes sure Tomcat Server is started after before each test case
+	 */
+	@Rule
+	public AASHTTPServerResource res = new AASHTTPServerResource(new BaSyxContext("/basys.sdk", System.getProperty("java.io.tmpdir")).addServletMapping("/Testsuite/SimpleVAB/*", new SimpleVABElementServlet()));
+
+	@Override
+	protected VABConnectionManager getConnectionManager() {
+		return connManager;
+	}
+
+	@Test
+	public void testRoute() {
+		assertEquals("http://localhost:8080", SharedHTTPClient.getRoute("http://localhost:8080/basys.sdk/Testsuite/SimpleVAB"));
+	}
+
+	@Test
+	public void testConnectionLimit() {
+		SharedHTTPClient client = new SharedHTTPClient(1, 10, 10);
+		String route = SharedHTTPClient.getRoute("http://localhost:8080/");
+
+		client.acquire(route);
+		try {
+			client.acquire(route);
+			throw new AssertionError("Acquired more connections than allowed");
+		} catch (ProviderException e) {
+			// Expected
+		}
+
+		client.release(route);
+		client.acquire(route);
+		client.release(route);
+		client.close();
+	}
+
+	/**
+	 * Tests if long polls are limited separately from the other requests and if
+	 * waiting for a long poll permit does not block
+	 */
+	@Test
+	public void testLongPollLimit() {
+		SharedHTTPClient client = new SharedHTTPClient(1, 100, 100, 1);
+		String route = SharedHTTPClient.getRoute("http://localhost:8080/");
+
+		client.acquireLongPoll(route);
+		client.acquire(route);
+		client.release(route);
+
+		CompletableFuture<Void> waiting = client.acquireLongPollAsync(route);
+		assertFalse(waiting.isDone());
+		client.releaseLongPoll(route);
+		waiting.join();
+
+		try {
+			client.acquireLongPollAsync(route).join();
+			throw new AssertionError("Acquired more long poll permits than allowed");
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof ProviderException);
+		}
+
+		// Timed out waits do not take the permit
+		client.releaseLongPoll(route);
+		client.acquireLongPoll(route);
+		client.releaseLongPoll(route);
+		client.close();
+	}
+
+	@Test
+	public void testAsyncCalls() {
+		SharedHTTPClient client = new SharedHTTPClient();
+		IAsyncModelProvider provider = new JSONConnector(new HTTPConnector("http://localhost:8080/basys.sdk/Testsuite/SimpleVAB", client));
+
+		CompletableFuture<Object> integer = provider.getValueAsync("/primitives/integer");
+		CompletableFuture<Object> string = provider.getValueAsync("/primitives/string");
+		assertEquals(123, integer.join());
+		assertEquals("TestValue", string.join());
+
+		provider.setValueAsync("/primitives/integer", 7).join();
+		assertEquals(7, BlockingModelProviderAdapter.await(provider.getValueAsync("/primitives/integer")));
+		client.close();
+	}
+}
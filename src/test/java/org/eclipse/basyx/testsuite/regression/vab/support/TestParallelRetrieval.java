@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.eclipse.basyx.vab.support.ParallelRetrieval;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ParallelRetrieval}
+ */
+public class TestParallelRetrieval {
+	private ExecutorService executor = Executors.newCachedThreadPool();
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testValuesAreOrdered() {
+		ParallelRetrieval retrieval = new ParallelRetrieval(executor, 4, 10000);
+		List<Integer> keys = Arrays.asList(5, 1, 4, 2, 3, 1);
+		List<Integer> values = retrieval.retrieve(keys, key -> {
+			sleep(key * 10);
+			return key * 2;
+		}).getValuesOrThrow();
+		assertEquals(Arrays.asList(10, 2, 8, 4, 6, 2), values);
+	}
+
+	@Test
+	public void testParallelismIsBounded() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		ParallelRetrieval retrieval = new ParallelRetrieval(executor, 2, 10000);
+		retrieval.retrieve(Arrays.asList(1, 2, 3, 4, 5, 6), key -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			sleep(20);
+			running.decrementAndGet();
+			return key;
+		});
+		assertEquals(2, maxRunning.get());
+	}
+
+	@Test
+	public void testPartialFailures() {
+		ParallelRetrieval retrieval = new ParallelRetrieval(executor, 4, 100);
+		ParallelRetrieval.Result<Integer, Integer> result = retrieval.retrieve(Arrays.asList(1, 2, 3), key -> {
+			if (key == 2) {
+				throw new ResourceNotFoundException("Not found");
+			} else if (key == 3) {
+				sleep(10000);
+			}
+			return key;
+		});
+
+		assertEquals(Arrays.asList(1), result.getValues());
+		assertEquals(2, result.getFailures().size());
+		assertTrue(result.getFailures().get(2) instanceof ResourceNotFoundException);
+		assertTrue(result.getFailures().get(3) instanceof ProviderException);
+
+		try {
+			result.getValuesOrThrow();
+			fail();
+		} catch (ResourceNotFoundException e) {
+			assertEquals(1, e.getSuppressed().length);
+		}
+	}
+
+	@Test
+	public void testSingleKeyTimeout() {
+		ParallelRetrieval retrieval = new ParallelRetrieval(executor, 4, 100);
+		ParallelRetrieval.Result<Integer, Integer> result = retrieval.retrieve(Arrays.asList(1), key -> {
+			sleep(10000);
+			return key;
+		});
+
+		assertTrue(result.getValues().isEmpty());
+		assertTrue(result.getFailures().get(1) instanceof ProviderException);
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
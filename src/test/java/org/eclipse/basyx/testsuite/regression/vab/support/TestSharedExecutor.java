@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.testsuite.regression.vab.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.vab.support.SharedExecutor;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SharedExecutor}
+ */
+public class TestSharedExecutor {
+	@Test
+	public void testPoolIsBounded() throws Exception {
+		int oldPoolSize = SharedExecutor.getPoolSize();
+		SharedExecutor.setPoolSize(2);
+		try {
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				futures.add(SharedExecutor.get().submit(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					release.await(10, TimeUnit.SECONDS);
+					running.decrementAndGet();
+					return Thread.currentThread().isDaemon();
+				}));
+			}
+
+			// Give queued tasks the chance to be started wrongly
+			Thread.sleep(200);
+			assertEquals(2, running.get());
+
+			release.countDown();
+			for (Future<Boolean> future : futures) {
+				assertTrue(future.get(10, TimeUnit.SECONDS));
+			}
+			assertEquals(2, maxRunning.get());
+		} finally {
+			SharedExecutor.setPoolSize(oldPoolSize);
+		}
+	}
+
+	/**
+	 * Tests if pending waits do not delay short calls
+	 */
+	@Test
+	public void testWaitsDoNotBlockShortCalls() throws Exception {
+		int oldPoolSize = SharedExecutor.getWaitPoolSize();
+		SharedExecutor.setWaitPoolSize(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			for (int i = 0; i < SharedExecutor.getPoolSize() + 1; i++) {
+				SharedExecutor.getForWaits().submit(() -> release.await(10, TimeUnit.SECONDS));
+			}
+			assertTrue(SharedExecutor.get().submit(() -> true).get(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			SharedExecutor.setWaitPoolSize(oldPoolSize);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPoolSize() {
+		SharedExecutor.setPoolSize(0);
+	}
+}